@@ -98,8 +98,11 @@ ALTER TABLE "public"."knowledge_base" ADD CONSTRAINT "knowledge_base_pkey" PRIMA
 CREATE INDEX "idx_kv_create_time" ON "public"."knowledge_vector" USING btree (
   "create_time" "pg_catalog"."timestamp_ops" ASC NULLS LAST
 );
-CREATE INDEX "idx_kv_embedding_hnsw" ON "public"."knowledge_vector" (
-  "embedding" "public"."vector_cosine_ops" ASC NULLS LAST
+-- 余弦距离 HNSW 索引，对应检索语句中的 ORDER BY embedding <=> ? LIMIT k；
+-- 检索带 knowledge_base_id = ANY(?) 过滤，过滤后结果可能不足 k 条，pgvector 0.8+ 建议开启迭代扫描：
+-- ALTER DATABASE <db> SET hnsw.iterative_scan = relaxed_order;
+CREATE INDEX "idx_kv_embedding_hnsw" ON "public"."knowledge_vector" USING hnsw (
+  "embedding" "public"."vector_cosine_ops"
 );
 CREATE INDEX "idx_kv_file_name" ON "public"."knowledge_vector" USING btree (
   "file_name" COLLATE "pg_catalog"."default" "pg_catalog"."text_ops" ASC NULLS LAST
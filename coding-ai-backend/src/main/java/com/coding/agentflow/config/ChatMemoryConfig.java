@@ -1,9 +1,15 @@
 package com.coding.agentflow.config;
 
+import com.coding.agentflow.repository.impl.RedisChatMemoryRepository;
+import com.coding.core.config.ChatMemoryProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.memory.MessageWindowChatMemory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
 /**
  * ChatMemory 配置类
@@ -12,15 +18,26 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class ChatMemoryConfig {
 
+    /**
+     * 对话记忆存储在 Redis，多实例共享，重启不丢失
+     */
+    @Bean
+    public ChatMemoryRepository chatMemoryRepository(StringRedisTemplate stringRedisTemplate,
+                                                     ObjectMapper objectMapper,
+                                                     ChatMemoryProperties chatMemoryProperties,
+                                                     MeterRegistry meterRegistry) {
+        return new RedisChatMemoryRepository(stringRedisTemplate, objectMapper, chatMemoryProperties, meterRegistry);
+    }
+
     /**
      * 创建 ChatMemory Bean
      * 使用 MessageWindowChatMemory，保留最近的消息窗口
-     * 后续可以替换为 Redis 或数据库实现
      */
     @Bean
-    public ChatMemory chatMemory() {
+    public ChatMemory chatMemory(ChatMemoryRepository chatMemoryRepository, ChatMemoryProperties chatMemoryProperties) {
         return MessageWindowChatMemory.builder()
-                .maxMessages(50)  // 默认保留最近50条消息
+                .chatMemoryRepository(chatMemoryRepository)
+                .maxMessages(chatMemoryProperties.getMaxMessages())
                 .build();
     }
 }
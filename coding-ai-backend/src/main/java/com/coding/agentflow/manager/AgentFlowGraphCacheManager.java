@@ -0,0 +1,125 @@
+package com.coding.agentflow.manager;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.coding.agentflow.model.model.AgentFlowConfig;
+import com.coding.agentflow.service.AgentFlowService;
+import com.coding.core.config.AgentFlowGraphCacheProperties;
+import com.coding.graph.core.exception.GraphStateException;
+import com.coding.graph.core.graph.CompiledGraph;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agent工作流编译图缓存管理器
+ * 按工作流ID + 配置内容摘要缓存不可变的 CompiledGraph，配置未变化时直接复用，
+ * 保存、删除工作流时失效；单次运行的数据通过 RunnableConfig 传入，不写入编译图
+ */
+@Slf4j
+@Component
+public class AgentFlowGraphCacheManager {
+
+    private static final String METRIC_PREFIX = "coding.agentflow.graph";
+
+    private final AgentFlowService agentFlowService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<GraphCacheKey, CompiledGraph> cache;
+
+    private final Timer compileTimer;
+
+    public AgentFlowGraphCacheManager(AgentFlowService agentFlowService,
+                                      ObjectMapper objectMapper,
+                                      AgentFlowGraphCacheProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.agentFlowService = agentFlowService;
+        this.objectMapper = objectMapper;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterAccess(properties.getExpireAfterAccessMinutes(), TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        this.compileTimer = Timer.builder(METRIC_PREFIX + ".compile")
+                .register(meterRegistry);
+        GuavaCacheMetrics.monitor(meterRegistry, cache, METRIC_PREFIX + ".cache");
+    }
+
+    /**
+     * 获取工作流的编译图，缓存未命中或配置变化时重新编译
+     *
+     * @param flowId 工作流ID
+     * @param agentFlowConfig 工作流配置
+     * @return 编译图
+     */
+    public CompiledGraph getCompiledGraph(Long flowId, AgentFlowConfig agentFlowConfig) throws GraphStateException {
+        GraphCacheKey key = new GraphCacheKey(flowId, contentHash(agentFlowConfig));
+        try {
+            return cache.get(key, () -> compile(flowId, agentFlowConfig));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof GraphStateException graphStateException) {
+                throw graphStateException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new GraphStateException("工作流编译失败: " + (cause != null ? cause.getMessage() : e.getMessage()));
+        }
+    }
+
+    /**
+     * 失效工作流的全部编译图
+     *
+     * @param flowId 工作流ID
+     */
+    public void evict(Long flowId) {
+        if (flowId == null) {
+            return;
+        }
+        cache.asMap().keySet().removeIf(key -> flowId.equals(key.flowId()));
+        log.debug("工作流编译图缓存已失效, flowId: {}", flowId);
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private CompiledGraph compile(Long flowId, AgentFlowConfig agentFlowConfig) throws GraphStateException {
+        long start = System.nanoTime();
+        try {
+            return agentFlowService.convertToCompiledGraph(agentFlowConfig);
+        } finally {
+            long costNanos = System.nanoTime() - start;
+            compileTimer.record(costNanos, TimeUnit.NANOSECONDS);
+            log.info("工作流编译完成, flowId: {}, 耗时: {}ms", flowId, TimeUnit.NANOSECONDS.toMillis(costNanos));
+        }
+    }
+
+    /**
+     * 配置内容摘要：节点、边任一变化都会得到新的缓存 key
+     */
+    private String contentHash(AgentFlowConfig agentFlowConfig) {
+        try {
+            return DigestUtil.sha256Hex(objectMapper.writeValueAsString(
+                    Arrays.asList(agentFlowConfig.getNodes(), agentFlowConfig.getEdges())));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("工作流配置序列化失败", e);
+        }
+    }
+
+    /**
+     * 缓存 key：工作流ID + 配置内容摘要
+     */
+    private record GraphCacheKey(Long flowId, String contentHash) {
+    }
+}
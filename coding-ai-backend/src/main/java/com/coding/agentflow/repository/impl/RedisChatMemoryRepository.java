@@ -0,0 +1,234 @@
+package com.coding.agentflow.repository.impl;
+
+import com.coding.core.config.ChatMemoryProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Redis 的对话记忆存储
+ * 每个会话对应一个 Redis List，元素为精简 JSON；写入时在同一个管道内完成写入、LTRIM 裁剪窗口与续期，
+ * 读取时在同一个管道内完成 LRANGE 与续期。
+ * 开启近端缓存后，保存时若新窗口只是在上次窗口之后追加（可能伴随头部淘汰），只 RPUSH 新增消息，
+ * 否则整体重写。消息只保留文本、工具调用与工具响应，不保留元数据与多媒体内容
+ */
+@Slf4j
+public class RedisChatMemoryRepository implements ChatMemoryRepository {
+
+    private static final String KEY_PREFIX = "chat:memory:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final ChatMemoryProperties properties;
+
+    /**
+     * 会话ID => 最近一次读写的消息窗口，未开启时为 null
+     */
+    private final Cache<String, List<Message>> nearCache;
+
+    public RedisChatMemoryRepository(StringRedisTemplate stringRedisTemplate,
+                                     ObjectMapper objectMapper,
+                                     ChatMemoryProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        if (properties.isNearCacheEnabled()) {
+            this.nearCache = CacheBuilder.newBuilder()
+                    .maximumSize(properties.getNearCacheMaximumSize())
+                    .expireAfterWrite(properties.getNearCacheExpireAfterWriteSeconds(), TimeUnit.SECONDS)
+                    .recordStats()
+                    .build();
+            GuavaCacheMetrics.monitor(meterRegistry, nearCache, "coding.agentflow.chat.memory.near.cache");
+        } else {
+            this.nearCache = null;
+        }
+    }
+
+    @Override
+    public List<String> findConversationIds() {
+        List<String> conversationIds = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(500).build();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            cursor.forEachRemaining(key -> conversationIds.add(key.substring(KEY_PREFIX.length())));
+        }
+        return conversationIds;
+    }
+
+    @Override
+    public List<Message> findByConversationId(String conversationId) {
+        if (nearCache != null) {
+            List<Message> cached = nearCache.getIfPresent(conversationId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        String key = KEY_PREFIX + conversationId;
+        long ttlSeconds = TimeUnit.MINUTES.toSeconds(properties.getTtlMinutes());
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.lRange(key, 0, -1);
+            redis.expire(key, ttlSeconds);
+            return null;
+        });
+
+        List<Message> messages = new ArrayList<>();
+        if (!results.isEmpty() && results.get(0) instanceof List<?> values) {
+            for (Object value : values) {
+                Message message = deserialize(value instanceof byte[] bytes
+                        ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(value));
+                if (message != null) {
+                    messages.add(message);
+                }
+            }
+        }
+        List<Message> snapshot = Collections.unmodifiableList(messages);
+        if (nearCache != null) {
+            nearCache.put(conversationId, snapshot);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public void saveAll(String conversationId, List<Message> messages) {
+        String key = KEY_PREFIX + conversationId;
+        int maxMessages = properties.getMaxMessages();
+        List<Message> window = messages.size() > maxMessages
+                ? messages.subList(messages.size() - maxMessages, messages.size())
+                : messages;
+        if (window.isEmpty()) {
+            deleteByConversationId(conversationId);
+            return;
+        }
+
+        List<Message> previous = nearCache != null ? nearCache.getIfPresent(conversationId) : null;
+        int appendFrom = previous != null ? appendOffset(previous, window) : -1;
+        boolean rewrite = appendFrom < 0;
+        List<Message> toPush = rewrite ? window : window.subList(appendFrom, window.size());
+        String[] values = toPush.stream().map(this::serialize).toArray(String[]::new);
+        long ttlSeconds = TimeUnit.MINUTES.toSeconds(properties.getTtlMinutes());
+        int windowSize = window.size();
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            if (rewrite) {
+                redis.del(key);
+            }
+            if (values.length > 0) {
+                redis.rPush(key, values);
+            }
+            // 服务端裁剪，只保留窗口内的最新消息
+            redis.lTrim(key, -windowSize, -1);
+            redis.expire(key, ttlSeconds);
+            return null;
+        });
+
+        if (nearCache != null) {
+            nearCache.put(conversationId, List.copyOf(window));
+        }
+    }
+
+    @Override
+    public void deleteByConversationId(String conversationId) {
+        stringRedisTemplate.delete(KEY_PREFIX + conversationId);
+        if (nearCache != null) {
+            nearCache.invalidate(conversationId);
+        }
+    }
+
+    /**
+     * 新窗口以上次窗口的某个非空后缀开头时（即上次窗口头部被淘汰、尾部追加了新消息），
+     * 返回需要追加的起始下标，否则返回 -1
+     */
+    private static int appendOffset(List<Message> previous, List<Message> window) {
+        for (int dropped = 0; dropped < previous.size(); dropped++) {
+            int overlap = previous.size() - dropped;
+            if (overlap <= window.size()
+                    && previous.subList(dropped, previous.size()).equals(window.subList(0, overlap))) {
+                return overlap;
+            }
+        }
+        return -1;
+    }
+
+    // ==================== 序列化 ====================
+
+    private String serialize(Message message) {
+        StoredMessage stored = switch (message.getMessageType()) {
+            case ASSISTANT -> {
+                AssistantMessage assistantMessage = (AssistantMessage) message;
+                yield new StoredMessage("A", assistantMessage.getText(),
+                        assistantMessage.hasToolCalls() ? assistantMessage.getToolCalls() : null, null);
+            }
+            case TOOL -> new StoredMessage("T", null, null, ((ToolResponseMessage) message).getResponses());
+            case SYSTEM -> new StoredMessage("S", message.getText(), null, null);
+            default -> new StoredMessage("U", message.getText(), null, null);
+        };
+        try {
+            return objectMapper.writeValueAsString(stored);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("对话记忆序列化失败", e);
+        }
+    }
+
+    private Message deserialize(String json) {
+        try {
+            StoredMessage stored = objectMapper.readValue(json, StoredMessage.class);
+            String text = stored.c() != null ? stored.c() : "";
+            return switch (stored.t()) {
+                case "A" -> AssistantMessage.builder()
+                        .content(text)
+                        .toolCalls(stored.tc() != null ? stored.tc() : List.of())
+                        .build();
+                case "T" -> ToolResponseMessage.builder()
+                        .responses(stored.tr() != null ? stored.tr() : List.of())
+                        .build();
+                case "S" -> new SystemMessage(text);
+                default -> new UserMessage(text);
+            };
+        } catch (Exception e) {
+            log.error("对话记忆反序列化失败，已跳过: {}", json, e);
+            return null;
+        }
+    }
+
+    /**
+     * 精简存储结构
+     *
+     * @param t 消息类型：U、A、S、T
+     * @param c 文本内容
+     * @param tc 工具调用
+     * @param tr 工具响应
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    record StoredMessage(String t,
+                         String c,
+                         List<AssistantMessage.ToolCall> tc,
+                         List<ToolResponseMessage.ToolResponse> tr) {
+    }
+}
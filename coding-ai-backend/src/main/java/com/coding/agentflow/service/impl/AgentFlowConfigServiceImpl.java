@@ -2,6 +2,7 @@ package com.coding.agentflow.service.impl;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.coding.agentflow.manager.AgentFlowGraphCacheManager;
 import com.coding.agentflow.mapper.AgentFlowConfigMapper;
 import com.coding.agentflow.model.entity.AgentFlowConfig;
 import com.coding.agentflow.model.request.AgentFlowConfigRequest;
@@ -25,6 +26,7 @@ public class AgentFlowConfigServiceImpl extends ServiceImpl<AgentFlowConfigMappe
 
     private final AgentFlowConfigRepository agentFlowConfigRepository;
     private final ObjectMapper objectMapper;
+    private final AgentFlowGraphCacheManager agentFlowGraphCacheManager;
 
     @Override
     public Page<AgentFlowConfigResponse> pageAgentFlows(Integer current, Integer size, String name) {
@@ -63,13 +65,16 @@ public class AgentFlowConfigServiceImpl extends ServiceImpl<AgentFlowConfigMappe
             if (!updated) {
                 throw new RuntimeException("更新失败");
             }
+            agentFlowGraphCacheManager.evict(config.getId());
             return config.getId();
         }
     }
 
     @Override
     public Boolean removeAgentFlow(Long id) {
-        return this.removeById(id);
+        boolean removed = this.removeById(id);
+        agentFlowGraphCacheManager.evict(id);
+        return removed;
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.coding.agentflow.service.impl;
 
+import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.hutool.json.JSONUtil;
 import com.coding.agentflow.model.entity.AgentFlowInstance;
 import com.coding.agentflow.model.entity.AgentFlowNodeInstance;
@@ -184,14 +185,16 @@ public class AgentFlowServiceImpl implements AgentFlowService {
      * @throws GraphStateException 图状态异常
      */
     private CompiledGraph compiledGraph(StateGraph stateGraph, AgentFlowConfig agentFlowConfig) throws GraphStateException {
-        Map<String, Node> nodeMap = agentFlowConfig.getNodes().stream()
-                .collect(Collectors.toMap(Node::getId, Function.identity()));
+        // 监听器只持有由配置内容决定的不可变节点映射，编译图可被缓存复用；单次运行的数据均从 RunnableConfig 读取
+        Map<String, Node> nodeMap = Map.copyOf(agentFlowConfig.getNodes().stream()
+                .collect(Collectors.toMap(Node::getId, Function.identity())));
         return stateGraph.compile(CompileConfig.builder()
                 .withLifecycleListener(new GraphLifecycleListener() {
                     /** 工作流生命周期 **/
                     @Override
-                    public void onStart(String nodeId, Map<String, Object> state, RunnableConfig config) {
-                        log.info("AgentFlow Lifecycle => status: {}, nodeId: {}, config: {}", FlowStatusEnum.STARTED, nodeId, config);
+                    public void onStart(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
+                        log.info("AgentFlow Lifecycle => status: {}, nodeId: {}, config: {}, curTime: {}",
+                                FlowStatusEnum.STARTED, nodeId, config, curTime);
                         if (config != null && config.getMetadata() != null) {
                             Long instanceId = (Long) config.getMetadata().get("instanceId");
                             Long configId = (Long) config.getMetadata().get("configId");
@@ -201,18 +204,20 @@ public class AgentFlowServiceImpl implements AgentFlowService {
                                 agentFlowInstanceRepository.saveFlowInstance(AgentFlowInstance.builder()
                                         .id(instanceId)
                                         .agentConfigId(configId)
-                                        .startTime(LocalDateTime.now())
+                                        // 监听器异步分发，使用事件发生时间而不是处理时间
+                                        .startTime(LocalDateTimeUtil.of(curTime))
                                         .inputData(JSONUtil.toJsonStr(Map.of("messages", prompt)))
                                         .status(FlowStatusEnum.RUNNING.name())
                                         .build());
                             }
                         }
-                        GraphLifecycleListener.super.onStart(nodeId, state, config);
+                        GraphLifecycleListener.super.onStart(nodeId, state, config, curTime);
                     }
 
                     @Override
-                    public void onComplete(String nodeId, Map<String, Object> state, RunnableConfig config) {
-                        log.info("AgentFlow Lifecycle => status: {}, nodeId: {}, config: {}", FlowStatusEnum.SUCCESS, nodeId, config);
+                    public void onComplete(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
+                        log.info("AgentFlow Lifecycle => status: {}, nodeId: {}, config: {}, curTime: {}",
+                                FlowStatusEnum.SUCCESS, nodeId, config, curTime);
 
                         // 持久化：更新工作流实例状态为 COMPLETED
                         if (config != null && config.getMetadata() != null) {
@@ -222,19 +227,20 @@ public class AgentFlowServiceImpl implements AgentFlowService {
                                 // 持久化：创建工作流实例
                                 agentFlowInstanceRepository.updateFlowInstance(AgentFlowInstance.builder()
                                         .id(instanceId)
-                                        .endTime(LocalDateTime.now())
+                                        .endTime(LocalDateTimeUtil.of(curTime))
                                         .status(FlowStatusEnum.SUCCESS.name())
                                         .build());
                             }
                         }
 
-                        GraphLifecycleListener.super.onComplete(nodeId, state, config);
+                        GraphLifecycleListener.super.onComplete(nodeId, state, config, curTime);
                     }
 
                     @Override
-                    public void onError(String nodeId, Map<String, Object> state, Throwable ex, RunnableConfig config) {
-                        log.error("AgentFlow Lifecycle => status: {}, nodeId: {}, config: {}, exception: {}",
-                                FlowStatusEnum.FAILED, nodeId, config, ex.getMessage(), ex);
+                    public void onError(String nodeId, Map<String, Object> state, Throwable ex, RunnableConfig config,
+                                        Long curTime) {
+                        log.error("AgentFlow Lifecycle => status: {}, nodeId: {}, config: {}, curTime: {}, exception: {}",
+                                FlowStatusEnum.FAILED, nodeId, config, curTime, ex.getMessage(), ex);
 
                         // 持久化：更新工作流实例状态为 FAILED
                         if (config != null && config.getMetadata() != null) {
@@ -244,13 +250,13 @@ public class AgentFlowServiceImpl implements AgentFlowService {
                                 // 持久化：创建工作流实例
                                 agentFlowInstanceRepository.updateFlowInstance(AgentFlowInstance.builder()
                                         .id(instanceId)
-                                        .endTime(LocalDateTime.now())
+                                        .endTime(LocalDateTimeUtil.of(curTime))
                                         .status(FlowStatusEnum.FAILED.name())
                                         .build());
                             }
                         }
 
-                        GraphLifecycleListener.super.onError(nodeId, state, ex, config);
+                        GraphLifecycleListener.super.onError(nodeId, state, ex, config, curTime);
                     }
 
                     /** 节点生命周期 **/
@@ -268,10 +274,12 @@ public class AgentFlowServiceImpl implements AgentFlowService {
                             AgentFlowNodeInstance nodeInstance = new AgentFlowNodeInstance();
                             nodeInstance.setAgentInstanceId(instanceId);
                             nodeInstance.setNodeId(nodeId);
-                            nodeInstance.setNodeType(node.getType().name());
+                            nodeInstance.setNodeType(node != null ? node.getType().name() : null);
                             nodeInstance.setStatus(NodeStatusEnum.RUNNING.name());
-                            nodeInstance.setStartTime(LocalDateTime.now());
-                            nodeInstance.setCreateTime(LocalDateTime.now());
+                            // 监听器异步分发，使用事件发生时间而不是处理时间
+                            LocalDateTime startTime = LocalDateTimeUtil.of(curTime);
+                            nodeInstance.setStartTime(startTime);
+                            nodeInstance.setCreateTime(startTime);
 
                             agentFlowInstanceRepository.saveNodeInstance(nodeInstance);
                         }
@@ -291,7 +299,7 @@ public class AgentFlowServiceImpl implements AgentFlowService {
                             AgentFlowNodeInstance nodeInstance = agentFlowInstanceRepository.getNodeInstance(instanceId, nodeId);
                             if (nodeInstance != null) {
                                 nodeInstance.setStatus(NodeStatusEnum.SUCCESS.name());
-                                nodeInstance.setEndTime(LocalDateTime.now());
+                                nodeInstance.setEndTime(LocalDateTimeUtil.of(curTime));
 
                                 try {
                                     nodeInstance.setOutputData(objectMapper.writeValueAsString(state));
@@ -306,6 +314,8 @@ public class AgentFlowServiceImpl implements AgentFlowService {
                         GraphLifecycleListener.super.after(nodeId, state, config, curTime);
                     }
                 })
+                // 持久化监听器涉及数据库写入，异步分发避免阻塞图执行
+                .withAsyncListenerDispatch()
                 .build());
     }
 
@@ -291,6 +291,25 @@ public abstract class AbstractNode implements NodeExecutor {
         return singleValue != null ? Collections.singletonList(singleValue) : Collections.emptyList();
     }
 
+    /**
+     * 从节点配置中获取长整型列表参数，无法解析的元素记录日志后忽略
+     *
+     * @param node 节点配置
+     * @param key 参数键
+     * @return 参数值
+     */
+    protected List<Long> getConfigParamAsLongList(Node node, String key) {
+        List<Long> result = new ArrayList<>();
+        for (String item : getConfigParamAsList(node, key)) {
+            try {
+                result.add(Long.parseLong(item.trim()));
+            } catch (NumberFormatException e) {
+                log.error("参数格式错误，忽略该值: key={}, value={}", key, item);
+            }
+        }
+        return result;
+    }
+
     /**
      * 安全转为字符串，避免 null 和异常
      */
@@ -6,8 +6,8 @@ import com.coding.agentflow.service.node.AbstractNode;
 import com.coding.agentflow.service.tool.ToolManager;
 import com.coding.agentflow.utils.StreamingToolCallMerger;
 import com.coding.core.model.model.KnowledgeVectorModel;
+import com.coding.core.service.KnowledgeRetrievalService;
 import com.coding.graph.core.state.OverAllState;
-import com.coding.core.repository.KnowledgeVectorRepository;
 import com.coding.graph.core.generator.streaming.StreamingChatGenerator;
 import com.coding.workflow.utils.AssertUtil;
 import com.google.common.collect.Sets;
@@ -25,13 +25,8 @@ import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingRequest;
-import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.ai.openai.OpenAiChatOptions;
-import org.springframework.ai.openai.OpenAiEmbeddingOptions;
 import org.springframework.ai.tool.ToolCallback;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
@@ -45,24 +40,17 @@ import java.util.*;
 @Component
 public class AgentNode extends AbstractNode {
 
-    private final Integer DEFAULT_DIMENSIONS;
-
     private final ChatModel chatModel;
-    private final EmbeddingModel embeddingModel;
-    private final KnowledgeVectorRepository knowledgeVectorRepository;
+    private final KnowledgeRetrievalService knowledgeRetrievalService;
     private final ToolManager toolManager;
     private final ChatMemory chatMemory;
 
-    public AgentNode(@Value("${spring.ai.openai.embedding.options.dimensions:1024}") Integer defaultDimensions,
-                     ChatModel chatModel,
-                     EmbeddingModel embeddingModel,
-                     KnowledgeVectorRepository knowledgeVectorRepository,
+    public AgentNode(ChatModel chatModel,
+                     KnowledgeRetrievalService knowledgeRetrievalService,
                      ToolManager toolManager,
                      ChatMemory chatMemory) {
-        this.DEFAULT_DIMENSIONS = defaultDimensions;
         this.chatModel = chatModel;
-        this.embeddingModel = embeddingModel;
-        this.knowledgeVectorRepository = knowledgeVectorRepository;
+        this.knowledgeRetrievalService = knowledgeRetrievalService;
         this.toolManager = toolManager;
         this.chatMemory = chatMemory;
     }
@@ -76,7 +64,7 @@ public class AgentNode extends AbstractNode {
         String chatModelName = getConfigParamAsString(node, "chatModel", "qwen-plus");
         Boolean isStream = getConfigParamAsBoolean(node, "isStream", Boolean.TRUE);
         // 知识库相关参数
-        List<String> knowledgeBaseIds = getConfigParamAsList(node, "knowledgeBaseIds");
+        List<Long> knowledgeBaseIds = getConfigParamAsLongList(node, "knowledgeBaseIds");
         Integer topK = getConfigParamAsInteger(node, "topK", 5);
         String embeddingModelName = getConfigParamAsString(node, "embeddingModel", "");
         String rerankModelName = getConfigParamAsString(node, "rerankModel", "");
@@ -473,60 +461,21 @@ public class AgentNode extends AbstractNode {
     /**
      * 检索模型知识库并构建RAG上下文
      */
-    private String retrieveRagContext(List<String> knowledgeBaseIds, String embeddingModelName, String rerankModelName, String finalUserPrompt, Integer topK) {
+    private String retrieveRagContext(List<Long> knowledgeBaseIds, String embeddingModelName, String rerankModelName, String finalUserPrompt, Integer topK) {
         if (knowledgeBaseIds == null || knowledgeBaseIds.isEmpty() || StringUtils.isBlank(finalUserPrompt)) {
             return "";
         }
 
         try {
-            // 1. 使用嵌入模型将用户查询转换为向量
-            EmbeddingRequest embeddingRequest = new EmbeddingRequest(List.of(finalUserPrompt), OpenAiEmbeddingOptions.builder()
-                    .model(embeddingModelName)
-                    .dimensions(DEFAULT_DIMENSIONS)
-                    .build());
-            EmbeddingResponse embeddingResponse = embeddingModel.call(embeddingRequest);
-            if (embeddingResponse == null || embeddingResponse.getResults().isEmpty()) {
-                log.warn("嵌入模型返回空结果");
-                return StringUtils.EMPTY;
-            }
-
-            // 获取查询向量
-            float[] queryEmbedding = embeddingResponse.getResult().getOutput();
-            StringBuilder embeddingBuilder = new StringBuilder("[");
-            for (int i = 0; i < queryEmbedding.length; i++) {
-                if (i > 0) embeddingBuilder.append(",");
-                embeddingBuilder.append(queryEmbedding[i]);
-            }
-            embeddingBuilder.append("]");
-            String embeddingStr = embeddingBuilder.toString();
-
-            // 2. 从每个知识库中检索相关文档
-            List<KnowledgeVectorModel> allRetrievedDocs = new ArrayList<>();
-            for (String knowledgeBaseIdStr : knowledgeBaseIds) {
-                try {
-                    Long knowledgeBaseId = Long.parseLong(knowledgeBaseIdStr);
-                    List<KnowledgeVectorModel> docs = knowledgeVectorRepository.similaritySearch(
-                            knowledgeBaseId, embeddingStr, topK);
-                    if (docs != null && !docs.isEmpty()) {
-                        allRetrievedDocs.addAll(docs);
-                    }
-                } catch (NumberFormatException e) {
-                    log.error("知识库ID格式错误: {}", knowledgeBaseIdStr, e);
-                }
-            }
-
-            // 3. 如果没有检索到文档
-            if (allRetrievedDocs.isEmpty()) {
+            // 1. 跨知识库检索全局 topK
+            // TODO: 重排序 (rerank)
+            List<KnowledgeVectorModel> topDocs = knowledgeRetrievalService.retrieve(
+                    finalUserPrompt, embeddingModelName, knowledgeBaseIds, topK);
+            if (topDocs.isEmpty()) {
                 return StringUtils.EMPTY;
             }
 
-            // 4. TODO: 重排序 (rerank)
-            List<KnowledgeVectorModel> topDocs = allRetrievedDocs.stream()
-                    .sorted(Comparator.comparing(KnowledgeVectorModel::getSimilarity).reversed())
-                    .limit(topK)
-                    .toList();
-
-            // 5. 构建RAG上下文
+            // 2. 构建RAG上下文
             StringBuilder contextBuilder = new StringBuilder();
             contextBuilder.append("以下是从知识库中检索到的相关信息，请参考这些信息来回答用户的问题：\n\n");
 
@@ -4,15 +4,10 @@ import com.coding.agentflow.model.enums.NodeTypeEnum;
 import com.coding.agentflow.model.model.Node;
 import com.coding.agentflow.service.node.AbstractNode;
 import com.coding.core.model.model.KnowledgeVectorModel;
+import com.coding.core.service.KnowledgeRetrievalService;
 import com.coding.graph.core.state.OverAllState;
-import com.coding.core.repository.KnowledgeVectorRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingRequest;
-import org.springframework.ai.embedding.EmbeddingResponse;
-import org.springframework.ai.openai.OpenAiEmbeddingOptions;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
@@ -23,23 +18,16 @@ import java.util.stream.Collectors;
  * 从向量数据库或知识库中检索相关信息
  * 1. 支持多个PGVector数据库
  * 2. 仅支持嵌入模型
- * 3. 重排序(当存在多个向量数据库时)
+ * 3. 多个知识库在检索服务中合并为全局 topK
  */
 @Slf4j
 @Component
 public class RetrieverNode extends AbstractNode {
 
-    private final Integer DEFAULT_DIMENSIONS;
-    private final EmbeddingModel embeddingModel;
-    private final KnowledgeVectorRepository knowledgeVectorRepository;
-
-    public RetrieverNode(
-            @Value("${spring.ai.openai.embedding.options.dimensions:1536}") Integer defaultDimensions,
-            EmbeddingModel embeddingModel,
-            KnowledgeVectorRepository knowledgeVectorRepository) {
-        this.DEFAULT_DIMENSIONS = defaultDimensions;
-        this.embeddingModel = embeddingModel;
-        this.knowledgeVectorRepository = knowledgeVectorRepository;
+    private final KnowledgeRetrievalService knowledgeRetrievalService;
+
+    public RetrieverNode(KnowledgeRetrievalService knowledgeRetrievalService) {
+        this.knowledgeRetrievalService = knowledgeRetrievalService;
     }
 
     @Override
@@ -47,7 +35,7 @@ public class RetrieverNode extends AbstractNode {
         // 获取配置参数
         String query = getConfigParamAsString(node, "query");
         Integer topK = getConfigParamAsInteger(node, "topK", 5);
-        List<String> knowledgeBaseIds = getConfigParamAsList(node, "knowledgeBaseId");
+        List<Long> knowledgeBaseIds = getConfigParamAsLongList(node, "knowledgeBaseId");
         String embeddingModelName = getConfigParamAsString(node, "embeddingModel");
         String rerankModelName = getConfigParamAsString(node, "rerankModel");
 
@@ -78,16 +66,16 @@ public class RetrieverNode extends AbstractNode {
     }
 
     /**
-     * 执行检索 - 从多个知识库中检索相关文档
+     * 执行检索 - 从多个知识库中检索相关文档，由检索服务合并为全局 topK
      * 
      * @param query 查询文本
-     * @param topK 每个知识库返回的文档数量
+     * @param topK 返回的文档数量
      * @param knowledgeBaseIds 知识库ID列表
      * @param embeddingModelName 嵌入模型名称
      * @return 检索到的文档列表
      */
     private List<Map<String, Object>> performRetrieval(String query, Integer topK, 
-                                                        List<String> knowledgeBaseIds, 
+                                                        List<Long> knowledgeBaseIds, 
                                                         String embeddingModelName) {
         if (StringUtils.isBlank(query)) {
             log.warn("查询文本为空，返回空结果");
@@ -100,55 +88,14 @@ public class RetrieverNode extends AbstractNode {
         }
 
         try {
-            // 1. 使用嵌入模型将查询转换为向量
-            EmbeddingRequest embeddingRequest = new EmbeddingRequest(
-                    List.of(query), 
-                    OpenAiEmbeddingOptions.builder()
-                            .model(embeddingModelName)
-                            .dimensions(DEFAULT_DIMENSIONS)
-                            .build()
-            );
-            
-            EmbeddingResponse embeddingResponse = embeddingModel.call(embeddingRequest);
-            if (embeddingResponse == null || embeddingResponse.getResults().isEmpty()) {
-                log.warn("嵌入模型返回空结果");
-                return Collections.emptyList();
-            }
-
-            // 2. 获取查询向量并转换为字符串格式
-            float[] queryEmbedding = embeddingResponse.getResult().getOutput();
-            String embeddingStr = convertEmbeddingToString(queryEmbedding);
-
-            // 3. 从每个知识库中检索相关文档
-            List<KnowledgeVectorModel> allRetrievedDocs = new ArrayList<>();
-            for (String knowledgeBaseIdStr : knowledgeBaseIds) {
-                try {
-                    Long knowledgeBaseId = Long.parseLong(knowledgeBaseIdStr);
-                    List<KnowledgeVectorModel> docs = knowledgeVectorRepository.similaritySearch(
-                            knowledgeBaseId, embeddingStr, topK);
-                    
-                    if (docs != null && !docs.isEmpty()) {
-                        log.info("从知识库 {} 检索到 {} 个文档", knowledgeBaseId, docs.size());
-                        allRetrievedDocs.addAll(docs);
-                    }
-                } catch (NumberFormatException e) {
-                    log.error("知识库ID格式错误: {}", knowledgeBaseIdStr, e);
-                }
-            }
-
-            // 4. 如果没有检索到文档
-            if (allRetrievedDocs.isEmpty()) {
+            List<KnowledgeVectorModel> topDocs = knowledgeRetrievalService.retrieve(
+                    query, embeddingModelName, knowledgeBaseIds, topK);
+            if (topDocs.isEmpty()) {
                 log.info("未从知识库中检索到相关文档");
                 return Collections.emptyList();
             }
 
-            // 5. 按相似度排序并限制返回数量
-            List<KnowledgeVectorModel> topDocs = allRetrievedDocs.stream()
-                    .sorted(Comparator.comparing(KnowledgeVectorModel::getSimilarity).reversed())
-                    .limit(topK)
-                    .collect(Collectors.toList());
-
-            // 6. 转换为Map格式返回
+            // 转换为Map格式返回
             return topDocs.stream()
                     .map(this::convertToDocumentMap)
                     .collect(Collectors.toList());
@@ -159,19 +106,6 @@ public class RetrieverNode extends AbstractNode {
         }
     }
 
-    /**
-     * 将嵌入向量转换为字符串格式
-     */
-    private String convertEmbeddingToString(float[] embedding) {
-        StringBuilder builder = new StringBuilder("[");
-        for (int i = 0; i < embedding.length; i++) {
-            if (i > 0) builder.append(",");
-            builder.append(embedding[i]);
-        }
-        builder.append("]");
-        return builder.toString();
-    }
-
     /**
      * 将KnowledgeVectorDO转换为Map格式
      */
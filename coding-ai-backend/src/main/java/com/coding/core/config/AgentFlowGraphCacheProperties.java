@@ -0,0 +1,24 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Agent工作流编译图缓存配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "agentflow.graph-cache")
+public class AgentFlowGraphCacheProperties {
+
+    /**
+     * 缓存的编译图最大数量
+     */
+    private long maximumSize = 200;
+
+    /**
+     * 编译图在最后一次访问后的过期时间（分钟）
+     */
+    private long expireAfterAccessMinutes = 30;
+}
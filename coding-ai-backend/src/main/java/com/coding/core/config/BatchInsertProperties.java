@@ -0,0 +1,21 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 批量写库配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "persistence.batch")
+public class BatchInsertProperties {
+
+    /**
+     * 每批写入的行数：JDBC 批处理每次 executeBatch 的行数，多行 INSERT 每条语句的行数；
+     * 多行 INSERT 需保证 行数 × 列数 不超过数据库单语句参数上限（PostgreSQL 为 65535），
+     * 知识向量多行插入（10 列）超出时按每条语句 6553 行截断
+     */
+    private int chunkSize = 500;
+}
@@ -0,0 +1,44 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 会话历史缓存与恢复配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "chat.history")
+public class ChatHistoryProperties {
+
+    /**
+     * 是否缓存已解析的会话历史
+     */
+    private boolean cacheEnabled = true;
+
+    /**
+     * 缓存占用上限（MB），按消息文本长度估算，超出后按最近最少使用淘汰
+     */
+    private long maximumWeightMb = 64;
+
+    /**
+     * 会话空闲多久后从缓存淘汰（分钟）
+     */
+    private long expireAfterAccessMinutes = 30;
+
+    /**
+     * 恢复模式：FULL 发送全部历史；WINDOW 只发送最近 windowSize 条
+     */
+    private RestoreMode restoreMode = RestoreMode.FULL;
+
+    /**
+     * WINDOW 模式下发送给模型的最大历史消息数
+     */
+    private int windowSize = 50;
+
+    public enum RestoreMode {
+        FULL,
+        WINDOW
+    }
+}
@@ -0,0 +1,39 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Agent工作流对话记忆配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "agentflow.chat-memory")
+public class ChatMemoryProperties {
+
+    /**
+     * 每个会话保留的最大消息数，Redis 端同步裁剪
+     */
+    private int maxMessages = 50;
+
+    /**
+     * 会话记忆在最后一次读写后的存活时间（分钟）
+     */
+    private long ttlMinutes = 1440;
+
+    /**
+     * 是否启用本地近端缓存；多实例部署且请求不固定路由到同一实例时不建议开启
+     */
+    private boolean nearCacheEnabled = false;
+
+    /**
+     * 近端缓存最大会话数
+     */
+    private long nearCacheMaximumSize = 1000;
+
+    /**
+     * 近端缓存写入后的过期时间（秒）
+     */
+    private long nearCacheExpireAfterWriteSeconds = 60;
+}
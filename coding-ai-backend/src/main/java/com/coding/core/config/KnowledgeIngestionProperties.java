@@ -0,0 +1,54 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 知识库文件导入配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "knowledge.ingestion")
+public class KnowledgeIngestionProperties {
+
+    /**
+     * 文档分块大小（token）
+     */
+    private int chunkSize = 800;
+
+    /**
+     * 单次向量化请求的分块数，需不超过模型服务的批量上限
+     */
+    private int embeddingBatchSize = 10;
+
+    /**
+     * 单个导入任务同时进行的向量化请求数
+     */
+    private int embeddingConcurrency = 4;
+
+    /**
+     * 每次写入数据库的分块数
+     */
+    private int insertBatchSize = 200;
+
+    /**
+     * 同时执行的导入任务数
+     */
+    private int workerThreads = 2;
+
+    /**
+     * 导入任务排队容量，超出后拒绝上传
+     */
+    private int jobQueueCapacity = 50;
+
+    /**
+     * 向量化线程数，所有导入任务共享
+     */
+    private int embeddingPoolSize = 8;
+
+    /**
+     * 已结束任务的进度保留时间（分钟）
+     */
+    private long jobRetentionMinutes = 60;
+}
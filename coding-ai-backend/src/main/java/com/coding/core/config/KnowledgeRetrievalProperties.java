@@ -0,0 +1,35 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 知识库检索配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "knowledge.retrieval")
+public class KnowledgeRetrievalProperties {
+
+    /**
+     * 检索策略：SINGLE_QUERY 单条语句跨知识库检索并在数据库内合并 topK；
+     * FAN_OUT 按知识库并行检索后在内存中合并，适用于向量表按知识库分区或分库的部署
+     */
+    private Strategy strategy = Strategy.SINGLE_QUERY;
+
+    /**
+     * FAN_OUT 策略的并行线程数
+     */
+    private int fanOutThreads = 8;
+
+    /**
+     * FAN_OUT 策略单个知识库的检索超时（毫秒）
+     */
+    private long fanOutTimeoutMs = 5000;
+
+    public enum Strategy {
+        SINGLE_QUERY,
+        FAN_OUT
+    }
+}
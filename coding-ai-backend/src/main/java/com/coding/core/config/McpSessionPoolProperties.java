@@ -0,0 +1,44 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MCP 客户端会话池配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "mcp.session-pool")
+public class McpSessionPoolProperties {
+
+    /**
+     * 每个 MCP 服务器最多同时保持的会话数
+     */
+    private int maxSessionsPerServer = 4;
+
+    /**
+     * 获取会话的最长等待时间（毫秒），超时后拒绝调用
+     */
+    private long borrowTimeoutMs = 10000;
+
+    /**
+     * 会话空闲超过该时间（秒）后关闭
+     */
+    private long idleTimeoutSeconds = 300;
+
+    /**
+     * 空闲会话健康检查（ping）间隔（秒）
+     */
+    private long healthCheckIntervalSeconds = 60;
+
+    /**
+     * 请求与初始化超时（秒）
+     */
+    private long requestTimeoutSeconds = 10;
+
+    /**
+     * 工具列表缓存时间（秒）
+     */
+    private long toolsCacheTtlSeconds = 600;
+}
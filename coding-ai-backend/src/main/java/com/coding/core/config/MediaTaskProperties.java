@@ -0,0 +1,68 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 多媒体生成任务（图像、音乐、视频）异步提交与轮询配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "workflow.media-task")
+public class MediaTaskProperties {
+
+    /**
+     * 首次轮询延迟（毫秒）
+     */
+    private long initialPollIntervalMs = 2000;
+
+    /**
+     * 轮询间隔上限（毫秒）
+     */
+    private long maxPollIntervalMs = 15000;
+
+    /**
+     * 轮询间隔退避倍数
+     */
+    private double backoffMultiplier = 1.5;
+
+    /**
+     * 单个任务最长等待时间（毫秒），超时后节点失败
+     */
+    private long taskTimeoutMs = 10 * 60 * 1000;
+
+    /**
+     * 调度轮询的线程数
+     */
+    private int schedulerThreads = 1;
+
+    /**
+     * 执行提交、查询等远程调用的线程数；不支持任务接口的供应商的同步调用也在此执行
+     */
+    private int callPoolSize = 16;
+
+    /**
+     * 远程调用排队容量，超出后拒绝新的任务
+     */
+    private int callQueueCapacity = 500;
+
+    /**
+     * 本地模拟供应商配置
+     */
+    private Local local = new Local();
+
+    @Data
+    public static class Local {
+
+        /**
+         * 是否注册本地模拟供应商（供应商名称 Local），用于测试和压测
+         */
+        private boolean enabled = false;
+
+        /**
+         * 模拟任务耗时（毫秒）
+         */
+        private long latencyMs = 5000;
+    }
+}
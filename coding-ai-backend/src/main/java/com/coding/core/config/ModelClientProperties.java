@@ -0,0 +1,34 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 模型客户端缓存与 HTTP 连接配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "workflow.model-client")
+public class ModelClientProperties {
+
+    /**
+     * 建立连接超时（毫秒）
+     */
+    private long connectTimeoutMs = 10000;
+
+    /**
+     * 同步调用读取超时（毫秒）
+     */
+    private long readTimeoutMs = 180000;
+
+    /**
+     * 缓存的模型客户端最大数量
+     */
+    private long maximumSize = 100;
+
+    /**
+     * 模型客户端在最后一次访问后的过期时间（分钟）
+     */
+    private long expireAfterAccessMinutes = 60;
+}
@@ -0,0 +1,39 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 查询向量缓存配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "knowledge.query-embedding-cache")
+public class QueryEmbeddingCacheProperties {
+
+    /**
+     * 是否启用缓存，关闭后每次检索都调用嵌入模型
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地缓存最大条目数
+     */
+    private long localMaximumSize = 10000;
+
+    /**
+     * 本地缓存访问过期时间（分钟）
+     */
+    private long localExpireAfterAccessMinutes = 60;
+
+    /**
+     * 是否启用 Redis 二级缓存
+     */
+    private boolean remoteEnabled = true;
+
+    /**
+     * Redis 缓存过期时间（小时）
+     */
+    private long remoteTtlHours = 24;
+}
@@ -0,0 +1,54 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 脚本沙箱配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "workflow.sandbox")
+public class SandBoxProperties {
+
+    /**
+     * 每种脚本语言同时执行的脚本数上限
+     */
+    private int maxConcurrentExecutions = 4;
+
+    /**
+     * 等待执行名额的最长时间（毫秒）
+     */
+    private long acquireTimeoutMs = 5000;
+
+    /**
+     * 每种脚本语言在后台预先创建的备用执行上下文数，每个上下文只执行一次，0 表示每次执行时当场创建
+     */
+    private int spareContexts = 2;
+
+    /**
+     * 启动时是否在后台预先创建备用执行上下文
+     */
+    private boolean prewarmOnStartup = true;
+
+    /**
+     * 脚本解析结果缓存条数
+     */
+    private int sourceCacheSize = 500;
+
+    /**
+     * 单次执行的最长时间（毫秒），超时后强制取消执行
+     */
+    private long executionTimeoutMs = 10000;
+
+    /**
+     * 单次执行的 CPU 时间上限（毫秒），需要运行时支持 sandbox 选项，0 表示不限制
+     */
+    private long maxCpuTimeMs = 5000;
+
+    /**
+     * 单次执行上下文的堆内存上限（MB），需要运行时支持 sandbox 选项，0 表示不限制
+     */
+    private long maxHeapMemoryMb = 128;
+}
@@ -0,0 +1,64 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 工作流执行线程配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "workflow.executor")
+public class WorkflowExecutorProperties {
+
+    /**
+     * 同时执行的工作流上限
+     */
+    private int maxConcurrentWorkflows = 50;
+
+    /**
+     * 工作流排队容量，超出后拒绝新的工作流
+     */
+    private int workflowQueueCapacity = 200;
+
+    /**
+     * 计算型节点线程数
+     */
+    private int nodePoolSize = 16;
+
+    /**
+     * 节点任务排队容量，超出后拒绝节点任务，所在工作流失败
+     */
+    private int nodeQueueCapacity = 500;
+
+    /**
+     * I/O 型节点是否使用虚拟线程（运行在 JDK 21+ 时生效，否则回退为平台线程池）
+     */
+    private boolean ioVirtualThreads = true;
+
+    /**
+     * I/O 型节点平台线程池大小（虚拟线程不可用时使用）
+     */
+    private int ioPoolSize = 64;
+
+    /**
+     * 单个工作流内同时执行的节点上限
+     */
+    private int perWorkflowMaxConcurrency = 8;
+
+    /**
+     * I/O 型节点类型：大模型、MCP、多媒体生成、邮件等阻塞于远程调用的节点
+     */
+    private List<String> ioNodeTypes = new ArrayList<>();
+
+    /**
+     * 按节点类型限制的全局并发数，如 VideoGen: 4
+     */
+    private Map<String, Integer> nodeTypeMaxConcurrency = new HashMap<>();
+}
@@ -0,0 +1,35 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 工作流执行记录异步写入配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "workflow.journal")
+public class WorkflowJournalProperties {
+
+    /**
+     * 待写入记录达到该数量时立即触发批量写入
+     */
+    private int batchSize = 200;
+
+    /**
+     * 定时批量写入间隔（毫秒）
+     */
+    private long flushIntervalMs = 500;
+
+    /**
+     * 写库失败的记录最大重试次数，超过后丢弃并记录错误日志
+     */
+    private int maxFlushRetries = 5;
+
+    /**
+     * 节点实例ID映射的保留时间（分钟），从最后一次访问开始计算，
+     * 兜底工作流结束后才开始或落定的节点
+     */
+    private long nodeIdRetentionMinutes = 30;
+}
@@ -0,0 +1,39 @@
+package com.coding.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 工作流执行进度推送配置属性
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "workflow.progress")
+public class WorkflowProgressProperties {
+
+    /**
+     * 内存中保留进度的工作流实例上限，应大于同时执行与排队的工作流数量
+     */
+    private long maximumInstances = 1000;
+
+    /**
+     * 实例最后一次读写后在内存中保留的时间（分钟），过期后只能从库表查询
+     */
+    private long retentionMinutes = 10;
+
+    /**
+     * 每个实例保留的最近事件数，续传序号早于保留范围时改为补发各节点最新状态
+     */
+    private int maxEventsPerInstance = 500;
+
+    /**
+     * 推送事件的线程数，慢客户端只占用推送线程，不阻塞节点执行
+     */
+    private int deliveryThreads = 4;
+
+    /**
+     * SSE 连接超时时间（毫秒）
+     */
+    private long streamTimeoutMs = 300_000;
+}
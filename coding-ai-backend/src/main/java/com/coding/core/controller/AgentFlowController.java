@@ -2,11 +2,11 @@ package com.coding.core.controller;
 
 import com.baomidou.mybatisplus.core.toolkit.IdWorker;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.coding.agentflow.manager.AgentFlowGraphCacheManager;
 import com.coding.agentflow.model.model.AgentFlowConfig;
 import com.coding.agentflow.model.request.AgentFlowConfigRequest;
 import com.coding.agentflow.model.response.AgentFlowConfigResponse;
 import com.coding.agentflow.service.AgentFlowConfigService;
-import com.coding.agentflow.service.AgentFlowService;
 import com.coding.agentflow.service.tool.ToolManager;
 import com.coding.core.common.Result;
 import com.coding.graph.core.exception.GraphRunnerException;
@@ -16,6 +16,8 @@ import com.coding.graph.core.graph.CompiledGraph;
 import com.coding.graph.core.node.NodeOutput;
 import com.coding.graph.core.node.StreamingOutput;
 import com.coding.graph.core.node.config.RunnableConfig;
+import com.coding.graph.core.state.OverAllState;
+import com.coding.graph.core.state.StateDelta;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,9 +29,12 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @RestController
@@ -39,10 +44,16 @@ import java.util.Map;
 public class AgentFlowController {
 
     private final AgentFlowConfigService agentFlowConfigService;
-    private final AgentFlowService agentFlowService;
+    private final AgentFlowGraphCacheManager agentFlowGraphCacheManager;
     private final ObjectMapper objectMapper;
     private final ToolManager toolManager;
 
+    /** 流式协议：每个节点完成时发送完整状态 */
+    private static final String STREAM_MODE_FULL = "full";
+
+    /** 流式协议：每个节点完成时只发送状态增量 */
+    private static final String STREAM_MODE_DELTA = "delta";
+
     @GetMapping("/tools")
     @Operation(summary = "获取可用工具列表")
     public Result<List<ToolManager.ToolInfo>> tools() {
@@ -78,8 +89,11 @@ public class AgentFlowController {
     @GetMapping(value = "/execute/stream", produces = "text/event-stream;charset=UTF-8")
     @Operation(summary = "流式执行工作流")
     public SseEmitter executeStream(@RequestParam Long flowId,
-                                    @RequestParam String prompt) throws GraphStateException, GraphRunnerException {
-        log.info("开始流式执行工作流, flowId: {}, prompt: {}", flowId, prompt);
+                                    @RequestParam String prompt,
+                                    @RequestParam(defaultValue = STREAM_MODE_FULL) String mode,
+                                    @RequestParam(defaultValue = "false") boolean snapshot) throws GraphStateException, GraphRunnerException {
+        log.info("开始流式执行工作流, flowId: {}, prompt: {}, mode: {}", flowId, prompt, mode);
+        boolean deltaMode = STREAM_MODE_DELTA.equalsIgnoreCase(mode);
 
         // 1. 获取工作流配置
         AgentFlowConfigResponse flowResponse = agentFlowConfigService.getAgentFlowById(flowId);
@@ -92,8 +106,8 @@ public class AgentFlowController {
         agentFlowConfig.setNodes(flowResponse.getNodes());
         agentFlowConfig.setEdges(flowResponse.getEdges());
 
-        // 3. 编译工作流
-        CompiledGraph compiledGraph = agentFlowService.convertToCompiledGraph(agentFlowConfig);
+        // 3. 获取编译图（配置未变化时复用缓存）
+        CompiledGraph compiledGraph = agentFlowGraphCacheManager.getCompiledGraph(flowId, agentFlowConfig);
 
         // 4. 创建 SseEmitter
         SseEmitter emitter = new SseEmitter(300_000L);
@@ -107,6 +121,11 @@ public class AgentFlowController {
                         "prompt", prompt))
                 .build());
 
+        // 事件序号：客户端按序号顺序应用增量重建状态
+        AtomicLong sequence = new AtomicLong();
+        AtomicLong sentBytes = new AtomicLong();
+        AtomicReference<OverAllState> lastState = new AtomicReference<>();
+
         // 6. 处理流式输出
         generator.streamForEach(output -> {
             try {
@@ -115,6 +134,7 @@ public class AgentFlowController {
                 }
 
                 if (output.isEND()) {
+                    lastState.set(output.getState());
                     return;
                 }
 
@@ -124,22 +144,27 @@ public class AgentFlowController {
                     if (content != null && !content.isEmpty()) {
                         Map<String, Object> message = new HashMap<>();
                         message.put("type", "chunk");
+                        message.put("seq", sequence.incrementAndGet());
                         message.put("nodeId", output.getNode());
                         message.put("content", content);
 
-                        emitter.send(SseEmitter.event()
-                                .data(objectMapper.writeValueAsString(message)));
+                        sendEvent(emitter, message, sentBytes);
                         log.info("Sent chunk for node {}: {}", output.getNode(), content);
                     }
                 } else {
-                    // 处理节点完成输出
+                    // 处理节点完成输出：增量模式只发送本节点变化的 key
+                    lastState.set(output.getState());
                     Map<String, Object> message = new HashMap<>();
                     message.put("type", "node_complete");
+                    message.put("seq", sequence.incrementAndGet());
                     message.put("nodeId", output.getNode());
-                    message.put("state", output.getState() != null ? output.getState().data() : null);
+                    if (deltaMode) {
+                        message.put("delta", toDeltaMessage(output.getDelta()));
+                    } else {
+                        message.put("state", output.getState() != null ? output.getState().data() : null);
+                    }
 
-                    emitter.send(SseEmitter.event()
-                            .data(objectMapper.writeValueAsString(message)));
+                    sendEvent(emitter, message, sentBytes);
                     log.info("Sent node {}: {}", output.getNode(), output);
                 }
             } catch (JsonProcessingException e) {
@@ -158,13 +183,18 @@ public class AgentFlowController {
             return null;
         }).thenRun(() -> {
             try {
-                // 发送完成信号
+                // 发送完成信号，按需附带最终完整状态
                 Map<String, Object> finishMessage = new HashMap<>();
                 finishMessage.put("type", "finish");
-                emitter.send(SseEmitter.event()
-                        .data(objectMapper.writeValueAsString(finishMessage)));
+                finishMessage.put("seq", sequence.incrementAndGet());
+                OverAllState finalState = lastState.get();
+                if (snapshot && finalState != null) {
+                    finishMessage.put("state", finalState.data());
+                }
+                sendEvent(emitter, finishMessage, sentBytes);
                 emitter.complete();
-                log.info("工作流执行完成, flowId: {}", flowId);
+                log.info("工作流执行完成, flowId: {}, mode: {}, 事件数: {}, 发送字节: {}",
+                        flowId, mode, sequence.get(), sentBytes.get());
             } catch (Exception e) {
                 log.error("发送完成信号失败", e);
                 emitter.completeWithError(e);
@@ -173,4 +203,27 @@ public class AgentFlowController {
 
         return emitter;
     }
+
+    private void sendEvent(SseEmitter emitter, Map<String, Object> message, AtomicLong sentBytes) throws IOException {
+        String payload = objectMapper.writeValueAsString(message);
+        sentBytes.addAndGet(payload.getBytes(StandardCharsets.UTF_8).length);
+        emitter.send(SseEmitter.event().data(payload));
+    }
+
+    /**
+     * 状态增量转换为消息体：set 覆盖、append 追加到列表末尾、remove 删除
+     */
+    private static Map<String, Object> toDeltaMessage(StateDelta delta) {
+        Map<String, Object> message = new HashMap<>();
+        if (!delta.getSet().isEmpty()) {
+            message.put("set", delta.getSet());
+        }
+        if (!delta.getAppend().isEmpty()) {
+            message.put("append", delta.getAppend());
+        }
+        if (!delta.getRemove().isEmpty()) {
+            message.put("remove", delta.getRemove());
+        }
+        return message;
+    }
 }
@@ -6,7 +6,9 @@ import com.coding.core.model.vo.AiModelConfigVO;
 import com.coding.core.model.vo.AiMcpConfigVO;
 import com.coding.core.service.AiModelConfigService;
 import com.coding.core.service.AiMcpConfigService;
+import com.coding.workflow.service.ai.McpExecuteService;
 import com.coding.workflow.utils.AssertUtil;
+import io.modelcontextprotocol.spec.McpSchema;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +28,7 @@ public class AiServiceConfigController {
 
     private final AiMcpConfigService aiMcpConfigService;
     private final AiModelConfigService aiModelConfigService;
+    private final McpExecuteService mcpExecuteService;
 
     @Operation(summary = "获取MCP服务列表")
     @GetMapping("/mcp/list")
@@ -34,6 +37,13 @@ public class AiServiceConfigController {
         return Result.success(mcpServers);
     }
 
+    @Operation(summary = "获取MCP服务提供的工具列表")
+    @GetMapping("/mcp/tools")
+    public Result<List<McpSchema.Tool>> getMcpToolList(@RequestParam("serverCode") String serverCode) {
+        AssertUtil.isNotBlank(serverCode, "服务编码不能为空");
+        return mcpExecuteService.listTools(serverCode);
+    }
+
     @Operation(summary = "获取AI模型列表")
     @GetMapping("/model/list")
     public Result<List<AiModelConfigVO>> getModelList(@RequestParam("modelType") String modelType) {
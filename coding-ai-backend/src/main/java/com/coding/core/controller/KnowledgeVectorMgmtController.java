@@ -5,6 +5,7 @@ import com.coding.core.common.Result;
 import com.coding.core.model.request.KnowledgeVectorAddRequest;
 import com.coding.core.model.request.KnowledgeVectorPageRequest;
 import com.coding.core.model.request.KnowledgeVectorUpdateRequest;
+import com.coding.core.model.vo.KnowledgeIngestionJobVO;
 import com.coding.core.model.vo.KnowledgeVectorVO;
 import com.coding.core.service.KnowledgeVectorMgmtService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -67,7 +68,7 @@ public class KnowledgeVectorMgmtController {
 
     @Operation(summary = "上传文件到知识库")
     @PostMapping("/upload-file")
-    public Result<Boolean> uploadFileToVectorStore(
+    public Result<String> uploadFileToVectorStore(
             @RequestParam Long knowledgeBaseId,
             @RequestParam("file") MultipartFile file) {
         if (file.isEmpty()) {
@@ -77,6 +78,12 @@ public class KnowledgeVectorMgmtController {
         return Result.success(knowledgeVectorMgmtService.loadFileByType(knowledgeBaseId, file));
     }
 
+    @GetMapping("/upload-job/{jobId}")
+    @Operation(summary = "查询文件导入进度")
+    public Result<KnowledgeIngestionJobVO> getUploadJob(@PathVariable String jobId) {
+        return Result.success(knowledgeVectorMgmtService.getIngestionJob(jobId));
+    }
+
     @GetMapping("/similarity-search")
     @Operation(summary = "相似性搜索")
     public Result<List<KnowledgeVectorVO>> similaritySearch(
@@ -22,6 +22,7 @@ import jakarta.annotation.Resource;
 import org.springframework.beans.BeanUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -116,6 +117,18 @@ public class WorkflowController {
         return Result.success(workflowConfigService.getWorkflowRunningResult(workflowInstanceId));
     }
 
+    @GetMapping(value = "/progress/{workflowInstanceId}", produces = "text/event-stream;charset=UTF-8")
+    @Operation(summary = "订阅运行进度", description = "以 SSE 推送节点状态变化与输出，支持按事件序号断线续传")
+    public SseEmitter streamWorkflowProgress(
+            @Parameter(description = "工作流实例ID") @PathVariable String workflowInstanceId,
+            @Parameter(description = "最后收到的事件序号，从头订阅时不传") @RequestParam(required = false) Long lastSeq,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        AssertUtil.isNotNull(workflowInstanceId, "工作流实例ID不能为空");
+        // 浏览器 EventSource 自动重连时通过 Last-Event-ID 携带序号
+        long afterSeq = lastSeq != null ? lastSeq : (lastEventId != null ? lastEventId : 0L);
+        return workflowConfigService.streamWorkflowProgress(workflowInstanceId, afterSeq);
+    }
+
     @GetMapping("/instances")
     @Operation(summary = "查询工作流运行记录", description = "分页查询当前用户的工作流运行记录")
     public Result<PageVO<WorkflowInstanceVO>> getWorkflowInstancePage(
@@ -0,0 +1,138 @@
+package com.coding.core.handler;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.apache.ibatis.type.MappedTypes;
+import org.postgresql.util.PGBinaryObject;
+import org.postgresql.util.PGobject;
+
+import java.nio.ByteBuffer;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * pgvector 类型处理器，在 float[] 与 PostgreSQL vector 类型之间转换
+ * 参数以 vector 类型绑定，连接开启该类型的二进制传输（binaryTransferEnable=vector 的 OID）时
+ * 按 pgvector 二进制格式发送：int16 维度、int16 保留位、维度个 float4（大端），否则退回文本格式
+ */
+@MappedTypes(float[].class)
+@MappedJdbcTypes(JdbcType.OTHER)
+public class PgVectorTypeHandler extends BaseTypeHandler<float[]> {
+
+    private static final String VECTOR_TYPE = "vector";
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, float[] parameter, JdbcType jdbcType) throws SQLException {
+        ps.setObject(i, new PgVector(parameter));
+    }
+
+    @Override
+    public float[] getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return parse(rs.getString(columnName));
+    }
+
+    @Override
+    public float[] getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return parse(rs.getString(columnIndex));
+    }
+
+    @Override
+    public float[] getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return parse(cs.getString(columnIndex));
+    }
+
+    /**
+     * 解析 pgvector 文本格式 [0.1,0.2,...]
+     */
+    private static float[] parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String body = value.substring(1, value.length() - 1).trim();
+        if (body.isEmpty()) {
+            return new float[0];
+        }
+        String[] parts = body.split(",");
+        float[] vector = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            vector[i] = Float.parseFloat(parts[i]);
+        }
+        return vector;
+    }
+
+    /**
+     * 绑定到 vector 类型的参数对象，同时支持二进制与文本传输
+     */
+    static final class PgVector extends PGobject implements PGBinaryObject {
+
+        private float[] vector;
+
+        PgVector(float[] vector) {
+            this.type = VECTOR_TYPE;
+            this.vector = vector;
+        }
+
+        @Override
+        public String getValue() {
+            StringBuilder sb = new StringBuilder(vector.length * 12 + 2).append('[');
+            for (int i = 0; i < vector.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(vector[i]);
+            }
+            return sb.append(']').toString();
+        }
+
+        @Override
+        public void setValue(String value) {
+            this.vector = parse(value);
+        }
+
+        @Override
+        public int lengthInBytes() {
+            return 4 + vector.length * 4;
+        }
+
+        @Override
+        public void toBytes(byte[] bytes, int offset) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, lengthInBytes());
+            buffer.putShort((short) vector.length);
+            buffer.putShort((short) 0);
+            for (float value : vector) {
+                buffer.putFloat(value);
+            }
+        }
+
+        @Override
+        public void setByteValue(byte[] value, int offset) {
+            ByteBuffer buffer = ByteBuffer.wrap(value, offset, value.length - offset);
+            int dimensions = buffer.getShort();
+            buffer.getShort();
+            float[] parsed = new float[dimensions];
+            for (int i = 0; i < dimensions; i++) {
+                parsed[i] = buffer.getFloat();
+            }
+            this.vector = parsed;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof PgVector other && Arrays.equals(vector, other.vector);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(vector);
+        }
+
+        @Override
+        public PgVector clone() throws CloneNotSupportedException {
+            return new PgVector(vector.clone());
+        }
+    }
+}
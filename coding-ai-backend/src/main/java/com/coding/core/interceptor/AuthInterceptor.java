@@ -32,8 +32,9 @@ public class AuthInterceptor implements HandlerInterceptor {
             token = token.substring(7);
         }
 
-        // 验证Access Token（仅验证Access Token，不接受Refresh Token）
-        if (token == null || !jwtUtil.validateAccessToken(token)) {
+        // 验证Access Token（仅验证Access Token，不接受Refresh Token），一次校验同时取得用户信息
+        JwtUtil.TokenPrincipal principal = jwtUtil.verifyAccessToken(token);
+        if (principal == null) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json;charset=UTF-8");
             response.getWriter().write("{\"code\":401,\"message\":\"访问令牌无效或已过期，请刷新令牌\"}");
@@ -41,8 +42,8 @@ public class AuthInterceptor implements HandlerInterceptor {
         }
 
         // 将用户信息存入ThreadLocal
-        Long userId = jwtUtil.getUserIdFromToken(token);
-        String email = jwtUtil.getEmailFromToken(token);
+        Long userId = principal.userId();
+        String email = principal.email();
         UserContextHolder.setUserInfo(userId, email);
 
         // 同时也保存到request属性中（向后兼容）
@@ -0,0 +1,380 @@
+package com.coding.core.manager;
+
+import cn.hutool.core.util.IdUtil;
+import com.coding.core.config.KnowledgeIngestionProperties;
+import com.coding.core.model.entity.KnowledgeVectorDO;
+import com.coding.core.model.vo.KnowledgeIngestionJobVO;
+import com.coding.core.repository.KnowledgeBaseRepository;
+import com.coding.core.repository.KnowledgeVectorRepository;
+import com.coding.workflow.exception.BizException;
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.reader.pdf.PagePdfDocumentReader;
+import org.springframework.ai.reader.tika.TikaDocumentReader;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 知识库文件导入管理器
+ * 上传请求只负责保存临时文件并登记任务，解析、分块、批量向量化与批量写库在后台执行：
+ * 每组分块拆成多个向量化批次并发请求（单任务并发数有上限），当前组写库时下一组已开始向量化
+ */
+@Slf4j
+@Component
+public class KnowledgeIngestionManager {
+
+    private static final String METRIC_PREFIX = "coding.knowledge.ingestion";
+
+    private static final String STATUS_PENDING = "PENDING";
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_SUCCESS = "SUCCESS";
+    private static final String STATUS_FAILED = "FAILED";
+
+    private final KnowledgeIngestionProperties properties;
+
+    private final KnowledgeVectorRepository knowledgeVectorRepository;
+
+    private final KnowledgeBaseRepository knowledgeBaseRepository;
+
+    private final EmbeddingModel embeddingModel;
+
+    private final TokenTextSplitter textSplitter;
+
+    /**
+     * 导入任务线程池
+     */
+    private final ThreadPoolExecutor jobExecutor;
+
+    /**
+     * 向量化请求线程池，所有导入任务共享
+     */
+    private final ExecutorService embeddingExecutor;
+
+    /** 任务ID => 任务进度 */
+    private final Map<String, IngestionJob> jobMap = new ConcurrentHashMap<>();
+
+    private final Timer embeddingTimer;
+
+    public KnowledgeIngestionManager(KnowledgeIngestionProperties properties,
+                                     KnowledgeVectorRepository knowledgeVectorRepository,
+                                     KnowledgeBaseRepository knowledgeBaseRepository,
+                                     EmbeddingModel embeddingModel,
+                                     MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.knowledgeVectorRepository = knowledgeVectorRepository;
+        this.knowledgeBaseRepository = knowledgeBaseRepository;
+        this.embeddingModel = embeddingModel;
+        this.textSplitter = TokenTextSplitter.builder()
+                .withChunkSize(properties.getChunkSize())
+                .build();
+        this.jobExecutor = new ThreadPoolExecutor(
+                properties.getWorkerThreads(), properties.getWorkerThreads(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getJobQueueCapacity()),
+                namedThreadFactory("knowledge-ingestion-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.embeddingExecutor = Executors.newFixedThreadPool(properties.getEmbeddingPoolSize(),
+                namedThreadFactory("knowledge-embedding-"));
+
+        Gauge.builder(METRIC_PREFIX + ".running", jobExecutor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.size", jobExecutor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        this.embeddingTimer = Timer.builder(METRIC_PREFIX + ".embedding")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 提交导入任务，立即返回任务ID；任务结束后删除临时文件
+     *
+     * @param knowledgeBaseId 知识库ID
+     * @param tempFile 上传文件的临时副本
+     * @param fileName 原始文件名
+     * @param fileType 文件类型
+     * @return 任务ID
+     */
+    public String submit(Long knowledgeBaseId, Path tempFile, String fileName, String fileType) {
+        removeExpiredJobs();
+
+        IngestionJob job = new IngestionJob(IdUtil.fastSimpleUUID(), knowledgeBaseId, fileName, fileType);
+        jobMap.put(job.jobId, job);
+        try {
+            jobExecutor.execute(() -> runJob(job, tempFile));
+        } catch (RejectedExecutionException e) {
+            jobMap.remove(job.jobId);
+            deleteQuietly(tempFile);
+            log.warn("知识库导入任务繁忙，当前执行: {}，排队: {}",
+                    jobExecutor.getActiveCount(), jobExecutor.getQueue().size());
+            throw new BizException("知识库导入任务繁忙，请稍后重试");
+        }
+        log.info("知识库导入任务已提交: jobId={}, fileName={}, knowledgeBaseId={}", job.jobId, fileName, knowledgeBaseId);
+        return job.jobId;
+    }
+
+    /**
+     * 查询导入任务进度
+     *
+     * @param jobId 任务ID
+     * @return 任务进度，任务不存在或已过期时返回 null
+     */
+    public KnowledgeIngestionJobVO getJob(String jobId) {
+        IngestionJob job = jobMap.get(jobId);
+        return job != null ? job.toVO() : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        embeddingExecutor.shutdownNow();
+    }
+
+    // ==================== 导入流程 ====================
+
+    private void runJob(IngestionJob job, Path tempFile) {
+        job.status = STATUS_RUNNING;
+        try {
+            // 1. 读取并切分文档
+            List<Document> chunks = textSplitter.apply(readDocuments(tempFile, job.fileName));
+            job.totalChunks.set(chunks.size());
+
+            // 2. 按写库批次分组，当前组写库时下一组已开始向量化
+            List<List<Document>> groups = Lists.partition(chunks, Math.max(1, properties.getInsertBatchSize()));
+            CompletableFuture<List<float[]>> next = groups.isEmpty() ? null : embedGroup(groups.get(0), job);
+            for (int i = 0; i < groups.size(); i++) {
+                List<float[]> embeddings = next.join();
+                next = i + 1 < groups.size() ? embedGroup(groups.get(i + 1), job) : null;
+                saveGroup(job, groups.get(i), embeddings);
+            }
+
+            job.status = STATUS_SUCCESS;
+            log.info("知识库导入任务完成: jobId={}, fileName={}, chunks={}", job.jobId, job.fileName, chunks.size());
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            job.errorMessage = cause.getMessage();
+            job.status = STATUS_FAILED;
+            log.error("知识库导入任务失败: jobId={}, fileName={}, 已写入: {}",
+                    job.jobId, job.fileName, job.savedChunks.get(), cause);
+        } finally {
+            job.finishTime = LocalDateTime.now();
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private List<Document> readDocuments(Path tempFile, String fileName) {
+        if (fileName != null && fileName.toLowerCase().endsWith("pdf")) {
+            // 读取PDF文件内容
+            return new PagePdfDocumentReader(tempFile.toUri().toString()).get();
+        }
+        // 处理其他文件类型
+        return new TikaDocumentReader(tempFile.toUri().toString()).get();
+    }
+
+    /**
+     * 将一组分块拆成多个批次并发向量化，单任务同时进行的请求数受 embeddingConcurrency 限制
+     *
+     * @return 与分块顺序一致的向量列表
+     */
+    private CompletableFuture<List<float[]>> embedGroup(List<Document> group, IngestionJob job) {
+        List<List<Document>> batches = Lists.partition(group, Math.max(1, properties.getEmbeddingBatchSize()));
+        List<CompletableFuture<List<float[]>>> futures = new ArrayList<>(batches.size());
+        for (List<Document> batch : batches) {
+            futures.add(embedBatch(batch, job));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    List<float[]> embeddings = new ArrayList<>(group.size());
+                    futures.forEach(future -> embeddings.addAll(future.join()));
+                    return embeddings;
+                });
+    }
+
+    /**
+     * 提交一个向量化批次：未达单任务并发上限时立即提交，否则排队，由前一批次完成时提交；
+     * 任务线程不等待许可，提交后即可继续写入上一组
+     */
+    private CompletableFuture<List<float[]>> embedBatch(List<Document> batch, IngestionJob job) {
+        EmbeddingBatch embeddingBatch = new EmbeddingBatch(batch, new CompletableFuture<>());
+        if (job.offerEmbedding(embeddingBatch)) {
+            dispatchEmbedding(job, embeddingBatch);
+        }
+        return embeddingBatch.result;
+    }
+
+    private void dispatchEmbedding(IngestionJob job, EmbeddingBatch embeddingBatch) {
+        try {
+            embeddingExecutor.execute(() -> {
+                try {
+                    embeddingBatch.result.complete(embed(job, embeddingBatch.documents));
+                } catch (Throwable e) {
+                    embeddingBatch.result.completeExceptionally(e);
+                } finally {
+                    EmbeddingBatch next = job.nextEmbedding();
+                    if (next != null) {
+                        dispatchEmbedding(job, next);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            embeddingBatch.result.completeExceptionally(e);
+            EmbeddingBatch next = job.nextEmbedding();
+            if (next != null) {
+                dispatchEmbedding(job, next);
+            }
+        }
+    }
+
+    private List<float[]> embed(IngestionJob job, List<Document> batch) {
+        List<String> texts = batch.stream().map(Document::getFormattedContent).toList();
+        List<float[]> embeddings = embeddingTimer.record(() -> embeddingModel.embed(texts));
+        if (embeddings == null || embeddings.size() != texts.size()) {
+            throw new IllegalStateException("向量化结果数量与分块数量不一致");
+        }
+        job.embeddedChunks.addAndGet(batch.size());
+        return embeddings;
+    }
+
+    private void saveGroup(IngestionJob job, List<Document> group, List<float[]> embeddings) {
+        List<KnowledgeVectorDO> vectors = new ArrayList<>(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            Document doc = group.get(i);
+            vectors.add(KnowledgeVectorDO.builder()
+                    .knowledgeBaseId(job.knowledgeBaseId)
+                    .content(doc.getFormattedContent())
+                    .metadata(doc.getMetadata() != null ? doc.getMetadata().toString() : null)
+                    .embedding(embeddings.get(i))
+                    .fileName(job.fileName)
+                    .fileType(job.fileType)
+                    .build());
+        }
+
+        knowledgeVectorRepository.saveBatch(vectors);
+        knowledgeBaseRepository.increaseVectorCount(job.knowledgeBaseId, (long) vectors.size());
+        job.savedChunks.addAndGet(vectors.size());
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void removeExpiredJobs() {
+        LocalDateTime expireBefore = LocalDateTime.now().minusMinutes(properties.getJobRetentionMinutes());
+        jobMap.values().removeIf(job -> job.finishTime != null && job.finishTime.isBefore(expireBefore));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除临时文件失败: {}", path, e);
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 待向量化的批次
+     */
+    private record EmbeddingBatch(List<Document> documents, CompletableFuture<List<float[]>> result) {
+    }
+
+    /**
+     * 导入任务进度
+     */
+    private final class IngestionJob {
+
+        private final String jobId;
+
+        private final Long knowledgeBaseId;
+
+        private final String fileName;
+
+        private final String fileType;
+
+        private final LocalDateTime createTime = LocalDateTime.now();
+
+        private final AtomicInteger totalChunks = new AtomicInteger();
+
+        private final AtomicInteger embeddedChunks = new AtomicInteger();
+
+        private final AtomicInteger savedChunks = new AtomicInteger();
+
+        /** 等待提交的向量化批次，执行中批次数达到 embeddingConcurrency 时进入 */
+        private final Queue<EmbeddingBatch> waitingEmbeddings = new ArrayDeque<>();
+
+        private int runningEmbeddings;
+
+        private volatile String status = STATUS_PENDING;
+
+        private volatile String errorMessage;
+
+        private volatile LocalDateTime finishTime;
+
+        private IngestionJob(String jobId, Long knowledgeBaseId, String fileName, String fileType) {
+            this.jobId = jobId;
+            this.knowledgeBaseId = knowledgeBaseId;
+            this.fileName = fileName;
+            this.fileType = fileType;
+        }
+
+        /**
+         * 登记一个向量化批次，返回是否可以立即提交
+         */
+        private synchronized boolean offerEmbedding(EmbeddingBatch embeddingBatch) {
+            if (runningEmbeddings >= Math.max(1, properties.getEmbeddingConcurrency())) {
+                waitingEmbeddings.add(embeddingBatch);
+                return false;
+            }
+            runningEmbeddings++;
+            return true;
+        }
+
+        /**
+         * 一个向量化批次结束，返回接着提交的排队批次，没有时释放并发名额
+         */
+        private synchronized EmbeddingBatch nextEmbedding() {
+            EmbeddingBatch next = waitingEmbeddings.poll();
+            if (next == null) {
+                runningEmbeddings--;
+            }
+            return next;
+        }
+
+        private KnowledgeIngestionJobVO toVO() {
+            return KnowledgeIngestionJobVO.builder()
+                    .jobId(jobId)
+                    .knowledgeBaseId(knowledgeBaseId)
+                    .fileName(fileName)
+                    .status(status)
+                    .totalChunks(totalChunks.get())
+                    .embeddedChunks(embeddedChunks.get())
+                    .savedChunks(savedChunks.get())
+                    .errorMessage(errorMessage)
+                    .createTime(createTime)
+                    .finishTime(finishTime)
+                    .build();
+        }
+    }
+}
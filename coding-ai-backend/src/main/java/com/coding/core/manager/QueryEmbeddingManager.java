@@ -0,0 +1,220 @@
+package com.coding.core.manager;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.coding.core.config.QueryEmbeddingCacheProperties;
+import com.coding.core.service.CacheService;
+import com.coding.workflow.exception.BizException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.openai.OpenAiEmbeddingOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 查询向量管理器
+ * 检索前将查询文本向量化，按（模型、维度、规范化文本摘要）两级缓存结果：
+ * 一级为本地有界缓存，二级为 Redis（float 数组按小端字节序直接存储），均未命中时才调用嵌入模型。
+ * 同一键的并发请求只会触发一次加载。返回的数组被缓存共享，调用方不得修改
+ */
+@Slf4j
+@Component
+public class QueryEmbeddingManager {
+
+    private static final String METRIC_PREFIX = "coding.knowledge.query.embedding";
+
+    private static final String REMOTE_KEY_PREFIX = "embedding:query:";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final EmbeddingModel embeddingModel;
+
+    private final CacheService cacheService;
+
+    private final QueryEmbeddingCacheProperties properties;
+
+    private final String defaultModel;
+
+    private final Integer defaultDimensions;
+
+    private final Cache<String, float[]> localCache;
+
+    private final Counter localHitCounter;
+
+    private final Counter remoteHitCounter;
+
+    private final Counter missCounter;
+
+    public QueryEmbeddingManager(EmbeddingModel embeddingModel,
+                                 CacheService cacheService,
+                                 QueryEmbeddingCacheProperties properties,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.ai.openai.embedding.options.model}") String defaultModel,
+                                 @Value("${spring.ai.openai.embedding.options.dimensions}") Integer defaultDimensions) {
+        this.embeddingModel = embeddingModel;
+        this.cacheService = cacheService;
+        this.properties = properties;
+        this.defaultModel = defaultModel;
+        this.defaultDimensions = defaultDimensions;
+        this.localCache = CacheBuilder.newBuilder()
+                .maximumSize(properties.getLocalMaximumSize())
+                .expireAfterAccess(properties.getLocalExpireAfterAccessMinutes(), TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, localCache, METRIC_PREFIX + ".local");
+
+        this.localHitCounter = lookupCounter(meterRegistry, "local_hit");
+        this.remoteHitCounter = lookupCounter(meterRegistry, "remote_hit");
+        this.missCounter = lookupCounter(meterRegistry, "miss");
+        Gauge.builder(METRIC_PREFIX + ".hit.ratio", this, QueryEmbeddingManager::hitRatio)
+                .description("查询向量两级缓存合计命中率")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取查询文本的向量
+     *
+     * @param query 查询文本
+     * @param modelName 嵌入模型名称，为空时使用默认模型
+     * @return 查询向量，嵌入模型返回空结果时为 null
+     */
+    public float[] embed(String query, String modelName) {
+        String model = StringUtils.isNotBlank(modelName) ? modelName : defaultModel;
+        if (!properties.isEnabled()) {
+            return callModel(query, model);
+        }
+
+        String key = model + ":" + defaultDimensions + ":" + DigestUtil.sha256Hex(normalize(query));
+        float[] cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            localHitCounter.increment();
+            return cached;
+        }
+        try {
+            return localCache.get(key, () -> load(key, query, model));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof EmptyEmbeddingException) {
+                return null;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BizException("生成查询向量失败：" + cause.getMessage());
+        }
+    }
+
+    private float[] load(String key, String query, String model) {
+        String remoteKey = REMOTE_KEY_PREFIX + key;
+        if (properties.isRemoteEnabled()) {
+            float[] remote = readRemote(remoteKey);
+            if (remote != null) {
+                remoteHitCounter.increment();
+                return remote;
+            }
+        }
+
+        missCounter.increment();
+        float[] embedding = callModel(query, model);
+        if (embedding == null) {
+            // Guava 不缓存 null，以异常跳出加载，空结果不进入任何一级缓存
+            throw new EmptyEmbeddingException();
+        }
+        if (properties.isRemoteEnabled()) {
+            writeRemote(remoteKey, embedding);
+        }
+        return embedding;
+    }
+
+    private float[] callModel(String query, String model) {
+        EmbeddingResponse response = embeddingModel.call(new EmbeddingRequest(List.of(query),
+                OpenAiEmbeddingOptions.builder()
+                        .model(model)
+                        .dimensions(defaultDimensions)
+                        .build()));
+        if (response == null || response.getResults().isEmpty()) {
+            log.warn("嵌入模型返回空结果，模型: {}", model);
+            return null;
+        }
+        return response.getResult().getOutput();
+    }
+
+    /**
+     * Redis 不可用时降级为直接调用模型，不影响检索
+     */
+    private float[] readRemote(String remoteKey) {
+        try {
+            byte[] bytes = cacheService.getRemoteBytes(remoteKey);
+            if (bytes == null) {
+                return null;
+            }
+            if (bytes.length != defaultDimensions * Float.BYTES) {
+                log.warn("查询向量缓存长度不匹配，忽略: key={}, bytes={}", remoteKey, bytes.length);
+                return null;
+            }
+            float[] embedding = new float[defaultDimensions];
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(embedding);
+            return embedding;
+        } catch (Exception e) {
+            log.warn("读取查询向量缓存失败: key={}", remoteKey, e);
+            return null;
+        }
+    }
+
+    private void writeRemote(String remoteKey, float[] embedding) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(embedding.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.asFloatBuffer().put(embedding);
+            cacheService.setRemoteBytes(remoteKey, buffer.array(), properties.getRemoteTtlHours(), TimeUnit.HOURS);
+        } catch (Exception e) {
+            log.warn("写入查询向量缓存失败: key={}", remoteKey, e);
+        }
+    }
+
+    /**
+     * 规范化查询文本：Unicode NFKC、去除首尾空白并折叠连续空白，大小写保持不变
+     */
+    static String normalize(String query) {
+        String normalized = Normalizer.normalize(query, Normalizer.Form.NFKC).trim();
+        return WHITESPACE.matcher(normalized).replaceAll(" ");
+    }
+
+    private double hitRatio() {
+        double hits = localHitCounter.count() + remoteHitCounter.count();
+        double total = hits + missCounter.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_PREFIX + ".lookup")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 嵌入模型返回空结果
+     */
+    private static final class EmptyEmbeddingException extends RuntimeException {
+
+        EmptyEmbeddingException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -22,6 +22,13 @@ public interface KnowledgeVectorMapper extends BaseMapper<KnowledgeVectorDO> {
      */
     Long countByKnowledgeBaseId(@Param("knowledgeBaseId") Long knowledgeBaseId);
 
+    /**
+     * 多行批量插入，id 需由调用方预先生成
+     * @param list 向量列表
+     * @return 插入行数
+     */
+    int insertBatch(@Param("list") List<KnowledgeVectorDO> list);
+
     /**
      * 相似性搜索
      * @param knowledgeBaseId 知识库ID
@@ -31,8 +38,20 @@ public interface KnowledgeVectorMapper extends BaseMapper<KnowledgeVectorDO> {
      */
     List<KnowledgeVectorModel> similaritySearch(
             @Param("knowledgeBaseId") Long knowledgeBaseId,
-            @Param("embedding") String embedding,
+            @Param("embedding") float[] embedding,
             @Param("topK") Integer topK
     );
-}
 
+    /**
+     * 多知识库相似性搜索，一条语句内按距离排序并截取全局 topK
+     * @param knowledgeBaseIds 知识库ID数组
+     * @param embedding 查询向量
+     * @param topK 返回数量
+     * @return 相似向量列表
+     */
+    List<KnowledgeVectorModel> similaritySearchInKnowledgeBases(
+            @Param("knowledgeBaseIds") Long[] knowledgeBaseIds,
+            @Param("embedding") float[] embedding,
+            @Param("topK") Integer topK
+    );
+}
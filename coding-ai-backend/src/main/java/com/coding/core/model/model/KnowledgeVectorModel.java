@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.coding.core.handler.PgVectorTypeHandler;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -47,10 +48,10 @@ public class KnowledgeVectorModel {
     private String metadata;
 
     /**
-     * 向量嵌入（存储为字符串，实际是vector类型）
+     * 向量嵌入（pgvector vector类型）
      */
-    @TableField("embedding")
-    private String embedding;
+    @TableField(value = "embedding", typeHandler = PgVectorTypeHandler.class)
+    private float[] embedding;
 
     /**
      * 文件名
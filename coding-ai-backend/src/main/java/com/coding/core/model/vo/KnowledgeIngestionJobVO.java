@@ -0,0 +1,53 @@
+package com.coding.core.model.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 知识库文件导入任务VO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "知识库文件导入任务")
+public class KnowledgeIngestionJobVO {
+
+    @Schema(description = "任务ID")
+    private String jobId;
+
+    @Schema(description = "所属知识库ID")
+    private Long knowledgeBaseId;
+
+    @Schema(description = "文件名")
+    private String fileName;
+
+    @Schema(description = "任务状态：PENDING、RUNNING、SUCCESS、FAILED")
+    private String status;
+
+    @Schema(description = "切分后的分块总数")
+    private Integer totalChunks;
+
+    @Schema(description = "已完成向量化的分块数")
+    private Integer embeddedChunks;
+
+    @Schema(description = "已写入的分块数")
+    private Integer savedChunks;
+
+    @Schema(description = "失败原因")
+    private String errorMessage;
+
+    @Schema(description = "创建时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createTime;
+
+    @Schema(description = "结束时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishTime;
+}
@@ -19,7 +19,7 @@ public interface ChatMessageRepository {
     Long add(ChatMessageModel chatMessageModel);
 
     /**
-     * 批量插入
+     * 批量插入，插入后回填各消息的自增ID
      */
     Integer add(Collection<ChatMessageModel> chatMessageModels);
 
@@ -43,6 +43,11 @@ public interface ChatMessageRepository {
      */
     List<ChatMessageModel> getByConversationId(String conversationId);
 
+    /**
+     * 根据会话ID查询指定ID之后的消息列表，按ID升序
+     */
+    List<ChatMessageModel> getByConversationIdAfterId(String conversationId, Long afterId);
+
     /**
      * 根据会话ID删除消息
      */
@@ -5,6 +5,7 @@ import com.coding.core.model.entity.KnowledgeVectorDO;
 import com.coding.core.model.model.KnowledgeVectorModel;
 import com.coding.core.model.request.KnowledgeVectorPageRequest;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -76,6 +77,14 @@ public interface KnowledgeVectorRepository {
      * @param topK 返回数量
      * @return 相似向量列表
      */
-    List<KnowledgeVectorModel> similaritySearch(Long knowledgeBaseId, String embedding, Integer topK);
-}
+    List<KnowledgeVectorModel> similaritySearch(Long knowledgeBaseId, float[] embedding, Integer topK);
 
+    /**
+     * 多知识库相似性搜索，单条语句返回全局最相似的 topK
+     * @param knowledgeBaseIds 知识库ID集合
+     * @param embedding 查询向量
+     * @param topK 返回数量
+     * @return 按相似度降序的向量列表
+     */
+    List<KnowledgeVectorModel> similaritySearch(Collection<Long> knowledgeBaseIds, float[] embedding, Integer topK);
+}
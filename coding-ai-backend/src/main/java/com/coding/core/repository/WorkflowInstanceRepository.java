@@ -3,6 +3,8 @@ package com.coding.core.repository;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.coding.core.model.model.WorkflowInstanceModel;
 
+import java.util.List;
+
 /**
  * 工作流实例Repository接口
  * @author coding
@@ -20,6 +22,11 @@ public interface WorkflowInstanceRepository {
      */
     int update(WorkflowInstanceModel workflowInstanceModel);
 
+    /**
+     * 根据ID批量更新（JDBC批处理），仅更新非空字段
+     */
+    int updateBatchById(List<WorkflowInstanceModel> workflowInstanceModels);
+
     /**
      * 删除
      */
@@ -2,6 +2,8 @@ package com.coding.core.repository;
 
 import com.coding.core.model.model.WorkflowNodeInstanceModel;
 
+import java.util.List;
+
 /**
  * 节点执行实例Repository接口
  * @author coding
@@ -21,6 +23,16 @@ public interface WorkflowNodeInstanceRepository {
 
     int updateByNodeId(WorkflowNodeInstanceModel workflowNodeInstanceModel);
 
+    /**
+     * 批量新增（JDBC批处理）
+     */
+    int addBatch(List<WorkflowNodeInstanceModel> workflowNodeInstanceModels);
+
+    /**
+     * 根据ID批量更新（JDBC批处理），仅更新非空字段
+     */
+    int updateBatchById(List<WorkflowNodeInstanceModel> workflowNodeInstanceModels);
+
     /**
      * 删除
      */
@@ -34,5 +46,5 @@ public interface WorkflowNodeInstanceRepository {
     /**
      * 根据工作流实例ID查询节点列表
      */
-    java.util.List<WorkflowNodeInstanceModel> getByWorkflowInstanceId(Long workflowInstanceId);
+    List<WorkflowNodeInstanceModel> getByWorkflowInstanceId(Long workflowInstanceId);
 }
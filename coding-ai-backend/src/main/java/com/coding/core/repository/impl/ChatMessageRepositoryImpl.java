@@ -1,6 +1,7 @@
 package com.coding.core.repository.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.coding.core.config.BatchInsertProperties;
 import com.coding.core.mapper.ChatMessageMapper;
 import com.coding.core.model.converter.ChatMessageConverter;
 import com.coding.core.model.entity.ChatMessageDO;
@@ -26,6 +27,8 @@ public class ChatMessageRepositoryImpl implements ChatMessageRepository {
 
     private final ChatMessageMapper chatMessageMapper;
 
+    private final BatchInsertProperties batchInsertProperties;
+
     @Override
     public Long add(ChatMessageModel chatMessageModel) {
         ChatMessageDO chatMessageDO = ChatMessageConverter.INSTANCE.modelToDO(chatMessageModel);
@@ -42,18 +45,19 @@ public class ChatMessageRepositoryImpl implements ChatMessageRepository {
             return 0;
         }
         
-        List<ChatMessageDO> dos = chatMessageModels.stream()
+        List<ChatMessageModel> models = List.copyOf(chatMessageModels);
+        List<ChatMessageDO> dos = models.stream()
                 .map(ChatMessageConverter.INSTANCE::modelToDO)
                 .toList();
-        
-        // 使用循环逐个插入
-        int count = 0;
-        for (ChatMessageDO chatMessageDO : dos) {
-            int insert = chatMessageMapper.insert(chatMessageDO);
-            count += insert;
+
+        // JDBC 批处理写入（MySQL 连接开启 rewriteBatchedStatements 后合并为多行 INSERT），按批次大小分段提交
+        chatMessageMapper.insert(dos, batchInsertProperties.getChunkSize());
+
+        // 回填自增ID
+        for (int i = 0; i < models.size(); i++) {
+            models.get(i).setId(dos.get(i).getId());
         }
-        
-        return count;
+        return dos.size();
     }
 
     @Override
@@ -84,6 +88,18 @@ public class ChatMessageRepositoryImpl implements ChatMessageRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<ChatMessageModel> getByConversationIdAfterId(String conversationId, Long afterId) {
+        LambdaQueryWrapper<ChatMessageDO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(ChatMessageDO::getConversationId, conversationId)
+               .gt(afterId != null, ChatMessageDO::getId, afterId)
+               .orderByAsc(ChatMessageDO::getId);
+
+        return chatMessageMapper.selectList(wrapper).stream()
+                .map(ChatMessageConverter.INSTANCE::doToModel)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public int deleteByConversationId(String conversationId) {
         LambdaQueryWrapper<ChatMessageDO> wrapper = new LambdaQueryWrapper<>();
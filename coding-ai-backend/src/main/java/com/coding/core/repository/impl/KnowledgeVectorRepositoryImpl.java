@@ -4,17 +4,21 @@ import com.baomidou.dynamic.datasource.annotation.DS;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.coding.core.config.BatchInsertProperties;
 import com.coding.core.mapper.postgresql.KnowledgeVectorMapper;
 import com.coding.core.model.entity.KnowledgeVectorDO;
 import com.coding.core.model.model.KnowledgeVectorModel;
 import com.coding.core.model.request.KnowledgeVectorPageRequest;
 import com.coding.core.repository.KnowledgeVectorRepository;
+import com.google.common.collect.Lists;
 import jakarta.annotation.Resource;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,9 +29,27 @@ import java.util.List;
 @Repository
 public class KnowledgeVectorRepositoryImpl implements KnowledgeVectorRepository {
 
+    /**
+     * PostgreSQL 单条语句的绑定参数上限
+     */
+    private static final int MAX_BIND_PARAMETERS = 65535;
+
+    /**
+     * insertBatch 每行绑定的参数数（列数）
+     */
+    private static final int INSERT_COLUMN_COUNT = 10;
+
+    /**
+     * 多行插入每条语句的最大行数：65535 / 10 = 6553
+     */
+    static final int MAX_ROWS_PER_INSERT = MAX_BIND_PARAMETERS / INSERT_COLUMN_COUNT;
+
     @Resource
     private KnowledgeVectorMapper knowledgeVectorMapper;
 
+    @Resource
+    private BatchInsertProperties batchInsertProperties;
+
     @Override
     public Boolean save(KnowledgeVectorDO vector) {
         if (vector.getCreateTime() == null) {
@@ -44,17 +66,28 @@ public class KnowledgeVectorRepositoryImpl implements KnowledgeVectorRepository
 
     @Override
     public Boolean saveBatch(List<KnowledgeVectorDO> vectors) {
+        if (vectors == null || vectors.isEmpty()) {
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
         for (KnowledgeVectorDO vector : vectors) {
+            if (vector.getId() == null) {
+                vector.setId(IdWorker.get32UUID());
+            }
             if (vector.getCreateTime() == null) {
-                vector.setCreateTime(LocalDateTime.now());
+                vector.setCreateTime(now);
             }
             if (vector.getUpdateTime() == null) {
-                vector.setUpdateTime(LocalDateTime.now());
+                vector.setUpdateTime(now);
             }
             if (vector.getDeleted() == null) {
                 vector.setDeleted(0);
             }
-            knowledgeVectorMapper.insert(vector);
+        }
+        // 多行插入，每条语句的行数受 PostgreSQL 单语句参数上限约束，配置的批大小超出时按上限截断
+        int rowsPerInsert = Math.min(batchInsertProperties.getChunkSize(), MAX_ROWS_PER_INSERT);
+        for (List<KnowledgeVectorDO> partition : Lists.partition(vectors, rowsPerInsert)) {
+            knowledgeVectorMapper.insertBatch(partition);
         }
         return true;
     }
@@ -117,8 +150,15 @@ public class KnowledgeVectorRepositoryImpl implements KnowledgeVectorRepository
     }
 
     @Override
-    public List<KnowledgeVectorModel> similaritySearch(Long knowledgeBaseId, String embedding, Integer topK) {
+    public List<KnowledgeVectorModel> similaritySearch(Long knowledgeBaseId, float[] embedding, Integer topK) {
         return knowledgeVectorMapper.similaritySearch(knowledgeBaseId, embedding, topK);
     }
-}
 
+    @Override
+    public List<KnowledgeVectorModel> similaritySearch(Collection<Long> knowledgeBaseIds, float[] embedding, Integer topK) {
+        if (knowledgeBaseIds == null || knowledgeBaseIds.isEmpty()) {
+            return List.of();
+        }
+        return knowledgeVectorMapper.similaritySearchInKnowledgeBases(knowledgeBaseIds.toArray(new Long[0]), embedding, topK);
+    }
+}
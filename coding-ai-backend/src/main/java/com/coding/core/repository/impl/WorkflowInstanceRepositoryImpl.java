@@ -2,6 +2,7 @@ package com.coding.core.repository.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.coding.core.config.BatchInsertProperties;
 import com.coding.core.mapper.WorkflowInstanceMapper;
 import com.coding.core.model.converter.WorkflowInstanceConverter;
 import com.coding.core.model.entity.WorkflowInstanceDO;
@@ -12,6 +13,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * 工作流实例Repository实现类
  * @author coding
@@ -23,6 +27,8 @@ public class WorkflowInstanceRepositoryImpl implements WorkflowInstanceRepositor
 
     private final WorkflowInstanceMapper workflowInstanceMapper;
 
+    private final BatchInsertProperties batchInsertProperties;
+
     @Override
     public Long add(WorkflowInstanceModel workflowInstanceModel) {
         WorkflowInstanceDO workflowInstanceDO = WorkflowInstanceConverter.INSTANCE.modelToDO(workflowInstanceModel);
@@ -38,6 +44,18 @@ public class WorkflowInstanceRepositoryImpl implements WorkflowInstanceRepositor
         return workflowInstanceMapper.updateById(WorkflowInstanceConverter.INSTANCE.modelToDO(workflowInstanceModel));
     }
 
+    @Override
+    public int updateBatchById(List<WorkflowInstanceModel> workflowInstanceModels) {
+        if (workflowInstanceModels == null || workflowInstanceModels.isEmpty()) {
+            return 0;
+        }
+        List<WorkflowInstanceDO> entities = workflowInstanceModels.stream()
+                .map(WorkflowInstanceConverter.INSTANCE::modelToDO)
+                .collect(Collectors.toList());
+        workflowInstanceMapper.updateById(entities, batchInsertProperties.getChunkSize());
+        return entities.size();
+    }
+
     @Override
     public int delete(String id) {
         return workflowInstanceMapper.deleteById(id);
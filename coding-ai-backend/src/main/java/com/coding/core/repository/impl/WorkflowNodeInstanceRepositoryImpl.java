@@ -2,6 +2,7 @@ package com.coding.core.repository.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.coding.core.config.BatchInsertProperties;
 import com.coding.core.mapper.WorkflowNodeInstanceMapper;
 import com.coding.core.model.converter.WorkflowNodeInstanceConverter;
 import com.coding.core.model.entity.WorkflowNodeInstanceDO;
@@ -26,6 +27,8 @@ public class WorkflowNodeInstanceRepositoryImpl implements WorkflowNodeInstanceR
 
     private final WorkflowNodeInstanceMapper workflowNodeInstanceMapper;
 
+    private final BatchInsertProperties batchInsertProperties;
+
     @Override
     public int add(WorkflowNodeInstanceModel workflowNodeInstanceModel) {
         WorkflowNodeInstanceDO entity = WorkflowNodeInstanceConverter.INSTANCE.modelToDO(workflowNodeInstanceModel);
@@ -46,6 +49,30 @@ public class WorkflowNodeInstanceRepositoryImpl implements WorkflowNodeInstanceR
         return workflowNodeInstanceMapper.update(nodeDO, updateWrapper);
     }
 
+    @Override
+    public int addBatch(List<WorkflowNodeInstanceModel> workflowNodeInstanceModels) {
+        if (workflowNodeInstanceModels == null || workflowNodeInstanceModels.isEmpty()) {
+            return 0;
+        }
+        List<WorkflowNodeInstanceDO> entities = workflowNodeInstanceModels.stream()
+                .map(WorkflowNodeInstanceConverter.INSTANCE::modelToDO)
+                .collect(Collectors.toList());
+        workflowNodeInstanceMapper.insert(entities, batchInsertProperties.getChunkSize());
+        return entities.size();
+    }
+
+    @Override
+    public int updateBatchById(List<WorkflowNodeInstanceModel> workflowNodeInstanceModels) {
+        if (workflowNodeInstanceModels == null || workflowNodeInstanceModels.isEmpty()) {
+            return 0;
+        }
+        List<WorkflowNodeInstanceDO> entities = workflowNodeInstanceModels.stream()
+                .map(WorkflowNodeInstanceConverter.INSTANCE::modelToDO)
+                .collect(Collectors.toList());
+        workflowNodeInstanceMapper.updateById(entities, batchInsertProperties.getChunkSize());
+        return entities.size();
+    }
+
     @Override
     public int delete(String id) {
         return workflowNodeInstanceMapper.deleteById(id);
@@ -29,5 +29,15 @@ public interface CacheService {
      */
     boolean hasRemoteKey(String key);
 
+    /**
+     * 设置二进制远程缓存，值不经过字符串序列化
+     */
+    void setRemoteBytes(String key, byte[] value, long timeout, TimeUnit unit);
+
+    /**
+     * 获取二进制远程缓存
+     */
+    byte[] getRemoteBytes(String key);
+
     // ----------------- 本地缓存相关接口 -----------------
 }
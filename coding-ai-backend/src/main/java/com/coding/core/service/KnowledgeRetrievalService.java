@@ -0,0 +1,31 @@
+package com.coding.core.service;
+
+import com.coding.core.model.model.KnowledgeVectorModel;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 知识库检索服务，供检索节点与 Agent 节点共用
+ */
+public interface KnowledgeRetrievalService {
+
+    /**
+     * 跨多个知识库检索与查询最相似的分块
+     * @param query 查询文本
+     * @param embeddingModelName 嵌入模型名称，为空时使用默认模型
+     * @param knowledgeBaseIds 知识库ID集合
+     * @param topK 返回数量（全部知识库合计）
+     * @return 按相似度降序的分块列表
+     */
+    List<KnowledgeVectorModel> retrieve(String query, String embeddingModelName, Collection<Long> knowledgeBaseIds, int topK);
+
+    /**
+     * 使用已生成的查询向量跨多个知识库检索
+     * @param queryEmbedding 查询向量
+     * @param knowledgeBaseIds 知识库ID集合
+     * @param topK 返回数量（全部知识库合计）
+     * @return 按相似度降序的分块列表
+     */
+    List<KnowledgeVectorModel> search(float[] queryEmbedding, Collection<Long> knowledgeBaseIds, int topK);
+}
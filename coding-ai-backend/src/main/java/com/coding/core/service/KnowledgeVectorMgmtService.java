@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.coding.core.model.request.KnowledgeVectorAddRequest;
 import com.coding.core.model.request.KnowledgeVectorPageRequest;
 import com.coding.core.model.request.KnowledgeVectorUpdateRequest;
+import com.coding.core.model.vo.KnowledgeIngestionJobVO;
 import com.coding.core.model.vo.KnowledgeVectorVO;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -52,12 +53,19 @@ public interface KnowledgeVectorMgmtService {
 
 
     /**
-     * 根据文件类型将文件向量化到知识库中。
+     * 根据文件类型将文件向量化到知识库中，异步执行。
      *
      * @param file 上传到文件
-     * @return 是否上传成功
+     * @return 导入任务ID
      */
-    Boolean loadFileByType(Long knowledgeBaseId, MultipartFile file);
+    String loadFileByType(Long knowledgeBaseId, MultipartFile file);
+
+    /**
+     * 查询文件导入任务进度
+     * @param jobId 任务ID
+     * @return 任务进度
+     */
+    KnowledgeIngestionJobVO getIngestionJob(String jobId);
 
     /**
      * 相似性搜索
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.coding.core.model.model.WorkflowConfigModel;
 import com.coding.core.model.model.WorkflowInstanceModel;
 import com.coding.core.model.response.WorkflowRunningResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -45,6 +46,14 @@ public interface WorkflowConfigService {
      */
     WorkflowRunningResult getWorkflowRunningResult(String workflowInstanceId);
 
+    /**
+     * 订阅工作流执行进度（SSE）
+     * @param workflowInstanceId 工作流实例ID
+     * @param afterSeq 客户端最后收到的事件序号，从头订阅时为 0
+     * @return SSE 连接
+     */
+    SseEmitter streamWorkflowProgress(String workflowInstanceId, long afterSeq);
+
     /**
      * 查询当前用户的工作流列表
      * @return 工作流配置列表
@@ -2,6 +2,7 @@ package com.coding.core.service.impl;
 
 import cn.hutool.core.collection.CollectionUtil;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.coding.core.config.ChatHistoryProperties;
 import com.coding.core.model.converter.ChatConversationConverter;
 import com.coding.core.model.model.ChatConversationModel;
 import com.coding.core.model.vo.ChatConversationVO;
@@ -12,6 +13,7 @@ import com.coding.workflow.exception.BizException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.stereotype.Service;
 
@@ -33,6 +35,7 @@ public class ChatConversationServiceImpl implements ChatConversationService {
 
     private final ChatConversationRepository chatConversationRepository;
     private final ChatMessageService chatMessageService;
+    private final ChatHistoryProperties chatHistoryProperties;
 
     @Override
     public String createConversation(ChatConversationModel chatConversationModel) {
@@ -112,7 +115,7 @@ public class ChatConversationServiceImpl implements ChatConversationService {
         // 添加历史消息
         List<Message> history = chatMessageService.findMessages(conversationId);
         if (CollectionUtil.isNotEmpty(history)) {
-            messages.addAll(history);
+            messages.addAll(windowHistory(history));
         }
 
         // 添加当前用户输入
@@ -120,5 +123,20 @@ public class ChatConversationServiceImpl implements ChatConversationService {
 
         return messages;
     }
-}
 
+    /**
+     * WINDOW 模式下只保留最近 windowSize 条历史；窗口起点落在工具响应上时继续后移，
+     * 避免发送缺少对应工具调用的工具响应
+     */
+    private List<Message> windowHistory(List<Message> history) {
+        if (chatHistoryProperties.getRestoreMode() != ChatHistoryProperties.RestoreMode.WINDOW
+                || history.size() <= chatHistoryProperties.getWindowSize()) {
+            return history;
+        }
+        int start = history.size() - chatHistoryProperties.getWindowSize();
+        while (start < history.size() && history.get(start) instanceof ToolResponseMessage) {
+            start++;
+        }
+        return history.subList(start, history.size());
+    }
+}
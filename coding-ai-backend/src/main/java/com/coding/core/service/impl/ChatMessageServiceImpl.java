@@ -1,10 +1,16 @@
 package com.coding.core.service.impl;
 
+import com.coding.core.config.ChatHistoryProperties;
 import com.coding.core.model.model.ChatMessageModel;
 import com.coding.core.repository.ChatMessageRepository;
 import com.coding.core.service.ChatMessageService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
@@ -13,6 +19,7 @@ import org.springframework.ai.chat.messages.*;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 聊天消息服务实现类
@@ -28,81 +35,57 @@ public class ChatMessageServiceImpl implements ChatMessageService {
     @Resource
     private ObjectMapper objectMapper;
 
+    @Resource
+    private ChatHistoryProperties chatHistoryProperties;
+
+    @Resource
+    private MeterRegistry meterRegistry;
 
+    /**
+     * 会话ID => 已解析的会话历史
+     */
+    private Cache<String, ConversationHistory> historyCache;
+
+    @PostConstruct
+    private void initHistoryCache() {
+        this.historyCache = CacheBuilder.newBuilder()
+                .maximumWeight(chatHistoryProperties.getMaximumWeightMb() * 1024 * 1024)
+                .weigher((String conversationId, ConversationHistory history) -> history.weight())
+                .expireAfterAccess(chatHistoryProperties.getExpireAfterAccessMinutes(), TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, historyCache, "coding.chat.history.cache");
+    }
+
+    /**
+     * 获取会话历史
+     * 缓存命中时只查询最后一条已缓存消息之后的新消息并追加，未命中时全量加载一次；
+     * 返回的列表不可修改
+     */
     @Override
     public List<Message> findMessages(String conversationId) {
         if (StringUtils.isBlank(conversationId)) {
             return Collections.emptyList();
         }
-        List<ChatMessageModel> chatMessageModels = chatMessageRepository.getByConversationId(conversationId);
-        return chatMessageModels.stream()
-                .filter(chatMessageModel -> StringUtils.isNotBlank(chatMessageModel.getMessages()))
-                .<Message>map(chatMessageModel -> {
-                    String type = chatMessageModel.getType().toUpperCase();
-                    String messageJson = chatMessageModel.getMessages();
+        if (!chatHistoryProperties.isCacheEnabled()) {
+            return appendRows(ConversationHistory.EMPTY, chatMessageRepository.getByConversationId(conversationId)).messages();
+        }
 
-                    try {
-                        JsonNode jsonNode = objectMapper.readTree(messageJson);
-                        String text = jsonNode.has("text") ? jsonNode.get("text").asText() : "";
-                        
-                        // 解析 metadata
-                        Map<String, Object> metadata = new HashMap<>();
-                        if (jsonNode.has("metadata") && jsonNode.get("metadata").isObject()) {
-                            JsonNode metadataNode = jsonNode.get("metadata");
-                            metadataNode.fields().forEachRemaining(entry -> {
-                                metadata.put(entry.getKey(), entry.getValue().asText());
-                            });
-                        }
+        ConversationHistory cached = historyCache.getIfPresent(conversationId);
+        if (cached == null) {
+            ConversationHistory loaded = appendRows(ConversationHistory.EMPTY, chatMessageRepository.getByConversationId(conversationId));
+            historyCache.put(conversationId, loaded);
+            return loaded.messages();
+        }
 
-                        return switch (type) {
-                            case "ASSISTANT" -> {
-                                // 解析 toolCalls
-                                List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
-                                if (jsonNode.has("toolCalls") && jsonNode.get("toolCalls").isArray()) {
-                                    for (JsonNode toolCallNode : jsonNode.get("toolCalls")) {
-                                        String id = toolCallNode.has("id") ? toolCallNode.get("id").asText() : "";
-                                        String callType = toolCallNode.has("type") ? toolCallNode.get("type").asText() : "function";
-                                        String name = toolCallNode.has("name") ? toolCallNode.get("name").asText() : "";
-                                        String arguments = toolCallNode.has("arguments") ? toolCallNode.get("arguments").asText() : "";
-                                        toolCalls.add(new AssistantMessage.ToolCall(id, callType, name, arguments));
-                                    }
-                                }
-                                yield AssistantMessage.builder()
-                                        .content(text)
-                                        .properties(metadata)
-                                        .toolCalls(toolCalls)
-                                        .build();
-                            }
-                            case "TOOL" -> {
-                                // 解析 responses
-                                List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>();
-                                if (jsonNode.has("responses") && jsonNode.get("responses").isArray()) {
-                                    for (JsonNode responseNode : jsonNode.get("responses")) {
-                                        String id = responseNode.has("id") ? responseNode.get("id").asText() : "";
-                                        String name = responseNode.has("name") ? responseNode.get("name").asText() : "";
-                                        String responseData = responseNode.has("responseData") ? responseNode.get("responseData").asText() : "";
-                                        responses.add(new ToolResponseMessage.ToolResponse(id, name, responseData));
-                                    }
-                                }
-                                yield ToolResponseMessage.builder()
-                                        .responses(responses)
-                                        .metadata(metadata)
-                                        .build();
-                            }
-                            case "USER" -> new UserMessage(text);
-                            case "SYSTEM" -> new SystemMessage(text);
-                            default -> {
-                                log.warn("Unknown message type: {}, treating as user message", type);
-                                yield new UserMessage(text);
-                            }
-                        };
-                    } catch (Exception e) {
-                        log.error("Failed to deserialize message: {}", messageJson, e);
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .toList();
+        List<ChatMessageModel> newer = chatMessageRepository.getByConversationIdAfterId(conversationId, cached.lastId());
+        if (newer.isEmpty()) {
+            return cached.messages();
+        }
+        ConversationHistory merged = appendRows(cached, newer);
+        // 期间有其他线程更新过缓存时以对方为准
+        historyCache.asMap().computeIfPresent(conversationId, (key, current) -> current == cached ? merged : current);
+        return merged.messages();
     }
 
     @Override
@@ -123,6 +106,110 @@ public class ChatMessageServiceImpl implements ChatMessageService {
                 .filter(model -> model != null)
                 .toList();
         chatMessageRepository.add(messageModels);
+        appendToHistoryCache(conversationId, messageModels);
+    }
+
+    /**
+     * 追加新写入的消息到已缓存的会话历史，新消息ID不大于缓存的最后ID时（并发写入乱序）直接失效
+     */
+    private void appendToHistoryCache(String conversationId, List<ChatMessageModel> savedModels) {
+        if (!chatHistoryProperties.isCacheEnabled() || StringUtils.isBlank(conversationId) || savedModels.isEmpty()) {
+            return;
+        }
+        long firstId = savedModels.stream()
+                .map(ChatMessageModel::getId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .min()
+                .orElse(0L);
+        historyCache.asMap().computeIfPresent(conversationId, (key, current) ->
+                firstId > current.lastId() ? appendRows(current, savedModels) : null);
+    }
+
+    /**
+     * 解析消息记录并追加到历史快照之后，空消息体的记录跳过但仍推进最后ID
+     */
+    private ConversationHistory appendRows(ConversationHistory base, List<ChatMessageModel> rows) {
+        List<Message> parsed = rows.stream()
+                .filter(chatMessageModel -> StringUtils.isNotBlank(chatMessageModel.getMessages()))
+                .map(this::toMessage)
+                .filter(Objects::nonNull)
+                .toList();
+        long lastId = rows.stream()
+                .map(ChatMessageModel::getId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(base.lastId());
+        return base.append(parsed, Math.max(lastId, base.lastId()));
+    }
+
+    /**
+     * 将消息记录反序列化为 Spring AI 消息，无法解析时返回 null
+     */
+    private Message toMessage(ChatMessageModel chatMessageModel) {
+        String type = chatMessageModel.getType().toUpperCase();
+        String messageJson = chatMessageModel.getMessages();
+
+        try {
+            JsonNode jsonNode = objectMapper.readTree(messageJson);
+            String text = jsonNode.has("text") ? jsonNode.get("text").asText() : "";
+
+            // 解析 metadata
+            Map<String, Object> metadata = new HashMap<>();
+            if (jsonNode.has("metadata") && jsonNode.get("metadata").isObject()) {
+                JsonNode metadataNode = jsonNode.get("metadata");
+                metadataNode.fields().forEachRemaining(entry -> {
+                    metadata.put(entry.getKey(), entry.getValue().asText());
+                });
+            }
+
+            return switch (type) {
+                case "ASSISTANT" -> {
+                    // 解析 toolCalls
+                    List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
+                    if (jsonNode.has("toolCalls") && jsonNode.get("toolCalls").isArray()) {
+                        for (JsonNode toolCallNode : jsonNode.get("toolCalls")) {
+                            String id = toolCallNode.has("id") ? toolCallNode.get("id").asText() : "";
+                            String callType = toolCallNode.has("type") ? toolCallNode.get("type").asText() : "function";
+                            String name = toolCallNode.has("name") ? toolCallNode.get("name").asText() : "";
+                            String arguments = toolCallNode.has("arguments") ? toolCallNode.get("arguments").asText() : "";
+                            toolCalls.add(new AssistantMessage.ToolCall(id, callType, name, arguments));
+                        }
+                    }
+                    yield AssistantMessage.builder()
+                            .content(text)
+                            .properties(metadata)
+                            .toolCalls(toolCalls)
+                            .build();
+                }
+                case "TOOL" -> {
+                    // 解析 responses
+                    List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>();
+                    if (jsonNode.has("responses") && jsonNode.get("responses").isArray()) {
+                        for (JsonNode responseNode : jsonNode.get("responses")) {
+                            String id = responseNode.has("id") ? responseNode.get("id").asText() : "";
+                            String name = responseNode.has("name") ? responseNode.get("name").asText() : "";
+                            String responseData = responseNode.has("responseData") ? responseNode.get("responseData").asText() : "";
+                            responses.add(new ToolResponseMessage.ToolResponse(id, name, responseData));
+                        }
+                    }
+                    yield ToolResponseMessage.builder()
+                            .responses(responses)
+                            .metadata(metadata)
+                            .build();
+                }
+                case "USER" -> new UserMessage(text);
+                case "SYSTEM" -> new SystemMessage(text);
+                default -> {
+                    log.warn("Unknown message type: {}, treating as user message", type);
+                    yield new UserMessage(text);
+                }
+            };
+        } catch (Exception e) {
+            log.error("Failed to deserialize message: {}", messageJson, e);
+            return null;
+        }
     }
 
     @Override
@@ -145,6 +232,7 @@ public class ChatMessageServiceImpl implements ChatMessageService {
 
         // 批量删除所有相关消息
         int removedCount = deleteMessagesBatch(messageIdsToDelete);
+        historyCache.invalidate(conversationId);
         log.info("Removed {} incomplete tool-call messages, conversationId={}", removedCount, conversationId);
     }
 
@@ -274,4 +362,51 @@ public class ChatMessageServiceImpl implements ChatMessageService {
         return data;
     }
 
+    /**
+     * 已解析的会话历史快照，不可变，追加时生成新快照
+     *
+     * @param lastId 已加载的最后一条消息ID
+     * @param messages 消息列表
+     * @param weight 估算占用（字节）
+     */
+    private record ConversationHistory(long lastId, List<Message> messages, int weight) {
+
+        private static final ConversationHistory EMPTY = new ConversationHistory(0L, List.of(), 0);
+
+        /** 单条消息的固定开销估算（字节） */
+        private static final int MESSAGE_OVERHEAD = 128;
+
+        ConversationHistory append(List<Message> newMessages, long newLastId) {
+            if (newMessages.isEmpty()) {
+                return new ConversationHistory(newLastId, messages, weight);
+            }
+            List<Message> merged = new ArrayList<>(messages.size() + newMessages.size());
+            merged.addAll(messages);
+            merged.addAll(newMessages);
+            long newWeight = weight;
+            for (Message message : newMessages) {
+                newWeight += estimateWeight(message);
+            }
+            return new ConversationHistory(newLastId, Collections.unmodifiableList(merged),
+                    (int) Math.min(Integer.MAX_VALUE, newWeight));
+        }
+
+        /**
+         * 按文本长度估算消息占用，字符按 2 字节计
+         */
+        private static long estimateWeight(Message message) {
+            long chars = message.getText() != null ? message.getText().length() : 0;
+            if (message instanceof AssistantMessage assistantMessage && assistantMessage.hasToolCalls()) {
+                for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
+                    chars += toolCall.arguments() != null ? toolCall.arguments().length() : 0;
+                }
+            }
+            if (message instanceof ToolResponseMessage toolResponseMessage) {
+                for (ToolResponseMessage.ToolResponse response : toolResponseMessage.getResponses()) {
+                    chars += response.responseData() != null ? response.responseData().length() : 0;
+                }
+            }
+            return MESSAGE_OVERHEAD + chars * 2;
+        }
+    }
 }
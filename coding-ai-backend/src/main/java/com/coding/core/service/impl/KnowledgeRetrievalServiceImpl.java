@@ -0,0 +1,158 @@
+package com.coding.core.service.impl;
+
+import com.coding.core.config.KnowledgeRetrievalProperties;
+import com.coding.core.manager.QueryEmbeddingManager;
+import com.coding.core.model.model.KnowledgeVectorModel;
+import com.coding.core.repository.KnowledgeVectorRepository;
+import com.coding.core.service.KnowledgeRetrievalService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 知识库检索服务实现
+ * 默认以一条 SQL（knowledge_base_id = ANY(?)）跨知识库检索，由数据库按距离排序并截取全局 topK；
+ * 向量表按知识库分区或分库时可切换为 FAN_OUT，按知识库并行检索后在内存中合并
+ */
+@Slf4j
+@Service
+public class KnowledgeRetrievalServiceImpl implements KnowledgeRetrievalService {
+
+    private static final String METRIC_PREFIX = "coding.knowledge.retrieval";
+
+    private static final Comparator<KnowledgeVectorModel> BY_SIMILARITY_DESC =
+            Comparator.comparing(KnowledgeVectorModel::getSimilarity,
+                    Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final QueryEmbeddingManager queryEmbeddingManager;
+
+    private final KnowledgeVectorRepository knowledgeVectorRepository;
+
+    private final KnowledgeRetrievalProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * FAN_OUT 策略使用的检索线程池，固定线程池按需创建线程，SINGLE_QUERY 策略下不会产生线程
+     */
+    private final ExecutorService fanOutExecutor;
+
+    public KnowledgeRetrievalServiceImpl(QueryEmbeddingManager queryEmbeddingManager,
+                                         KnowledgeVectorRepository knowledgeVectorRepository,
+                                         KnowledgeRetrievalProperties properties,
+                                         MeterRegistry meterRegistry) {
+        this.queryEmbeddingManager = queryEmbeddingManager;
+        this.knowledgeVectorRepository = knowledgeVectorRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.fanOutExecutor = Executors.newFixedThreadPool(properties.getFanOutThreads(),
+                namedThreadFactory("knowledge-retrieval-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    @Override
+    public List<KnowledgeVectorModel> retrieve(String query, String embeddingModelName,
+                                               Collection<Long> knowledgeBaseIds, int topK) {
+        if (StringUtils.isBlank(query) || knowledgeBaseIds == null || knowledgeBaseIds.isEmpty() || topK <= 0) {
+            return Collections.emptyList();
+        }
+        float[] queryEmbedding = queryEmbeddingManager.embed(query, embeddingModelName);
+        if (queryEmbedding == null) {
+            return Collections.emptyList();
+        }
+        return search(queryEmbedding, knowledgeBaseIds, topK);
+    }
+
+    @Override
+    public List<KnowledgeVectorModel> search(float[] queryEmbedding, Collection<Long> knowledgeBaseIds, int topK) {
+        if (queryEmbedding == null || knowledgeBaseIds == null || knowledgeBaseIds.isEmpty() || topK <= 0) {
+            return Collections.emptyList();
+        }
+        // 去重，避免同一知识库在 FAN_OUT 下重复检索、在 ANY 数组中重复出现
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(knowledgeBaseIds));
+        KnowledgeRetrievalProperties.Strategy strategy = distinctIds.size() == 1
+                ? KnowledgeRetrievalProperties.Strategy.SINGLE_QUERY
+                : properties.getStrategy();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<KnowledgeVectorModel> results = strategy == KnowledgeRetrievalProperties.Strategy.FAN_OUT
+                ? fanOutSearch(queryEmbedding, distinctIds, topK)
+                : knowledgeVectorRepository.similaritySearch(distinctIds, queryEmbedding, topK);
+        sample.stop(Timer.builder(METRIC_PREFIX)
+                .tag("strategy", strategy.name())
+                .register(meterRegistry));
+
+        log.info("知识库检索完成，策略: {}，知识库数量: {}，命中分块: {}", strategy, distinctIds.size(), results.size());
+        return results;
+    }
+
+    /**
+     * 按知识库并行检索，每个知识库取 topK 后合并为全局 topK；单个知识库失败或超时时跳过，返回其余结果
+     */
+    private List<KnowledgeVectorModel> fanOutSearch(float[] queryEmbedding, List<Long> knowledgeBaseIds, int topK) {
+        Map<Long, CompletableFuture<List<KnowledgeVectorModel>>> futures = knowledgeBaseIds.stream()
+                .collect(Collectors.toMap(id -> id,
+                        id -> CompletableFuture.supplyAsync(
+                                () -> knowledgeVectorRepository.similaritySearch(id, queryEmbedding, topK), fanOutExecutor),
+                        (a, b) -> a, LinkedHashMap::new));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getFanOutTimeoutMs());
+        List<KnowledgeVectorModel> merged = new ArrayList<>();
+        for (Map.Entry<Long, CompletableFuture<List<KnowledgeVectorModel>>> entry : futures.entrySet()) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                List<KnowledgeVectorModel> docs = entry.getValue().get(remaining, TimeUnit.NANOSECONDS);
+                if (docs != null) {
+                    merged.addAll(docs);
+                }
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                log.warn("知识库 {} 检索超时，已跳过", entry.getKey());
+            } catch (ExecutionException e) {
+                log.error("知识库 {} 检索失败，已跳过", entry.getKey(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(future -> future.cancel(true));
+                break;
+            }
+        }
+        return merged.stream()
+                .sorted(BY_SIMILARITY_DESC)
+                .limit(topK)
+                .collect(Collectors.toList());
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
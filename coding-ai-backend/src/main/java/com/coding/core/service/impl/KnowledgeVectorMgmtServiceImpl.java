@@ -2,11 +2,14 @@ package com.coding.core.service.impl;
 
 import com.baomidou.dynamic.datasource.annotation.DS;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.coding.core.manager.KnowledgeIngestionManager;
+import com.coding.core.manager.QueryEmbeddingManager;
 import com.coding.core.model.entity.KnowledgeVectorDO;
 import com.coding.core.model.model.KnowledgeVectorModel;
 import com.coding.core.model.request.KnowledgeVectorAddRequest;
 import com.coding.core.model.request.KnowledgeVectorPageRequest;
 import com.coding.core.model.request.KnowledgeVectorUpdateRequest;
+import com.coding.core.model.vo.KnowledgeIngestionJobVO;
 import com.coding.core.model.vo.KnowledgeVectorVO;
 import com.coding.core.repository.KnowledgeBaseRepository;
 import com.coding.core.repository.KnowledgeVectorRepository;
@@ -15,12 +18,9 @@ import com.coding.workflow.exception.BizException;
 import com.coding.workflow.utils.AssertUtil;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.document.Document;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.embedding.EmbeddingRequest;
 import org.springframework.ai.embedding.EmbeddingResponse;
-import org.springframework.ai.reader.pdf.PagePdfDocumentReader;
-import org.springframework.ai.reader.tika.TikaDocumentReader;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -29,7 +29,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -52,11 +51,17 @@ public class KnowledgeVectorMgmtServiceImpl implements KnowledgeVectorMgmtServic
     @Resource
     private EmbeddingModel embeddingModel;
 
+    @Resource
+    private KnowledgeIngestionManager knowledgeIngestionManager;
+
+    @Resource
+    private QueryEmbeddingManager queryEmbeddingManager;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public String addVector(KnowledgeVectorAddRequest request) {
         // 生成向量嵌入
-        String embedding = generateEmbedding(request.getContent());
+        float[] embedding = generateEmbedding(request.getContent());
         
         KnowledgeVectorDO vector = KnowledgeVectorDO.builder()
                 .knowledgeBaseId(request.getKnowledgeBaseId())
@@ -79,53 +84,37 @@ public class KnowledgeVectorMgmtServiceImpl implements KnowledgeVectorMgmtServic
 
     /**
      * 将文件加载到指定知识库中
+     * 请求线程只保存临时文件并提交导入任务，解析、向量化与写库在后台批量执行
      * @param file 文件
-     * @param knowledgeBaseId 知识库ID，如果为null则使用默认的vectorStore
-     * @return 是否成功
+     * @param knowledgeBaseId 知识库ID
+     * @return 导入任务ID
      */
-    @Transactional(rollbackFor = Exception.class)
-    public Boolean loadFileByType(Long knowledgeBaseId, MultipartFile file) {
+    @Override
+    public String loadFileByType(Long knowledgeBaseId, MultipartFile file) {
         AssertUtil.isNotNull(file, "上传的文件不能为空");
         log.info("开始处理文件上传：fileName={}, fileSize={}, knowledgeBaseId={}",
                 file.getOriginalFilename(), file.getSize(), knowledgeBaseId);
         try {
-            // 1. 创建临时文件
+            // 1. 创建临时文件，任务结束后由导入管理器删除
             Path tempFile = Files.createTempFile("upload_", "_" + file.getOriginalFilename());
             Files.copy(file.getInputStream(), tempFile, StandardCopyOption.REPLACE_EXISTING);
 
-            // 2. 读取文件内容
-            List<Document> documents;
-            // 读取不同类型的文件内容
+            // 2. 提交导入任务
             String fileName = file.getOriginalFilename();
-            String fileType = getFileType(fileName);
-
-            if (fileName.toLowerCase().endsWith("pdf")) {
-                // 读取PDF文件内容
-                PagePdfDocumentReader pdfReader = new PagePdfDocumentReader(tempFile.toUri().toString());
-                documents = pdfReader.get();
-            } else {
-                // 处理其他文件类型
-                TikaDocumentReader tikaReader = new TikaDocumentReader(tempFile.toUri().toString());
-                documents = tikaReader.get();
-            }
-
-            // 3. 将内容存储到向量数据库
-            saveToKnowledgeBase(documents, knowledgeBaseId, fileName, fileType);
-
-            // 4. 删除临时文件
-            Files.deleteIfExists(tempFile);
-
-            log.info("文件处理完成: fileName={}, documentsCount={}, knowledgeBaseId={}",
-                    fileName, documents.size(), knowledgeBaseId);
-
-            return true;
-
+            return knowledgeIngestionManager.submit(knowledgeBaseId, tempFile, fileName, getFileType(fileName));
         } catch (IOException e) {
             log.error("文件处理失败: fileName={}, error={}", file.getOriginalFilename(), e.getMessage(), e);
             throw new BizException("上传文件至知识库失败：" + e.getMessage());
         }
     }
 
+    @Override
+    public KnowledgeIngestionJobVO getIngestionJob(String jobId) {
+        KnowledgeIngestionJobVO job = knowledgeIngestionManager.getJob(jobId);
+        AssertUtil.isNotNull(job, "导入任务不存在或已过期");
+        return job;
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Boolean updateVector(KnowledgeVectorUpdateRequest request) {
@@ -139,7 +128,7 @@ public class KnowledgeVectorMgmtServiceImpl implements KnowledgeVectorMgmtServic
         if (request.getContent() != null) {
             vector.setContent(request.getContent());
             // 重新生成向量嵌入
-            String embedding = generateEmbedding(request.getContent());
+            float[] embedding = generateEmbedding(request.getContent());
             vector.setEmbedding(embedding);
         }
         if (request.getMetadata() != null) {
@@ -191,8 +180,9 @@ public class KnowledgeVectorMgmtServiceImpl implements KnowledgeVectorMgmtServic
 
     @Override
     public List<KnowledgeVectorVO> similaritySearch(Long knowledgeBaseId, String query, Integer topK) {
-        // 生成查询向量
-        String queryEmbedding = generateEmbedding(query);
+        // 生成查询向量（经查询向量缓存）
+        float[] queryEmbedding = queryEmbeddingManager.embed(query, null);
+        AssertUtil.isNotNull(queryEmbedding, "生成查询向量失败");
         
         // 执行相似性搜索
         List<KnowledgeVectorModel> vectors = knowledgeVectorRepository.similaritySearch(
@@ -203,35 +193,6 @@ public class KnowledgeVectorMgmtServiceImpl implements KnowledgeVectorMgmtServic
                 .collect(Collectors.toList());
     }
 
-    /**
-     * 将文档保存到指定知识库
-     */
-    private void saveToKnowledgeBase(List<Document> documents, Long knowledgeBaseId, String fileName, String fileType) {
-        List<KnowledgeVectorDO> vectors = new ArrayList<>();
-
-        for (Document doc : documents) {
-            // 生成向量嵌入
-            String embedding = generateEmbedding(doc.getFormattedContent());
-
-            KnowledgeVectorDO vector = KnowledgeVectorDO.builder()
-                    .knowledgeBaseId(knowledgeBaseId)
-                    .content(doc.getFormattedContent())
-                    .metadata(doc.getMetadata() != null ? doc.getMetadata().toString() : null)
-                    .embedding(embedding)
-                    .fileName(fileName)
-                    .fileType(fileType)
-                    .build();
-
-            vectors.add(vector);
-        }
-
-        // 批量保存
-        knowledgeVectorRepository.saveBatch(vectors);
-
-        // 更新知识库的向量数量
-        knowledgeBaseRepository.increaseVectorCount(knowledgeBaseId, (long) vectors.size());
-    }
-
     /**
      * 获取文件类型
      */
@@ -244,24 +205,11 @@ public class KnowledgeVectorMgmtServiceImpl implements KnowledgeVectorMgmtServic
 
     /**
      * 生成向量嵌入
-     * 返回PostgreSQL pgvector格式：[0.1,0.2,0.3,...]
      */
-    private String generateEmbedding(String content) {
+    private float[] generateEmbedding(String content) {
         try {
             EmbeddingResponse response = embeddingModel.call(new EmbeddingRequest(List.of(content), null));
-            float[] embedding = response.getResult().getOutput();
-            
-            // 将float数组转换为PostgreSQL pgvector格式 [0.1,0.2,0.3,...]
-            StringBuilder sb = new StringBuilder("[");
-            for (int i = 0; i < embedding.length; i++) {
-                if (i > 0) {
-                    sb.append(",");
-                }
-                sb.append(embedding[i]);
-            }
-            sb.append("]");
-            
-            return sb.toString();
+            return response.getResult().getOutput();
         } catch (Exception e) {
             log.error("生成向量嵌入失败: content length={}", content != null ? content.length() : 0, e);
             throw new RuntimeException("生成向量嵌入失败: " + e.getMessage());
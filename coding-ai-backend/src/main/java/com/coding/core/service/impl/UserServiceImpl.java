@@ -120,13 +120,14 @@ public class UserServiceImpl implements UserService {
         String refreshToken = request.getRefreshToken();
 
         // 1. 验证Refresh Token的有效性
-        if (!jwtUtil.validateRefreshToken(refreshToken)) {
+        JwtUtil.TokenPrincipal principal = jwtUtil.verifyRefreshToken(refreshToken);
+        if (principal == null) {
             throw new BizException("刷新令牌无效或已过期");
         }
 
         // 2. 从Token中获取用户信息
-        Long userId = jwtUtil.getUserIdFromToken(refreshToken);
-        String email = jwtUtil.getEmailFromToken(refreshToken);
+        Long userId = principal.userId();
+        String email = principal.email();
 
         if (userId == null || email == null) {
             throw new BizException("刷新令牌信息不完整");
@@ -180,10 +181,8 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Long getUserIdByToken(String token) {
-        if (token == null || !jwtUtil.validateAccessToken(token)) {
-            return null;
-        }
-        return jwtUtil.getUserIdFromToken(token);
+        JwtUtil.TokenPrincipal principal = jwtUtil.verifyAccessToken(token);
+        return principal != null ? principal.userId() : null;
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.coding.core.service.impl;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.coding.core.config.WorkflowProgressProperties;
 import com.coding.core.utils.UserContextHolder;
 import com.coding.core.model.converter.WorkflowInstanceConverter;
 import com.coding.core.model.converter.WorkflowNodeInstanceConverter;
@@ -15,12 +16,16 @@ import com.coding.core.repository.WorkflowInstanceRepository;
 import com.coding.core.repository.WorkflowNodeInstanceRepository;
 import com.coding.core.service.WorkflowConfigService;
 import com.coding.workflow.enums.WorkflowStatusEnum;
+import com.coding.workflow.manager.WorkflowProgressManager;
 import com.coding.workflow.service.AbstractExecuteProcessor;
 import com.coding.workflow.service.WorkflowCoreEngine;
 import com.coding.workflow.utils.AssertUtil;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -35,6 +40,9 @@ import java.util.stream.Collectors;
 @Service
 public class WorkflowConfigServiceImpl implements WorkflowConfigService {
 
+    /** 实例已不在内存中时，推送库表查询结果的事件名 */
+    private static final String PROGRESS_EVENT_SNAPSHOT = "snapshot";
+
     @Resource
     private WorkflowCoreEngine workflowCoreEngine;
 
@@ -50,6 +58,12 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
     @Resource
     private WorkflowNodeInstanceRepository workflowNodeInstanceRepository;
 
+    @Resource
+    private WorkflowProgressManager workflowProgressManager;
+
+    @Resource
+    private WorkflowProgressProperties workflowProgressProperties;
+
     @Override
     public Long addWorkflowConfig(WorkflowConfigModel workflowConfigModel) {
         workflowConfigModel.setCreator(UserContextHolder.getUserId());
@@ -77,6 +91,52 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
 
     @Override
     public WorkflowRunningResult getWorkflowRunningResult(String workflowInstanceId) {
+        // 运行中的实例直接读取内存中的执行进度，已结束或已淘汰的实例查询库表
+        WorkflowProgressManager.WorkflowProgress progress =
+                workflowProgressManager.getRunning(NumberUtils.toLong(workflowInstanceId, -1L));
+        if (progress != null) {
+            return buildRunningResult(progress);
+        }
+        return loadRunningResult(workflowInstanceId);
+    }
+
+    @Override
+    public SseEmitter streamWorkflowProgress(String workflowInstanceId, long afterSeq) {
+        SseEmitter emitter = new SseEmitter(workflowProgressProperties.getStreamTimeoutMs());
+        WorkflowProgressManager.Subscription subscription = workflowProgressManager.subscribe(
+                NumberUtils.toLong(workflowInstanceId, -1L), afterSeq, event -> {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getSeq()))
+                            .name(event.getType())
+                            .data(event, MediaType.APPLICATION_JSON));
+                    if (event.isFinished()) {
+                        emitter.complete();
+                    }
+                });
+
+        if (subscription == null) {
+            // 实例已淘汰出内存：从库表读取一次最终结果后结束连接
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(PROGRESS_EVENT_SNAPSHOT)
+                        .data(loadRunningResult(workflowInstanceId), MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+            return emitter;
+        }
+
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(throwable -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * 从库表查询工作流实例及全部节点实例
+     */
+    private WorkflowRunningResult loadRunningResult(String workflowInstanceId) {
         // 根据实例ID查询工作流实例
         WorkflowInstanceModel workflowInstanceModel = workflowInstanceRepository.getById(workflowInstanceId);
         AssertUtil.isNotNull(workflowInstanceModel, "工作流实例不存在，ID：" + workflowInstanceId);
@@ -138,6 +198,39 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
         }
     }
 
+    /**
+     * 由内存中的执行进度构建运行结果，节点按首次出现的顺序排列
+     */
+    private WorkflowRunningResult buildRunningResult(WorkflowProgressManager.WorkflowProgress progress) {
+        WorkflowInstanceVO workflowInstanceVO = new WorkflowInstanceVO();
+        workflowInstanceVO.setId(progress.getInstanceId());
+        workflowInstanceVO.setWorkflowConfigId(progress.getConfigId());
+        workflowInstanceVO.setAppId(progress.getAppId());
+        workflowInstanceVO.setInputParams(progress.getInputParams());
+        workflowInstanceVO.setStatus(progress.getStatus());
+        workflowInstanceVO.setStartTime(progress.getStartTime());
+
+        List<WorkflowNodeInstanceVO> nodeInstanceVOList = progress.getLatestNodeEvents().stream()
+                .map(event -> {
+                    WorkflowNodeInstanceVO nodeInstanceVO = new WorkflowNodeInstanceVO();
+                    nodeInstanceVO.setNodeId(event.getNodeId());
+                    nodeInstanceVO.setNodeName(event.getNodeName());
+                    nodeInstanceVO.setNodeType(event.getNodeType());
+                    nodeInstanceVO.setWorkflowInstanceId(String.valueOf(progress.getInstanceId()));
+                    nodeInstanceVO.setStatus(event.getStatus());
+                    nodeInstanceVO.setOutput(event.getOutput());
+                    nodeInstanceVO.setExecuteTime(event.getExecuteTime());
+                    nodeInstanceVO.setErrorInfo(event.getErrorInfo());
+                    return nodeInstanceVO;
+                })
+                .collect(Collectors.toList());
+
+        WorkflowRunningResult result = new WorkflowRunningResult();
+        result.setWorkflowInstanceVO(workflowInstanceVO);
+        result.setWorkflowNodeInstanceVOList(nodeInstanceVOList);
+        return result;
+    }
+
     /** 构建工作流执行实例模型 */
     private WorkflowInstanceModel buildWorkflowInstanceModel(WorkflowConfigModel workflowConfigModel, Map<String, Object> inputParams) {
         return WorkflowInstanceModel.builder()
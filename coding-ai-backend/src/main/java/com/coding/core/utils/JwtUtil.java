@@ -1,9 +1,16 @@
 package com.coding.core.utils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -13,6 +20,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT工具类 - 支持双Token机制
@@ -30,6 +38,39 @@ public class JwtUtil {
     @Value("${jwt.refresh-token-expiration:604800000}")
     private Long refreshTokenExpiration;
 
+    @Value("${jwt.verified-token-cache-size:10000}")
+    private Long verifiedTokenCacheSize;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 签名密钥与解析器，初始化后复用
+     */
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    /**
+     * 已校验通过的Token => 身份信息；写入后的最长存活时间为Access Token有效期，
+     * 命中时再按Token自身的过期时间判断，过期即失效
+     */
+    private Cache<String, TokenPrincipal> verifiedTokenCache;
+
+    @PostConstruct
+    private void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokenCache = CacheBuilder.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfterWrite(accessTokenExpiration, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, verifiedTokenCache, "coding.auth.token.cache");
+    }
+
     /**
      * 生成Access Token（短期）
      */
@@ -59,17 +100,68 @@ public class JwtUtil {
         Date now = new Date();
         Date expirationDate = new Date(now.getTime() + expiration);
 
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expirationDate)
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * 校验Token签名与有效期，返回不可变的身份信息
+     * 校验通过的Token会被缓存，缓存条目在Token过期时失效
+     *
+     * @param token JWT
+     * @return 身份信息，Token无效或已过期时返回 null
+     */
+    public TokenPrincipal verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        TokenPrincipal cached = verifiedTokenCache.getIfPresent(token);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokenCache.invalidate(token);
+            return null;
+        }
+
+        Claims claims = getClaimsFromToken(token);
+        if (claims == null || isTokenExpired(claims)) {
+            return null;
+        }
+        TokenPrincipal principal = new TokenPrincipal(
+                claims.get("userId", Long.class),
+                claims.getSubject(),
+                claims.get("tokenType", String.class),
+                claims.getExpiration().getTime());
+        verifiedTokenCache.put(token, principal);
+        return principal;
+    }
+
+    /**
+     * 校验Access Token，Refresh Token不被接受
+     *
+     * @param token JWT
+     * @return 身份信息，Token无效、已过期或类型不符时返回 null
+     */
+    public TokenPrincipal verifyAccessToken(String token) {
+        return verifyType(token, "access");
+    }
+
+    /**
+     * 校验Refresh Token
+     *
+     * @param token JWT
+     * @return 身份信息，Token无效、已过期或类型不符时返回 null
+     */
+    public TokenPrincipal verifyRefreshToken(String token) {
+        return verifyType(token, "refresh");
+    }
+
     /**
      * 从Token中获取用户ID
      */
@@ -98,39 +190,30 @@ public class JwtUtil {
      * 验证Access Token是否有效
      */
     public boolean validateAccessToken(String token) {
-        return validateToken(token, "access");
+        return verifyAccessToken(token) != null;
     }
 
     /**
      * 验证Refresh Token是否有效
      */
     public boolean validateRefreshToken(String token) {
-        return validateToken(token, "refresh");
+        return verifyRefreshToken(token) != null;
     }
 
     /**
-     * 验证Token是否有效
+     * 验证Token是否有效且类型匹配
      */
-    private boolean validateToken(String token, String expectedType) {
-        try {
-            Claims claims = getClaimsFromToken(token);
-            if (claims == null) {
-                return false;
-            }
-
-            // 验证Token类型
-            String tokenType = claims.get("tokenType", String.class);
-            if (!expectedType.equals(tokenType)) {
-                log.warn("Token类型不匹配，期望：{}，实际：{}", expectedType, tokenType);
-                return false;
-            }
-
-            // 验证是否过期
-            return !isTokenExpired(claims);
-        } catch (Exception e) {
-            log.error("Token验证失败: {}", e.getMessage());
-            return false;
+    private TokenPrincipal verifyType(String token, String expectedType) {
+        TokenPrincipal principal = verify(token);
+        if (principal == null) {
+            return null;
+        }
+        // 验证Token类型
+        if (!expectedType.equals(principal.tokenType())) {
+            log.warn("Token类型不匹配，期望：{}，实际：{}", expectedType, principal.tokenType());
+            return null;
         }
+        return principal;
     }
 
     /**
@@ -138,12 +221,7 @@ public class JwtUtil {
      */
     private Claims getClaimsFromToken(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
             log.error("解析Token失败: {}", e.getMessage());
             return null;
@@ -155,7 +233,7 @@ public class JwtUtil {
      */
     private boolean isTokenExpired(Claims claims) {
         Date expiration = claims.getExpiration();
-        return expiration.before(new Date());
+        return expiration == null || expiration.before(new Date());
     }
 
     /**
@@ -171,4 +249,19 @@ public class JwtUtil {
     public Long getRefreshTokenExpirationSeconds() {
         return refreshTokenExpiration / 1000;
     }
+
+    /**
+     * Token中的身份信息
+     *
+     * @param userId 用户ID
+     * @param email 邮箱
+     * @param tokenType Token类型：access、refresh
+     * @param expiresAtMillis 过期时间戳（毫秒）
+     */
+    public record TokenPrincipal(Long userId, String email, String tokenType, long expiresAtMillis) {
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package com.coding.workflow.exception;
+
+/**
+ * 多媒体生成任务的终止性失败（如缺少密钥、任务不存在），重试不会成功；
+ * 轮询器收到该异常后立即结束任务，不再按退避间隔重试
+ */
+public class MediaTaskTerminalException extends RuntimeException {
+
+    public MediaTaskTerminalException(String message) {
+        super(message);
+    }
+
+    public MediaTaskTerminalException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
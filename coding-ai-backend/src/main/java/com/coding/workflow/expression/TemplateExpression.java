@@ -0,0 +1,111 @@
+package com.coding.workflow.expression;
+
+import com.coding.workflow.utils.JsonUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 模版表达式：模版预先切分为字面量片段和变量片段并按模版内容缓存，
+ * 渲染时单次遍历片段写入同一个 StringBuilder，不再按变量逐个正则替换整段文本
+ */
+public final class TemplateExpression {
+
+    /** 模版缓存的最大总字符数 */
+    private static final long MAX_CACHE_WEIGHT = 32L * 1024 * 1024;
+
+    private static final Cache<String, TemplateExpression> CACHE = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHE_WEIGHT)
+            .weigher((String template, TemplateExpression compiled) -> template.length())
+            .build();
+
+    /** 字面量片段，与 variables 交替出现：literals[0] var[0] literals[1] var[1] ... literals[n] */
+    private final String[] literals;
+
+    /** 变量片段，null 表示空表达式 ${} */
+    private final VariableExpression[] variables;
+
+    /** 字面量总长度，用于预估输出容量 */
+    private final int literalLength;
+
+    private TemplateExpression(String[] literals, VariableExpression[] variables, int literalLength) {
+        this.literals = literals;
+        this.variables = variables;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * 获取已编译的模版，首次访问时切分并缓存
+     *
+     * @param template 模版内容
+     * @return 编译后的模版
+     */
+    public static TemplateExpression of(String template) {
+        try {
+            return CACHE.get(template, () -> compile(template));
+        } catch (ExecutionException e) {
+            return compile(template);
+        }
+    }
+
+    /**
+     * 渲染模版：变量不存在时替换为空字符串，Map/List 序列化为 JSON
+     *
+     * @param payload 变量上下文
+     * @return 渲染后的内容
+     */
+    public String render(Map<String, Object> payload) {
+        if (variables.length == 0) {
+            return literals[0];
+        }
+        StringBuilder builder = new StringBuilder(literalLength + variables.length * 16);
+        for (int i = 0; i < variables.length; i++) {
+            builder.append(literals[i]);
+            VariableExpression variable = variables[i];
+            Object value = variable == null ? null : variable.evaluate(payload);
+            if (value instanceof Map || value instanceof List) {
+                builder.append(JsonUtils.toJson(value));
+            } else if (value != null) {
+                builder.append(value);
+            }
+        }
+        builder.append(literals[variables.length]);
+        return builder.toString();
+    }
+
+    /**
+     * 切分模版：扫描 ${...}，与 \$\{([^}]*)\} 的匹配规则一致
+     */
+    private static TemplateExpression compile(String template) {
+        List<String> literalList = new ArrayList<>();
+        List<VariableExpression> variableList = new ArrayList<>();
+        int literalLength = 0;
+        int cursor = 0;
+        int length = template.length();
+        while (cursor < length) {
+            int start = template.indexOf("${", cursor);
+            if (start < 0) {
+                break;
+            }
+            int end = template.indexOf('}', start + 2);
+            if (end < 0) {
+                break;
+            }
+            String literal = template.substring(cursor, start);
+            literalList.add(literal);
+            literalLength += literal.length();
+            variableList.add(VariableExpression.of(template.substring(start + 2, end)));
+            cursor = end + 1;
+        }
+        String tail = template.substring(cursor);
+        literalList.add(tail);
+        literalLength += tail.length();
+
+        return new TemplateExpression(literalList.toArray(new String[0]),
+                variableList.toArray(new VariableExpression[0]), literalLength);
+    }
+}
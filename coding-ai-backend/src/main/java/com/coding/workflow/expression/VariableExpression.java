@@ -0,0 +1,110 @@
+package com.coding.workflow.expression;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+import ognl.Ognl;
+import ognl.OgnlException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+
+/**
+ * 变量表达式：${...} 路径只解析一次，编译为 OGNL 语法树后按表达式字符串缓存，后续求值直接复用语法树
+ * 合法示例如下：
+ * user.name
+ * items[0].price
+ * data[0]._value
+ */
+@Slf4j
+public final class VariableExpression {
+
+    /** 检查从上下文中提取变量值的表达式的格式 */
+    private static final Pattern VALID_EXPRESSION_PATTERN = Pattern.compile("[0-9a-zA-Z\\-\\._\\[\\]]+");
+
+    /** 已编译表达式缓存的最大条目数 */
+    private static final long MAX_CACHE_SIZE = 10_000;
+
+    private static final Cache<String, VariableExpression> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHE_SIZE)
+            .build();
+
+    /** 去掉 ${} 之后的原始表达式 */
+    private final String expression;
+
+    /** OGNL 语法树，为 null 时表达式按字面量返回或解析失败 */
+    private final Object tree;
+
+    /** 是否为字面量（不符合变量路径格式） */
+    private final boolean literal;
+
+    private VariableExpression(String expression, Object tree, boolean literal) {
+        this.expression = expression;
+        this.tree = tree;
+        this.literal = literal;
+    }
+
+    /**
+     * 获取已编译的表达式，首次访问时解析并缓存
+     *
+     * @param expression 表达式，可带 ${} 包裹
+     * @return 编译后的表达式，空白表达式返回 null
+     */
+    public static VariableExpression of(String expression) {
+        if (StringUtils.isBlank(expression)) {
+            return null;
+        }
+        try {
+            return CACHE.get(expression, () -> compile(expression));
+        } catch (ExecutionException e) {
+            return compile(expression);
+        }
+    }
+
+    /**
+     * 从荷载中求值
+     *
+     * @param payload 变量上下文
+     * @return 表达式的值，字面量表达式返回其自身，解析或求值失败返回 null
+     */
+    public Object evaluate(Map<String, Object> payload) {
+        if (payload == null) {
+            return null;
+        }
+        if (literal) {
+            return expression;
+        }
+        if (tree == null) {
+            return null;
+        }
+        try {
+            return Ognl.getValue(tree, payload);
+        } catch (OgnlException e) {
+            log.error("从荷载中获取值失败, expression:{}, payload:{}", expression, payload, e);
+            return null;
+        }
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    private static VariableExpression compile(String rawExpression) {
+        String expression = rawExpression;
+        if (expression.startsWith("${") && expression.endsWith("}")) {
+            expression = expression.substring(2, expression.length() - 1);
+        }
+        if (!VALID_EXPRESSION_PATTERN.matcher(expression).matches()) {
+            return new VariableExpression(expression, null, true);
+        }
+        // OGNL 原生支持 items[0] 形式的下标访问，无需改写（改写为 {} 会导致解析失败）
+        try {
+            return new VariableExpression(expression, Ognl.parseExpression(expression), false);
+        } catch (OgnlException e) {
+            log.error("解析变量表达式失败, expression:{}", expression, e);
+            return new VariableExpression(expression, null, false);
+        }
+    }
+}
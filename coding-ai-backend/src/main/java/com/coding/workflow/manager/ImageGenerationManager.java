@@ -2,6 +2,7 @@ package com.coding.workflow.manager;
 
 import com.coding.workflow.model.request.ImageGenerationRequest;
 import com.coding.workflow.model.response.ImageGenerationResponse;
+import com.coding.workflow.service.ai.AsyncImageGenerationService;
 import com.coding.workflow.service.ai.ImageGenerationService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -10,6 +11,9 @@ import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -23,8 +27,11 @@ public class ImageGenerationManager {
 
     private final Map<String, ImageGenerationService> serviceMap;
 
+    private final MediaTaskPoller mediaTaskPoller;
+
     @Autowired
-    public ImageGenerationManager(List<ImageGenerationService> services) {
+    public ImageGenerationManager(List<ImageGenerationService> services, MediaTaskPoller mediaTaskPoller) {
+        this.mediaTaskPoller = mediaTaskPoller;
         this.serviceMap = services.stream()
                 .collect(Collectors.toMap(
                     ImageGenerationService::getProvider,
@@ -41,6 +48,53 @@ public class ImageGenerationManager {
      * @return 图像生成响应
      */
     public ImageGenerationResponse generateImages(ImageGenerationRequest request) {
+        ImageGenerationResponse errorResponse = validate(request);
+        if (errorResponse != null) {
+            return errorResponse;
+        }
+        ImageGenerationService service = serviceMap.get(request.getProvider());
+        log.info("使用供应商 {} 生成图像, 模型: {}", request.getProvider(), request.getModelId());
+        return service.generateImages(request);
+    }
+
+    /**
+     * 异步生成图像：支持任务接口的供应商提交任务后由轮询器等待结果，
+     * 其余供应商的同步调用在轮询器的远程调用线程池中执行，调用方线程不阻塞
+     *
+     * @param request 图像生成请求
+     * @return 图像生成响应的 Future，异常和超时转换为失败响应
+     */
+    public CompletableFuture<ImageGenerationResponse> generateImagesAsync(ImageGenerationRequest request) {
+        ImageGenerationResponse errorResponse = validate(request);
+        if (errorResponse != null) {
+            return CompletableFuture.completedFuture(errorResponse);
+        }
+        ImageGenerationService service = serviceMap.get(request.getProvider());
+        boolean asyncTask = service instanceof AsyncImageGenerationService;
+        log.info("使用供应商 {} 异步生成图像, 模型: {}, 任务接口: {}", request.getProvider(), request.getModelId(), asyncTask);
+
+        CompletableFuture<ImageGenerationResponse> future = service instanceof AsyncImageGenerationService asyncService
+                ? mediaTaskPoller.call(() -> asyncService.submitImages(request))
+                        .thenCompose(handle -> mediaTaskPoller.await(handle, asyncService::pollImages))
+                : mediaTaskPoller.call(() -> service.generateImages(request));
+        return future.exceptionally(throwable -> {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+            log.error("图像生成任务失败, 供应商: {}", request.getProvider(), cause);
+            return ImageGenerationResponse.builder()
+                    .success(false)
+                    .errorMessage("图像生成任务失败: " + cause.getMessage())
+                    .errorCode(cause instanceof TimeoutException ? "TASK_TIMEOUT" : "TASK_ERROR")
+                    .build();
+        });
+    }
+
+    /**
+     * 校验供应商和模型，未指定供应商时使用默认供应商
+     *
+     * @return 校验失败时返回失败响应，通过时返回 null
+     */
+    private ImageGenerationResponse validate(ImageGenerationRequest request) {
         String provider = request.getProvider();
 
         // 如果没有指定供应商，默认使用 volcengine
@@ -70,8 +124,7 @@ public class ImageGenerationManager {
                     .build();
         }
 
-        log.info("使用供应商 {} 生成图像, 模型: {}", provider, request.getModelId());
-        return service.generateImages(request);
+        return null;
     }
 
     /**
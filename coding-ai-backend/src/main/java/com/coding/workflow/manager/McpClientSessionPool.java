@@ -0,0 +1,280 @@
+package com.coding.workflow.manager;
+
+import com.coding.core.config.McpSessionPoolProperties;
+import com.coding.workflow.exception.BizException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpError;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * MCP 客户端会话池
+ * 按服务器编码维护已完成 initialize 握手的同步客户端，调用时借出、结束后归还，
+ * 避免每次工具调用都重新建立 HTTP 连接、SSE 流并协商能力；
+ * 支持每服务器最大会话数、空闲回收、定时 ping 健康检查，以及传输失败时丢弃会话并重连
+ */
+@Slf4j
+@Component
+public class McpClientSessionPool {
+
+    private static final String METRIC_PREFIX = "coding.mcp.session";
+
+    private final McpSessionPoolProperties properties;
+
+    /** 服务器编码 => 会话池 */
+    private final Map<String, ServerPool> serverPoolMap = new ConcurrentHashMap<>();
+
+    private final AtomicInteger openSessionCount = new AtomicInteger();
+
+    private final ScheduledExecutorService maintainExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-session-maintainer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter createdCounter;
+
+    private final Counter reconnectCounter;
+
+    public McpClientSessionPool(McpSessionPoolProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+
+        Gauge.builder(METRIC_PREFIX + ".open", openSessionCount, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".idle", this, McpClientSessionPool::idleSessionCount)
+                .register(meterRegistry);
+        this.createdCounter = Counter.builder(METRIC_PREFIX + ".created").register(meterRegistry);
+        this.reconnectCounter = Counter.builder(METRIC_PREFIX + ".reconnect").register(meterRegistry);
+
+        long interval = Math.max(1, properties.getHealthCheckIntervalSeconds());
+        maintainExecutor.scheduleWithFixedDelay(this::maintainQuietly, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 借出会话执行操作
+     * 服务器返回的 MCP 错误不影响会话；其余异常视为传输失败，丢弃该会话。
+     * 可重试的操作在复用的空闲会话上失败时（连接可能已被服务端断开），新建会话重试一次；
+     * 非幂等操作（如工具调用）无法区分请求是否已送达服务端（例如请求超时但服务端仍在执行），不重试
+     *
+     * @param serverCode    服务器编码
+     * @param fingerprint   服务器连接配置指纹，配置变化时重建该服务器的会话池
+     * @param clientFactory 创建未初始化客户端
+     * @param action        使用客户端执行的操作
+     * @param retryable     操作是否可安全重复执行
+     * @return 操作结果
+     */
+    public <T> T execute(String serverCode, String fingerprint, Supplier<McpSyncClient> clientFactory,
+                         Function<McpSyncClient, T> action, boolean retryable) {
+        ServerPool pool = getPool(serverCode, fingerprint);
+        acquirePermit(pool);
+        try {
+            PooledSession session = pool.idleSessions.pollFirst();
+            boolean reused = session != null;
+            if (session == null) {
+                session = createSession(pool, clientFactory);
+            }
+            try {
+                T result = action.apply(session.client);
+                release(pool, session);
+                return result;
+            } catch (McpError e) {
+                release(pool, session);
+                throw e;
+            } catch (RuntimeException e) {
+                discard(session);
+                if (!reused || !retryable) {
+                    throw e;
+                }
+                log.warn("MCP会话传输失败，重新建立会话后重试，服务器: {}，错误: {}", serverCode, e.getMessage());
+                reconnectCounter.increment();
+                PooledSession newSession = createSession(pool, clientFactory);
+                try {
+                    T result = action.apply(newSession.client);
+                    release(pool, newSession);
+                    return result;
+                } catch (McpError retryError) {
+                    release(pool, newSession);
+                    throw retryError;
+                } catch (RuntimeException retryError) {
+                    discard(newSession);
+                    throw retryError;
+                }
+            }
+        } finally {
+            pool.permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintainExecutor.shutdownNow();
+        serverPoolMap.values().forEach(this::closeIdleSessions);
+        serverPoolMap.clear();
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private ServerPool getPool(String serverCode, String fingerprint) {
+        AtomicReference<ServerPool> replaced = new AtomicReference<>();
+        ServerPool pool = serverPoolMap.compute(serverCode, (key, existing) -> {
+            if (existing != null && Objects.equals(existing.fingerprint, fingerprint)) {
+                return existing;
+            }
+            replaced.set(existing);
+            return new ServerPool(serverCode, fingerprint, Math.max(1, properties.getMaxSessionsPerServer()));
+        });
+        // 配置变化后旧池不再参与维护，关闭其空闲会话；借出中的会话归还时关闭
+        if (replaced.get() != null) {
+            log.info("MCP服务器配置已变化，关闭旧会话，服务器: {}", serverCode);
+            closeIdleSessions(replaced.get());
+        }
+        return pool;
+    }
+
+    private void acquirePermit(ServerPool pool) {
+        try {
+            if (!pool.permits.tryAcquire(properties.getBorrowTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new BizException("MCP服务繁忙，请稍后重试: " + pool.serverCode);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BizException("等待MCP会话被中断: " + pool.serverCode);
+        }
+    }
+
+    private PooledSession createSession(ServerPool pool, Supplier<McpSyncClient> clientFactory) {
+        McpSyncClient client = clientFactory.get();
+        try {
+            client.initialize();
+        } catch (RuntimeException e) {
+            closeQuietly(client);
+            throw e;
+        }
+        openSessionCount.incrementAndGet();
+        createdCounter.increment();
+        log.info("MCP会话已建立，服务器: {}", pool.serverCode);
+        return new PooledSession(client);
+    }
+
+    private void release(ServerPool pool, PooledSession session) {
+        session.lastUsedMillis = System.currentTimeMillis();
+        // 会话池已因配置变化被替换时，直接关闭旧会话
+        if (serverPoolMap.get(pool.serverCode) != pool) {
+            discard(session);
+            return;
+        }
+        pool.idleSessions.offerFirst(session);
+        // 归还与替换并发时，旧池的空闲会话可能已被清理过，再检查一次
+        if (serverPoolMap.get(pool.serverCode) != pool && pool.idleSessions.remove(session)) {
+            discard(session);
+        }
+    }
+
+    private void discard(PooledSession session) {
+        openSessionCount.decrementAndGet();
+        closeQuietly(session.client);
+    }
+
+    private void closeIdleSessions(ServerPool pool) {
+        PooledSession session;
+        while ((session = pool.idleSessions.pollFirst()) != null) {
+            discard(session);
+        }
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain();
+        } catch (Exception e) {
+            log.error("MCP会话池维护失败", e);
+        }
+    }
+
+    /**
+     * 回收空闲超时的会话，对其余空闲会话执行 ping，失败的会话关闭
+     */
+    private void maintain() {
+        long idleTimeoutMillis = TimeUnit.SECONDS.toMillis(properties.getIdleTimeoutSeconds());
+        long now = System.currentTimeMillis();
+        for (ServerPool pool : serverPoolMap.values()) {
+            for (PooledSession session : pool.idleSessions) {
+                // 从空闲队列中移除成功才拥有该会话，避免与借出并发
+                if (!pool.idleSessions.remove(session)) {
+                    continue;
+                }
+                if (now - session.lastUsedMillis > idleTimeoutMillis) {
+                    log.info("MCP会话空闲超时，关闭会话，服务器: {}", pool.serverCode);
+                    discard(session);
+                    continue;
+                }
+                try {
+                    session.client.ping();
+                    pool.idleSessions.offerLast(session);
+                } catch (Exception e) {
+                    log.warn("MCP会话健康检查失败，关闭会话，服务器: {}，错误: {}", pool.serverCode, e.getMessage());
+                    discard(session);
+                }
+            }
+        }
+    }
+
+    private double idleSessionCount() {
+        return serverPoolMap.values().stream().mapToInt(pool -> pool.idleSessions.size()).sum();
+    }
+
+    private static void closeQuietly(McpSyncClient client) {
+        try {
+            client.close();
+        } catch (Exception e) {
+            log.debug("关闭MCP客户端失败", e);
+        }
+    }
+
+    /**
+     * 单个服务器的会话池
+     */
+    private static final class ServerPool {
+
+        private final String serverCode;
+
+        private final String fingerprint;
+
+        /** 同时借出的会话数上限 */
+        private final Semaphore permits;
+
+        /** 空闲会话，后进先出，优先复用最近使用的连接 */
+        private final ConcurrentLinkedDeque<PooledSession> idleSessions = new ConcurrentLinkedDeque<>();
+
+        private ServerPool(String serverCode, String fingerprint, int maxSessions) {
+            this.serverCode = serverCode;
+            this.fingerprint = fingerprint;
+            this.permits = new Semaphore(maxSessions, true);
+        }
+    }
+
+    /**
+     * 已初始化的会话
+     */
+    private static final class PooledSession {
+
+        private final McpSyncClient client;
+
+        private volatile long lastUsedMillis = System.currentTimeMillis();
+
+        private PooledSession(McpSyncClient client) {
+            this.client = client;
+        }
+    }
+}
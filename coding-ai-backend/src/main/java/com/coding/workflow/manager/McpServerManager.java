@@ -1,17 +1,23 @@
 package com.coding.workflow.manager;
 
 import com.coding.core.config.AiServiceConfigProperties;
+import com.coding.core.config.McpSessionPoolProperties;
 import com.coding.core.service.AiMcpConfigService;
 import com.coding.core.service.AiProviderConfigService;
 import com.coding.workflow.model.chat.Content;
 import com.coding.workflow.model.request.McpServerCallToolRequest;
 import com.coding.workflow.model.response.McpServerCallToolResponse;
 import com.coding.workflow.model.chat.TextContent;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import io.modelcontextprotocol.client.McpClient;
 import io.modelcontextprotocol.client.McpSyncClient;
 import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
 import io.modelcontextprotocol.spec.McpSchema;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +26,8 @@ import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author weilong
@@ -27,41 +35,55 @@ import java.util.List;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class McpServerManager {
 
+    private static final String METRIC_PREFIX = "coding.mcp";
+
     private final AiMcpConfigService aiMcpConfigService;
     private final AiProviderConfigService aiProviderConfigService;
+    private final McpClientSessionPool sessionPool;
+    private final McpSessionPoolProperties properties;
 
-    public McpServerCallToolResponse callTool(McpServerCallToolRequest request) {
-        // 1. 从YAML配置获取MCP服务器配置
-        AiServiceConfigProperties.McpServerConfig mcpServer = aiMcpConfigService.getByServerCode(request.getServerCode());
-        if (mcpServer == null) {
-            throw new RuntimeException("MCP服务器配置不存在: " + request.getServerCode());
-        }
+    /** 服务器编码与连接配置指纹 => 工具列表 */
+    private final Cache<String, List<McpSchema.Tool>> toolsCache;
 
-        // 2. 从YAML配置获取提供商配置
-        AiServiceConfigProperties.ProviderConfig providerConfig = aiProviderConfigService.getByProviderCodeAndServiceType(
-            mcpServer.getProviderCode(), "MCP");
-        if (providerConfig == null) {
-            throw new RuntimeException("提供商配置不存在: " + mcpServer.getProviderCode());
-        }
+    private final Timer callTimer;
+
+    public McpServerManager(AiMcpConfigService aiMcpConfigService,
+                            AiProviderConfigService aiProviderConfigService,
+                            McpClientSessionPool sessionPool,
+                            McpSessionPoolProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.aiMcpConfigService = aiMcpConfigService;
+        this.aiProviderConfigService = aiProviderConfigService;
+        this.sessionPool = sessionPool;
+        this.properties = properties;
+        this.toolsCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(properties.getToolsCacheTtlSeconds(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        this.callTimer = Timer.builder(METRIC_PREFIX + ".call")
+                .register(meterRegistry);
+        GuavaCacheMetrics.monitor(meterRegistry, toolsCache, METRIC_PREFIX + ".tools.cache");
+    }
 
-        // 3. 创建Client客户端
-        McpSyncClient client = buildMcpSyncClient(providerConfig, mcpServer);
+    public McpServerCallToolResponse callTool(McpServerCallToolRequest request) {
+        // 1. 解析服务器与提供商配置
+        McpEndpoint endpoint = resolveEndpoint(request.getServerCode());
 
-        // 4. 构建MCP请求参数
+        // 2. 构建MCP请求参数
         McpSchema.CallToolRequest callToolRequest = new McpSchema.CallToolRequest(
                 request.getToolName(), request.getToolParams());
 
         McpServerCallToolResponse response = new McpServerCallToolResponse();
+        Timer.Sample sample = Timer.start();
         try {
-            // 5. 执行MCP请求
-            client.initialize();
-
-            McpSchema.CallToolResult callToolResult = client.callTool(callToolRequest);
+            // 3. 从会话池借出已初始化的客户端执行MCP请求，工具调用可能不是幂等的，传输失败时不重试
+            McpSchema.CallToolResult callToolResult = sessionPool.execute(request.getServerCode(),
+                    endpoint.fingerprint(), () -> buildMcpSyncClient(endpoint), client -> client.callTool(callToolRequest),
+                    false);
 
-            // 6. 解析MCP执行结果
+            // 4. 解析MCP执行结果
             response.setIsError(callToolResult.isError());
             List<McpSchema.Content> contentList = callToolResult.content();
             List<Content> content = new ArrayList<>();
@@ -79,22 +101,75 @@ public class McpServerManager {
             log.error("调用MCP工具失败", e);
             throw e;
         } finally {
-            if (client != null) {
-                client.close();
-            }
+            sample.stop(callTimer);
         }
 
         return response;
     }
 
+    /**
+     * 获取MCP服务器提供的工具列表
+     * 结果按服务器及其连接配置缓存，服务器推送工具变更通知、连接配置变化或缓存过期后重新拉取
+     *
+     * @param serverCode 服务器编码
+     * @return 工具列表
+     */
+    public List<McpSchema.Tool> listTools(String serverCode) {
+        McpEndpoint endpoint = resolveEndpoint(serverCode);
+        try {
+            return toolsCache.get(endpoint.toolsCacheKey(), () -> fetchTools(endpoint));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("获取MCP工具列表失败: " + serverCode, cause);
+        }
+    }
+
+    private List<McpSchema.Tool> fetchTools(McpEndpoint endpoint) {
+        return sessionPool.execute(endpoint.serverCode(), endpoint.fingerprint(), () -> buildMcpSyncClient(endpoint), client -> {
+            List<McpSchema.Tool> tools = new ArrayList<>();
+            McpSchema.ListToolsResult result = client.listTools();
+            tools.addAll(result.tools());
+            while (result.nextCursor() != null) {
+                result = client.listTools(result.nextCursor());
+                tools.addAll(result.tools());
+            }
+            return List.copyOf(tools);
+        }, true);
+    }
+
+    /**
+     * 从YAML配置解析MCP服务器及其提供商配置
+     *
+     * @param serverCode 服务器编码
+     * @return MCP服务器连接信息
+     */
+    private McpEndpoint resolveEndpoint(String serverCode) {
+        AiServiceConfigProperties.McpServerConfig mcpServer = aiMcpConfigService.getByServerCode(serverCode);
+        if (mcpServer == null) {
+            throw new RuntimeException("MCP服务器配置不存在: " + serverCode);
+        }
+
+        AiServiceConfigProperties.ProviderConfig providerConfig = aiProviderConfigService.getByProviderCodeAndServiceType(
+            mcpServer.getProviderCode(), "MCP");
+        if (providerConfig == null) {
+            throw new RuntimeException("提供商配置不存在: " + mcpServer.getProviderCode());
+        }
+        return new McpEndpoint(serverCode, providerConfig, mcpServer);
+    }
+
     /**
      * 构建MCP同步客户端
      *
-     * @param providerConfig 提供商配置
-     * @param mcpServer MCP服务器配置
+     * @param endpoint MCP服务器连接信息
      * @return MCP同步客户端
      */
-    private McpSyncClient buildMcpSyncClient(AiServiceConfigProperties.ProviderConfig providerConfig, AiServiceConfigProperties.McpServerConfig mcpServer) {
+    private McpSyncClient buildMcpSyncClient(McpEndpoint endpoint) {
+        AiServiceConfigProperties.ProviderConfig providerConfig = endpoint.providerConfig();
+        AiServiceConfigProperties.McpServerConfig mcpServer = endpoint.mcpServer();
+
         // 创建HTTP客户端
         HttpClient.Builder httpClientBuilder = HttpClient.newBuilder()
                 .version(HttpClient.Version.HTTP_1_1)
@@ -106,7 +181,7 @@ public class McpServerManager {
                 .sseEndpoint(mcpServer.getEndpoint())
                 .connectTimeout(Duration.of(10, ChronoUnit.SECONDS))
                 .clientBuilder(httpClientBuilder)
-                .httpRequestCustomizer((builder, method, endpoint, body, context) -> {
+                .httpRequestCustomizer((builder, method, uri, body, context) -> {
                     if (providerConfig.getAuthorization() != null) {
                         if (providerConfig.getAuthorization().startsWith("Bearer ")) {
                             builder.header("Authorization", providerConfig.getAuthorization());
@@ -118,13 +193,40 @@ public class McpServerManager {
                 .build();
 
         // 创建并配置同步客户端
+        Duration requestTimeout = Duration.ofSeconds(properties.getRequestTimeoutSeconds());
         return McpClient.sync(transport)
-                .requestTimeout(Duration.ofSeconds(10))
-                .initializationTimeout(Duration.ofSeconds(10))
+                .requestTimeout(requestTimeout)
+                .initializationTimeout(requestTimeout)
                 .capabilities(McpSchema.ClientCapabilities.builder()
                         .roots(true)
                         .sampling()
                         .build())
+                // 服务器工具变更时失效工具列表缓存
+                .toolsChangeConsumer(tools -> toolsCache.invalidate(endpoint.toolsCacheKey()))
                 .build();
     }
+
+    /**
+     * MCP服务器连接信息
+     */
+    private record McpEndpoint(String serverCode,
+                               AiServiceConfigProperties.ProviderConfig providerConfig,
+                               AiServiceConfigProperties.McpServerConfig mcpServer) {
+
+        /**
+         * 连接配置指纹，地址、端点或鉴权变化时会话池重建
+         */
+        String fingerprint() {
+            return String.join("|", String.valueOf(providerConfig.getBaseUrl()),
+                    String.valueOf(mcpServer.getEndpoint()),
+                    String.valueOf(providerConfig.getAuthorization()));
+        }
+
+        /**
+         * 工具列表缓存键，连接配置变化后不再命中旧的工具列表
+         */
+        String toolsCacheKey() {
+            return serverCode + "|" + fingerprint();
+        }
+    }
 }
@@ -0,0 +1,165 @@
+package com.coding.workflow.manager;
+
+import com.coding.core.config.MediaTaskProperties;
+import com.coding.workflow.exception.BizException;
+import com.coding.workflow.exception.MediaTaskTerminalException;
+import com.coding.workflow.model.response.MediaTaskHandle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 多媒体生成任务轮询器
+ * 统一调度所有图像、音乐、视频生成任务的状态查询：定时线程只负责按退避间隔排期，
+ * 远程查询在有界调用线程池中执行；等待任务完成期间不占用任何工作流节点线程
+ */
+@Slf4j
+@Component
+public class MediaTaskPoller {
+
+    private static final String METRIC_PREFIX = "coding.workflow.media.task";
+
+    private final MediaTaskProperties properties;
+
+    /**
+     * 轮询排期线程
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 远程调用线程池：提交任务、查询任务以及不支持任务接口的同步生成调用
+     */
+    private final ThreadPoolExecutor callExecutor;
+
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+
+    private final Counter pollCounter;
+
+    private final Counter timeoutCounter;
+
+    public MediaTaskPoller(MediaTaskProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, properties.getSchedulerThreads()),
+                namedThreadFactory("media-task-scheduler-"));
+        this.callExecutor = new ThreadPoolExecutor(
+                properties.getCallPoolSize(), properties.getCallPoolSize(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getCallQueueCapacity()),
+                namedThreadFactory("media-task-call-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder(METRIC_PREFIX + ".inflight", inFlightCount, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".call.queue.size", callExecutor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        this.pollCounter = Counter.builder(METRIC_PREFIX + ".poll").register(meterRegistry);
+        this.timeoutCounter = Counter.builder(METRIC_PREFIX + ".timeout").register(meterRegistry);
+    }
+
+    /**
+     * 在远程调用线程池中执行一次阻塞调用
+     *
+     * @param supplier 远程调用
+     * @return 调用结果的 Future，线程池满载时以 BizException 结束
+     */
+    public <T> CompletableFuture<T> call(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, callExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("多媒体生成调用繁忙，当前执行: {}，排队: {}",
+                    callExecutor.getActiveCount(), callExecutor.getQueue().size());
+            return CompletableFuture.failedFuture(new BizException("多媒体生成任务繁忙，请稍后重试"));
+        }
+    }
+
+    /**
+     * 轮询任务直到结束：首次按初始间隔查询，之后按退避倍数递增到间隔上限；
+     * 查询异常视为暂时失败继续重试，MediaTaskTerminalException 立即结束任务，
+     * 超过任务最长等待时间后以 TimeoutException 结束
+     *
+     * @param handle 任务句柄
+     * @param poller 查询函数，任务仍在执行时返回 Optional.empty()，不可恢复的失败抛出 MediaTaskTerminalException
+     * @return 任务结果的 Future
+     */
+    public <R> CompletableFuture<R> await(MediaTaskHandle handle, Function<MediaTaskHandle, Optional<R>> poller) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        inFlightCount.incrementAndGet();
+        result.whenComplete((ignored, throwable) -> inFlightCount.decrementAndGet());
+
+        long deadline = System.currentTimeMillis() + properties.getTaskTimeoutMs();
+        schedulePoll(handle, poller, result, properties.getInitialPollIntervalMs(), deadline);
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        callExecutor.shutdown();
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private <R> void schedulePoll(MediaTaskHandle handle, Function<MediaTaskHandle, Optional<R>> poller,
+                                  CompletableFuture<R> result, long delayMs, long deadline) {
+        try {
+            scheduler.schedule(() -> pollOnce(handle, poller, result, delayMs, deadline), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private <R> void pollOnce(MediaTaskHandle handle, Function<MediaTaskHandle, Optional<R>> poller,
+                              CompletableFuture<R> result, long delayMs, long deadline) {
+        if (result.isDone()) {
+            return;
+        }
+        if (System.currentTimeMillis() >= deadline) {
+            timeoutCounter.increment();
+            result.completeExceptionally(new TimeoutException("多媒体生成任务超时，供应商: "
+                    + handle.getProvider() + "，任务ID: " + handle.getTaskId()));
+            return;
+        }
+
+        call(() -> {
+            pollCounter.increment();
+            return poller.apply(handle);
+        }).whenComplete((polled, throwable) -> {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+            if (cause instanceof MediaTaskTerminalException) {
+                log.warn("多媒体生成任务查询失败且不可重试，供应商: {}，任务ID: {}，错误: {}",
+                        handle.getProvider(), handle.getTaskId(), cause.getMessage());
+                result.completeExceptionally(cause);
+                return;
+            }
+            if (throwable != null) {
+                log.warn("查询多媒体生成任务失败，稍后重试，供应商: {}，任务ID: {}，错误: {}",
+                        handle.getProvider(), handle.getTaskId(), throwable.getMessage());
+            } else if (polled != null && polled.isPresent()) {
+                result.complete(polled.get());
+                return;
+            }
+            long nextDelayMs = Math.min((long) (delayMs * properties.getBackoffMultiplier()),
+                    properties.getMaxPollIntervalMs());
+            schedulePoll(handle, poller, result, nextDelayMs, deadline);
+        });
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,74 +1,263 @@
 package com.coding.workflow.manager;
 
+import cn.hutool.crypto.digest.DigestUtil;
 import cn.hutool.json.JSONUtil;
 import com.coding.core.common.Result;
+import com.coding.core.config.SandBoxProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.EnvironmentAccess;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotAccess;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.io.FileSystem;
+import org.graalvm.polyglot.io.IOAccess;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * 脚本沙箱管理器
+ * 每种语言共享一个 GraalVM Engine，解析后的 Source 按脚本内容摘要缓存以复用引擎代码缓存；
+ * 每次执行使用一个全新的 Context，执行结束即关闭，脚本对全局变量、内置对象或模块的修改不会被后续执行看到。
+ * 为避免新建 Context 的开销落在请求路径上，后台预先创建少量未使用过的备用 Context，每个只使用一次；
+ * 脚本仅可读取注入的参数，禁止宿主类查找、写文件、进程、线程与环境变量访问
+ */
 @Slf4j
 @Component
 public class SandBoxManager {
 
     private static final String OUTPUT_DECORATE_PARAM_KEY = "output";
 
+    private static final String MAIN_FUNCTION = "main";
+
     private static final String SCRIPT_TYPE_PYTHON = "python";
     private static final String SCRIPT_TYPE_JS = "js";
 
-    public Result<String> executePythonScript(String scriptContent, Map<String, Object> variables, String requestId) {
-        return executeScript(SCRIPT_TYPE_PYTHON, scriptContent, variables, requestId);
+    private static final String METRIC_PREFIX = "coding.workflow.sandbox";
+
+    /**
+     * 注入参数只允许按 Map / List / 数组读取，不暴露任何宿主方法
+     */
+    private static final HostAccess SCRIPT_HOST_ACCESS = HostAccess.newBuilder(HostAccess.NONE)
+            .allowMapAccess(true)
+            .allowListAccess(true)
+            .allowArrayAccess(true)
+            .allowIterableAccess(true)
+            .allowIteratorAccess(true)
+            .build();
+
+    /**
+     * 脚本文件访问：只读
+     */
+    private static final IOAccess READ_ONLY_IO = IOAccess.newBuilder()
+            .fileSystem(FileSystem.newReadOnlyFileSystem(FileSystem.newDefaultFileSystem()))
+            .build();
+
+    private final SandBoxProperties properties;
+
+    /** 脚本语言 => 共享引擎与备用上下文 */
+    private final Map<String, LanguageRuntime> runtimeMap = new ConcurrentHashMap<>();
+
+    /** 语言 + 脚本内容摘要 => 解析后的 Source */
+    private final Cache<String, Source> sourceCache;
+
+    /** 强制取消超时执行 */
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sandbox-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** 后台创建备用上下文 */
+    private final ExecutorService spareCreator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sandbox-prewarm");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer executeTimer;
+
+    /** 运行时是否支持 sandbox.MaxCPUTime / sandbox.MaxHeapMemory 选项，首次建上下文时探测 */
+    private volatile Boolean sandboxLimitSupported;
+
+    private volatile boolean closed;
+
+    public SandBoxManager(SandBoxProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.sourceCache = CacheBuilder.newBuilder()
+                .maximumSize(properties.getSourceCacheSize())
+                .recordStats()
+                .build();
+        this.executeTimer = Timer.builder(METRIC_PREFIX + ".execute")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        GuavaCacheMetrics.monitor(meterRegistry, sourceCache, METRIC_PREFIX + ".source.cache");
     }
 
-    public Result<String> executeJavaScript(String scriptContent, Map<String, Object> variables, String requestId) {
-        return executeScript(SCRIPT_TYPE_JS, scriptContent, variables, requestId);
+    @PostConstruct
+    public void prewarm() {
+        if (!properties.isPrewarmOnStartup()) {
+            return;
+        }
+        for (String scriptType : List.of(SCRIPT_TYPE_JS, SCRIPT_TYPE_PYTHON)) {
+            getRuntime(scriptType).scheduleReplenish();
+        }
     }
 
-    private Result<String> executeScript(String scriptType, String scriptContent, Map<String, Object> variables, String requestId) {
-        try {
-            Context.Builder builder = Context.newBuilder(scriptType)
-                    .allowAllAccess(true);
+    /**
+     * 执行 Python 脚本中定义的 main 函数
+     *
+     * @param scriptContent 脚本内容，需定义 main(params)
+     * @param params 传给 main 的参数
+     * @param requestId 请求ID
+     * @return main 的返回值
+     */
+    public Result<String> executePythonMain(String scriptContent, Map<String, Object> params, String requestId) {
+        return executeMain(SCRIPT_TYPE_PYTHON, scriptContent, params, requestId);
+    }
 
-            if (SCRIPT_TYPE_PYTHON.equals(scriptType)) {
-                builder.option("python.ForceImportSite", "true");
-            }
+    /**
+     * 执行 JavaScript 脚本中定义的 main 函数
+     *
+     * @param scriptContent 脚本内容，需定义 main(params)
+     * @param params 传给 main 的参数
+     * @param requestId 请求ID
+     * @return main 的返回值
+     */
+    public Result<String> executeJavaScriptMain(String scriptContent, Map<String, Object> params, String requestId) {
+        return executeMain(SCRIPT_TYPE_JS, scriptContent, params, requestId);
+    }
 
-            try (Context context = builder.build()) {
-                // 1. 注入变量到执行环境中
-                if (variables != null && !variables.isEmpty()) {
-//                    context.getBindings(scriptType).putMember("params", variables);
-                    for (Map.Entry<String, Object> entry : variables.entrySet()) {
-                        context.getBindings(scriptType).putMember(entry.getKey(), entry.getValue());
-                    }
-                }
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        spareCreator.shutdownNow();
+        watchdog.shutdownNow();
+        runtimeMap.values().forEach(LanguageRuntime::close);
+        runtimeMap.clear();
+    }
+
+    private Result<String> executeMain(String scriptType, String scriptContent, Map<String, Object> params, String requestId) {
+        Timer.Sample sample = Timer.start();
+        LanguageRuntime runtime = null;
+        Context context = null;
+        try {
+            runtime = getRuntime(scriptType);
+            context = runtime.acquire();
+            Context running = context;
 
-                // 2. 执行脚本并获取结果
-                Value result = context.eval(scriptType, scriptContent);
+            // 1. 加载脚本并调用 main(params)，超时由看门狗强制取消
+            Source source = getSource(scriptType, scriptContent);
+            ScheduledFuture<?> timeout = watchdog.schedule(() -> running.close(true),
+                    properties.getExecutionTimeoutMs(), TimeUnit.MILLISECONDS);
+            Value result;
+            try {
+                Value main = loadMain(context, scriptType, source);
+                result = main.execute(params != null ? params : Map.of());
+            } finally {
+                timeout.cancel(false);
+            }
 
-                // 3. 构建返回结果
-                HashMap<Object, Object> resultMap = Maps.newHashMap();
-                resultMap.put("success", true);
-                HashMap<Object, Object> innerMap = Maps.newHashMap();
+            // 2. 构建返回结果，结果引用上下文中的对象，需在关闭上下文前完成序列化
+            HashMap<Object, Object> resultMap = Maps.newHashMap();
+            resultMap.put("success", true);
+            HashMap<Object, Object> innerMap = Maps.newHashMap();
 
-                Object convertedResult = convertGraalvmValue(result);
-                innerMap.put(OUTPUT_DECORATE_PARAM_KEY, convertedResult);
-                resultMap.put("data", innerMap);
+            Object convertedResult = convertGraalvmValue(result);
+            innerMap.put(OUTPUT_DECORATE_PARAM_KEY, convertedResult);
+            resultMap.put("data", innerMap);
 
-                // 4. 转为JSON格式返回
-                return Result.success(requestId, JSONUtil.toJsonStr(resultMap));
+            // 3. 转为JSON格式返回
+            String json = JSONUtil.toJsonStr(resultMap);
+            return Result.success(requestId, json);
+        } catch (PolyglotException e) {
+            if (e.isCancelled() || e.isResourceExhausted()) {
+                log.warn("GraalVM脚本执行超出资源限制, scriptType={}, requestId={}", scriptType, requestId);
+                return Result.error("脚本执行超时或超出资源限制, requestId=" + requestId);
             }
+            log.error("GraalVM脚本执行异常, scriptType={}, requestId={}", scriptType, requestId, e);
+            return Result.error("脚本执行异常, requestId=" + requestId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.error("脚本执行被中断, requestId=" + requestId);
         } catch (Exception e) {
             log.error("GraalVM脚本执行异常, scriptType={}, requestId={}", scriptType, requestId, e);
             return Result.error("脚本执行异常, requestId=" + requestId);
+        } finally {
+            if (context != null) {
+                runtime.release(context);
+            }
+            sample.stop(executeTimer);
         }
     }
 
+    /**
+     * 加载脚本并返回其中的 main 函数
+     * JS 脚本包裹在函数作用域内执行并返回其中的 main；Python 脚本在模块作用域执行后读取全局 main
+     */
+    private static Value loadMain(Context context, String scriptType, Source source) {
+        Value main;
+        if (SCRIPT_TYPE_JS.equals(scriptType)) {
+            main = context.eval(source);
+        } else {
+            context.eval(source);
+            main = context.getBindings(scriptType).getMember(MAIN_FUNCTION);
+        }
+        if (main == null || !main.canExecute()) {
+            throw new IllegalArgumentException("脚本未定义 main 函数");
+        }
+        return main;
+    }
+
+    /**
+     * 获取解析后的脚本，相同语言、相同内容的脚本复用同一个 Source，
+     * 共享 Engine 据此命中已解析、已编译的代码
+     */
+    private Source getSource(String scriptType, String scriptContent) throws ExecutionException {
+        String key = scriptType + ":" + DigestUtil.sha256Hex(scriptContent);
+        String code = SCRIPT_TYPE_JS.equals(scriptType)
+                ? "(function () {\n" + scriptContent + "\nreturn typeof main === 'function' ? main : undefined;\n})()"
+                : scriptContent;
+        return sourceCache.get(key, () -> Source.newBuilder(scriptType, code, "script-" + key.substring(key.length() - 16))
+                .cached(true)
+                .buildLiteral());
+    }
+
+    private LanguageRuntime getRuntime(String scriptType) {
+        return runtimeMap.computeIfAbsent(scriptType, LanguageRuntime::new);
+    }
+
     private Object convertGraalvmValue(Value result) {
         if (result.isNull()) {
             return null;
@@ -94,4 +283,173 @@ public class SandBoxManager {
         }
         return null;
     }
+
+    /**
+     * 单种语言的共享引擎与备用上下文，上下文只使用一次
+     */
+    private final class LanguageRuntime {
+
+        private final String scriptType;
+
+        private final Engine engine;
+
+        /** 同时执行的脚本数上限 */
+        private final Semaphore permits;
+
+        /** 未使用过的备用上下文 */
+        private final ConcurrentLinkedDeque<Context> spareContexts = new ConcurrentLinkedDeque<>();
+
+        /** 是否已有补充备用上下文的任务在排队 */
+        private final AtomicBoolean replenishing = new AtomicBoolean();
+
+        private final Counter createdCounter;
+
+        private final Counter spareHitCounter;
+
+        private LanguageRuntime(String scriptType) {
+            this.scriptType = scriptType;
+            this.createdCounter = Counter.builder(METRIC_PREFIX + ".context.created")
+                    .tag("scriptType", scriptType)
+                    .register(meterRegistry);
+            this.spareHitCounter = Counter.builder(METRIC_PREFIX + ".context.spare.hit")
+                    .tag("scriptType", scriptType)
+                    .register(meterRegistry);
+            this.engine = Engine.newBuilder(scriptType)
+                    .option("engine.WarnInterpreterOnly", "false")
+                    .build();
+            this.permits = new Semaphore(Math.max(1, properties.getMaxConcurrentExecutions()), true);
+        }
+
+        /**
+         * 获取一个未使用过的上下文：优先取备用上下文，没有时当场创建，并在后台补充备用
+         */
+        private Context acquire() throws InterruptedException {
+            if (!permits.tryAcquire(properties.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("脚本执行繁忙，请稍后重试: " + scriptType);
+            }
+            try {
+                Context context = spareContexts.pollFirst();
+                if (context != null) {
+                    spareHitCounter.increment();
+                } else {
+                    context = create();
+                }
+                scheduleReplenish();
+                return context;
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        /**
+         * 执行结束后关闭上下文，不再复用
+         */
+        private void release(Context context) {
+            try {
+                context.close(true);
+            } catch (Exception e) {
+                log.debug("关闭脚本执行上下文失败", e);
+            } finally {
+                permits.release();
+            }
+        }
+
+        private void scheduleReplenish() {
+            if (closed || properties.getSpareContexts() <= 0 || !replenishing.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                spareCreator.execute(this::replenish);
+            } catch (RejectedExecutionException e) {
+                replenishing.set(false);
+            }
+        }
+
+        /**
+         * 补齐备用上下文
+         */
+        private void replenish() {
+            try {
+                while (!closed && spareContexts.size() < properties.getSpareContexts()) {
+                    spareContexts.offerLast(create());
+                    if (closed) {
+                        closeSpares();
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("创建备用脚本执行上下文失败, scriptType={}", scriptType, e);
+            } finally {
+                replenishing.set(false);
+            }
+        }
+
+        private Context create() {
+            Context context = newContextBuilder(true).build();
+            // 触发语言初始化，Python 在此加载内置模块，避免计入脚本执行时间
+            context.initialize(scriptType);
+            createdCounter.increment();
+            return context;
+        }
+        private Context.Builder newContextBuilder(boolean withLimits) {
+            Context.Builder builder = Context.newBuilder(scriptType)
+                    .engine(engine)
+                    .allowHostAccess(SCRIPT_HOST_ACCESS)
+                    .allowHostClassLookup(className -> false)
+                    .allowPolyglotAccess(PolyglotAccess.NONE)
+                    // 只读文件系统：Python 需要读取标准库，脚本仍无法写文件
+                    .allowIO(READ_ONLY_IO)
+                    .allowCreateThread(false)
+                    .allowCreateProcess(false)
+                    .allowNativeAccess(false)
+                    .allowEnvironmentAccess(EnvironmentAccess.NONE);
+
+            if (withLimits && isSandboxLimitSupported()) {
+                if (properties.getMaxCpuTimeMs() > 0) {
+                    builder.option("sandbox.MaxCPUTime", properties.getMaxCpuTimeMs() + "ms");
+                }
+                if (properties.getMaxHeapMemoryMb() > 0) {
+                    builder.option("sandbox.MaxHeapMemory", properties.getMaxHeapMemoryMb() + "MB");
+                }
+            }
+            return builder;
+        }
+
+        /**
+         * sandbox 资源限制选项仅部分 GraalVM 发行版支持，不支持时只保留执行超时
+         */
+        private boolean isSandboxLimitSupported() {
+            if (sandboxLimitSupported == null) {
+                synchronized (SandBoxManager.this) {
+                    if (sandboxLimitSupported == null) {
+                        Context.Builder probe = newContextBuilder(false)
+                                .option("sandbox.MaxCPUTime", "1000ms");
+                        try (Context ignored = probe.build()) {
+                            sandboxLimitSupported = true;
+                        } catch (IllegalArgumentException | PolyglotException e) {
+                            log.warn("当前GraalVM运行时不支持sandbox资源限制选项，仅启用执行超时: {}", e.getMessage());
+                            sandboxLimitSupported = false;
+                        }
+                    }
+                }
+            }
+            return sandboxLimitSupported;
+        }
+
+        private void close() {
+            closeSpares();
+            engine.close(true);
+        }
+
+        private void closeSpares() {
+            Context context;
+            while ((context = spareContexts.pollFirst()) != null) {
+                try {
+                    context.close(true);
+                } catch (Exception e) {
+                    log.debug("关闭脚本执行上下文失败", e);
+                }
+            }
+        }
+    }
 }
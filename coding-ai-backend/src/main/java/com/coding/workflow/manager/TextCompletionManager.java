@@ -9,7 +9,6 @@ import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.metadata.Usage;
-import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.ChatOptions;
@@ -21,7 +20,6 @@ import org.springframework.util.CollectionUtils;
 import reactor.core.publisher.Mono;
 
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 
 import java.util.List;
 import java.util.Map;
@@ -39,14 +37,11 @@ public class TextCompletionManager {
      */
     public Mono<AgentResponse> chat(String provider, String serviceType, String modelId, Map<String, Object> parameterMap,
                                     List<Message> messages) {
-        ChatModel chatModel = modelFactory.getChatModel(provider, serviceType);
+        ChatClient chatClient = modelFactory.getChatClient(provider, serviceType);
 
         OpenAiChatOptions.Builder chatOptionsBuilder = OpenAiChatOptions.builder().model(modelId);
         ChatOptions chatOptions = buildChatOptions(parameterMap, chatOptionsBuilder);
 
-        ChatClient chatClient = ChatClient.builder(chatModel)
-                .defaultAdvisors(new SimpleLoggerAdvisor())
-                .build();
         Prompt prompt = new Prompt(messages);
 
         return Mono.fromCallable(() -> chatClient.prompt(prompt)
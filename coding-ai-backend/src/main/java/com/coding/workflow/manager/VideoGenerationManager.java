@@ -2,6 +2,7 @@ package com.coding.workflow.manager;
 
 import com.coding.workflow.model.request.VideoGenerationRequest;
 import com.coding.workflow.model.response.VideoGenerationResponse;
+import com.coding.workflow.service.ai.AsyncVideoGenerationService;
 import com.coding.workflow.service.ai.VideoGenerationService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -11,6 +12,9 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -24,8 +28,11 @@ public class VideoGenerationManager {
 
     private final Map<String, VideoGenerationService> serviceMap;
 
+    private final MediaTaskPoller mediaTaskPoller;
+
     @Autowired
-    public VideoGenerationManager(List<VideoGenerationService> services) {
+    public VideoGenerationManager(List<VideoGenerationService> services, MediaTaskPoller mediaTaskPoller) {
+        this.mediaTaskPoller = mediaTaskPoller;
         this.serviceMap = services.stream()
                 .collect(Collectors.toMap(
                     VideoGenerationService::getProvider,
@@ -42,6 +49,53 @@ public class VideoGenerationManager {
      * @return 视频生成响应
      */
     public VideoGenerationResponse generateVideo(VideoGenerationRequest request) {
+        VideoGenerationResponse errorResponse = validate(request);
+        if (errorResponse != null) {
+            return errorResponse;
+        }
+        VideoGenerationService service = serviceMap.get(request.getProvider());
+        log.info("使用供应商 {} 生成视频, 模型: {}", request.getProvider(), request.getModel());
+        return service.generateVideo(request);
+    }
+
+    /**
+     * 异步生成视频：支持任务接口的供应商提交任务后由轮询器等待结果，
+     * 其余供应商的同步调用在轮询器的远程调用线程池中执行，调用方线程不阻塞
+     *
+     * @param request 视频生成请求
+     * @return 视频生成响应的 Future，异常和超时转换为失败响应
+     */
+    public CompletableFuture<VideoGenerationResponse> generateVideoAsync(VideoGenerationRequest request) {
+        VideoGenerationResponse errorResponse = validate(request);
+        if (errorResponse != null) {
+            return CompletableFuture.completedFuture(errorResponse);
+        }
+        VideoGenerationService service = serviceMap.get(request.getProvider());
+        boolean asyncTask = service instanceof AsyncVideoGenerationService;
+        log.info("使用供应商 {} 异步生成视频, 模型: {}, 任务接口: {}", request.getProvider(), request.getModel(), asyncTask);
+
+        CompletableFuture<VideoGenerationResponse> future = service instanceof AsyncVideoGenerationService asyncService
+                ? mediaTaskPoller.call(() -> asyncService.submitVideo(request))
+                        .thenCompose(handle -> mediaTaskPoller.await(handle, asyncService::pollVideo))
+                : mediaTaskPoller.call(() -> service.generateVideo(request));
+        return future.exceptionally(throwable -> {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+            log.error("视频生成任务失败, 供应商: {}", request.getProvider(), cause);
+            return VideoGenerationResponse.builder()
+                    .success(false)
+                    .errorMessage("视频生成任务失败: " + cause.getMessage())
+                    .errorCode(cause instanceof TimeoutException ? "TASK_TIMEOUT" : "TASK_ERROR")
+                    .build();
+        });
+    }
+
+    /**
+     * 校验供应商和模型，未指定供应商时使用默认供应商
+     *
+     * @return 校验失败时返回失败响应，通过时返回 null
+     */
+    private VideoGenerationResponse validate(VideoGenerationRequest request) {
         String provider = request.getProvider();
 
         // 如果没有指定供应商，默认使用BaiLian
@@ -71,8 +125,7 @@ public class VideoGenerationManager {
                     .build();
         }
 
-        log.info("使用供应商 {} 生成视频, 模型: {}", provider, request.getModel());
-        return service.generateVideo(request);
+        return null;
     }
 
     /**
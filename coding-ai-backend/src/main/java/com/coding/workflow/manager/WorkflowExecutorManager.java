@@ -0,0 +1,301 @@
+package com.coding.workflow.manager;
+
+import com.coding.core.config.WorkflowExecutorProperties;
+import com.coding.workflow.exception.BizException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 工作流执行线程管理器
+ * 负责工作流调度线程、节点执行线程的统一管理，提供准入控制、按节点类型限流以及线程池指标
+ */
+@Slf4j
+@Component
+public class WorkflowExecutorManager {
+
+    private static final String METRIC_PREFIX = "coding.workflow.executor";
+
+    private final WorkflowExecutorProperties properties;
+
+    /**
+     * 工作流调度线程池：有界队列，满载后拒绝
+     */
+    private final ThreadPoolExecutor workflowExecutor;
+
+    /**
+     * 计算型节点线程池
+     */
+    private final ThreadPoolExecutor nodeExecutor;
+
+    /**
+     * I/O 型节点执行器：优先使用虚拟线程
+     */
+    private final ExecutorService ioNodeExecutor;
+
+    private final Set<String> ioNodeTypes;
+
+    private final Map<String, NodeTypeLimiter> nodeTypeLimiterMap = new HashMap<>();
+
+    private final AtomicInteger activeIoNodeCount = new AtomicInteger();
+
+    private final Counter workflowRejectedCounter;
+
+    private final Counter nodeRejectedCounter;
+
+    public WorkflowExecutorManager(WorkflowExecutorProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.workflowExecutor = new ThreadPoolExecutor(
+                properties.getMaxConcurrentWorkflows(), properties.getMaxConcurrentWorkflows(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getWorkflowQueueCapacity()),
+                namedThreadFactory("workflow-scheduler-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.nodeExecutor = new ThreadPoolExecutor(
+                properties.getNodePoolSize(), properties.getNodePoolSize(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getNodeQueueCapacity()),
+                namedThreadFactory("workflow-node-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.ioNodeExecutor = createIoNodeExecutor(properties);
+        this.ioNodeTypes = new HashSet<>(properties.getIoNodeTypes());
+        properties.getNodeTypeMaxConcurrency().forEach((nodeType, limit) ->
+                nodeTypeLimiterMap.put(nodeType, new NodeTypeLimiter(limit)));
+
+        // 注册指标
+        registerPoolGauges(meterRegistry, "workflow", workflowExecutor);
+        registerPoolGauges(meterRegistry, "node", nodeExecutor);
+        if (ioNodeExecutor instanceof ThreadPoolExecutor ioPool) {
+            registerPoolGauges(meterRegistry, "io", ioPool);
+        } else {
+            Gauge.builder(METRIC_PREFIX + ".active", activeIoNodeCount, AtomicInteger::get)
+                    .tag("pool", "io")
+                    .register(meterRegistry);
+        }
+        nodeTypeLimiterMap.forEach((nodeType, limiter) ->
+                Gauge.builder(METRIC_PREFIX + ".node.type.waiting", limiter, NodeTypeLimiter::waitingSize)
+                        .tag("nodeType", nodeType)
+                        .register(meterRegistry));
+        this.workflowRejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .tag("pool", "workflow")
+                .register(meterRegistry);
+        this.nodeRejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .tag("pool", "node")
+                .register(meterRegistry);
+
+        log.info("工作流执行线程管理器初始化完成，工作流并发: {}，节点线程: {}，I/O节点执行器: {}，节点类型限流: {}",
+                properties.getMaxConcurrentWorkflows(), properties.getNodePoolSize(),
+                ioNodeExecutor.getClass().getSimpleName(), properties.getNodeTypeMaxConcurrency());
+    }
+
+    /**
+     * 提交工作流调度任务，超出并发和排队容量时拒绝
+     *
+     * @param task 工作流调度任务
+     */
+    public void submitWorkflow(Runnable task) {
+        try {
+            workflowExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            workflowRejectedCounter.increment();
+            log.warn("工作流执行繁忙，拒绝新的工作流，当前执行: {}，排队: {}",
+                    workflowExecutor.getActiveCount(), workflowExecutor.getQueue().size());
+            throw new BizException("工作流执行繁忙，请稍后重试");
+        }
+    }
+
+    /**
+     * 提交节点执行任务，按节点类型选择执行器并进行并发限流
+     * 达到节点类型并发上限的任务在提交前排队，由前一个同类型节点完成时提交，不占用执行线程；
+     * 任务返回的 Future 完成时才释放并发名额，挂起等待远程任务的节点在此期间不占用执行线程
+     *
+     * @param nodeType 节点类型
+     * @param task 节点执行任务，返回节点完成的 Future
+     * @return 节点完成的 Future，执行器满载拒绝时以 RejectedExecutionException 异常完成
+     */
+    public CompletableFuture<Void> submitNode(String nodeType, Supplier<CompletableFuture<Void>> task) {
+        NodeTypeLimiter limiter = nodeType == null ? null : nodeTypeLimiterMap.get(nodeType);
+        NodeTask nodeTask = new NodeTask(nodeType, task, limiter);
+        if (limiter == null || limiter.tryAcquire(nodeTask)) {
+            dispatch(nodeTask);
+        }
+        return nodeTask.completion;
+    }
+
+    /**
+     * 单个工作流内同时执行的节点上限
+     */
+    public int getPerWorkflowMaxConcurrency() {
+        return Math.max(1, properties.getPerWorkflowMaxConcurrency());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workflowExecutor.shutdown();
+        nodeExecutor.shutdown();
+        ioNodeExecutor.shutdown();
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void dispatch(NodeTask nodeTask) {
+        try {
+            if (nodeTask.nodeType != null && ioNodeTypes.contains(nodeTask.nodeType)) {
+                ioNodeExecutor.execute(() -> {
+                    activeIoNodeCount.incrementAndGet();
+                    try {
+                        run(nodeTask);
+                    } finally {
+                        activeIoNodeCount.decrementAndGet();
+                    }
+                });
+            } else {
+                nodeExecutor.execute(() -> run(nodeTask));
+            }
+        } catch (RejectedExecutionException e) {
+            nodeRejectedCounter.increment();
+            log.warn("节点执行繁忙，拒绝节点任务，节点类型: {}，当前执行: {}，排队: {}",
+                    nodeTask.nodeType, nodeExecutor.getActiveCount(), nodeExecutor.getQueue().size());
+            nodeTask.completion.completeExceptionally(e);
+            release(nodeTask);
+        }
+    }
+
+    private void run(NodeTask nodeTask) {
+        CompletableFuture<Void> future;
+        try {
+            future = nodeTask.task.get();
+        } catch (RuntimeException | Error e) {
+            nodeTask.completion.completeExceptionally(e);
+            release(nodeTask);
+            throw e;
+        }
+        future.whenComplete((ignored, throwable) -> {
+            release(nodeTask);
+            if (throwable != null) {
+                nodeTask.completion.completeExceptionally(throwable);
+            } else {
+                nodeTask.completion.complete(null);
+            }
+        });
+    }
+
+    /**
+     * 释放节点类型的并发名额，有排队任务时直接交给下一个任务
+     */
+    private void release(NodeTask nodeTask) {
+        if (nodeTask.limiter == null) {
+            return;
+        }
+        NodeTask next = nodeTask.limiter.release();
+        if (next != null) {
+            dispatch(next);
+        }
+    }
+
+    /**
+     * 创建 I/O 型节点执行器：JDK 21+ 使用虚拟线程，否则回退为有界平台线程池
+     */
+    private static ExecutorService createIoNodeExecutor(WorkflowExecutorProperties properties) {
+        if (properties.isIoVirtualThreads()) {
+            try {
+                Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("当前JDK不支持虚拟线程，I/O节点回退为平台线程池，线程数: {}", properties.getIoPoolSize());
+            }
+        }
+        return new ThreadPoolExecutor(
+                properties.getIoPoolSize(), properties.getIoPoolSize(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getNodeQueueCapacity()),
+                namedThreadFactory("workflow-io-node-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static void registerPoolGauges(MeterRegistry meterRegistry, String pool, ThreadPoolExecutor executor) {
+        Gauge.builder(METRIC_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.size", executor, e -> e.getQueue().size())
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 待执行的节点任务
+     */
+    private record NodeTask(String nodeType, Supplier<CompletableFuture<Void>> task, NodeTypeLimiter limiter,
+                            CompletableFuture<Void> completion) {
+
+        private NodeTask(String nodeType, Supplier<CompletableFuture<Void>> task, NodeTypeLimiter limiter) {
+            this(nodeType, task, limiter, new CompletableFuture<>());
+        }
+    }
+
+    /**
+     * 节点类型并发限制：名额用完时任务按提交顺序排队，不阻塞任何线程
+     */
+    private static final class NodeTypeLimiter {
+
+        private final int limit;
+
+        private final Queue<NodeTask> waitingTasks = new ArrayDeque<>();
+
+        private int running;
+
+        private NodeTypeLimiter(int limit) {
+            this.limit = Math.max(1, limit);
+        }
+
+        /**
+         * 有空闲名额时占用并返回 true，否则排队
+         */
+        private synchronized boolean tryAcquire(NodeTask nodeTask) {
+            if (running < limit) {
+                running++;
+                return true;
+            }
+            waitingTasks.add(nodeTask);
+            return false;
+        }
+
+        /**
+         * 返回接替名额的排队任务，没有时释放名额
+         */
+        private synchronized NodeTask release() {
+            NodeTask next = waitingTasks.poll();
+            if (next == null) {
+                running--;
+            }
+            return next;
+        }
+
+        private synchronized int waitingSize() {
+            return waitingTasks.size();
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
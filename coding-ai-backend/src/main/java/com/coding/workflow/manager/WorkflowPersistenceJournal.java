@@ -0,0 +1,398 @@
+package com.coding.workflow.manager;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.copier.CopyOptions;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import com.coding.core.config.WorkflowJournalProperties;
+import com.coding.core.model.model.WorkflowInstanceModel;
+import com.coding.core.model.model.WorkflowNodeInstanceModel;
+import com.coding.core.repository.WorkflowInstanceRepository;
+import com.coding.core.repository.WorkflowNodeInstanceRepository;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 工作流执行记录异步写入日志（write-behind）
+ * 节点实例、工作流实例的写入先在内存中按记录合并，再按数量或时间阈值批量写库；
+ * 节点执行线程只做内存操作，不再同步等待 MySQL。工作流结束和应用关闭时保证写入
+ */
+@Slf4j
+@Component
+public class WorkflowPersistenceJournal {
+
+    private static final String METRIC_PREFIX = "coding.workflow.journal";
+
+    private static final CopyOptions IGNORE_NULL = CopyOptions.create().ignoreNullValue();
+
+    private final WorkflowNodeInstanceRepository workflowNodeInstanceRepository;
+
+    private final WorkflowInstanceRepository workflowInstanceRepository;
+
+    private final WorkflowJournalProperties properties;
+
+    /** 缓冲区锁，仅保护内存操作 */
+    private final Object bufferLock = new Object();
+
+    /** 写库锁，保证批次按顺序写入（新增先于更新） */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /** 节点实例ID => 待写入记录 */
+    private final Map<Long, PendingWrite<WorkflowNodeInstanceModel>> pendingNodeWrites = new LinkedHashMap<>();
+
+    /** 工作流实例ID => 待写入更新 */
+    private final Map<Long, PendingWrite<WorkflowInstanceModel>> pendingWorkflowWrites = new LinkedHashMap<>();
+
+    /**
+     * 工作流实例ID => 节点实例ID映射；工作流结束且执行中节点全部落定后移除，
+     * 访问过期兜底工作流结束后才开始执行的节点
+     */
+    private final Cache<Long, WorkflowNodeIds> nodeInstanceIdCache;
+
+    /** 缓冲区中最早一条未写入记录的时间 */
+    private long oldestPendingMillis = 0;
+
+    private final AtomicBoolean flushTriggered = new AtomicBoolean(false);
+
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "workflow-journal-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DistributionSummary batchSizeSummary;
+
+    public WorkflowPersistenceJournal(WorkflowNodeInstanceRepository workflowNodeInstanceRepository,
+                                      WorkflowInstanceRepository workflowInstanceRepository,
+                                      WorkflowJournalProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.workflowNodeInstanceRepository = workflowNodeInstanceRepository;
+        this.workflowInstanceRepository = workflowInstanceRepository;
+        this.properties = properties;
+        this.nodeInstanceIdCache = CacheBuilder.newBuilder()
+                .expireAfterAccess(properties.getNodeIdRetentionMinutes(), TimeUnit.MINUTES)
+                .build();
+
+        Gauge.builder(METRIC_PREFIX + ".pending", this, WorkflowPersistenceJournal::pendingSize)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".lag.ms", this, WorkflowPersistenceJournal::lagMillis)
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder(METRIC_PREFIX + ".batch.size")
+                .register(meterRegistry);
+
+        flushExecutor.scheduleWithFixedDelay(this::flushQuietly,
+                properties.getFlushIntervalMs(), properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 记录节点开始执行（新增），预先分配节点实例ID
+     */
+    public void recordNodeStart(WorkflowNodeInstanceModel nodeModel) {
+        nodeModel.setId(IdWorker.getId());
+        getNodeIds(nodeModel.getWorkflowInstanceId()).start(nodeModel.getNodeId(), nodeModel.getId());
+        enqueueNode(nodeModel, true);
+    }
+
+    /**
+     * 记录节点执行结果（更新），与尚未写入的记录合并；未记录开始的节点按新增写入
+     */
+    public void recordNodeUpdate(WorkflowNodeInstanceModel nodeModel) {
+        Long workflowInstanceId = nodeModel.getWorkflowInstanceId();
+        WorkflowNodeIds nodeIds = nodeInstanceIdCache.getIfPresent(workflowInstanceId);
+        Long id = nodeIds == null ? null : nodeIds.idOf(nodeModel.getNodeId());
+        boolean insert = id == null;
+        nodeModel.setId(insert ? IdWorker.getId() : id);
+        enqueueNode(nodeModel, insert);
+        if (nodeIds != null && nodeIds.settle(nodeModel.getNodeId())) {
+            nodeInstanceIdCache.invalidate(workflowInstanceId);
+        }
+    }
+
+    /**
+     * 记录工作流实例更新，与尚未写入的更新合并
+     */
+    public void recordWorkflowUpdate(WorkflowInstanceModel workflowInstanceModel) {
+        int pendingSize;
+        synchronized (bufferLock) {
+            PendingWrite<WorkflowInstanceModel> pending = pendingWorkflowWrites.get(workflowInstanceModel.getId());
+            if (pending == null) {
+                pendingWorkflowWrites.put(workflowInstanceModel.getId(), new PendingWrite<>(workflowInstanceModel, false, 0));
+            } else {
+                BeanUtil.copyProperties(workflowInstanceModel, pending.model, IGNORE_NULL);
+            }
+            pendingSize = markPending();
+        }
+        triggerFlushIfNeeded(pendingSize);
+    }
+
+    /**
+     * 工作流执行结束：同步写入该实例的全部待写记录；
+     * 失败、超时提前结束时仍有节点在执行，节点ID映射保留到这些节点落定，避免其结果按新增重复写入
+     */
+    public void completeWorkflow(Long workflowInstanceId) {
+        try {
+            flush(workflowInstanceId);
+        } finally {
+            WorkflowNodeIds nodeIds = nodeInstanceIdCache.getIfPresent(workflowInstanceId);
+            if (nodeIds != null && nodeIds.complete()) {
+                nodeInstanceIdCache.invalidate(workflowInstanceId);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush(null);
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private WorkflowNodeIds getNodeIds(Long workflowInstanceId) {
+        try {
+            return nodeInstanceIdCache.get(workflowInstanceId, WorkflowNodeIds::new);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void enqueueNode(WorkflowNodeInstanceModel nodeModel, boolean insert) {
+        int pendingSize;
+        synchronized (bufferLock) {
+            PendingWrite<WorkflowNodeInstanceModel> pending = pendingNodeWrites.get(nodeModel.getId());
+            if (pending == null) {
+                pendingNodeWrites.put(nodeModel.getId(), new PendingWrite<>(nodeModel, insert, 0));
+            } else {
+                // 合并：尚未写入的新增记录直接吸收后续更新
+                BeanUtil.copyProperties(nodeModel, pending.model, IGNORE_NULL);
+            }
+            pendingSize = markPending();
+        }
+        triggerFlushIfNeeded(pendingSize);
+    }
+
+    /** 需持有 bufferLock */
+    private int markPending() {
+        if (oldestPendingMillis == 0) {
+            oldestPendingMillis = System.currentTimeMillis();
+        }
+        return pendingNodeWrites.size() + pendingWorkflowWrites.size();
+    }
+
+    private void triggerFlushIfNeeded(int pendingSize) {
+        if (pendingSize >= properties.getBatchSize() && flushTriggered.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushTriggered.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush(null);
+        } catch (Exception e) {
+            log.error("工作流执行记录批量写入失败", e);
+        }
+    }
+
+    /**
+     * 批量写入待写记录；写库失败时未写入的记录放回缓冲区，由下一次写入重试
+     *
+     * @param workflowInstanceId 仅写入该工作流实例的记录，为 null 时写入全部
+     */
+    private void flush(Long workflowInstanceId) {
+        flushLock.lock();
+        try {
+            List<PendingWrite<WorkflowNodeInstanceModel>> inserts = new ArrayList<>();
+            List<PendingWrite<WorkflowNodeInstanceModel>> updates = new ArrayList<>();
+            List<PendingWrite<WorkflowInstanceModel>> workflowUpdates = new ArrayList<>();
+            synchronized (bufferLock) {
+                Iterator<PendingWrite<WorkflowNodeInstanceModel>> nodeIterator = pendingNodeWrites.values().iterator();
+                while (nodeIterator.hasNext()) {
+                    PendingWrite<WorkflowNodeInstanceModel> pending = nodeIterator.next();
+                    if (workflowInstanceId == null || workflowInstanceId.equals(pending.model.getWorkflowInstanceId())) {
+                        (pending.insert ? inserts : updates).add(pending);
+                        nodeIterator.remove();
+                    }
+                }
+                Iterator<PendingWrite<WorkflowInstanceModel>> workflowIterator = pendingWorkflowWrites.values().iterator();
+                while (workflowIterator.hasNext()) {
+                    PendingWrite<WorkflowInstanceModel> pending = workflowIterator.next();
+                    if (workflowInstanceId == null || workflowInstanceId.equals(pending.model.getId())) {
+                        workflowUpdates.add(pending);
+                        workflowIterator.remove();
+                    }
+                }
+                if (pendingNodeWrites.isEmpty() && pendingWorkflowWrites.isEmpty()) {
+                    oldestPendingMillis = 0;
+                }
+            }
+
+            int batchSize = Math.max(1, properties.getBatchSize());
+            int insertedCount = 0;
+            int updatedCount = 0;
+            boolean workflowUpdated = false;
+            try {
+                while (insertedCount < inserts.size()) {
+                    List<PendingWrite<WorkflowNodeInstanceModel>> batch =
+                            inserts.subList(insertedCount, Math.min(insertedCount + batchSize, inserts.size()));
+                    workflowNodeInstanceRepository.addBatch(models(batch));
+                    batchSizeSummary.record(batch.size());
+                    insertedCount += batch.size();
+                }
+                while (updatedCount < updates.size()) {
+                    List<PendingWrite<WorkflowNodeInstanceModel>> batch =
+                            updates.subList(updatedCount, Math.min(updatedCount + batchSize, updates.size()));
+                    workflowNodeInstanceRepository.updateBatchById(models(batch));
+                    batchSizeSummary.record(batch.size());
+                    updatedCount += batch.size();
+                }
+                if (!workflowUpdates.isEmpty()) {
+                    workflowInstanceRepository.updateBatchById(models(workflowUpdates));
+                    batchSizeSummary.record(workflowUpdates.size());
+                }
+                workflowUpdated = true;
+            } finally {
+                if (!workflowUpdated) {
+                    requeue(inserts.subList(insertedCount, inserts.size()),
+                            updates.subList(updatedCount, updates.size()), workflowUpdates);
+                }
+            }
+            if (log.isDebugEnabled() && (inserts.size() + updates.size() + workflowUpdates.size()) > 0) {
+                log.debug("工作流执行记录批量写入完成，新增节点: {}，更新节点: {}，更新工作流: {}",
+                        inserts.size(), updates.size(), workflowUpdates.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 写库失败的记录放回缓冲区，期间新到的更新覆盖在旧记录之上；超过最大重试次数的记录丢弃
+     */
+    private void requeue(List<PendingWrite<WorkflowNodeInstanceModel>> nodeWrites,
+                         List<PendingWrite<WorkflowNodeInstanceModel>> nodeUpdates,
+                         List<PendingWrite<WorkflowInstanceModel>> workflowWrites) {
+        int dropped = 0;
+        synchronized (bufferLock) {
+            for (PendingWrite<WorkflowNodeInstanceModel> failed : nodeWrites) {
+                dropped += requeue(pendingNodeWrites, failed.model.getId(), failed);
+            }
+            for (PendingWrite<WorkflowNodeInstanceModel> failed : nodeUpdates) {
+                dropped += requeue(pendingNodeWrites, failed.model.getId(), failed);
+            }
+            for (PendingWrite<WorkflowInstanceModel> failed : workflowWrites) {
+                dropped += requeue(pendingWorkflowWrites, failed.model.getId(), failed);
+            }
+            if (!pendingNodeWrites.isEmpty() || !pendingWorkflowWrites.isEmpty()) {
+                markPending();
+            }
+        }
+        if (dropped > 0) {
+            log.error("工作流执行记录超过最大重试次数，已丢弃 {} 条", dropped);
+        }
+    }
+
+    /** 需持有 bufferLock，返回丢弃的记录数 */
+    private <T> int requeue(Map<Long, PendingWrite<T>> pendingWrites, Long id, PendingWrite<T> failed) {
+        if (failed.attempts + 1 > properties.getMaxFlushRetries()) {
+            return 1;
+        }
+        PendingWrite<T> retry = new PendingWrite<>(failed.model, failed.insert, failed.attempts + 1);
+        PendingWrite<T> newer = pendingWrites.get(id);
+        if (newer != null) {
+            BeanUtil.copyProperties(newer.model, retry.model, IGNORE_NULL);
+        }
+        pendingWrites.put(id, retry);
+        return 0;
+    }
+
+    private static <T> List<T> models(List<PendingWrite<T>> pendingWrites) {
+        List<T> models = new ArrayList<>(pendingWrites.size());
+        for (PendingWrite<T> pending : pendingWrites) {
+            models.add(pending.model);
+        }
+        return models;
+    }
+
+    private double pendingSize() {
+        synchronized (bufferLock) {
+            return pendingNodeWrites.size() + pendingWorkflowWrites.size();
+        }
+    }
+
+    private double lagMillis() {
+        synchronized (bufferLock) {
+            return oldestPendingMillis == 0 ? 0 : System.currentTimeMillis() - oldestPendingMillis;
+        }
+    }
+
+    /**
+     * 待写入记录
+     */
+    private static final class PendingWrite<T> {
+
+        private final T model;
+
+        /** 是否为尚未写入的新增记录 */
+        private final boolean insert;
+
+        /** 已失败的写入次数 */
+        private final int attempts;
+
+        private PendingWrite(T model, boolean insert, int attempts) {
+            this.model = model;
+            this.insert = insert;
+            this.attempts = attempts;
+        }
+    }
+
+    /**
+     * 单个工作流实例的节点实例ID映射与执行中节点
+     */
+    private static final class WorkflowNodeIds {
+
+        /** 节点ID => 节点实例ID */
+        private final Map<String, Long> idMap = new HashMap<>();
+
+        /** 已记录开始、尚未记录结果的节点ID */
+        private final Set<String> runningNodeIds = new HashSet<>();
+
+        private boolean completed;
+
+        private synchronized void start(String nodeId, Long id) {
+            idMap.put(nodeId, id);
+            runningNodeIds.add(nodeId);
+        }
+
+        private synchronized Long idOf(String nodeId) {
+            return idMap.get(nodeId);
+        }
+
+        /** 节点落定，返回映射是否可以释放 */
+        private synchronized boolean settle(String nodeId) {
+            runningNodeIds.remove(nodeId);
+            return completed && runningNodeIds.isEmpty();
+        }
+
+        /** 工作流结束，返回映射是否可以释放 */
+        private synchronized boolean complete() {
+            completed = true;
+            return runningNodeIds.isEmpty();
+        }
+    }
+}
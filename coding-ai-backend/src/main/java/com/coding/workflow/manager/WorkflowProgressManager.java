@@ -0,0 +1,364 @@
+package com.coding.workflow.manager;
+
+import com.coding.core.config.WorkflowProgressProperties;
+import com.coding.workflow.enums.WorkflowStatusEnum;
+import com.coding.workflow.model.workflow.Node;
+import com.coding.workflow.model.workflow.NodeResult;
+import com.coding.workflow.model.workflow.WorkflowContext;
+import com.coding.workflow.model.workflow.WorkflowProgressEvent;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 工作流执行进度管理器
+ * 节点状态变化写入 WorkflowContext.nodeResultMap 的同时记录为带序号的进度事件，
+ * 推送给订阅者（SSE）；运行中实例的进度查询直接读内存，只有已结束或已淘汰的实例才查询库表。
+ * 每个实例保留最近的事件用于断线续传，续传位置超出保留范围时补发各节点最新状态
+ */
+@Slf4j
+@Component
+public class WorkflowProgressManager {
+
+    private static final String METRIC_PREFIX = "coding.workflow.progress";
+
+    private final WorkflowProgressProperties properties;
+
+    /** 工作流实例ID => 执行进度 */
+    private final Cache<Long, WorkflowProgress> progressCache;
+
+    private final ExecutorService deliveryExecutor;
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    public WorkflowProgressManager(WorkflowProgressProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.progressCache = CacheBuilder.newBuilder()
+                .maximumSize(properties.getMaximumInstances())
+                .expireAfterAccess(properties.getRetentionMinutes(), TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, progressCache, METRIC_PREFIX + ".cache");
+        Gauge.builder(METRIC_PREFIX + ".subscribers", subscriberCount, AtomicInteger::get)
+                .register(meterRegistry);
+
+        AtomicInteger index = new AtomicInteger(1);
+        this.deliveryExecutor = Executors.newFixedThreadPool(properties.getDeliveryThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "workflow-progress-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveryExecutor.shutdownNow();
+    }
+
+    /**
+     * 工作流开始执行，登记实例并产生 workflow 事件
+     */
+    public void start(WorkflowContext context) {
+        WorkflowProgress progress = new WorkflowProgress(context, properties.getMaxEventsPerInstance());
+        progressCache.put(context.getInstanceId(), progress);
+        progress.append(WorkflowProgressEvent.builder()
+                .type(WorkflowProgressEvent.TYPE_WORKFLOW)
+                .status(WorkflowStatusEnum.EXECUTING.getCode()), deliveryExecutor);
+    }
+
+    /**
+     * 记录节点状态变化，调用方需在结果写入 nodeResultMap 之后调用
+     */
+    public void recordNode(Long instanceId, Node node, NodeResult nodeResult) {
+        WorkflowProgress progress = instanceId == null ? null : progressCache.getIfPresent(instanceId);
+        if (progress == null || nodeResult == null) {
+            return;
+        }
+        progress.append(WorkflowProgressEvent.builder()
+                .type(WorkflowProgressEvent.TYPE_NODE)
+                .nodeId(node.getId())
+                .nodeName(nodeResult.getNodeName() != null ? nodeResult.getNodeName() : node.getName())
+                .nodeType(nodeResult.getNodeType() != null ? nodeResult.getNodeType() : node.getType())
+                .status(nodeResult.getNodeStatus())
+                .output(nodeResult.getOutput())
+                .errorInfo(nodeResult.getErrorInfo())
+                .executeTime(nodeResult.getNodeExecuteTime()), deliveryExecutor);
+    }
+
+    /**
+     * 工作流执行结束，产生结束事件；调用方需在执行记录写入库表之后调用，
+     * 保证订阅者收到结束事件后查询库表能得到完整结果
+     */
+    public void finish(WorkflowContext context) {
+        WorkflowProgress progress = progressCache.getIfPresent(context.getInstanceId());
+        if (progress == null) {
+            return;
+        }
+        progress.append(WorkflowProgressEvent.builder()
+                .type(WorkflowProgressEvent.TYPE_WORKFLOW)
+                .status(context.getTaskStatus())
+                .output(context.getTaskResult())
+                .errorInfo(context.getErrorInfo())
+                .finished(true), deliveryExecutor);
+    }
+
+    /**
+     * 获取运行中实例的进度，已结束或不在内存中时返回 null
+     */
+    public WorkflowProgress getRunning(Long instanceId) {
+        WorkflowProgress progress = progressCache.getIfPresent(instanceId);
+        return progress != null && !progress.isFinished() ? progress : null;
+    }
+
+    /**
+     * 订阅实例进度：先补发 seq 大于 afterSeq 的事件，再推送新事件，收到结束事件后自动取消订阅。
+     * 监听器在推送线程上按序调用，抛出异常时取消订阅
+     *
+     * @param instanceId 工作流实例ID
+     * @param afterSeq 客户端最后收到的事件序号，从头订阅时为 0
+     * @param listener 事件监听器
+     * @return 订阅句柄，实例不在内存中时返回 null
+     */
+    public Subscription subscribe(Long instanceId, long afterSeq, ProgressListener listener) {
+        WorkflowProgress progress = progressCache.getIfPresent(instanceId);
+        if (progress == null) {
+            return null;
+        }
+        Subscription subscription = new Subscription(progress, listener);
+        progress.subscribe(subscription, afterSeq);
+        subscription.schedule(deliveryExecutor);
+        return subscription;
+    }
+
+    /**
+     * 进度事件监听器
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        void onEvent(WorkflowProgressEvent event) throws Exception;
+    }
+
+    /**
+     * 单个工作流实例的执行进度
+     */
+    public static final class WorkflowProgress {
+
+        @Getter
+        private final Long instanceId;
+
+        @Getter
+        private final Long configId;
+
+        @Getter
+        private final Long appId;
+
+        @Getter
+        private final Map<String, Object> inputParams;
+
+        @Getter
+        private final LocalDateTime startTime;
+
+        private final int maxEvents;
+
+        /** 最近的事件，超出上限时淘汰最早的事件 */
+        private final Deque<WorkflowProgressEvent> events = new ArrayDeque<>();
+
+        /** 节点ID => 该节点最新事件，按节点首次出现的顺序 */
+        private final Map<String, WorkflowProgressEvent> latestNodeEvents = new LinkedHashMap<>();
+
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+        private WorkflowProgressEvent latestWorkflowEvent;
+
+        private long lastSeq;
+
+        private volatile boolean finished;
+
+        private WorkflowProgress(WorkflowContext context, int maxEvents) {
+            this.instanceId = context.getInstanceId();
+            this.configId = context.getConfigId();
+            this.appId = context.getAppId();
+            this.inputParams = Collections.unmodifiableMap(new LinkedHashMap<>(context.getUserMap()));
+            this.startTime = context.getStartTime();
+            this.maxEvents = maxEvents;
+        }
+
+        public boolean isFinished() {
+            return finished;
+        }
+
+        /**
+         * 当前工作流状态
+         */
+        public synchronized String getStatus() {
+            return latestWorkflowEvent != null ? latestWorkflowEvent.getStatus() : null;
+        }
+
+        /**
+         * 各节点最新状态，按节点首次出现的顺序
+         */
+        public synchronized List<WorkflowProgressEvent> getLatestNodeEvents() {
+            return new ArrayList<>(latestNodeEvents.values());
+        }
+
+        private void append(WorkflowProgressEvent.WorkflowProgressEventBuilder builder, ExecutorService executor) {
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                WorkflowProgressEvent event = builder
+                        .instanceId(instanceId)
+                        .timestamp(System.currentTimeMillis())
+                        .build();
+                if (WorkflowProgressEvent.TYPE_NODE.equals(event.getType())
+                        && isSameState(latestNodeEvents.get(event.getNodeId()), event)) {
+                    // 引擎与执行器可能先后登记同一状态，重复状态不产生事件
+                    return;
+                }
+                event.setSeq(++lastSeq);
+                events.addLast(event);
+                if (events.size() > maxEvents) {
+                    events.removeFirst();
+                }
+                if (WorkflowProgressEvent.TYPE_NODE.equals(event.getType())) {
+                    latestNodeEvents.put(event.getNodeId(), event);
+                } else {
+                    latestWorkflowEvent = event;
+                }
+                finished = event.isFinished();
+                // 在锁内入队，保证每个订阅者收到的事件与 seq 顺序一致
+                for (Subscription subscription : subscriptions) {
+                    subscription.pending.add(event);
+                }
+            }
+            for (Subscription subscription : subscriptions) {
+                subscription.schedule(executor);
+            }
+        }
+
+        private static boolean isSameState(WorkflowProgressEvent previous, WorkflowProgressEvent current) {
+            return previous != null
+                    && Objects.equals(previous.getStatus(), current.getStatus())
+                    && Objects.equals(previous.getOutput(), current.getOutput())
+                    && Objects.equals(previous.getErrorInfo(), current.getErrorInfo());
+        }
+
+        private synchronized void subscribe(Subscription subscription, long afterSeq) {
+            WorkflowProgressEvent oldest = events.peekFirst();
+            if (oldest == null || afterSeq >= oldest.getSeq() - 1) {
+                for (WorkflowProgressEvent event : events) {
+                    if (event.getSeq() > afterSeq) {
+                        subscription.pending.add(event);
+                    }
+                }
+            } else {
+                // 续传位置已被淘汰：节点事件可相互覆盖，补发各节点与工作流的最新状态即可恢复完整视图
+                List<WorkflowProgressEvent> snapshot = new ArrayList<>(latestNodeEvents.values());
+                if (latestWorkflowEvent != null) {
+                    snapshot.add(latestWorkflowEvent);
+                }
+                snapshot.stream()
+                        .filter(event -> event.getSeq() > afterSeq)
+                        .sorted(Comparator.comparingLong(WorkflowProgressEvent::getSeq))
+                        .forEach(subscription.pending::add);
+            }
+            if (!finished) {
+                subscriptions.add(subscription);
+            } else if (subscription.pending.isEmpty() && latestWorkflowEvent != null) {
+                // 已结束且客户端已收到全部事件（如 EventSource 带 Last-Event-ID 重连）：
+                // 重发结束事件使订阅立即结束，不会保持空连接直到超时
+                subscription.pending.add(latestWorkflowEvent);
+            }
+        }
+    }
+
+    /**
+     * 订阅句柄，每个订阅者的事件在推送线程上串行发送
+     */
+    public final class Subscription {
+
+        private final WorkflowProgress progress;
+
+        private final ProgressListener listener;
+
+        private final Queue<WorkflowProgressEvent> pending = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+        private Subscription(WorkflowProgress progress, ProgressListener listener) {
+            this.progress = progress;
+            this.listener = listener;
+            subscriberCount.incrementAndGet();
+        }
+
+        /**
+         * 取消订阅，可重复调用
+         */
+        public void cancel() {
+            if (cancelled.compareAndSet(false, true)) {
+                progress.subscriptions.remove(this);
+                pending.clear();
+                subscriberCount.decrementAndGet();
+            }
+        }
+
+        private void schedule(ExecutorService executor) {
+            if (!cancelled.get() && !pending.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (Exception e) {
+                    draining.set(false);
+                    log.warn("工作流进度推送任务提交失败，实例ID：{}", progress.getInstanceId(), e);
+                    cancel();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                WorkflowProgressEvent event;
+                while (!cancelled.get() && (event = pending.poll()) != null) {
+                    listener.onEvent(event);
+                    if (event.isFinished()) {
+                        cancel();
+                    }
+                }
+            } catch (Exception e) {
+                log.debug("工作流进度推送失败，取消订阅，实例ID：{}", progress.getInstanceId(), e);
+                cancel();
+            } finally {
+                draining.set(false);
+            }
+            // 释放标记后可能有新事件入队，再检查一次
+            schedule(deliveryExecutor);
+        }
+    }
+}
@@ -1,49 +1,148 @@
 package com.coding.workflow.model.factory;
 
 import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
 import com.coding.core.config.AiServiceConfigProperties;
+import com.coding.core.config.ModelClientProperties;
 import com.coding.core.service.AiProviderConfigService;
 import com.coding.workflow.exception.BizException;
 import com.coding.workflow.utils.ApiUtils;
-import lombok.RequiredArgsConstructor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.openai.OpenAiChatModel;
 import org.springframework.ai.openai.api.OpenAiApi;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StreamUtils;
 import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.http.HttpClient;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * 模型工厂
+ * 按提供商、服务类型与连接配置摘要缓存 ChatModel / ChatClient，所有模型共享同一个 HTTP 客户端连接池；
+ * 提供商地址或密钥变化后摘要随之变化，下次获取时自动重建
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class ModelFactory {
 
+    private static final String METRIC_PREFIX = "coding.llm";
+
     private final AiProviderConfigService aiProviderConfigService;
 
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 所有模型调用共享的 HTTP 客户端，复用连接与 TLS 会话
+     */
+    private final HttpClient httpClient;
+
+    private final ModelClientProperties properties;
+
+    private final Cache<ModelCacheKey, ModelClient> modelCache;
+
+    /** 提供商 => 进行中的请求数 */
+    private final Map<String, AtomicInteger> activeRequestMap = new ConcurrentHashMap<>();
+
+    public ModelFactory(AiProviderConfigService aiProviderConfigService,
+                        ModelClientProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.aiProviderConfigService = aiProviderConfigService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                .build();
+        this.modelCache = CacheBuilder.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterAccess(properties.getExpireAfterAccessMinutes(), TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, modelCache, METRIC_PREFIX + ".model.cache");
+    }
+
     public ChatModel getChatModel(String provider, String serviceType) {
+        return getModelClient(provider, serviceType).chatModel();
+    }
+
+    /**
+     * 获取带默认日志 Advisor 的 ChatClient，与 ChatModel 一同缓存
+     */
+    public ChatClient getChatClient(String provider, String serviceType) {
+        return getModelClient(provider, serviceType).chatClient();
+    }
+
+    private ModelClient getModelClient(String provider, String serviceType) {
         // 从YAML配置获取提供商配置
         AiServiceConfigProperties.ProviderConfig providerConfig = aiProviderConfigService.getByProviderCodeAndServiceType(provider, serviceType);
         if (providerConfig == null) {
             throw new BizException("不支持的模型提供商：" + provider + "，服务类型：" + serviceType);
         }
 
-        OpenAiApi openAiApi = buildOpenAiApi(providerConfig);
-        return OpenAiChatModel.builder().openAiApi(openAiApi).build();
+        ModelCacheKey key = new ModelCacheKey(provider, serviceType, fingerprint(providerConfig));
+        try {
+            return modelCache.get(key, () -> buildModelClient(provider, providerConfig));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BizException("模型客户端创建失败：" + provider);
+        }
+    }
+
+    private ModelClient buildModelClient(String provider, AiServiceConfigProperties.ProviderConfig providerConfig) {
+        log.info("创建模型客户端，提供商: {}，服务类型: {}", provider, providerConfig.getServiceType());
+        ChatModel chatModel = OpenAiChatModel.builder().openAiApi(buildOpenAiApi(provider, providerConfig)).build();
+        ChatClient chatClient = ChatClient.builder(chatModel)
+                .defaultAdvisors(new SimpleLoggerAdvisor())
+                .build();
+        return new ModelClient(chatModel, chatClient);
     }
 
     /**
      * 构建OpenAI API客户端
      */
-    private OpenAiApi buildOpenAiApi(AiServiceConfigProperties.ProviderConfig providerConfig) {
+    private OpenAiApi buildOpenAiApi(String provider, AiServiceConfigProperties.ProviderConfig providerConfig) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(properties.getReadTimeoutMs()));
+
         OpenAiApi.Builder openAiApiBuilder = OpenAiApi.builder()
                 .apiKey(providerConfig.getAuthorization())
+                .restClientBuilder(RestClient.builder()
+                        .requestFactory(requestFactory)
+                        .requestInterceptor(metricsInterceptor(provider)))
+                .webClientBuilder(WebClient.builder()
+                        .clientConnector(new JdkClientHttpConnector(httpClient))
+                        .filter(metricsFilter(provider)))
                 .responseErrorHandler(new ResponseErrorHandler() {
                     @Override
                     public boolean hasError(ClientHttpResponse response) throws IOException {
@@ -74,4 +173,79 @@ public class ModelFactory {
         return openAiApiBuilder.build();
     }
 
+    // ==================== 指标 ====================
+
+    /**
+     * 同步调用指标：耗时、状态码与连接异常
+     */
+    private ClientHttpRequestInterceptor metricsInterceptor(String provider) {
+        return (request, body, execution) -> {
+            AtomicInteger active = activeRequests(provider);
+            active.incrementAndGet();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String status = "IO_ERROR";
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                status = String.valueOf(response.getStatusCode().value());
+                return response;
+            } finally {
+                active.decrementAndGet();
+                recordRequest(provider, "rest", status, sample);
+            }
+        };
+    }
+
+    /**
+     * 流式调用指标：记录到收到响应头为止的耗时（首包时间）、状态码与连接异常
+     */
+    private ExchangeFilterFunction metricsFilter(String provider) {
+        return (request, next) -> {
+            AtomicInteger active = activeRequests(provider);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return next.exchange(request)
+                    .doOnSubscribe(subscription -> active.incrementAndGet())
+                    .doOnNext(response -> recordRequest(provider, "web",
+                            String.valueOf(response.statusCode().value()), sample))
+                    .doOnError(throwable -> recordRequest(provider, "web", "IO_ERROR", sample))
+                    .doFinally(signal -> active.decrementAndGet());
+        };
+    }
+
+    private void recordRequest(String provider, String client, String status, Timer.Sample sample) {
+        sample.stop(Timer.builder(METRIC_PREFIX + ".request")
+                .tag("provider", provider)
+                .tag("client", client)
+                .tag("status", status)
+                .register(meterRegistry));
+        if (!status.startsWith("2")) {
+            Counter.builder(METRIC_PREFIX + ".request.error")
+                    .tag("provider", provider)
+                    .tag("status", status)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private AtomicInteger activeRequests(String provider) {
+        return activeRequestMap.computeIfAbsent(provider, key -> {
+            AtomicInteger active = new AtomicInteger();
+            Gauge.builder(METRIC_PREFIX + ".request.active", active, AtomicInteger::get)
+                    .tag("provider", key)
+                    .register(meterRegistry);
+            return active;
+        });
+    }
+
+    private static String fingerprint(AiServiceConfigProperties.ProviderConfig providerConfig) {
+        return DigestUtil.sha256Hex(providerConfig.getBaseUrl() + "|" + providerConfig.getAuthorization());
+    }
+
+    /**
+     * 模型客户端缓存键，不直接保存密钥，只保存连接配置摘要
+     */
+    private record ModelCacheKey(String provider, String serviceType, String fingerprint) {
+    }
+
+    private record ModelClient(ChatModel chatModel, ChatClient chatClient) {
+    }
 }
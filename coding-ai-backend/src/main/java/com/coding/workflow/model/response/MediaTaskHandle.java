@@ -0,0 +1,37 @@
+package com.coding.workflow.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 多媒体生成任务句柄
+ * 供应商提交任务后返回，轮询任务状态时回传给供应商
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaTaskHandle {
+
+    /**
+     * 供应商名称
+     */
+    private String provider;
+
+    /**
+     * 供应商侧任务ID
+     */
+    private String taskId;
+
+    /**
+     * 提交时间（毫秒）
+     */
+    private long submitTime;
+
+    /**
+     * 供应商特定的提交响应数据
+     */
+    private Object providerSpecificData;
+}
@@ -0,0 +1,135 @@
+package com.coding.workflow.model.workflow;
+
+import com.coding.workflow.enums.NodeTypeEnum;
+import lombok.Getter;
+import org.jgrapht.graph.DirectedAcyclicGraph;
+
+import java.util.*;
+
+/**
+ * 工作流执行计划
+ * 由工作流配置一次性编译得到的不可变结构：节点索引、前驱/后继数组、结束节点集合，
+ * 调度过程中的所有查询均为 O(1)，不再线性扫描节点列表
+ */
+public final class WorkflowExecutionPlan {
+
+    /** 工作流DAG图，供节点处理器使用 */
+    @Getter
+    private final DirectedAcyclicGraph<String, Edge> graph;
+
+    /** 节点ID => 节点下标 */
+    private final Map<String, Integer> indexMap;
+
+    /** 节点下标 => 节点 */
+    private final Node[] nodes;
+
+    /** 前驱节点下标数组 */
+    private final int[][] predecessors;
+
+    /** 后继节点下标数组 */
+    private final int[][] successors;
+
+    /** 结束节点标记 */
+    private final boolean[] endNodes;
+
+    private WorkflowExecutionPlan(DirectedAcyclicGraph<String, Edge> graph, Map<String, Integer> indexMap, Node[] nodes,
+                                  int[][] predecessors, int[][] successors, boolean[] endNodes) {
+        this.graph = graph;
+        this.indexMap = indexMap;
+        this.nodes = nodes;
+        this.predecessors = predecessors;
+        this.successors = successors;
+        this.endNodes = endNodes;
+    }
+
+    /**
+     * 编译工作流配置为执行计划
+     *
+     * @param config 工作流配置
+     * @return 执行计划
+     */
+    public static WorkflowExecutionPlan compile(WorkflowConfig config) {
+        List<Node> nodeList = config.getNodes() == null ? List.of() : config.getNodes();
+        List<Edge> edgeList = config.getEdges() == null ? List.of() : config.getEdges();
+
+        // 1. 构建DAG图，同时校验无环
+        DirectedAcyclicGraph<String, Edge> graph = new DirectedAcyclicGraph<>(null, Edge::new, false);
+        Map<String, Integer> indexMap = new HashMap<>(nodeList.size() * 2);
+        Node[] nodes = new Node[nodeList.size()];
+        boolean[] endNodes = new boolean[nodeList.size()];
+        for (int i = 0; i < nodeList.size(); i++) {
+            Node node = nodeList.get(i);
+            graph.addVertex(node.getId());
+            indexMap.put(node.getId(), i);
+            nodes[i] = node;
+            endNodes[i] = NodeTypeEnum.END.getCode().equals(node.getType());
+        }
+        for (Edge edge : edgeList) {
+            graph.addEdge(edge.getSource(), edge.getTarget(), edge);
+        }
+
+        // 2. 预计算前驱、后继数组
+        int[][] predecessors = new int[nodes.length][];
+        int[][] successors = new int[nodes.length][];
+        for (int i = 0; i < nodes.length; i++) {
+            String nodeId = nodes[i].getId();
+            predecessors[i] = graph.incomingEdgesOf(nodeId).stream()
+                    .mapToInt(edge -> indexMap.get(edge.getSource()))
+                    .distinct()
+                    .toArray();
+            successors[i] = graph.outgoingEdgesOf(nodeId).stream()
+                    .mapToInt(edge -> indexMap.get(edge.getTarget()))
+                    .distinct()
+                    .toArray();
+        }
+
+        return new WorkflowExecutionPlan(graph, Collections.unmodifiableMap(indexMap), nodes,
+                predecessors, successors, endNodes);
+    }
+
+    /** 节点数量 */
+    public int size() {
+        return nodes.length;
+    }
+
+    /** 根据节点ID获取下标，不存在返回 -1 */
+    public int indexOf(String nodeId) {
+        Integer index = indexMap.get(nodeId);
+        return index == null ? -1 : index;
+    }
+
+    /** 根据下标获取节点 */
+    public Node getNode(int index) {
+        return nodes[index];
+    }
+
+    /** 根据节点ID获取节点，不存在返回 null */
+    public Node getNode(String nodeId) {
+        Integer index = indexMap.get(nodeId);
+        return index == null ? null : nodes[index];
+    }
+
+    /** 前驱节点下标，调用方不得修改 */
+    public int[] predecessorsOf(int index) {
+        return predecessors[index];
+    }
+
+    /** 后继节点下标，调用方不得修改 */
+    public int[] successorsOf(int index) {
+        return successors[index];
+    }
+
+    /** 初始入度数组副本，供单次执行递减使用 */
+    public int[] newInDegreeCounters() {
+        int[] inDegrees = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            inDegrees[i] = predecessors[i].length;
+        }
+        return inDegrees;
+    }
+
+    /** 是否结束节点 */
+    public boolean isEndNode(int index) {
+        return endNodes[index];
+    }
+}
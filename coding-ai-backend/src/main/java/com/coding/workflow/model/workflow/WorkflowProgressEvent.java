@@ -0,0 +1,48 @@
+package com.coding.workflow.model.workflow;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 工作流执行进度事件
+ * 同一实例内的事件按 seq 严格递增，客户端断线后可携带最后收到的 seq 续传
+ */
+@Data
+@Builder
+public class WorkflowProgressEvent {
+
+    public static final String TYPE_NODE = "node";
+
+    public static final String TYPE_WORKFLOW = "workflow";
+
+    /** 实例内事件序号，从 1 开始 */
+    private long seq;
+
+    /** 事件类型：node / workflow */
+    private String type;
+
+    /** 工作流实例ID */
+    private Long instanceId;
+
+    /** 节点信息，workflow 事件为空 */
+    private String nodeId;
+    private String nodeName;
+    private String nodeType;
+
+    /** 节点状态或工作流状态 */
+    private String status;
+
+    /** 节点输出（JSON），工作流结束事件为结束节点的输出 */
+    private String output;
+
+    private String errorInfo;
+
+    /** 节点执行耗时 */
+    private String executeTime;
+
+    /** 是否为工作流结束事件，收到后不会再有新事件 */
+    private boolean finished;
+
+    /** 事件产生时间戳（毫秒） */
+    private long timestamp;
+}
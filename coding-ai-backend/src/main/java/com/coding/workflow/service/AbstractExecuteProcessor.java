@@ -3,30 +3,31 @@ package com.coding.workflow.service;
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.json.JSONUtil;
 import com.coding.core.model.model.WorkflowNodeInstanceModel;
-import com.coding.core.repository.WorkflowNodeInstanceRepository;
 import com.coding.workflow.enums.NodeStatusEnum;
 import com.coding.workflow.enums.NodeTypeEnum;
 import com.coding.workflow.enums.ValueFromEnum;
 import com.coding.workflow.enums.WorkflowStatusEnum;
 import com.coding.workflow.exception.BizException;
+import com.coding.workflow.expression.TemplateExpression;
+import com.coding.workflow.expression.VariableExpression;
+import com.coding.workflow.manager.WorkflowPersistenceJournal;
+import com.coding.workflow.manager.WorkflowProgressManager;
 import com.coding.workflow.model.workflow.Edge;
 import com.coding.workflow.model.workflow.Node;
 import com.coding.workflow.model.workflow.NodeResult;
 import com.coding.workflow.model.workflow.WorkflowContext;
 import com.coding.workflow.utils.JsonUtils;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
-import ognl.Ognl;
-import ognl.OgnlException;
 import org.apache.commons.lang3.StringUtils;
 import org.jgrapht.graph.DirectedAcyclicGraph;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
 import java.util.*;
-import java.util.regex.Matcher;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.regex.Pattern;
 
 import static com.coding.workflow.constants.WorkflowConstants.*;
@@ -35,13 +36,6 @@ import static com.coding.workflow.constants.WorkflowConstants.*;
 @Component
 public abstract class AbstractExecuteProcessor implements ExecuteProcessor{
 
-    /** 检查从上下文中提取变量值的表达式的格式：合法示例如下
-     * user.name
-     * items[0].price
-     * data[0]._value
-     * */
-    private static final Pattern VALID_EXPRESSION_PATTERN = Pattern.compile("[0-9a-zA-Z\\-\\._\\[\\]]+");
-
     /** 匹配${var}格式的变量 */
     public static final Pattern VAR_EXPR_PATTERN = Pattern.compile("\\$\\{([^}]*)\\}");
 
@@ -50,7 +44,10 @@ public abstract class AbstractExecuteProcessor implements ExecuteProcessor{
     protected static final String OUTPUT_DECORATE_PARAM_KEY = "output";
 
     @Resource
-    private WorkflowNodeInstanceRepository workflowNodeInstanceRepository;
+    private WorkflowPersistenceJournal workflowPersistenceJournal;
+
+    @Resource
+    private WorkflowProgressManager workflowProgressManager;
 
     /**
      * 默认节点参数验证结果，直接返回成功
@@ -66,29 +63,66 @@ public abstract class AbstractExecuteProcessor implements ExecuteProcessor{
 
     @Override
     public void execute(DirectedAcyclicGraph<String, Edge> graph, Node node, WorkflowContext context) {
+        executeAsync(graph, node, context).join();
+    }
+
+    @Override
+    public CompletableFuture<Void> executeAsync(DirectedAcyclicGraph<String, Edge> graph, Node node, WorkflowContext context) {
         long startTime = System.currentTimeMillis();
+        CompletableFuture<NodeResult> resultFuture;
         try {
             preCheck(graph, node, context);
-            NodeResult nodeResult;
+            log.info("开始执行节点，节点ID：{}", node.getId());
+            resultFuture = innerExecuteAsync(graph, node, context);
+        }
+        catch (Exception e) {
+            handleExecuteError(graph, node, context, e, startTime);
+            return CompletableFuture.completedFuture(null);
+        }
+        return resultFuture.handle((nodeResult, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable;
+                log.error("节点执行失败，节点ID：{}", node.getId(), cause);
+                nodeResult = NodeResult.error(node, cause.getMessage());
+            }
             try {
-                log.info("开始执行节点，节点ID：{}", node.getId());
-                nodeResult = innerExecute(graph, node, context);
+                // 额外功能暂时不实现
+                handleVariables(graph, node, context, nodeResult);
+                handleNodeResult(graph, node, context, nodeResult, startTime);
+                finishNodeExecute(nodeResult);
+                log.info("节点执行完成，节点ID：{}，状态：{}", node.getId(), nodeResult.getNodeStatus());
             }
             catch (Exception e) {
-                log.error("节点执行失败，节点ID：{}", node.getId(), e);
-                nodeResult = NodeResult.error(node, e.getMessage());
+                handleExecuteError(graph, node, context, e, startTime);
             }
-            // 额外功能暂时不实现
-            handleVariables(graph, node, context, nodeResult);
-            handleNodeResult(graph, node, context, nodeResult, startTime);
-            finishNodeExecute(nodeResult);
-            log.info("节点执行完成，节点ID：{}，结果：{}", node.getId(), JSONUtil.toJsonStr(nodeResult));
+            return null;
+        });
+    }
+
+    private void handleExecuteError(DirectedAcyclicGraph<String, Edge> graph, Node node, WorkflowContext context,
+                                    Exception e, long startTime) {
+        log.error("节点执行失败，节点ID：{}", node.getId(), e);
+        NodeResult errorNodeResult = NodeResult.error(node, e.getMessage());
+        errorNodeResult.setInput(JSONUtil.toJsonStr(constructInputParamsMap(node, context)));
+        handleNodeResult(graph, node, context, errorNodeResult, startTime);
+    }
+
+    /**
+     * 异步节点执行逻辑：默认在当前线程同步执行 innerExecute，
+     * 等待远程任务的节点覆盖此方法，提交任务后立即返回，由任务完成回调产出节点结果
+     * @param graph 工作流图
+     * @param node 执行节点
+     * @param context 工作流上下文
+     * @return 节点执行结果的 Future
+     */
+    protected CompletableFuture<NodeResult> innerExecuteAsync(DirectedAcyclicGraph<String, Edge> graph, Node node,
+                                                             WorkflowContext context) {
+        try {
+            return CompletableFuture.completedFuture(innerExecute(graph, node, context));
         }
         catch (Exception e) {
-            log.error("节点执行失败，节点ID：{}", node.getId(), e);
-            NodeResult errorNodeResult = NodeResult.error(node, e.getMessage());
-            errorNodeResult.setInput(JSONUtil.toJsonStr(constructInputParamsMap(node, context)));
-            handleNodeResult(graph, node, context, errorNodeResult, startTime);
+            return CompletableFuture.failedFuture(e);
         }
     }
 
@@ -203,32 +237,13 @@ public abstract class AbstractExecuteProcessor implements ExecuteProcessor{
     }
 
     /**
-     * OGNL表达式获取payload中的值
+     * OGNL表达式获取payload中的值，表达式编译结果按表达式字符串缓存
      */
     public static Object getValueFromPayload(String expression, Map<String, Object> payload) {
         if (StringUtils.isBlank(expression) || payload == null) {
             return null;
         }
-
-        if (expression.startsWith("${") && expression.endsWith("}")) {
-            expression = expression.substring(2, expression.length() - 1);
-        }
-
-        Matcher matcher = VALID_EXPRESSION_PATTERN.matcher(expression);
-        if (matcher.matches()) {
-            // 将[]转为{}，适配array下的获取逻辑
-            String replaceExpression = expression.replaceAll("\\[", "\\{").replaceAll("\\]", "\\}");
-            Object value;
-            try {
-                value = Ognl.getValue(replaceExpression, payload);
-            }
-            catch (OgnlException e) {
-                log.error("从荷载中获取值失败, expression:{}, payload:{}", expression, payload, e);
-                return null;
-            }
-            return value;
-        }
-        return expression;
+        return VariableExpression.of(expression).evaluate(payload);
     }
 
 
@@ -268,10 +283,11 @@ public abstract class AbstractExecuteProcessor implements ExecuteProcessor{
         nodeResult.setUsages(null);
         nodeResult.setNodeStatus(NodeStatusEnum.EXECUTING.getCode());
         context.getNodeResultMap().put(node.getId(), nodeResult);
-        // 更新到库表
+        workflowProgressManager.recordNode(context.getInstanceId(), node, nodeResult);
+        // 异步写入库表
         WorkflowNodeInstanceModel nodeModel = buildWorkflowNodeModel(context, nodeResult);
-        log.info("节点执行结果入库，节点ID：{}，结果：{}", node.getId(), JSONUtil.toJsonStr(nodeModel));
-        workflowNodeInstanceRepository.add(nodeModel);
+        log.debug("节点执行记录入库，节点ID：{}，状态：{}", node.getId(), nodeModel.getStatus());
+        workflowPersistenceJournal.recordNodeStart(nodeModel);
         return nodeResult;
     }
 
@@ -479,10 +495,12 @@ public abstract class AbstractExecuteProcessor implements ExecuteProcessor{
             // 并且设置任务结果为结束节点的输出
             context.setTaskResult(nodeResult.getOutput());
         }
-        // 将节点结果存入数据库中
+        // 推送节点状态变化给进度订阅者
+        workflowProgressManager.recordNode(context.getInstanceId(), node, nodeResult);
+        // 将节点结果异步存入数据库中
         WorkflowNodeInstanceModel nodeModel = buildWorkflowNodeModel(context, nodeResult);
-        log.info("节点执行结果入库，节点ID：{}，结果：{}", node.getId(), JSONUtil.toJsonStr(nodeModel));
-        workflowNodeInstanceRepository.updateByNodeId(nodeModel);
+        log.debug("节点执行结果入库，节点ID：{}，状态：{}", node.getId(), nodeModel.getStatus());
+        workflowPersistenceJournal.recordNodeUpdate(nodeModel);
     }
 
     /**
@@ -514,34 +532,11 @@ public abstract class AbstractExecuteProcessor implements ExecuteProcessor{
      * @return 替换后的内容
      */
     public static String replaceTemplateContent(String originalTemplate, WorkflowContext context) {
-        String promptContent = originalTemplate;
-        // 1. 从模版中提取变量
-        Matcher matcher = VAR_EXPR_PATTERN.matcher(originalTemplate);
-        Set<String> keys = Sets.newHashSet();
-        while (matcher.find()) {
-            keys.add(matcher.group(1));
-        }
-
-        // 2. 变量变量列表，从上下文中获取变量值并进行替换
-        for (String key : keys) {
-            Object o = getValueFromPayload(key, context.getVariablesMap());
-            key = key.replaceAll("\\[", "\\\\[").replaceAll("\\]", "\\\\]");
-            if (o == null) {
-                // 如果变量不存在，使用空字符串替换
-                promptContent = promptContent.replaceAll("\\$\\{" + key + "}", "");
-            } else {
-                String replaceContent;
-                if (o instanceof Map || o instanceof List) {
-                    replaceContent = JsonUtils.toJson(o);
-                } else {
-                    replaceContent = String.valueOf(o);
-                }
-                // 将替换的文本 ``引用起来，避免$1，二次解析
-                promptContent = promptContent.replaceAll("\\$\\{" + key + "}",
-                        Matcher.quoteReplacement(replaceContent));
-            }
+        if (originalTemplate == null) {
+            return null;
         }
-        return promptContent;
+        // 模版预先切分为字面量和变量片段，单次遍历完成替换；变量不存在时使用空字符串替换
+        return TemplateExpression.of(originalTemplate).render(context.getVariablesMap());
     }
 
     /**
@@ -9,6 +9,7 @@ import org.jgrapht.graph.DirectedAcyclicGraph;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface ExecuteProcessor {
     /**
@@ -30,6 +31,19 @@ public interface ExecuteProcessor {
      */
     void execute(DirectedAcyclicGraph<String, Edge> graph, Node node, WorkflowContext context);
 
+    /**
+     * 异步执行工作流节点：等待远程任务的节点挂起时不占用执行线程，完成时返回的 Future 结束
+     *
+     * @param graph   有向无环图
+     * @param node    节点
+     * @param context 工作流上下文
+     * @return 节点执行完成的 Future
+     */
+    default CompletableFuture<Void> executeAsync(DirectedAcyclicGraph<String, Edge> graph, Node node, WorkflowContext context) {
+        execute(graph, node, context);
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * 验证节点参数
      *
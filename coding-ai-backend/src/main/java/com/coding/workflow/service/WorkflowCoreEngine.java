@@ -5,7 +5,6 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import cn.hutool.core.collection.CollectionUtil;
 import com.coding.core.utils.UserContextHolder;
@@ -13,15 +12,17 @@ import com.coding.core.model.model.WorkflowConfigModel;
 import com.coding.core.model.model.WorkflowInstanceModel;
 import com.coding.core.repository.WorkflowInstanceRepository;
 import com.coding.workflow.enums.NodeStatusEnum;
-import com.coding.workflow.enums.NodeTypeEnum;
 import com.coding.workflow.enums.WorkflowStatusEnum;
+import com.coding.workflow.exception.BizException;
+import com.coding.workflow.manager.WorkflowExecutorManager;
+import com.coding.workflow.manager.WorkflowPersistenceJournal;
+import com.coding.workflow.manager.WorkflowProgressManager;
 import com.coding.workflow.model.workflow.*;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.jgrapht.graph.DirectedAcyclicGraph;
 import org.springframework.stereotype.Component;
 
-import static com.coding.workflow.enums.NodeTypeEnum.WORKFLOW_FINISH;
 import static com.coding.workflow.enums.WorkflowStatusEnum.*;
 
 /**
@@ -39,14 +40,15 @@ public class WorkflowCoreEngine {
      * 核心组件
      */
     private final Map<String, ExecuteProcessor> processorMap = new HashMap<>();
-    /**
-     * 任务调度线程池
-     */
-    private final ExecutorService taskExecutorService = Executors.newCachedThreadPool();
-    /**
-     * 节点执行线程池
-     */
-    private final ExecutorService nodeExecutorService = Executors.newFixedThreadPool(10);
+
+    @Resource
+    private WorkflowExecutorManager workflowExecutorManager;
+
+    @Resource
+    private WorkflowPersistenceJournal workflowPersistenceJournal;
+
+    @Resource
+    private WorkflowProgressManager workflowProgressManager;
 
     @Resource
     private WorkflowInstanceRepository workflowInstanceRepository;
@@ -62,13 +64,19 @@ public class WorkflowCoreEngine {
         context.setTaskStatus(EXECUTING.getCode());
 
         // 2. 异步执行工作流
-        taskExecutorService.submit(() -> {
+        workflowExecutorManager.submitWorkflow(() -> {
             try {
                 syncExecuteWorkflow(config, context);
             } catch (Exception e) {
                 context.setTaskStatus(FAIL.getCode());
                 context.setErrorInfo(e.getMessage());
             }
+            // 写入节点执行记录并释放该实例的节点ID映射
+            try {
+                workflowPersistenceJournal.completeWorkflow(context.getInstanceId());
+            } catch (Exception e) {
+                log.error("工作流执行记录写入失败，实例ID：{}", context.getInstanceId(), e);
+            }
         });
 
         return context.getInstanceId();
@@ -90,126 +98,152 @@ public class WorkflowCoreEngine {
         context.setStartTime(LocalDateTime.now());
         context.setTaskStatus(EXECUTING.getCode());
         context.getUserMap().putAll(inputParams);
+        workflowProgressManager.start(context);
 
-        // 2. 异步执行工作流
-        taskExecutorService.submit(() -> {
-            try {
-                syncExecuteWorkflow(config, context);
-            } catch (Exception e) {
-                context.setTaskStatus(FAIL.getCode());
-                context.setErrorInfo(e.getMessage());
-            }
-            // [Workflow Instance] => Update Running Status
+        // 2. 异步执行工作流，超出执行容量时拒绝并记录实例失败
+        try {
+            workflowExecutorManager.submitWorkflow(() -> {
+                try {
+                    syncExecuteWorkflow(config, context);
+                } catch (Exception e) {
+                    context.setTaskStatus(FAIL.getCode());
+                    context.setErrorInfo(e.getMessage());
+                }
+                // [Workflow Instance] => Update Running Status，并同步写入该实例全部待写记录
+                workflowPersistenceJournal.recordWorkflowUpdate(WorkflowInstanceModel.builder()
+                        .id(context.getInstanceId())
+                        .status(context.getTaskStatus())
+                        .message(context.getErrorInfo())
+                        .endTime(LocalDateTime.now())
+                        .build());
+                try {
+                    workflowPersistenceJournal.completeWorkflow(context.getInstanceId());
+                } catch (Exception e) {
+                    log.error("工作流执行记录写入失败，实例ID：{}", context.getInstanceId(), e);
+                }
+                // 执行记录落库后再推送结束事件，订阅者随后查询库表可得到完整结果
+                workflowProgressManager.finish(context);
+            });
+        } catch (BizException e) {
             workflowInstanceRepository.update(WorkflowInstanceModel.builder()
-                    .id(context.getInstanceId())
-                    .status(context.getTaskStatus())
-                    .message(context.getErrorInfo())
+                    .id(instanceId)
+                    .status(FAIL.getCode())
+                    .message(e.getMessage())
                     .endTime(LocalDateTime.now())
                     .build());
-        });
+            context.setTaskStatus(FAIL.getCode());
+            context.setErrorInfo(e.getMessage());
+            workflowProgressManager.finish(context);
+            throw e;
+        }
 
         return context.getInstanceId();
     }
 
     /**
      * 同步执行工作流 - 核心方法
+     * 基于入度计数的就绪集调度：节点完成时递减后继节点的剩余入度，入度归零即提交执行，无需轮询扫描全图
      */
     private void syncExecuteWorkflow(WorkflowConfig config, WorkflowContext context) throws InterruptedException {
-        // 1. 构建DAG图
-        DirectedAcyclicGraph<String, Edge> graph = buildDAG(config);
-
-        // 2. 初始化队列和集合
-        BlockingQueue<String> taskQueue = new LinkedBlockingQueue<>();
-        Set<String> scheduledNodes = new HashSet<>();
-        BlockingQueue<String> monitorQueue = new LinkedBlockingQueue<>();
-
-        // 3. 启动监控线程
-        taskExecutorService.submit(() -> {
-            executeMonitorThread(graph, taskQueue, scheduledNodes, context, monitorQueue);
-        });
+        // 1. 编译执行计划（DAG图、节点索引、前驱/后继数组）
+        WorkflowExecutionPlan plan = WorkflowExecutionPlan.compile(config);
+
+        // 2. 初始化剩余入度计数、就绪队列和完成队列
+        int[] pendingInDegrees = plan.newInDegreeCounters();
+        Deque<Integer> readyQueue = new ArrayDeque<>();
+        BlockingQueue<Integer> completedQueue = new LinkedBlockingQueue<>();
+        for (int i = 0; i < plan.size(); i++) {
+            if (pendingInDegrees[i] == 0) {
+                readyQueue.add(i);
+            }
+        }
+        int maxConcurrency = workflowExecutorManager.getPerWorkflowMaxConcurrency();
+        int runningCount = dispatchReadyNodes(plan, context, readyQueue, completedQueue, 0, maxConcurrency);
+
+        // 3. 主执行循环：等待节点完成事件，仅在截止时间到达时才超时返回
+        long deadline = Instant.now().toEpochMilli() + MAX_WORKFLOW_EXECUTE_TIMEOUT
+                - Duration.between(context.getStartTime(), LocalDateTime.now()).toMillis();
+        while (runningCount > 0) {
+            long remaining = deadline - Instant.now().toEpochMilli();
+            Integer completedIndex = remaining > 0 ? completedQueue.poll(remaining, TimeUnit.MILLISECONDS) : null;
+            if (completedIndex == null) {
+                context.setTaskStatus(TIMEOUT.getCode());
+                break;
+            }
+            runningCount--;
 
-        // 4. 主执行循环
-        AtomicBoolean shouldStop = new AtomicBoolean(false);
-        while (!shouldStop.get()) {
-            String nodeId = taskQueue.poll(10, TimeUnit.SECONDS);
-
-            if (nodeId != null && !WORKFLOW_FINISH.getCode().equals(nodeId)) {
-                // 提交节点执行任务
-                nodeExecutorService.submit(() -> {
-                    try {
-                        executeNode(graph, nodeId, context);
-                        monitorQueue.add(NodeStatusEnum.SUCCESS.getCode());
-                    } catch (Exception e) {
-                        Thread.currentThread().interrupt();
-                    }
-                });
-            } else if (WORKFLOW_FINISH.getCode().equals(nodeId)) {
+            if (checkStopCondition(plan, completedIndex, context)) {
                 break;
             }
 
-            shouldStop.set(checkStopCondition(graph, context));
+            // 递减后继节点入度，入度归零且前驱状态允许时进入就绪队列；
+            // 前驱未成功完成的节点标记为跳过，并继续递减其后继的入度，不会被静默丢弃
+            Deque<Integer> settledQueue = new ArrayDeque<>();
+            settledQueue.add(completedIndex);
+            while (!settledQueue.isEmpty()) {
+                for (int successor : plan.successorsOf(settledQueue.poll())) {
+                    if (--pendingInDegrees[successor] != 0) {
+                        continue;
+                    }
+                    if (canNodeExecute(plan, successor, context)) {
+                        readyQueue.add(successor);
+                    } else if (skipBlockedNode(plan, successor, context)) {
+                        settledQueue.add(successor);
+                    }
+                }
+            }
+            runningCount = dispatchReadyNodes(plan, context, readyQueue, completedQueue, runningCount, maxConcurrency);
         }
 
-        // 5. 设置最终状态
+        // 4. 设置最终状态
         if (EXECUTING.getCode().equals(context.getTaskStatus())) {
             context.setTaskStatus(SUCCESS.getCode());
         }
     }
 
     /**
-     * 监控线程：发现可执行节点
+     * 在单工作流并发上限内提交就绪节点，返回提交后的执行中节点数
      */
-    private void executeMonitorThread(DirectedAcyclicGraph<String, Edge> graph,
-                                      BlockingQueue<String> taskQueue,
-                                      Set<String> scheduledNodes,
-                                      WorkflowContext context,
-                                      BlockingQueue<String> monitorQueue) {
-        AtomicBoolean done = new AtomicBoolean(false);
-
-        while (!done.get()) {
-            // 遍历所有节点，查找可执行的节点
-            for (String nodeId : graph.vertexSet()) {
-                if (canNodeExecute(graph, nodeId, context) &&
-                        !scheduledNodes.contains(nodeId)) {
-                    taskQueue.add(nodeId);
-                    scheduledNodes.add(nodeId);
-                }
-            }
-
-            done.set(checkStopCondition(graph, context));
-
-            if (!done.get()) {
-                try {
-                    monitorQueue.poll(100, TimeUnit.MILLISECONDS);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
+    private int dispatchReadyNodes(WorkflowExecutionPlan plan, WorkflowContext context,
+                                   Deque<Integer> readyQueue, BlockingQueue<Integer> completedQueue,
+                                   int runningCount, int maxConcurrency) {
+        while (runningCount < maxConcurrency && !readyQueue.isEmpty()) {
+            submitNode(plan, readyQueue.poll(), context, completedQueue);
+            runningCount++;
         }
+        return runningCount;
+    }
 
-        // 发送结束信号
-        taskQueue.add(WORKFLOW_FINISH.getCode());
+    /**
+     * 提交节点执行任务，执行结束后（无论成功失败）投递完成事件；
+     * 挂起等待远程任务的节点在任务完成回调中投递，期间不占用节点线程；
+     * 节点执行器满载拒绝时工作流失败
+     */
+    private void submitNode(WorkflowExecutionPlan plan, int nodeIndex, WorkflowContext context,
+                            BlockingQueue<Integer> completedQueue) {
+        Node node = plan.getNode(nodeIndex);
+        workflowExecutorManager.submitNode(node.getType(), () -> executeNode(plan, nodeIndex, context))
+                .whenComplete((ignored, throwable) -> {
+                    if (throwable instanceof RejectedExecutionException) {
+                        context.setTaskStatus(FAIL.getCode());
+                        context.setErrorInfo("节点执行繁忙，节点未执行，节点ID：" + node.getId());
+                    }
+                    completedQueue.add(nodeIndex);
+                });
     }
 
     /**
      * 判断节点是否可执行
      */
-    private boolean canNodeExecute(DirectedAcyclicGraph<String, Edge> graph, String nodeId, WorkflowContext context) {
+    private boolean canNodeExecute(WorkflowExecutionPlan plan, int nodeIndex, WorkflowContext context) {
         // 如果节点已有结果，不能重复执行
-        if (context.getNodeResultMap().containsKey(nodeId)) {
+        if (context.getNodeResultMap().containsKey(plan.getNode(nodeIndex).getId())) {
             return false;
         }
 
-        // 获取前置节点
-        Set<Edge> incomingEdges = graph.incomingEdgesOf(nodeId);
-        if (incomingEdges.isEmpty()) {
-            return true; // 起始节点可直接执行
-        }
-
-        // 检查所有前置节点是否已完成
-        for (Edge ancestor : incomingEdges) {
-            NodeResult result = context.getNodeResultMap().get(ancestor.getSource());
+        // 检查所有前置节点是否已完成，起始节点可直接执行
+        for (int predecessor : plan.predecessorsOf(nodeIndex)) {
+            NodeResult result = context.getNodeResultMap().get(plan.getNode(predecessor).getId());
             if (result == null) {
                 return false;
             }
@@ -226,12 +260,59 @@ public class WorkflowCoreEngine {
         return true;
     }
 
+    /**
+     * 入度归零但前驱未成功完成的节点标记为跳过，前驱失败时工作流失败
+     *
+     * @return 是否新标记了跳过；节点已有结果时返回 false
+     */
+    private boolean skipBlockedNode(WorkflowExecutionPlan plan, int nodeIndex, WorkflowContext context) {
+        Node node = plan.getNode(nodeIndex);
+        String nodeId = node.getId();
+        String blockedBy = null;
+        String blockedStatus = null;
+        for (int predecessor : plan.predecessorsOf(nodeIndex)) {
+            String sourceId = plan.getNode(predecessor).getId();
+            NodeResult result = context.getNodeResultMap().get(sourceId);
+            String status = result == null ? null : result.getNodeStatus();
+            if (!NodeStatusEnum.SUCCESS.getCode().equals(status) && !NodeStatusEnum.SKIP.getCode().equals(status)) {
+                blockedBy = sourceId;
+                blockedStatus = status;
+                break;
+            }
+        }
+
+        NodeResult nodeResult = new NodeResult();
+        nodeResult.setNodeId(nodeId);
+        nodeResult.setNodeStatus(NodeStatusEnum.SKIP.getCode());
+        nodeResult.setNodeStartTime(LocalDateTime.now());
+        nodeResult.setErrorInfo("前驱节点未成功完成，节点未执行，前驱节点ID：" + blockedBy + "，状态：" + blockedStatus);
+        context.getLock().lock();
+        try {
+            if (context.getNodeResultMap().containsKey(nodeId)) {
+                return false;
+            }
+            context.getNodeResultMap().put(nodeId, nodeResult);
+        } finally {
+            context.getLock().unlock();
+        }
+        log.warn("节点: {} 的前驱节点: {} 状态为 {}，标记为Skip状态", nodeId, blockedBy, blockedStatus);
+        workflowProgressManager.recordNode(context.getInstanceId(), node, nodeResult);
+
+        if (NodeStatusEnum.FAIL.getCode().equals(blockedStatus) && EXECUTING.getCode().equals(context.getTaskStatus())) {
+            context.setTaskStatus(FAIL.getCode());
+            context.setErrorInfo("节点执行失败，节点ID：" + blockedBy);
+        }
+        return true;
+    }
+
     /**
      * 执行单个节点
      * 判断前驱节点是否执行完毕：
      * 如果前驱节点是条件分支节点，则检查其MultiBranchReference，判断当前节点是否跳过（只有nodeId在条件分支的targetIds中才执行，否则跳过）
      */
-    private void executeNode(DirectedAcyclicGraph<String, Edge> graph, String nodeId, WorkflowContext context) {
+    private CompletableFuture<Void> executeNode(WorkflowExecutionPlan plan, int nodeIndex, WorkflowContext context) {
+        Node node = plan.getNode(nodeIndex);
+        String nodeId = node.getId();
         try {
             // 加锁防止并发执行
             context.getLock().lock();
@@ -239,7 +320,7 @@ public class WorkflowCoreEngine {
             try {
                 // 再次检查，防止重复执行
                 if (context.getNodeResultMap().containsKey(nodeId)) {
-                    return; // 已被其他线程执行
+                    return CompletableFuture.completedFuture(null); // 已被其他线程执行
                 }
                 nodeResult.setNodeId(nodeId);
                 nodeResult.setNodeStatus(NodeStatusEnum.EXECUTING.getCode());
@@ -248,50 +329,27 @@ public class WorkflowCoreEngine {
             } finally {
                 context.getLock().unlock();
             }
+            workflowProgressManager.recordNode(context.getInstanceId(), node, nodeResult);
 
             // 检查前驱条件分支节点的状态，MultiBranchReference标记了执行哪个分支
             // 条件边时，仅执行一条分支，跳过其余分支
-            Set<Edge> incomingEdges = graph.incomingEdgesOf(nodeId);
-            if (!incomingEdges.isEmpty()) {
-
-                boolean skipResult = incomingEdges.stream().anyMatch(incomingEdge -> {
-                    NodeResult result = context.getNodeResultMap().get(incomingEdge.getSource());
-
-                    if (result.getNodeStatus().equals(NodeStatusEnum.SUCCESS.getCode()) && result.isMultiBranch()) {
-                        // 还没执行过
-                        List<NodeResult.MultiBranchReference> multiBranchResults = result.getMultiBranchResults();
-                        if (CollectionUtil.isEmpty(multiBranchResults)) {
-                            return true;
-                        } else {
-                            Optional<NodeResult.MultiBranchReference> referenceOptional = multiBranchResults.stream()
-                                    .filter(branchResult -> branchResult.getTargetIds().contains(nodeId))
-                                    .findFirst();
-                            if (!referenceOptional.isPresent()) {
-                                return true;
-                            }
-                        }
-                        return false;
-                    }
-                    return result.getNodeStatus().equals(NodeStatusEnum.SKIP.getCode());
-                });
-                if (skipResult) {
-                    log.info("跳过节点: {} 的执行，并标记为Skip状态", nodeId);
-                    nodeResult.setNodeStatus(NodeStatusEnum.SKIP.getCode());
-                    nodeResult.setNodeId(nodeId);
-                    context.getNodeResultMap().put(nodeId, nodeResult);
-                    return;
-                }
-            }
-
-            // 获取节点配置
-            Node node = findNodeById(context.getWorkflowConfig(), nodeId);
-            if (node == null) {
-                throw new RuntimeException("节点不存在: " + nodeId);
+            if (shouldSkip(plan, nodeIndex, context)) {
+                log.info("跳过节点: {} 的执行，并标记为Skip状态", nodeId);
+                nodeResult.setNodeStatus(NodeStatusEnum.SKIP.getCode());
+                nodeResult.setNodeId(nodeId);
+                context.getNodeResultMap().put(nodeId, nodeResult);
+                workflowProgressManager.recordNode(context.getInstanceId(), node, nodeResult);
+                return CompletableFuture.completedFuture(null);
             }
 
             // 执行节点逻辑
             ExecuteProcessor processor = processorMap.get(node.getType());
-            processor.execute(graph, node, context);
+            return processor.executeAsync(plan.getGraph(), node, context)
+                    .exceptionally(throwable -> {
+                        context.setTaskStatus(FAIL.getCode());
+                        log.error("节点执行失败: {}, 错误: {}", nodeId, throwable.getMessage());
+                        return null;
+                    });
         } catch (Exception e) {
             NodeResult nodeResult = new NodeResult();
             nodeResult.setNodeStatus(NodeStatusEnum.FAIL.getCode());
@@ -300,35 +358,44 @@ public class WorkflowCoreEngine {
             context.setTaskStatus(FAIL.getCode());
 
             log.error("节点执行失败: {}, 错误: {}", nodeId, e.getMessage());
+            return CompletableFuture.completedFuture(null);
         }
     }
 
     /**
-     * 构建DAG图
+     * 判断节点是否需要跳过：任一前驱被跳过，或前驱条件分支未命中当前节点
      */
-    private DirectedAcyclicGraph<String, Edge> buildDAG(WorkflowConfig config) {
-        DirectedAcyclicGraph<String, Edge> graph = new DirectedAcyclicGraph<>(null, Edge::new, false);
-
-        // 添加节点
-        for (Node node : config.getNodes()) {
-            graph.addVertex(node.getId());
-        }
-
-        // 添加边
-        for (Edge edge : config.getEdges()) {
-            graph.addEdge(edge.getSource(), edge.getTarget(), edge);
+    private boolean shouldSkip(WorkflowExecutionPlan plan, int nodeIndex, WorkflowContext context) {
+        String nodeId = plan.getNode(nodeIndex).getId();
+        for (int predecessor : plan.predecessorsOf(nodeIndex)) {
+            String sourceId = plan.getNode(predecessor).getId();
+            NodeResult result = context.getNodeResultMap().get(sourceId);
+
+            if (NodeStatusEnum.SKIP.getCode().equals(result.getNodeStatus())) {
+                return true;
+            }
+            // 与节点类型无关：任何返回多分支结果的前驱都只放行命中的分支
+            if (NodeStatusEnum.SUCCESS.getCode().equals(result.getNodeStatus())
+                    && result.isMultiBranch()) {
+                List<NodeResult.MultiBranchReference> multiBranchResults = result.getMultiBranchResults();
+                if (CollectionUtil.isEmpty(multiBranchResults)) {
+                    return true;
+                }
+                boolean hit = multiBranchResults.stream()
+                        .anyMatch(branchResult -> branchResult.getTargetIds() != null
+                                && branchResult.getTargetIds().contains(nodeId));
+                if (!hit) {
+                    return true;
+                }
+            }
         }
-
-        // TODO 检查联通性
-        // TODO 检查所有节点是否在边中出现
-
-        return graph;
+        return false;
     }
 
     /**
-     * 检查停止条件
+     * 检查停止条件：仅判断刚完成的节点，O(1)
      */
-    private boolean checkStopCondition(DirectedAcyclicGraph<String, Edge> graph, WorkflowContext context) {
+    private boolean checkStopCondition(WorkflowExecutionPlan plan, int completedIndex, WorkflowContext context) {
         // 手动停止
         if (STOP.getCode().equals(context.getTaskStatus()) || FAIL.getCode().equals(context.getTaskStatus())) {
             return true;
@@ -341,31 +408,15 @@ public class WorkflowCoreEngine {
             return true;
         }
 
-        // 检查是否有结束节点完成
-        for (String nodeId : graph.vertexSet()) {
-            // 通过节点ID找到对应的节点配置
-            Node node = findNodeById(context.getWorkflowConfig(), nodeId);
-            if (node != null && NodeTypeEnum.END.getCode().equals(node.getType())) {
-                NodeResult result = context.getNodeResultMap().get(nodeId);
-                if (result != null && NodeStatusEnum.SUCCESS.getCode().equals(result.getNodeStatus())) {
-                    return true;
-                }
-            }
+        // 检查刚完成的节点是否为成功的结束节点
+        if (plan.isEndNode(completedIndex)) {
+            NodeResult result = context.getNodeResultMap().get(plan.getNode(completedIndex).getId());
+            return result != null && NodeStatusEnum.SUCCESS.getCode().equals(result.getNodeStatus());
         }
 
         return false;
     }
 
-    /**
-     * 根据ID查找节点
-     */
-    private Node findNodeById(WorkflowConfig config, String nodeId) {
-        return config.getNodes().stream()
-                .filter(node -> nodeId.equals(node.getId()))
-                .findFirst()
-                .orElse(null);
-    }
-
     /**
      * 注册节点处理器
      */
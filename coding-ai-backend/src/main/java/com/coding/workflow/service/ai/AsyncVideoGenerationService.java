@@ -0,0 +1,31 @@
+package com.coding.workflow.service.ai;
+
+import com.coding.workflow.model.request.VideoGenerationRequest;
+import com.coding.workflow.model.response.MediaTaskHandle;
+import com.coding.workflow.model.response.VideoGenerationResponse;
+
+import java.util.Optional;
+
+/**
+ * 支持异步任务接口（提交后轮询）的视频生成服务
+ * 管理器通过 instanceof 判断，未实现该接口的供应商在远程调用线程池中执行 generateVideo
+ */
+public interface AsyncVideoGenerationService extends VideoGenerationService {
+
+    /**
+     * 提交视频生成任务，立即返回任务句柄
+     *
+     * @param request 视频生成请求
+     * @return 任务句柄
+     */
+    MediaTaskHandle submitVideo(VideoGenerationRequest request);
+
+    /**
+     * 查询视频生成任务
+     *
+     * @param handle 任务句柄
+     * @return 任务结束（成功或失败）时返回视频生成响应，仍在执行时返回 Optional.empty()
+     * @throws com.coding.workflow.exception.MediaTaskTerminalException 重试不会成功的查询失败，轮询立即结束
+     */
+    Optional<VideoGenerationResponse> pollVideo(MediaTaskHandle handle);
+}
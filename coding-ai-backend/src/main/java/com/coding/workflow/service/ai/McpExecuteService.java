@@ -3,6 +3,9 @@ package com.coding.workflow.service.ai;
 import com.coding.core.common.Result;
 import com.coding.workflow.model.request.McpServerCallToolRequest;
 import com.coding.workflow.model.response.McpServerCallToolResponse;
+import io.modelcontextprotocol.spec.McpSchema;
+
+import java.util.List;
 
 /**
  * @author weilong
@@ -15,4 +18,9 @@ public interface McpExecuteService {
      * */
     Result<McpServerCallToolResponse> callTool(McpServerCallToolRequest request);
 
+    /**
+     * 获取MCP服务器提供的工具列表
+     * */
+    Result<List<McpSchema.Tool>> listTools(String serverCode);
+
 }
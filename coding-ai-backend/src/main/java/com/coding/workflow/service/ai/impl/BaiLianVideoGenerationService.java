@@ -7,9 +7,11 @@ import com.alibaba.dashscope.exception.InputRequiredException;
 import com.alibaba.dashscope.exception.NoApiKeyException;
 import com.coding.core.enums.ModelTypeEnum;
 import com.coding.core.service.AiProviderConfigService;
+import com.coding.workflow.exception.MediaTaskTerminalException;
 import com.coding.workflow.model.request.VideoGenerationRequest;
+import com.coding.workflow.model.response.MediaTaskHandle;
 import com.coding.workflow.model.response.VideoGenerationResponse;
-import com.coding.workflow.service.ai.VideoGenerationService;
+import com.coding.workflow.service.ai.AsyncVideoGenerationService;
 import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -18,16 +20,21 @@ import org.springframework.stereotype.Service;
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * 阿里云DashScope 视频生成服务实现
  */
 @Slf4j
 @Service
-public class BaiLianVideoGenerationService implements VideoGenerationService {
+public class BaiLianVideoGenerationService implements AsyncVideoGenerationService {
 
     private static final String PROVIDER_NAME = "BaiLian";
 
+    /** 任务仍在执行中的状态 */
+    private static final Set<String> RUNNING_STATUSES = Set.of("PENDING", "RUNNING");
+
     private String apiKey;
 
     @Resource
@@ -60,12 +67,54 @@ public class BaiLianVideoGenerationService implements VideoGenerationService {
         }
     }
 
+    @Override
+    public MediaTaskHandle submitVideo(VideoGenerationRequest request) {
+        log.info("提交BaiLian视频生成任务, model: {}, prompt: {}", request.getModel(), request.getPrompt());
+        VideoSynthesisResult result;
+        try {
+            result = new VideoSynthesis().asyncCall(buildParam(request));
+        } catch (NoApiKeyException | InputRequiredException e) {
+            throw new IllegalStateException("BaiLian视频生成任务提交失败: " + e.getMessage(), e);
+        }
+        if (result == null || result.getOutput() == null || StringUtils.isBlank(result.getOutput().getTaskId())) {
+            throw new IllegalStateException("BaiLian视频生成任务提交失败，未返回任务ID");
+        }
+        return MediaTaskHandle.builder()
+                .provider(PROVIDER_NAME)
+                .taskId(result.getOutput().getTaskId())
+                .submitTime(System.currentTimeMillis())
+                .providerSpecificData(result)
+                .build();
+    }
+
+    @Override
+    public Optional<VideoGenerationResponse> pollVideo(MediaTaskHandle handle) {
+        VideoSynthesisResult result;
+        try {
+            result = new VideoSynthesis().fetch(handle.getTaskId(), apiKey);
+        } catch (NoApiKeyException e) {
+            throw new MediaTaskTerminalException("BaiLian视频生成任务查询失败: " + e.getMessage(), e);
+        }
+        if (result != null && result.getOutput() != null
+                && RUNNING_STATUSES.contains(result.getOutput().getTaskStatus())) {
+            return Optional.empty();
+        }
+        return Optional.of(processResponse(result));
+    }
+
     /**
      * 调用BaiLian视频生成API
      */
     private VideoSynthesisResult callBaiLianVideoGen(VideoGenerationRequest request)
             throws NoApiKeyException, InputRequiredException {
+        VideoSynthesis videoSynthesis = new VideoSynthesis();
+        return videoSynthesis.call(buildParam(request));
+    }
 
+    /**
+     * 构建BaiLian视频生成参数
+     */
+    private VideoSynthesisParam buildParam(VideoGenerationRequest request) {
         VideoGenerationRequest.VideoSetting setting = request.getVideoSetting();
 
         // 构建参数
@@ -96,9 +145,7 @@ public class BaiLianVideoGenerationService implements VideoGenerationService {
             builder.lastFrameUrl(setting.getLastFrameImage());
         }
 
-        VideoSynthesisParam param = builder.build();
-        VideoSynthesis videoSynthesis = new VideoSynthesis();
-        return videoSynthesis.call(param);
+        return builder.build();
     }
 
     /**
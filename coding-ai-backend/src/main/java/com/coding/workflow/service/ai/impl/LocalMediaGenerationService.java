@@ -0,0 +1,164 @@
+package com.coding.workflow.service.ai.impl;
+
+import cn.hutool.core.util.IdUtil;
+import com.coding.core.config.MediaTaskProperties;
+import com.coding.workflow.exception.MediaTaskTerminalException;
+import com.coding.workflow.model.request.ImageGenerationRequest;
+import com.coding.workflow.model.request.MusicGenerationRequest;
+import com.coding.workflow.model.request.VideoGenerationRequest;
+import com.coding.workflow.model.response.ImageGenerationResponse;
+import com.coding.workflow.model.response.MediaTaskHandle;
+import com.coding.workflow.model.response.MusicGenerationResponse;
+import com.coding.workflow.model.response.VideoGenerationResponse;
+import com.coding.workflow.service.ai.AsyncImageGenerationService;
+import com.coding.workflow.service.ai.AsyncMusicGenerationService;
+import com.coding.workflow.service.ai.AsyncVideoGenerationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本地模拟多媒体生成服务（供应商名称 Local）
+ * 不调用任何远程接口，按配置的耗时模拟任务执行，用于测试异步任务链路和节点线程占用；
+ * 仅在 workflow.media-task.local.enabled=true 时注册
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "workflow.media-task.local", name = "enabled", havingValue = "true")
+public class LocalMediaGenerationService
+        implements AsyncVideoGenerationService, AsyncMusicGenerationService, AsyncImageGenerationService {
+
+    private static final String PROVIDER_NAME = "Local";
+
+    private static final String RESULT_URL_PREFIX = "local://media/";
+
+    private final MediaTaskProperties properties;
+
+    /** 任务ID => 预计完成时间 */
+    private final Map<String, Long> taskReadyTimeMap = new ConcurrentHashMap<>();
+
+    public LocalMediaGenerationService(MediaTaskProperties properties) {
+        this.properties = properties;
+        log.info("本地模拟多媒体生成服务初始化完成，模拟耗时: {}ms", properties.getLocal().getLatencyMs());
+    }
+
+    @Override
+    public VideoGenerationResponse generateVideo(VideoGenerationRequest request) {
+        String taskId = simulateBlocking();
+        return videoResponse(taskId);
+    }
+
+    @Override
+    public MusicGenerationResponse generateMusic(MusicGenerationRequest request) {
+        String taskId = simulateBlocking();
+        return musicResponse(taskId);
+    }
+
+    @Override
+    public ImageGenerationResponse generateImages(ImageGenerationRequest request) {
+        String taskId = simulateBlocking();
+        return imageResponse(taskId);
+    }
+
+    @Override
+    public MediaTaskHandle submitVideo(VideoGenerationRequest request) {
+        return submit();
+    }
+
+    @Override
+    public Optional<VideoGenerationResponse> pollVideo(MediaTaskHandle handle) {
+        return isReady(handle) ? Optional.of(videoResponse(handle.getTaskId())) : Optional.empty();
+    }
+
+    @Override
+    public MediaTaskHandle submitMusic(MusicGenerationRequest request) {
+        return submit();
+    }
+
+    @Override
+    public Optional<MusicGenerationResponse> pollMusic(MediaTaskHandle handle) {
+        return isReady(handle) ? Optional.of(musicResponse(handle.getTaskId())) : Optional.empty();
+    }
+
+    @Override
+    public MediaTaskHandle submitImages(ImageGenerationRequest request) {
+        return submit();
+    }
+
+    @Override
+    public Optional<ImageGenerationResponse> pollImages(MediaTaskHandle handle) {
+        return isReady(handle) ? Optional.of(imageResponse(handle.getTaskId())) : Optional.empty();
+    }
+
+    @Override
+    public String getProvider() {
+        return PROVIDER_NAME;
+    }
+
+    @Override
+    public boolean supportsModel(String model) {
+        return true;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private MediaTaskHandle submit() {
+        String taskId = IdUtil.fastSimpleUUID();
+        long now = System.currentTimeMillis();
+        taskReadyTimeMap.put(taskId, now + properties.getLocal().getLatencyMs());
+        return MediaTaskHandle.builder()
+                .provider(PROVIDER_NAME)
+                .taskId(taskId)
+                .submitTime(now)
+                .build();
+    }
+
+    private boolean isReady(MediaTaskHandle handle) {
+        Long readyTime = taskReadyTimeMap.get(handle.getTaskId());
+        if (readyTime == null) {
+            throw new MediaTaskTerminalException("本地模拟任务不存在: " + handle.getTaskId());
+        }
+        if (System.currentTimeMillis() < readyTime) {
+            return false;
+        }
+        taskReadyTimeMap.remove(handle.getTaskId());
+        return true;
+    }
+
+    private String simulateBlocking() {
+        try {
+            Thread.sleep(properties.getLocal().getLatencyMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("本地模拟任务被中断", e);
+        }
+        return IdUtil.fastSimpleUUID();
+    }
+
+    private static VideoGenerationResponse videoResponse(String taskId) {
+        return VideoGenerationResponse.builder()
+                .success(true)
+                .videoUrl(RESULT_URL_PREFIX + taskId + ".mp4")
+                .taskStatus("SUCCEEDED")
+                .build();
+    }
+
+    private static MusicGenerationResponse musicResponse(String taskId) {
+        return MusicGenerationResponse.builder()
+                .success(true)
+                .audioUrl(RESULT_URL_PREFIX + taskId + ".mp3")
+                .build();
+    }
+
+    private static ImageGenerationResponse imageResponse(String taskId) {
+        return ImageGenerationResponse.builder()
+                .success(true)
+                .imageUrls(List.of(RESULT_URL_PREFIX + taskId + ".png"))
+                .build();
+    }
+}
@@ -8,6 +8,7 @@ import com.coding.workflow.model.request.McpServerCallToolRequest;
 import com.coding.workflow.model.response.McpServerCallToolResponse;
 import com.coding.workflow.model.chat.TextContent;
 import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -41,6 +42,16 @@ public class McpExecuteServiceImpl implements McpExecuteService {
         return Result.error("调用MCP工具失败");
     }
 
+    @Override
+    public Result<List<McpSchema.Tool>> listTools(String serverCode) {
+        try {
+            return Result.success(mcpServerManager.listTools(serverCode));
+        } catch (Exception e) {
+            log.error("获取MCP工具列表失败，服务器: {}", serverCode, e);
+            return Result.error("获取MCP工具列表失败");
+        }
+    }
+
     /**
      * 构建错误结果
      */
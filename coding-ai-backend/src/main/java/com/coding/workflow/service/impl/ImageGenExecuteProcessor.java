@@ -23,6 +23,7 @@ import org.jgrapht.graph.DirectedAcyclicGraph;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -48,6 +49,12 @@ public class ImageGenExecuteProcessor extends AbstractExecuteProcessor {
 
     @Override
     public NodeResult innerExecute(DirectedAcyclicGraph<String, Edge> graph, Node node, WorkflowContext context) throws InterruptedException {
+        return innerExecuteAsync(graph, node, context).join();
+    }
+
+    @Override
+    protected CompletableFuture<NodeResult> innerExecuteAsync(DirectedAcyclicGraph<String, Edge> graph, Node node,
+                                                             WorkflowContext context) {
         NodeResult nodeResult = initNodeResultAndRefreshContext(node, context);
 
         try {
@@ -82,33 +89,40 @@ public class ImageGenExecuteProcessor extends AbstractExecuteProcessor {
 
             log.info("开始生成图像, provider: {}, modelId: {}, prompt: {}", param.getProvider(), param.getModel(), finalPrompt);
 
-            // 3. 调用图像生成服务
-            ImageGenerationResponse response = imageGenerationManager.generateImages(request);
-
-            // 4. 处理返回结果
-            if (response.isSuccess()) {
-                List<String> generatedUrls = response.getImageUrls();
-                // 构建输入数据
-                nodeResult.setInput(JSONUtil.toJsonStr(param));
-                // 构建输出结果
-                Map<String, Object> resultMap = Maps.newHashMap();
-                resultMap.put(OUTPUT_DECORATE_PARAM_KEY, generatedUrls.toArray(new String[0]));
-                nodeResult.setOutput(JSONUtil.toJsonStr(resultMap));
-
-                log.info("图像生成成功, 生成了 {} 张图片", generatedUrls.size());
-            } else {
-                nodeResult.setNodeStatus(NodeStatusEnum.FAIL.getCode());
-                String failReason = response.getErrorMessage();
-                nodeResult.setErrorInfo(failReason);
-
-                log.error("图像生成失败: {}", failReason);
-            }
+            // 3. 提交图像生成任务，等待结果期间不占用节点线程
+            return imageGenerationManager.generateImagesAsync(request)
+                    .thenApply(response -> handleResponse(nodeResult, param, response));
 
         } catch (Exception e) {
             log.error("图像生成执行异常", e);
             nodeResult.setNodeStatus(NodeStatusEnum.FAIL.getCode());
             String errorMsg = "图像生成执行异常: " + e.getMessage();
             nodeResult.setErrorInfo(errorMsg);
+            return CompletableFuture.completedFuture(nodeResult);
+        }
+    }
+
+    /**
+     * 处理图像生成结果
+     */
+    private NodeResult handleResponse(NodeResult nodeResult, NodeParam param, ImageGenerationResponse response) {
+        // 4. 处理返回结果
+        if (response.isSuccess()) {
+            List<String> generatedUrls = response.getImageUrls();
+            // 构建输入数据
+            nodeResult.setInput(JSONUtil.toJsonStr(param));
+            // 构建输出结果
+            Map<String, Object> resultMap = Maps.newHashMap();
+            resultMap.put(OUTPUT_DECORATE_PARAM_KEY, generatedUrls.toArray(new String[0]));
+            nodeResult.setOutput(JSONUtil.toJsonStr(resultMap));
+
+            log.info("图像生成成功, 生成了 {} 张图片", generatedUrls.size());
+        } else {
+            nodeResult.setNodeStatus(NodeStatusEnum.FAIL.getCode());
+            String failReason = response.getErrorMessage();
+            nodeResult.setErrorInfo(failReason);
+
+            log.error("图像生成失败: {}", failReason);
         }
 
         return nodeResult;
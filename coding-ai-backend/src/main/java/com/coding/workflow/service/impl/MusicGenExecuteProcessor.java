@@ -23,6 +23,7 @@ import org.jgrapht.graph.DirectedAcyclicGraph;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -43,6 +44,12 @@ public class MusicGenExecuteProcessor extends AbstractExecuteProcessor {
 
     @Override
     public NodeResult innerExecute(DirectedAcyclicGraph<String, Edge> graph, Node node, WorkflowContext context) throws InterruptedException {
+        return innerExecuteAsync(graph, node, context).join();
+    }
+
+    @Override
+    protected CompletableFuture<NodeResult> innerExecuteAsync(DirectedAcyclicGraph<String, Edge> graph, Node node,
+                                                             WorkflowContext context) {
         NodeResult nodeResult = initNodeResultAndRefreshContext(node, context);
 
         try {
@@ -79,34 +86,41 @@ public class MusicGenExecuteProcessor extends AbstractExecuteProcessor {
             log.info("开始生成音乐, provider: {}, model: {}, prompt: {}",
                 param.getProvider(), param.getModel(), finalPrompt);
 
-            // 3. 调用音乐生成服务
-            MusicGenerationResponse response = musicGenerationManager.generateMusic(request);
-
-            // 4. 处理返回结果
-            if (response.isSuccess()) {
-                // 构建输入数据
-                nodeResult.setInput(JSONUtil.toJsonStr(param));
-
-                // 构建输出结果
-                Map<String, Object> resultMap = Maps.newHashMap();
-                resultMap.put(OUTPUT_DECORATE_PARAM_KEY, response.getAudioUrl());
-                resultMap.put("response", response);
-                nodeResult.setOutput(JSONUtil.toJsonStr(resultMap));
-
-                log.info("音乐生成成功, 音频URL: {}", response.getAudioUrl());
-            } else {
-                nodeResult.setNodeStatus(NodeStatusEnum.FAIL.getCode());
-                String failReason = response.getErrorMessage();
-                nodeResult.setErrorInfo(failReason);
-
-                log.error("音乐生成失败: {}", failReason);
-            }
+            // 3. 提交音乐生成任务，等待结果期间不占用节点线程
+            return musicGenerationManager.generateMusicAsync(request)
+                    .thenApply(response -> handleResponse(nodeResult, param, response));
 
         } catch (Exception e) {
             log.error("音乐生成执行异常", e);
             nodeResult.setNodeStatus(NodeStatusEnum.FAIL.getCode());
             String errorMsg = "音乐生成执行异常: " + e.getMessage();
             nodeResult.setErrorInfo(errorMsg);
+            return CompletableFuture.completedFuture(nodeResult);
+        }
+    }
+
+    /**
+     * 处理音乐生成结果
+     */
+    private NodeResult handleResponse(NodeResult nodeResult, NodeParam param, MusicGenerationResponse response) {
+        // 4. 处理返回结果
+        if (response.isSuccess()) {
+            // 构建输入数据
+            nodeResult.setInput(JSONUtil.toJsonStr(param));
+
+            // 构建输出结果
+            Map<String, Object> resultMap = Maps.newHashMap();
+            resultMap.put(OUTPUT_DECORATE_PARAM_KEY, response.getAudioUrl());
+            resultMap.put("response", response);
+            nodeResult.setOutput(JSONUtil.toJsonStr(resultMap));
+
+            log.info("音乐生成成功, 音频URL: {}", response.getAudioUrl());
+        } else {
+            nodeResult.setNodeStatus(NodeStatusEnum.FAIL.getCode());
+            String failReason = response.getErrorMessage();
+            nodeResult.setErrorInfo(failReason);
+
+            log.error("音乐生成失败: {}", failReason);
         }
 
         return nodeResult;
@@ -66,20 +66,17 @@ public class ScriptExecuteProcessor extends AbstractExecuteProcessor {
             return nodeResult;
         }
 
-        // 3. 绑定脚本参数变量
+        // 3. 构建脚本参数
         Map<String, Object> localVariableMap = constructScriptVariableMap(node, context);
-        Map<String, Object> variableMap = Maps.newHashMap();
-        variableMap.put("params", localVariableMap);
 
-        // 4. 执行脚本
+        // 4. 执行脚本中的 main(params)
         Result<String> executeResult;
-        scriptContent += "\nmain(params)";
         if (ScriptType.python.name().equals(scriptType)) {
             // 使用GraalVM执行python脚本
-            executeResult = sandBoxManager.executePythonScript(scriptContent, variableMap, UUID.randomUUID().toString());
+            executeResult = sandBoxManager.executePythonMain(scriptContent, localVariableMap, UUID.randomUUID().toString());
         } else {
             // 使用GraalVM执行javascript脚本
-            executeResult = sandBoxManager.executeJavaScript(scriptContent, variableMap, UUID.randomUUID().toString());
+            executeResult = sandBoxManager.executeJavaScriptMain(scriptContent, localVariableMap, UUID.randomUUID().toString());
         }
 
         // 5. 处理脚本执行结果
@@ -27,6 +27,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -52,6 +53,12 @@ public class VideoGenExecuteProcessor extends AbstractExecuteProcessor {
 
     @Override
     public NodeResult innerExecute(DirectedAcyclicGraph<String, Edge> graph, Node node, WorkflowContext context) throws InterruptedException {
+        return innerExecuteAsync(graph, node, context).join();
+    }
+
+    @Override
+    protected CompletableFuture<NodeResult> innerExecuteAsync(DirectedAcyclicGraph<String, Edge> graph, Node node,
+                                                             WorkflowContext context) {
         NodeResult nodeResult = initNodeResultAndRefreshContext(node, context);
 
         try {
@@ -93,42 +100,49 @@ public class VideoGenExecuteProcessor extends AbstractExecuteProcessor {
             log.info("开始生成视频, provider: {}, model: {}, prompt: {}",
                 param.getProvider(), param.getModelId(), finalPrompt);
 
-            // 3. 调用视频生成服务
-            VideoGenerationResponse response = videoGenerationManager.generateVideo(request);
-
-            // 4. 处理返回结果
-            if (response.isSuccess()) {
-                // 构建输入数据
-                nodeResult.setInput(JSONUtil.toJsonStr(param));
-
-                // 构建输出结果
-                HashMap<String, Object> output = Maps.newHashMap();
-                output.put(VIDEO, response.getVideoUrl());
-                output.put(MESSAGE, "视频生成成功");
-                output.put("result", response);
-                nodeResult.setOutput(JSONUtil.toJsonStr(output));
-
-                log.info("视频生成成功, 视频URL: {}", response.getVideoUrl());
-            } else {
-                nodeResult.setNodeStatus(NodeStatusEnum.FAIL.getCode());
-                String failReason = response.getErrorMessage();
-                nodeResult.setErrorInfo(failReason);
-
-                // 构建失败输出结果
-                HashMap<String, Object> output = Maps.newHashMap();
-                output.put(VIDEO, "");
-                output.put(MESSAGE, "视频生成失败");
-                output.put("result", response);
-                nodeResult.setOutput(JSONUtil.toJsonStr(output));
-
-                log.error("视频生成失败: {}", failReason);
-            }
+            // 3. 提交视频生成任务，等待结果期间不占用节点线程
+            return videoGenerationManager.generateVideoAsync(request)
+                    .thenApply(response -> handleResponse(nodeResult, param, response));
 
         } catch (Exception e) {
             log.error("视频生成执行异常", e);
             nodeResult.setNodeStatus(NodeStatusEnum.FAIL.getCode());
             String errorMsg = "视频生成执行异常: " + e.getMessage();
             nodeResult.setErrorInfo(errorMsg);
+            return CompletableFuture.completedFuture(nodeResult);
+        }
+    }
+
+    /**
+     * 处理视频生成结果
+     */
+    private NodeResult handleResponse(NodeResult nodeResult, NodeParam param, VideoGenerationResponse response) {
+        // 4. 处理返回结果
+        if (response.isSuccess()) {
+            // 构建输入数据
+            nodeResult.setInput(JSONUtil.toJsonStr(param));
+
+            // 构建输出结果
+            HashMap<String, Object> output = Maps.newHashMap();
+            output.put(VIDEO, response.getVideoUrl());
+            output.put(MESSAGE, "视频生成成功");
+            output.put("result", response);
+            nodeResult.setOutput(JSONUtil.toJsonStr(output));
+
+            log.info("视频生成成功, 视频URL: {}", response.getVideoUrl());
+        } else {
+            nodeResult.setNodeStatus(NodeStatusEnum.FAIL.getCode());
+            String failReason = response.getErrorMessage();
+            nodeResult.setErrorInfo(failReason);
+
+            // 构建失败输出结果
+            HashMap<String, Object> output = Maps.newHashMap();
+            output.put(VIDEO, "");
+            output.put(MESSAGE, "视频生成失败");
+            output.put("result", response);
+            nodeResult.setOutput(JSONUtil.toJsonStr(output));
+
+            log.error("视频生成失败: {}", failReason);
         }
 
         return nodeResult;
@@ -0,0 +1,222 @@
+package com.coding.agentflow.repository.impl;
+
+import com.coding.core.config.ChatMemoryProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Redis 对话记忆：服务端 LTRIM 裁剪窗口、读写续期、近端缓存命中时只追加新增消息
+ */
+class RedisChatMemoryRepositoryTest {
+
+    private static final String CONVERSATION_ID = "c1";
+
+    private static final String KEY = "chat:memory:" + CONVERSATION_ID;
+
+    private InMemoryRedis redis;
+
+    private ChatMemoryProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        redis = new InMemoryRedis();
+        properties = new ChatMemoryProperties();
+        properties.setMaxMessages(3);
+        properties.setTtlMinutes(30);
+    }
+
+    @Test
+    void saveKeepsOnlyLatestWindowAndTrimsOnServer() {
+        RedisChatMemoryRepository repository = newRepository();
+
+        repository.saveAll(CONVERSATION_ID, messages("m1", "m2", "m3", "m4", "m5"));
+
+        assertEquals(List.of("DEL", "RPUSH 3", "LTRIM -3 -1", "EXPIRE 1800"), redis.commands);
+        assertEquals(List.of("m3", "m4", "m5"), texts(repository.findByConversationId(CONVERSATION_ID)));
+    }
+
+    @Test
+    void readAndWriteRefreshTtl() {
+        RedisChatMemoryRepository repository = newRepository();
+        repository.saveAll(CONVERSATION_ID, messages("m1"));
+        assertEquals(TimeUnit.MINUTES.toSeconds(30), redis.ttls.get(KEY));
+
+        redis.ttls.clear();
+        repository.findByConversationId(CONVERSATION_ID);
+
+        assertEquals(TimeUnit.MINUTES.toSeconds(30), redis.ttls.get(KEY));
+    }
+
+    @Test
+    void nearCacheAppendsOnlyNewMessagesAndLetsServerDropHead() {
+        properties.setNearCacheEnabled(true);
+        RedisChatMemoryRepository repository = newRepository();
+        repository.saveAll(CONVERSATION_ID, messages("m1", "m2", "m3"));
+        redis.commands.clear();
+
+        repository.saveAll(CONVERSATION_ID, messages("m1", "m2", "m3", "m4"));
+
+        // 窗口只是在末尾追加一条，头部 m1 由 LTRIM 在服务端淘汰
+        assertEquals(List.of("RPUSH 1", "LTRIM -3 -1", "EXPIRE 1800"), redis.commands);
+        assertEquals(List.of("m2", "m3", "m4"), redis.texts(KEY));
+    }
+
+    @Test
+    void nearCacheRewritesWhenHistoryIsNotAnAppend() {
+        properties.setNearCacheEnabled(true);
+        RedisChatMemoryRepository repository = newRepository();
+        repository.saveAll(CONVERSATION_ID, messages("m1", "m2"));
+        redis.commands.clear();
+
+        repository.saveAll(CONVERSATION_ID, messages("m1", "edited"));
+
+        assertEquals(List.of("DEL", "RPUSH 2", "LTRIM -2 -1", "EXPIRE 1800"), redis.commands);
+        assertEquals(List.of("m1", "edited"), redis.texts(KEY));
+    }
+
+    @Test
+    void nearCacheServesReadsWithoutRedis() {
+        properties.setNearCacheEnabled(true);
+        RedisChatMemoryRepository repository = newRepository();
+        repository.saveAll(CONVERSATION_ID, messages("m1", "m2"));
+        redis.commands.clear();
+
+        List<Message> messages = repository.findByConversationId(CONVERSATION_ID);
+
+        assertEquals(List.of("m1", "m2"), texts(messages));
+        assertTrue(redis.commands.isEmpty());
+    }
+
+    @Test
+    void emptyWindowDeletesConversation() {
+        RedisChatMemoryRepository repository = newRepository();
+        repository.saveAll(CONVERSATION_ID, messages("m1"));
+
+        repository.saveAll(CONVERSATION_ID, List.of());
+
+        assertFalse(redis.lists.containsKey(KEY));
+    }
+
+    private RedisChatMemoryRepository newRepository() {
+        return new RedisChatMemoryRepository(redis.template(), new ObjectMapper(), properties, new SimpleMeterRegistry());
+    }
+
+    private static List<Message> messages(String... texts) {
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < texts.length; i++) {
+            messages.add(i % 2 == 0 ? new UserMessage(texts[i]) : new AssistantMessage(texts[i]));
+        }
+        return messages;
+    }
+
+    private static List<String> texts(List<Message> messages) {
+        return messages.stream().map(Message::getText).toList();
+    }
+
+    /**
+     * Redis 替身：只实现对话记忆用到的 List 命令，管道内按顺序执行并记录命令
+     */
+    private static final class InMemoryRedis {
+
+        private final Map<String, List<String>> lists = new HashMap<>();
+
+        private final Map<String, Long> ttls = new HashMap<>();
+
+        private final List<String> commands = new ArrayList<>();
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        @SuppressWarnings("unchecked")
+        StringRedisTemplate template() {
+            StringRedisTemplate template = mock(StringRedisTemplate.class);
+            when(template.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+                List<Object> results = new ArrayList<>();
+                ((RedisCallback<Object>) invocation.getArgument(0)).doInRedis(connection(results));
+                return results;
+            });
+            when(template.delete(anyString())).thenAnswer(invocation -> lists.remove(invocation.<String>getArgument(0)) != null);
+            return template;
+        }
+
+        List<String> texts(String key) {
+            return lists.getOrDefault(key, List.of()).stream().map(json -> {
+                try {
+                    return objectMapper.readTree(json).path("c").asText();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }).toList();
+        }
+
+        private StringRedisConnection connection(List<Object> results) {
+            return (StringRedisConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{StringRedisConnection.class}, (proxy, method, args) -> {
+                        String key = args[0] instanceof String[] keys ? keys[0] : (String) args[0];
+                        List<String> list = lists.computeIfAbsent(key, k -> new ArrayList<>());
+                        switch (method.getName()) {
+                            case "del" -> {
+                                commands.add("DEL");
+                                lists.remove(key);
+                            }
+                            case "rPush" -> {
+                                String[] values = (String[]) args[1];
+                                commands.add("RPUSH " + values.length);
+                                list.addAll(List.of(values));
+                            }
+                            case "lTrim" -> {
+                                long start = (long) args[1];
+                                long end = (long) args[2];
+                                commands.add("LTRIM " + start + " " + end);
+                                List<String> kept = new ArrayList<>(range(list, start, end));
+                                list.clear();
+                                list.addAll(kept);
+                            }
+                            case "lRange" -> {
+                                commands.add("LRANGE");
+                                results.add(new ArrayList<>(range(list, (long) args[1], (long) args[2])));
+                            }
+                            case "expire" -> {
+                                long seconds = (long) args[1];
+                                commands.add("EXPIRE " + seconds);
+                                ttls.put(key, seconds);
+                            }
+                            default -> throw new UnsupportedOperationException(method.getName());
+                        }
+                        if (list.isEmpty()) {
+                            lists.remove(key);
+                        }
+                        return null;
+                    });
+        }
+
+        private static List<String> range(List<String> list, long start, long end) {
+            int size = list.size();
+            int from = (int) Math.max(0, start < 0 ? size + start : start);
+            int to = (int) Math.min(size - 1, end < 0 ? size + end : end);
+            return from > to ? List.of() : list.subList(from, to + 1);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.coding.core.handler;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * pgvector 参数编码与结果解码的客户端开销：写入与相似度检索都要绑定向量参数，对比文本格式（getValue，改造前的唯一格式）
+ * 与二进制格式（toBytes）的编码；读取 embedding 列时对比文本解析（getNullableResult）与二进制解析（setByteValue）；
+ * 覆盖常见的 768 / 1024 / 1536 维，输出每次操作的 p50 / 平均耗时与传输字节数。不含数据库端的解析与网络耗时
+ */
+public class PgVectorTypeHandlerBenchmark {
+
+    private static final int WARMUP_RUNS = 20_000;
+
+    private static final int MEASURE_RUNS = 50_000;
+
+    private static final int[] DIMENSIONS = {768, 1024, 1536};
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        PgVectorTypeHandler handler = new PgVectorTypeHandler();
+        Random random = new Random(42);
+        for (int dimensions : DIMENSIONS) {
+            float[] embedding = new float[dimensions];
+            for (int i = 0; i < dimensions; i++) {
+                embedding[i] = random.nextFloat() * 2 - 1;
+            }
+            PgVectorTypeHandler.PgVector vector = new PgVectorTypeHandler.PgVector(embedding);
+            String text = vector.getValue();
+            byte[] binary = new byte[vector.lengthInBytes()];
+            vector.toBytes(binary, 0);
+            ResultSet resultSet = resultSetReturning(text);
+            PgVectorTypeHandler.PgVector target = new PgVectorTypeHandler.PgVector(new float[0]);
+
+            System.out.printf("dims=%d  text=%d bytes  binary=%d bytes%n", dimensions,
+                    text.length(), binary.length);
+            bench("  bind text   encode", () -> sink = new PgVectorTypeHandler.PgVector(embedding).getValue());
+            bench("  bind binary encode", () -> {
+                PgVectorTypeHandler.PgVector bound = new PgVectorTypeHandler.PgVector(embedding);
+                byte[] bytes = new byte[bound.lengthInBytes()];
+                bound.toBytes(bytes, 0);
+                sink = bytes;
+            });
+            bench("  read text   decode", () -> {
+                try {
+                    sink = handler.getNullableResult(resultSet, "embedding");
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            bench("  read binary decode", () -> {
+                target.setByteValue(binary, 0);
+                sink = target;
+            });
+        }
+    }
+
+    /**
+     * getString 固定返回向量文本的结果集
+     */
+    private static ResultSet resultSetReturning(String text) {
+        return (ResultSet) Proxy.newProxyInstance(PgVectorTypeHandlerBenchmark.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> method.getName().equals("getString") ? text : null);
+    }
+
+    private static void bench(String label, Runnable run) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run.run();
+        }
+        long[] latencies = new long[MEASURE_RUNS];
+        for (int i = 0; i < MEASURE_RUNS; i++) {
+            long start = System.nanoTime();
+            run.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%s  p50=%8.2f us  avg=%8.2f us%n", label,
+                latencies[latencies.length / 2] / 1e3,
+                Arrays.stream(latencies).average().orElse(0) / 1e3);
+    }
+}
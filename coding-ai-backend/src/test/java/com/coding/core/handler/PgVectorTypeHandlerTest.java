@@ -0,0 +1,107 @@
+package com.coding.core.handler;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * pgvector 类型处理器：二进制格式（维度、保留位、大端 float4）与文本格式的往返一致，包括空向量
+ */
+class PgVectorTypeHandlerTest {
+
+    private static final float[] VECTOR = {0.1f, -2.5f, 3.0e-7f, Float.MAX_VALUE, 0f};
+
+    private final PgVectorTypeHandler handler = new PgVectorTypeHandler();
+
+    @Test
+    void binaryRoundTripAtOffset() {
+        PgVectorTypeHandler.PgVector source = new PgVectorTypeHandler.PgVector(VECTOR);
+        int offset = 3;
+        byte[] bytes = new byte[offset + source.lengthInBytes() + 2];
+        source.toBytes(bytes, offset);
+
+        PgVectorTypeHandler.PgVector target = new PgVectorTypeHandler.PgVector(new float[0]);
+        target.setByteValue(bytes, offset);
+
+        assertEquals(source, target);
+        assertEquals(source.getValue(), target.getValue());
+    }
+
+    @Test
+    void binaryLayoutIsDimensionsReservedThenBigEndianFloats() {
+        PgVectorTypeHandler.PgVector vector = new PgVectorTypeHandler.PgVector(new float[]{1.5f, -1f});
+        byte[] bytes = new byte[vector.lengthInBytes()];
+        vector.toBytes(bytes, 0);
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        assertEquals(12, bytes.length);
+        assertEquals(2, buffer.getShort());
+        assertEquals(0, buffer.getShort());
+        assertEquals(1.5f, buffer.getFloat());
+        assertEquals(-1f, buffer.getFloat());
+    }
+
+    @Test
+    void emptyVectorRoundTripsInBinaryAndText() {
+        PgVectorTypeHandler.PgVector empty = new PgVectorTypeHandler.PgVector(new float[0]);
+        byte[] bytes = new byte[empty.lengthInBytes()];
+        empty.toBytes(bytes, 0);
+        PgVectorTypeHandler.PgVector fromBytes = new PgVectorTypeHandler.PgVector(VECTOR);
+        fromBytes.setByteValue(bytes, 0);
+
+        assertEquals(4, bytes.length);
+        assertEquals(empty, fromBytes);
+        assertEquals("[]", empty.getValue());
+
+        PgVectorTypeHandler.PgVector fromText = new PgVectorTypeHandler.PgVector(VECTOR);
+        fromText.setValue("[]");
+        assertEquals(empty, fromText);
+    }
+
+    @Test
+    void textRoundTripPreservesValues() {
+        PgVectorTypeHandler.PgVector source = new PgVectorTypeHandler.PgVector(VECTOR);
+        PgVectorTypeHandler.PgVector target = new PgVectorTypeHandler.PgVector(new float[0]);
+
+        target.setValue(source.getValue());
+
+        assertEquals(source, target);
+    }
+
+    @Test
+    void resultColumnIsParsedFromPgvectorText() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString("embedding")).thenReturn("[1,-2.5, 3e-7]");
+        when(resultSet.getString(1)).thenReturn("[]");
+        when(resultSet.getString(2)).thenReturn(null);
+
+        assertArrayEquals(new float[]{1f, -2.5f, 3e-7f}, handler.getNullableResult(resultSet, "embedding"));
+        assertArrayEquals(new float[0], handler.getNullableResult(resultSet, 1));
+        assertNull(handler.getNullableResult(resultSet, 2));
+    }
+
+    @Test
+    void parameterIsBoundAsVectorObject() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+
+        handler.setNonNullParameter(statement, 4, VECTOR, null);
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(statement).setObject(eq(4), captor.capture());
+        PgVectorTypeHandler.PgVector bound = assertInstanceOf(PgVectorTypeHandler.PgVector.class, captor.getValue());
+        assertEquals("vector", bound.getType());
+        assertEquals(new PgVectorTypeHandler.PgVector(VECTOR), bound);
+    }
+}
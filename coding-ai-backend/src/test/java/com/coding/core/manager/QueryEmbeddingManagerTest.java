@@ -0,0 +1,147 @@
+package com.coding.core.manager;
+
+import com.coding.core.config.QueryEmbeddingCacheProperties;
+import com.coding.core.service.CacheService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 查询向量两级缓存：本地命中、Redis 命中、均未命中时调用嵌入模型
+ */
+class QueryEmbeddingManagerTest {
+
+    private static final String MODEL = "text-embedding-v3";
+
+    private static final int DIMENSIONS = 8;
+
+    private StubEmbeddingModel embeddingModel;
+
+    private InMemoryCacheService cacheService;
+
+    private QueryEmbeddingCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        embeddingModel = new StubEmbeddingModel(0);
+        cacheService = new InMemoryCacheService();
+        properties = new QueryEmbeddingCacheProperties();
+    }
+
+    @Test
+    void missCallsModelAndWritesRemoteCache() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        QueryEmbeddingManager manager = newManager(meterRegistry);
+
+        float[] embedding = manager.embed("什么是 向量检索", null);
+
+        assertArrayEquals(StubEmbeddingModel.vectorOf("什么是 向量检索"), embedding);
+        assertEquals(1, embeddingModel.calls());
+        assertEquals(1, cacheService.values.size());
+        String remoteKey = cacheService.values.keySet().iterator().next();
+        assertTrue(remoteKey.startsWith("embedding:query:" + MODEL + ":" + DIMENSIONS + ":"));
+        assertEquals(DIMENSIONS * Float.BYTES, cacheService.values.get(remoteKey).length);
+        assertEquals(1, lookups(meterRegistry, "miss"));
+    }
+
+    @Test
+    void localHitSkipsRemoteAndModelForNormalizedQuery() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        QueryEmbeddingManager manager = newManager(meterRegistry);
+
+        float[] first = manager.embed("什么是 向量检索", null);
+        int remoteReads = cacheService.reads;
+        float[] second = manager.embed("  什么是\t\t向量检索 ", MODEL);
+
+        assertSame(first, second);
+        assertEquals(1, embeddingModel.calls());
+        assertEquals(remoteReads, cacheService.reads);
+        assertEquals(1, lookups(meterRegistry, "local_hit"));
+    }
+
+    @Test
+    void remoteHitSkipsModelWhenLocalCacheIsCold() {
+        newManager(new SimpleMeterRegistry()).embed("什么是 向量检索", null);
+
+        // 新实例本地缓存为空，模拟另一个节点或重启后的查询
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        QueryEmbeddingManager manager = newManager(meterRegistry);
+        float[] embedding = manager.embed("什么是 向量检索", null);
+
+        assertArrayEquals(StubEmbeddingModel.vectorOf("什么是 向量检索"), embedding);
+        assertEquals(1, embeddingModel.calls());
+        assertEquals(1, lookups(meterRegistry, "remote_hit"));
+        assertEquals(0, lookups(meterRegistry, "miss"));
+    }
+
+    @Test
+    void disabledCacheAlwaysCallsModel() {
+        properties.setEnabled(false);
+        QueryEmbeddingManager manager = newManager(new SimpleMeterRegistry());
+
+        manager.embed("什么是 向量检索", null);
+        manager.embed("什么是 向量检索", null);
+
+        assertEquals(2, embeddingModel.calls());
+        assertTrue(cacheService.values.isEmpty());
+    }
+
+    private QueryEmbeddingManager newManager(MeterRegistry meterRegistry) {
+        return new QueryEmbeddingManager(embeddingModel, cacheService, properties, meterRegistry, MODEL, DIMENSIONS);
+    }
+
+    private static double lookups(MeterRegistry meterRegistry, String result) {
+        return meterRegistry.get("coding.knowledge.query.embedding.lookup").tag("result", result).counter().count();
+    }
+
+    /**
+     * 远程缓存替身：只实现二进制读写
+     */
+    private static final class InMemoryCacheService implements CacheService {
+
+        private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+
+        private int reads;
+
+        @Override
+        public void setRemoteBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+            values.put(key, value.clone());
+        }
+
+        @Override
+        public byte[] getRemoteBytes(String key) {
+            reads++;
+            return values.get(key);
+        }
+
+        @Override
+        public void setRemote(String key, String value, long timeout, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getRemote(String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteRemote(String key) {
+            values.remove(key);
+        }
+
+        @Override
+        public boolean hasRemoteKey(String key) {
+            return values.containsKey(key);
+        }
+    }
+}
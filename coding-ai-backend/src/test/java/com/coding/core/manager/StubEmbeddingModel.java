@@ -0,0 +1,71 @@
+package com.coding.core.manager;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 向量模型替身：按固定延迟模拟一次远程请求，向量由文本哈希生成，记录请求次数与向量化的文本数
+ */
+class StubEmbeddingModel implements EmbeddingModel {
+
+    private static final int DIMENSIONS = 8;
+
+    private final long latencyMillis;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final AtomicInteger embeddedTexts = new AtomicInteger();
+
+    StubEmbeddingModel(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        calls.incrementAndGet();
+        if (latencyMillis > 0) {
+            LockSupport.parkNanos(latencyMillis * 1_000_000);
+        }
+        List<Embedding> embeddings = new ArrayList<>(request.getInstructions().size());
+        for (String text : request.getInstructions()) {
+            embeddedTexts.incrementAndGet();
+            embeddings.add(new Embedding(vectorOf(text), embeddings.size()));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getFormattedContent());
+    }
+
+    @Override
+    public int dimensions() {
+        return DIMENSIONS;
+    }
+
+    int calls() {
+        return calls.get();
+    }
+
+    int embeddedTexts() {
+        return embeddedTexts.get();
+    }
+
+    static float[] vectorOf(String text) {
+        float[] vector = new float[DIMENSIONS];
+        int hash = text.hashCode();
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = ((hash >> i) & 0xFF) / 255f;
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,162 @@
+package com.coding.core.repository.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.coding.core.mapper.ChatMessageMapper;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * 聊天消息表的 H2 替身（MySQL 兼容模式）：用真实的 MyBatis-Plus 映射执行单行与批量写入，
+ * 统计发往数据库的语句次数（executeUpdate / execute 各计一次，executeBatch 每批计一次），用于批量写入测试与基准
+ */
+final class ChatMessageH2StandIn implements AutoCloseable {
+
+    private static final AtomicInteger DATABASE_INDEX = new AtomicInteger();
+
+    private final AtomicInteger roundTrips = new AtomicInteger();
+
+    private final SqlSession sqlSession;
+
+    private final ChatMessageMapper mapper;
+
+    ChatMessageH2StandIn() {
+        this("jdbc:h2:mem:");
+    }
+
+    /**
+     * @param urlPrefix 库名之前的 URL 部分，如进程内 jdbc:h2:mem: 或经本机 TCP 连接的 jdbc:h2:tcp://localhost:9092/mem:
+     */
+    ChatMessageH2StandIn(String urlPrefix) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL(urlPrefix + "chat_message_" + DATABASE_INDEX.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE chat_message (
+                        id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                        conversation_id VARCHAR(64),
+                        messages TEXT,
+                        type VARCHAR(32)
+                    )""");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+
+        MybatisConfiguration configuration = new MybatisConfiguration(
+                new Environment("h2", new JdbcTransactionFactory(), new CountingDataSource(h2)));
+        configuration.addMapper(ChatMessageMapper.class);
+        SqlSessionFactory sqlSessionFactory = new MybatisSqlSessionFactoryBuilder().build(configuration);
+        this.sqlSession = sqlSessionFactory.openSession(true);
+        this.mapper = sqlSession.getMapper(ChatMessageMapper.class);
+    }
+
+    ChatMessageMapper mapper() {
+        return mapper;
+    }
+
+    int roundTrips() {
+        return roundTrips.get();
+    }
+
+    void resetRoundTrips() {
+        roundTrips.set(0);
+    }
+
+    @Override
+    public void close() {
+        sqlSession.close();
+    }
+
+    /**
+     * 包装连接与语句，统计实际执行的语句次数
+     */
+    private final class CountingDataSource implements DataSource {
+
+        private final DataSource delegate;
+
+        CountingDataSource(DataSource delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(Connection.class, delegate.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(Connection.class, delegate.getConnection(username, password));
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T wrap(Class<T> type, T target) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.equals("executeUpdate") || name.equals("execute") || name.equals("executeBatch")) {
+                    roundTrips.incrementAndGet();
+                }
+                try {
+                    Object result = method.invoke(target, args);
+                    if (result instanceof PreparedStatement statement) {
+                        return wrap(PreparedStatement.class, statement);
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        @Override
+        public PrintWriter getLogWriter() throws SQLException {
+            return delegate.getLogWriter();
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) throws SQLException {
+            delegate.setLogWriter(out);
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) throws SQLException {
+            delegate.setLoginTimeout(seconds);
+        }
+
+        @Override
+        public int getLoginTimeout() throws SQLException {
+            return delegate.getLoginTimeout();
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            return delegate.getParentLogger();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            return delegate.unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return delegate.isWrapperFor(iface);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.coding.core.repository.impl;
+
+import com.coding.core.config.BatchInsertProperties;
+import com.coding.core.mapper.ChatMessageMapper;
+import com.coding.core.model.model.ChatMessageModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * 聊天消息批量写入：按配置的批次大小分批提交，自增ID按输入顺序回填到消息模型
+ */
+class ChatMessageRepositoryImplTest {
+
+    private ChatMessageH2StandIn standIn;
+
+    private BatchInsertProperties batchInsertProperties;
+
+    private ChatMessageRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        standIn = new ChatMessageH2StandIn();
+        batchInsertProperties = new BatchInsertProperties();
+        repository = new ChatMessageRepositoryImpl(standIn.mapper(), batchInsertProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        standIn.close();
+    }
+
+    @Test
+    void rowsAreWrittenInConfiguredChunks() {
+        batchInsertProperties.setChunkSize(3);
+
+        assertEquals(7, repository.add(messages("c1", 7)));
+
+        // 7 行按每批 3 行提交：3 + 3 + 1
+        assertEquals(3, standIn.roundTrips());
+        assertEquals(7, repository.getByConversationId("c1").size());
+    }
+
+    @Test
+    void generatedIdsAreWrittenBackInInputOrder() {
+        batchInsertProperties.setChunkSize(4);
+        repository.add(messages("c0", 2));
+        List<ChatMessageModel> models = messages("c1", 10);
+
+        repository.add(models);
+
+        List<ChatMessageModel> stored = repository.getByConversationId("c1");
+        assertEquals(models.size(), stored.size());
+        for (int i = 0; i < models.size(); i++) {
+            assertNotNull(models.get(i).getId());
+            assertEquals(stored.get(i).getId(), models.get(i).getId());
+            assertEquals(stored.get(i).getMessages(), models.get(i).getMessages());
+        }
+    }
+
+    @Test
+    void emptyInputDoesNotTouchDatabase() {
+        ChatMessageMapper mapper = mock(ChatMessageMapper.class);
+        ChatMessageRepositoryImpl mockedRepository = new ChatMessageRepositoryImpl(mapper, batchInsertProperties);
+
+        assertEquals(0, mockedRepository.add(List.of()));
+        assertEquals(0, mockedRepository.add((List<ChatMessageModel>) null));
+        verifyNoInteractions(mapper);
+    }
+
+    static List<ChatMessageModel> messages(String conversationId, int count) {
+        List<ChatMessageModel> models = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ChatMessageModel model = new ChatMessageModel();
+            model.setConversationId(conversationId);
+            model.setMessages("{\"index\":" + i + "}");
+            model.setType("assistant");
+            models.add(model);
+        }
+        return models;
+    }
+}
@@ -0,0 +1,69 @@
+package com.coding.core.repository.impl;
+
+import com.coding.core.config.BatchInsertProperties;
+import com.coding.core.mapper.postgresql.KnowledgeVectorMapper;
+import com.coding.core.model.entity.KnowledgeVectorDO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 知识向量多行插入：每条语句的行数不超过 PostgreSQL 绑定参数上限
+ */
+class KnowledgeVectorRepositoryImplTest {
+
+    private final List<Integer> statementRows = new ArrayList<>();
+
+    private BatchInsertProperties batchInsertProperties;
+
+    private KnowledgeVectorRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        KnowledgeVectorMapper mapper = mock(KnowledgeVectorMapper.class);
+        doAnswer(invocation -> {
+            statementRows.add(invocation.<List<?>>getArgument(0).size());
+            return 0;
+        }).when(mapper).insertBatch(anyList());
+
+        batchInsertProperties = new BatchInsertProperties();
+        repository = new KnowledgeVectorRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "knowledgeVectorMapper", mapper);
+        ReflectionTestUtils.setField(repository, "batchInsertProperties", batchInsertProperties);
+    }
+
+    @Test
+    void oversizedChunkIsClampedToBindParameterLimit() {
+        batchInsertProperties.setChunkSize(10_000);
+
+        repository.saveBatch(vectors(7_000));
+
+        assertEquals(List.of(6553, 447), statementRows);
+        assertEquals(6553, KnowledgeVectorRepositoryImpl.MAX_ROWS_PER_INSERT);
+    }
+
+    @Test
+    void configuredChunkBelowLimitIsUsed() {
+        batchInsertProperties.setChunkSize(500);
+
+        repository.saveBatch(vectors(1_200));
+
+        assertEquals(List.of(500, 500, 200), statementRows);
+    }
+
+    private static List<KnowledgeVectorDO> vectors(int count) {
+        List<KnowledgeVectorDO> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vectors.add(new KnowledgeVectorDO());
+        }
+        return vectors;
+    }
+}
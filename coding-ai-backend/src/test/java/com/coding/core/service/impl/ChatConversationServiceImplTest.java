@@ -0,0 +1,92 @@
+package com.coding.core.service.impl;
+
+import com.coding.core.config.ChatHistoryProperties;
+import com.coding.core.repository.ChatConversationRepository;
+import com.coding.core.service.ChatMessageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 会话历史恢复：FULL 模式发送全部历史，WINDOW 模式只发送最近 windowSize 条，且窗口不从工具响应开始
+ */
+class ChatConversationServiceImplTest {
+
+    private static final String CONVERSATION_ID = "c1";
+
+    private final ChatHistoryProperties properties = new ChatHistoryProperties();
+
+    private ChatMessageService chatMessageService;
+
+    private ChatConversationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        chatMessageService = mock(ChatMessageService.class);
+        service = new ChatConversationServiceImpl(mock(ChatConversationRepository.class), chatMessageService, properties);
+    }
+
+    @Test
+    void fullModeRestoresWholeHistory() {
+        when(chatMessageService.findMessages(CONVERSATION_ID)).thenReturn(users(10));
+        properties.setWindowSize(3);
+
+        List<Message> restored = service.restoreConversationMessages(CONVERSATION_ID, "prompt");
+
+        assertEquals(11, restored.size());
+        assertEquals("prompt", restored.get(10).getText());
+    }
+
+    @Test
+    void windowModeRestoresMostRecentMessagesOnly() {
+        when(chatMessageService.findMessages(CONVERSATION_ID)).thenReturn(users(10));
+        properties.setRestoreMode(ChatHistoryProperties.RestoreMode.WINDOW);
+        properties.setWindowSize(3);
+
+        List<Message> restored = service.restoreConversationMessages(CONVERSATION_ID, "prompt");
+
+        assertEquals(List.of("m7", "m8", "m9", "prompt"), restored.stream().map(Message::getText).toList());
+    }
+
+    @Test
+    void windowModeDoesNotStartWithOrphanToolResponse() {
+        List<Message> history = new ArrayList<>(users(3));
+        history.add(AssistantMessage.builder()
+                .content("")
+                .toolCalls(List.of(new AssistantMessage.ToolCall("call-1", "function", "search", "{}")))
+                .build());
+        history.add(ToolResponseMessage.builder()
+                .responses(List.of(new ToolResponseMessage.ToolResponse("call-1", "search", "result")))
+                .build());
+        history.add(new UserMessage("after"));
+        when(chatMessageService.findMessages(CONVERSATION_ID)).thenReturn(history);
+        properties.setRestoreMode(ChatHistoryProperties.RestoreMode.WINDOW);
+        // 窗口起点恰好落在工具响应上，对应的工具调用在窗口之外
+        properties.setWindowSize(2);
+
+        List<Message> restored = service.restoreConversationMessages(CONVERSATION_ID, "prompt");
+
+        assertEquals(2, restored.size());
+        assertInstanceOf(UserMessage.class, restored.get(0));
+        assertEquals("after", restored.get(0).getText());
+    }
+
+    private static List<Message> users(int count) {
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(new UserMessage("m" + i));
+        }
+        return messages;
+    }
+}
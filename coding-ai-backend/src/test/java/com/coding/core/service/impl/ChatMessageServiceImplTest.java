@@ -0,0 +1,162 @@
+package com.coding.core.service.impl;
+
+import com.coding.core.config.ChatHistoryProperties;
+import com.coding.core.model.model.ChatMessageModel;
+import com.coding.core.repository.ChatMessageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 会话历史缓存：未命中时全量加载，命中时只查询最后ID之后的新消息，
+ * 写入乱序或删除未完成的工具调用后缓存失效、下次重新全量加载
+ */
+class ChatMessageServiceImplTest {
+
+    private static final String CONVERSATION_ID = "c1";
+
+    private final AtomicLong nextId = new AtomicLong(100);
+
+    private ChatMessageRepository repository;
+
+    private ChatMessageServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ChatMessageRepository.class);
+        doAnswer(invocation -> {
+            Collection<ChatMessageModel> models = invocation.getArgument(0);
+            models.forEach(model -> model.setId(nextId.getAndIncrement()));
+            return models.size();
+        }).when(repository).add(anyCollection());
+
+        service = new ChatMessageServiceImpl();
+        ReflectionTestUtils.setField(service, "chatMessageRepository", repository);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "chatHistoryProperties", new ChatHistoryProperties());
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(service, "initHistoryCache");
+    }
+
+    @Test
+    void cacheMissLoadsFullHistoryOnce() {
+        when(repository.getByConversationId(CONVERSATION_ID)).thenReturn(List.of(user(1L, "a"), user(2L, "b")));
+        when(repository.getByConversationIdAfterId(CONVERSATION_ID, 2L)).thenReturn(List.of());
+
+        assertEquals(List.of("a", "b"), texts(service.findMessages(CONVERSATION_ID)));
+        assertEquals(List.of("a", "b"), texts(service.findMessages(CONVERSATION_ID)));
+
+        verify(repository, times(1)).getByConversationId(CONVERSATION_ID);
+        verify(repository, times(1)).getByConversationIdAfterId(CONVERSATION_ID, 2L);
+    }
+
+    @Test
+    void cacheHitLoadsOnlyMessagesAfterLastCachedId() {
+        when(repository.getByConversationId(CONVERSATION_ID)).thenReturn(List.of(user(1L, "a"), user(2L, "b")));
+        service.findMessages(CONVERSATION_ID);
+        when(repository.getByConversationIdAfterId(CONVERSATION_ID, 2L)).thenReturn(List.of(user(3L, "c")));
+        when(repository.getByConversationIdAfterId(CONVERSATION_ID, 3L)).thenReturn(List.of());
+
+        assertEquals(List.of("a", "b", "c"), texts(service.findMessages(CONVERSATION_ID)));
+        assertEquals(List.of("a", "b", "c"), texts(service.findMessages(CONVERSATION_ID)));
+
+        verify(repository, times(1)).getByConversationId(CONVERSATION_ID);
+        verify(repository).getByConversationIdAfterId(CONVERSATION_ID, 3L);
+    }
+
+    @Test
+    void savedMessagesWithIncreasingIdsAreAppendedToCache() {
+        when(repository.getByConversationId(CONVERSATION_ID)).thenReturn(List.of(user(1L, "a")));
+        service.findMessages(CONVERSATION_ID);
+
+        service.saveMessages(CONVERSATION_ID, List.of(new UserMessage("b")));
+        when(repository.getByConversationIdAfterId(CONVERSATION_ID, 100L)).thenReturn(List.of());
+
+        assertEquals(List.of("a", "b"), texts(service.findMessages(CONVERSATION_ID)));
+        verify(repository, times(1)).getByConversationId(CONVERSATION_ID);
+    }
+
+    @Test
+    void outOfOrderSavedIdsInvalidateCache() {
+        // 缓存已包含ID 200 的消息，随后写入的消息ID更小（并发写入乱序）
+        when(repository.getByConversationId(CONVERSATION_ID)).thenReturn(List.of(user(200L, "a")));
+        service.findMessages(CONVERSATION_ID);
+
+        service.saveMessages(CONVERSATION_ID, List.of(new UserMessage("b")));
+        when(repository.getByConversationId(CONVERSATION_ID)).thenReturn(List.of(user(100L, "b"), user(200L, "a")));
+
+        assertEquals(List.of("b", "a"), texts(service.findMessages(CONVERSATION_ID)));
+        verify(repository, times(2)).getByConversationId(CONVERSATION_ID);
+        verify(repository, never()).getByConversationIdAfterId(eq(CONVERSATION_ID), eq(200L));
+    }
+
+    @Test
+    void removingIncompleteToolCallsInvalidatesCache() {
+        ChatMessageModel pendingToolCall = model(2L, "assistant",
+                "{\"text\":\"\",\"toolCalls\":[{\"id\":\"call-1\",\"type\":\"function\",\"name\":\"search\",\"arguments\":\"{}\"}]}");
+        when(repository.getByConversationId(CONVERSATION_ID)).thenReturn(List.of(user(1L, "a"), pendingToolCall));
+        assertEquals(2, service.findMessages(CONVERSATION_ID).size());
+
+        service.removeIncompleteToolCalls(CONVERSATION_ID);
+        verify(repository).deleteAll(Set.of(2L));
+        when(repository.getByConversationId(CONVERSATION_ID)).thenReturn(List.of(user(1L, "a")));
+
+        assertEquals(List.of("a"), texts(service.findMessages(CONVERSATION_ID)));
+        // 首次加载、查找未完成工具调用、失效后重新加载
+        verify(repository, times(3)).getByConversationId(CONVERSATION_ID);
+    }
+
+    @Test
+    void completeToolCallsKeepCache() {
+        when(repository.getByConversationId(CONVERSATION_ID)).thenReturn(List.of(user(1L, "a")));
+        service.findMessages(CONVERSATION_ID);
+
+        service.removeIncompleteToolCalls(CONVERSATION_ID);
+        when(repository.getByConversationIdAfterId(CONVERSATION_ID, 1L)).thenReturn(List.of());
+        service.findMessages(CONVERSATION_ID);
+
+        verify(repository, never()).deleteAll(anySet());
+        verify(repository, times(2)).getByConversationId(CONVERSATION_ID);
+        verify(repository).getByConversationIdAfterId(CONVERSATION_ID, 1L);
+    }
+
+    private static ChatMessageModel user(Long id, String text) {
+        return model(id, "user", "{\"text\":\"" + text + "\"}");
+    }
+
+    private static ChatMessageModel model(Long id, String type, String json) {
+        return ChatMessageModel.builder()
+                .id(id)
+                .conversationId(CONVERSATION_ID)
+                .type(type)
+                .messages(json)
+                .build();
+    }
+
+    private static List<String> texts(List<Message> messages) {
+        List<String> texts = new ArrayList<>();
+        messages.forEach(message -> texts.add(message.getText()));
+        return texts;
+    }
+}
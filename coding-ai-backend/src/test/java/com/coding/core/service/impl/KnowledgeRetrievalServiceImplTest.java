@@ -0,0 +1,141 @@
+package com.coding.core.service.impl;
+
+import com.coding.core.config.KnowledgeRetrievalProperties;
+import com.coding.core.manager.QueryEmbeddingManager;
+import com.coding.core.model.model.KnowledgeVectorModel;
+import com.coding.core.repository.KnowledgeVectorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 知识库检索：FAN_OUT 按知识库并行检索后合并全局 topK、超时或失败的知识库被跳过、知识库ID去重，
+ * 以及单个知识库时直接走 SINGLE_QUERY
+ */
+class KnowledgeRetrievalServiceImplTest {
+
+    private static final float[] EMBEDDING = {0.1f, 0.2f};
+
+    private final KnowledgeRetrievalProperties properties = new KnowledgeRetrievalProperties();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private KnowledgeVectorRepository repository;
+
+    private KnowledgeRetrievalServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(KnowledgeVectorRepository.class);
+        properties.setStrategy(KnowledgeRetrievalProperties.Strategy.FAN_OUT);
+        service = new KnowledgeRetrievalServiceImpl(mock(QueryEmbeddingManager.class), repository, properties,
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void fanOutMergesPerKnowledgeBaseResultsIntoGlobalTopK() {
+        stubKnowledgeBase(1L, Map.of("a", 0.9, "b", 0.3));
+        stubKnowledgeBase(2L, Map.of("c", 0.8, "d", 0.7));
+        stubKnowledgeBase(3L, Map.of("e", 0.5));
+
+        List<KnowledgeVectorModel> results = service.search(EMBEDDING, List.of(1L, 2L, 3L), 3);
+
+        assertEquals(List.of("a", "c", "d"), ids(results));
+        verify(repository, never()).similaritySearch(anyCollection(), any(float[].class), anyInt());
+        assertEquals(1, timerCount("FAN_OUT"));
+    }
+
+    @Test
+    void fanOutSkipsTimedOutAndFailedKnowledgeBases() {
+        properties.setFanOutTimeoutMs(200);
+        stubKnowledgeBase(1L, Map.of("a", 0.9));
+        when(repository.similaritySearch(eq(2L), any(float[].class), anyInt())).thenAnswer(invocation -> {
+            TimeUnit.SECONDS.sleep(5);
+            return List.of(vector("slow", 1.0));
+        });
+        when(repository.similaritySearch(eq(3L), any(float[].class), anyInt()))
+                .thenThrow(new IllegalStateException("分区不可用"));
+        stubKnowledgeBase(4L, Map.of("d", 0.4));
+
+        long start = System.nanoTime();
+        List<KnowledgeVectorModel> results = service.search(EMBEDDING, List.of(1L, 2L, 3L, 4L), 10);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(List.of("a", "d"), ids(results));
+        assertTrue(elapsedMs < 2000, "超时的知识库未被跳过，耗时: " + elapsedMs + "ms");
+    }
+
+    @Test
+    void duplicateKnowledgeBaseIdsAreSearchedOnce() {
+        stubKnowledgeBase(1L, Map.of("a", 0.9));
+        stubKnowledgeBase(2L, Map.of("b", 0.8));
+
+        List<KnowledgeVectorModel> results = service.search(EMBEDDING, List.of(1L, 2L, 1L, 2L), 10);
+
+        assertEquals(List.of("a", "b"), ids(results));
+        verify(repository, times(1)).similaritySearch(eq(1L), any(float[].class), anyInt());
+        verify(repository, times(1)).similaritySearch(eq(2L), any(float[].class), anyInt());
+
+        properties.setStrategy(KnowledgeRetrievalProperties.Strategy.SINGLE_QUERY);
+        service.search(EMBEDDING, List.of(2L, 1L, 2L), 10);
+        verify(repository).similaritySearch(eq(List.of(2L, 1L)), any(float[].class), eq(10));
+    }
+
+    @Test
+    void singleKnowledgeBaseUsesSingleQueryEvenWhenFanOutConfigured() {
+        when(repository.similaritySearch(eq(List.of(5L)), any(float[].class), eq(3)))
+                .thenReturn(List.of(vector("x", 0.6)));
+
+        List<KnowledgeVectorModel> results = service.search(EMBEDDING, List.of(5L, 5L), 3);
+
+        assertEquals(List.of("x"), ids(results));
+        verify(repository, never()).similaritySearch(anyLong(), any(float[].class), anyInt());
+        assertEquals(1, timerCount("SINGLE_QUERY"));
+        assertEquals(0, timerCount("FAN_OUT"));
+    }
+
+    private void stubKnowledgeBase(Long knowledgeBaseId, Map<String, Double> similarityById) {
+        List<KnowledgeVectorModel> docs = similarityById.entrySet().stream()
+                .map(entry -> vector(entry.getKey(), entry.getValue()))
+                .toList();
+        when(repository.similaritySearch(eq(knowledgeBaseId), any(float[].class), anyInt())).thenReturn(docs);
+    }
+
+    private long timerCount(String strategy) {
+        Timer timer = meterRegistry.find("coding.knowledge.retrieval").tag("strategy", strategy).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private static KnowledgeVectorModel vector(String id, double similarity) {
+        return KnowledgeVectorModel.builder().id(id).similarity(similarity).build();
+    }
+
+    private static List<String> ids(List<KnowledgeVectorModel> results) {
+        return results.stream().map(KnowledgeVectorModel::getId).toList();
+    }
+}
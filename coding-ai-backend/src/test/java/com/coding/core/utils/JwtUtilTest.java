@@ -0,0 +1,95 @@
+package com.coding.core.utils;
+
+import com.google.common.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 已校验 Token 缓存：命中缓存时仍按 Token 自身过期时间和类型判断，签名无效的 Token 不写入缓存
+ */
+class JwtUtilTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", 7_200_000L);
+        // Refresh Token 很快过期，而缓存条目的存活时间按 Access Token 有效期计算，过期后仍留在缓存中
+        ReflectionTestUtils.setField(jwtUtil, "refreshTokenExpiration", 1_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedTokenCacheSize", 100L);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+    }
+
+    @Test
+    void validTokenIsCachedAndServedFromCache() {
+        String token = jwtUtil.generateAccessToken(1L, "a@example.com");
+
+        JwtUtil.TokenPrincipal first = jwtUtil.verifyAccessToken(token);
+        JwtUtil.TokenPrincipal second = jwtUtil.verifyAccessToken(token);
+
+        assertNotNull(first);
+        assertEquals(1L, first.userId());
+        assertEquals("a@example.com", first.email());
+        assertSame(first, second);
+        assertSame(first, cache().getIfPresent(token));
+    }
+
+    @Test
+    void expiredTokenServedFromCacheIsRejected() throws InterruptedException {
+        String token = jwtUtil.generateRefreshToken(1L, "a@example.com");
+        JwtUtil.TokenPrincipal principal = jwtUtil.verifyRefreshToken(token);
+        assertNotNull(principal);
+        assertSame(principal, cache().getIfPresent(token));
+
+        long waitMillis = principal.expiresAtMillis() - System.currentTimeMillis() + 50;
+        if (waitMillis > 0) {
+            Thread.sleep(waitMillis);
+        }
+
+        assertNull(jwtUtil.verifyRefreshToken(token));
+        assertNull(cache().getIfPresent(token), "过期的缓存条目应被移除");
+    }
+
+    @Test
+    void refreshTokenIsRejectedAsAccessTokenEvenWhenCached() {
+        String token = jwtUtil.generateRefreshToken(1L, "a@example.com");
+        assertNotNull(jwtUtil.verifyRefreshToken(token));
+        assertNotNull(cache().getIfPresent(token));
+
+        assertNull(jwtUtil.verifyAccessToken(token));
+        assertNotNull(jwtUtil.verifyRefreshToken(token));
+    }
+
+    @Test
+    void tamperedSignatureIsRejectedAndNotCached() {
+        String token = jwtUtil.generateAccessToken(1L, "a@example.com");
+        // 改动签名中间的字符，末尾字符的低位可能不参与解码
+        int index = token.length() - 5;
+        char replacement = token.charAt(index) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, index) + replacement + token.substring(index + 1);
+
+        assertNull(jwtUtil.verify(tampered));
+        assertNull(jwtUtil.verifyAccessToken(tampered));
+        assertNull(cache().getIfPresent(tampered));
+        assertEquals(0, cache().size());
+        assertTrue(jwtUtil.validateAccessToken(token));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, JwtUtil.TokenPrincipal> cache() {
+        return (Cache<String, JwtUtil.TokenPrincipal>) ReflectionTestUtils.getField(jwtUtil, "verifiedTokenCache");
+    }
+}
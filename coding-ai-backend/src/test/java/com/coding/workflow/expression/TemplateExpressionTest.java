@@ -0,0 +1,81 @@
+package com.coding.workflow.expression;
+
+import com.google.common.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 模版表达式：字面量与变量交替渲染、缺失变量替换为空、Map/List 序列化为 JSON，以及模版缓存的命中与总字符数上限
+ */
+class TemplateExpressionTest {
+
+    private static final Map<String, Object> PAYLOAD = Map.of(
+            "user", Map.of("name", "alice", "tags", List.of("a", "b")),
+            "count", 3);
+
+    @Test
+    void literalTextAroundVariablesIsPreserved() {
+        assertEquals("Hi alice, you have 3 items.",
+                TemplateExpression.of("Hi ${user.name}, you have ${count} items.").render(PAYLOAD));
+        assertEquals("alice3", TemplateExpression.of("${user.name}${count}").render(PAYLOAD));
+        assertEquals("no variables", TemplateExpression.of("no variables").render(PAYLOAD));
+    }
+
+    @Test
+    void missingAndEmptyVariablesRenderAsEmpty() {
+        assertEquals("[]", TemplateExpression.of("[${user.age}]").render(PAYLOAD));
+        assertEquals("[]", TemplateExpression.of("[${}]").render(PAYLOAD));
+        // 未闭合的 ${ 按字面量保留
+        assertEquals("alice ${count", TemplateExpression.of("${user.name} ${count").render(PAYLOAD));
+    }
+
+    @Test
+    void mapAndListValuesAreRenderedAsJson() {
+        assertEquals("tags=[\"a\",\"b\"]", TemplateExpression.of("tags=${user.tags}").render(PAYLOAD));
+        String rendered = TemplateExpression.of("${user}").render(Map.of("user", Map.of("name", "alice")));
+        assertEquals("{\"name\":\"alice\"}", rendered);
+    }
+
+    @Test
+    void cacheHitReturnsSameCompiledTemplateWithEquivalentResult() {
+        String template = "cached ${user.name} ${count}";
+        TemplateExpression first = TemplateExpression.of(template);
+        TemplateExpression second = TemplateExpression.of(template);
+
+        assertSame(first, second);
+        assertEquals(first.render(PAYLOAD), second.render(PAYLOAD));
+        assertEquals("cached bob 1", second.render(Map.of("user", Map.of("name", "bob"), "count", 1)));
+    }
+
+    @Test
+    void cachedTemplatesStayWithinWeightBound() {
+        long maxWeight = (long) ReflectionTestUtils.getField(TemplateExpression.class, "MAX_CACHE_WEIGHT");
+        // 每个模版 1/8 上限，共写入上限的两倍
+        String body = "x".repeat((int) (maxWeight / 8));
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i + body, TemplateExpression.of("${i}" + body).render(Map.of("i", i)));
+        }
+
+        assertTrue(cachedWeight() <= maxWeight, "模版缓存总字符数超出上限: " + cachedWeight());
+        // 超出缓存上限的单个模版不会常驻缓存，但仍可正常渲染
+        String oversized = "y".repeat((int) maxWeight) + "${count}";
+        assertNotSame(TemplateExpression.of(oversized), TemplateExpression.of(oversized));
+        assertTrue(TemplateExpression.of(oversized).render(PAYLOAD).endsWith("y3"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long cachedWeight() {
+        Cache<String, TemplateExpression> cache =
+                (Cache<String, TemplateExpression>) ReflectionTestUtils.getField(TemplateExpression.class, "CACHE");
+        cache.cleanUp();
+        return cache.asMap().keySet().stream().mapToLong(String::length).sum();
+    }
+}
@@ -0,0 +1,52 @@
+package com.coding.workflow.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 变量表达式：嵌套路径与数组下标求值、缺失变量返回 null、字面量原样返回，以及按表达式缓存语法树
+ */
+class VariableExpressionTest {
+
+    private static final Map<String, Object> PAYLOAD = Map.of(
+            "user", Map.of("name", "alice", "profile", Map.of("city", "hangzhou")),
+            "items", List.of(Map.of("price", 10), Map.of("price", 20)));
+
+    @Test
+    void nestedPathAndArrayIndexAreEvaluated() {
+        assertEquals("alice", VariableExpression.of("user.name").evaluate(PAYLOAD));
+        assertEquals("hangzhou", VariableExpression.of("${user.profile.city}").evaluate(PAYLOAD));
+        assertEquals(20, VariableExpression.of("items[1].price").evaluate(PAYLOAD));
+    }
+
+    @Test
+    void missingVariableEvaluatesToNull() {
+        assertNull(VariableExpression.of("user.age").evaluate(PAYLOAD));
+        assertNull(VariableExpression.of("order.id").evaluate(PAYLOAD));
+        assertNull(VariableExpression.of("user.name").evaluate(null));
+    }
+
+    @Test
+    void invalidPathIsReturnedAsLiteral() {
+        assertEquals("hello world", VariableExpression.of("hello world").evaluate(PAYLOAD));
+        assertNull(VariableExpression.of(" "));
+    }
+
+    @Test
+    void cacheHitReturnsSameCompiledExpressionWithEquivalentResult() {
+        VariableExpression first = VariableExpression.of("user.profile.city");
+        VariableExpression second = VariableExpression.of("user.profile.city");
+
+        assertSame(first, second);
+        assertEquals(first.evaluate(PAYLOAD), second.evaluate(PAYLOAD));
+        // 同一语法树对不同荷载求值互不影响
+        assertEquals("shanghai", second.evaluate(Map.of("user", Map.of("profile", Map.of("city", "shanghai")))));
+        assertEquals("hangzhou", first.evaluate(PAYLOAD));
+    }
+}
@@ -0,0 +1,108 @@
+package com.coding.workflow.manager;
+
+import com.coding.core.config.McpSessionPoolProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * MCP 会话池测试，使用本地替身服务器
+ */
+class McpClientSessionPoolTest {
+
+    private static final String SERVER_CODE = "stand-in";
+
+    private McpStandInServer standInServer;
+
+    private MeterRegistry meterRegistry;
+
+    private McpClientSessionPool sessionPool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        standInServer = McpStandInServer.start();
+        meterRegistry = new SimpleMeterRegistry();
+        sessionPool = new McpClientSessionPool(new McpSessionPoolProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        sessionPool.shutdown();
+        standInServer.close();
+    }
+
+    @Test
+    void sequentialCallsReuseOneSession() {
+        for (int i = 0; i < 20; i++) {
+            McpSchema.CallToolResult result = call("a", "hello-" + i);
+            assertFalse(Boolean.TRUE.equals(result.isError()));
+            assertEquals("hello-" + i, ((McpSchema.TextContent) result.content().get(0)).text());
+        }
+
+        assertEquals(20, standInServer.toolCalls());
+        assertEquals(1, standInServer.sseConnections());
+        assertEquals(1.0, openSessions());
+    }
+
+    @Test
+    void fingerprintChangeClosesIdleSessionsOfReplacedPool() {
+        call("a", "before");
+        assertEquals(1.0, openSessions());
+
+        call("b", "after");
+
+        assertEquals(2, standInServer.sseConnections());
+        assertEquals(1.0, openSessions());
+        assertEquals(1.0, meterRegistry.get("coding.mcp.session.idle").gauge().value());
+    }
+
+    @Test
+    void transportFailureOnReusedSessionIsNotRetriedForNonRetryableAction() {
+        call("a", "warm-up");
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> sessionPool.execute(SERVER_CODE, "a", standInServer::newClient,
+                client -> {
+                    attempts.incrementAndGet();
+                    throw new IllegalStateException("request timed out");
+                }, false));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, meterRegistry.get("coding.mcp.session.reconnect").counter().count());
+    }
+
+    @Test
+    void transportFailureOnReusedSessionIsRetriedOnceForRetryableAction() {
+        call("a", "warm-up");
+        AtomicInteger attempts = new AtomicInteger();
+
+        McpSchema.ListToolsResult result = sessionPool.execute(SERVER_CODE, "a", standInServer::newClient, client -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("connection reset");
+            }
+            return client.listTools();
+        }, true);
+
+        assertEquals(2, attempts.get());
+        assertFalse(result.tools().isEmpty());
+        assertEquals(1.0, meterRegistry.get("coding.mcp.session.reconnect").counter().count());
+    }
+
+    private McpSchema.CallToolResult call(String fingerprint, String text) {
+        return sessionPool.execute(SERVER_CODE, fingerprint, standInServer::newClient,
+                client -> client.callTool(McpStandInServer.echoRequest(text)), false);
+    }
+
+    private double openSessions() {
+        return meterRegistry.get("coding.mcp.session.open").gauge().value();
+    }
+}
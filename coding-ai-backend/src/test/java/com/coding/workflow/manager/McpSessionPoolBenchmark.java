@@ -0,0 +1,80 @@
+package com.coding.workflow.manager;
+
+import com.coding.core.config.McpSessionPoolProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.modelcontextprotocol.client.McpSyncClient;
+
+import java.util.Arrays;
+
+/**
+ * MCP 工具调用单次延迟对比：每次调用新建客户端并握手（池化前）与从会话池借出已初始化客户端（池化后），
+ * 使用本地替身服务器，输出 p50 / p99 / 平均延迟和建立的 SSE 会话数
+ */
+public class McpSessionPoolBenchmark {
+
+    private static final int WARMUP_CALLS = 50;
+
+    private static final int MEASURE_CALLS = 300;
+
+    public static void main(String[] args) throws Exception {
+        try (McpStandInServer standInServer = McpStandInServer.start()) {
+            for (int i = 0; i < WARMUP_CALLS; i++) {
+                callWithNewClient(standInServer);
+            }
+            int connectionsBefore = standInServer.sseConnections();
+            long[] unpooled = new long[MEASURE_CALLS];
+            for (int i = 0; i < MEASURE_CALLS; i++) {
+                long start = System.nanoTime();
+                callWithNewClient(standInServer);
+                unpooled[i] = System.nanoTime() - start;
+            }
+            int unpooledConnections = standInServer.sseConnections() - connectionsBefore;
+
+            McpClientSessionPool sessionPool = new McpClientSessionPool(new McpSessionPoolProperties(),
+                    new SimpleMeterRegistry());
+            try {
+                for (int i = 0; i < WARMUP_CALLS; i++) {
+                    callWithPool(sessionPool, standInServer);
+                }
+                connectionsBefore = standInServer.sseConnections();
+                long[] pooled = new long[MEASURE_CALLS];
+                for (int i = 0; i < MEASURE_CALLS; i++) {
+                    long start = System.nanoTime();
+                    callWithPool(sessionPool, standInServer);
+                    pooled[i] = System.nanoTime() - start;
+                }
+                int pooledConnections = standInServer.sseConnections() - connectionsBefore;
+
+                print("new client per call", unpooled, unpooledConnections);
+                print("pooled session     ", pooled, pooledConnections);
+            } finally {
+                sessionPool.shutdown();
+            }
+        }
+    }
+
+    private static void callWithNewClient(McpStandInServer standInServer) {
+        McpSyncClient client = standInServer.newClient();
+        try {
+            client.initialize();
+            client.callTool(McpStandInServer.echoRequest("ping"));
+        } finally {
+            client.close();
+        }
+    }
+
+    private static void callWithPool(McpClientSessionPool sessionPool, McpStandInServer standInServer) {
+        sessionPool.execute("stand-in", "benchmark", standInServer::newClient,
+                client -> client.callTool(McpStandInServer.echoRequest("ping")), false);
+    }
+
+    private static void print(String label, long[] latencies, int connections) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%s  p50=%8.2f ms  p99=%8.2f ms  avg=%8.2f ms  sse sessions=%d%n", label,
+                sorted[sorted.length / 2] / 1e6,
+                sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1e6,
+                Arrays.stream(sorted).average().orElse(0) / 1e6,
+                connections);
+    }
+}
@@ -0,0 +1,138 @@
+package com.coding.workflow.manager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.server.transport.HttpServletSseServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.catalina.Context;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地 MCP 替身服务器：内嵌 Tomcat + HTTP SSE 传输，提供一个 echo 工具，
+ * 统计建立的 SSE 会话数和工具调用次数，用于会话池测试与延迟对比
+ */
+final class McpStandInServer implements AutoCloseable {
+
+    static final String SSE_ENDPOINT = "/sse";
+
+    static final String TOOL_NAME = "echo";
+
+    private final Tomcat tomcat;
+
+    private final McpSyncServer server;
+
+    private final AtomicInteger sseConnections = new AtomicInteger();
+
+    private final AtomicInteger toolCalls = new AtomicInteger();
+
+    private McpStandInServer() throws Exception {
+        HttpServletSseServerTransportProvider transportProvider = HttpServletSseServerTransportProvider.builder()
+                .objectMapper(new ObjectMapper())
+                .messageEndpoint("/mcp/message")
+                .sseEndpoint(SSE_ENDPOINT)
+                .build();
+        McpServerFeatures.SyncToolSpecification echo = McpServerFeatures.SyncToolSpecification.builder()
+                .tool(McpSchema.Tool.builder()
+                        .name(TOOL_NAME)
+                        .description("返回输入的文本")
+                        .inputSchema("{\"type\":\"object\",\"properties\":{\"text\":{\"type\":\"string\"}}}")
+                        .build())
+                .callHandler((exchange, request) -> {
+                    toolCalls.incrementAndGet();
+                    Object text = request.arguments() == null ? null : request.arguments().get("text");
+                    return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(String.valueOf(text))), false);
+                })
+                .build();
+        this.server = McpServer.sync(transportProvider)
+                .serverInfo("mcp-stand-in", "1.0.0")
+                .capabilities(McpSchema.ServerCapabilities.builder().tools(true).build())
+                .tools(echo)
+                .build();
+
+        this.tomcat = new Tomcat();
+        tomcat.setPort(0);
+        tomcat.setBaseDir(Files.createTempDirectory("mcp-stand-in").toString());
+        Context context = tomcat.addContext("", null);
+        Wrapper wrapper = Tomcat.addServlet(context, "mcp", transportProvider);
+        wrapper.setAsyncSupported(true);
+        context.addServletMappingDecoded("/*", "mcp");
+
+        // 每个 GET /sse 对应客户端新建的一个会话
+        Filter counter = (request, response, chain) -> {
+            HttpServletRequest httpRequest = (HttpServletRequest) request;
+            if ("GET".equals(httpRequest.getMethod()) && SSE_ENDPOINT.equals(httpRequest.getRequestURI())) {
+                sseConnections.incrementAndGet();
+            }
+            chain.doFilter(request, response);
+        };
+        FilterDef filterDef = new FilterDef();
+        filterDef.setFilterName("sseCounter");
+        filterDef.setFilter(counter);
+        filterDef.setAsyncSupported("true");
+        context.addFilterDef(filterDef);
+        FilterMap filterMap = new FilterMap();
+        filterMap.setFilterName("sseCounter");
+        filterMap.addURLPattern("/*");
+        context.addFilterMap(filterMap);
+
+        tomcat.getConnector();
+        tomcat.start();
+    }
+
+    static McpStandInServer start() throws Exception {
+        return new McpStandInServer();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + tomcat.getConnector().getLocalPort();
+    }
+
+    int sseConnections() {
+        return sseConnections.get();
+    }
+
+    int toolCalls() {
+        return toolCalls.get();
+    }
+
+    /**
+     * 创建未初始化的客户端，传输配置与 McpServerManager 一致
+     */
+    McpSyncClient newClient() {
+        HttpClientSseClientTransport transport = HttpClientSseClientTransport.builder(baseUrl())
+                .sseEndpoint(SSE_ENDPOINT)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        return McpClient.sync(transport)
+                .requestTimeout(Duration.ofSeconds(10))
+                .initializationTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    static McpSchema.CallToolRequest echoRequest(String text) {
+        return new McpSchema.CallToolRequest(TOOL_NAME, Map.of("text", text));
+    }
+
+    @Override
+    public void close() throws Exception {
+        server.closeGracefully();
+        tomcat.stop();
+        tomcat.destroy();
+    }
+}
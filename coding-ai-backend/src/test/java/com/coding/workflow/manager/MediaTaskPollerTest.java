@@ -0,0 +1,146 @@
+package com.coding.workflow.manager;
+
+import com.coding.core.config.MediaTaskProperties;
+import com.coding.workflow.exception.MediaTaskTerminalException;
+import com.coding.workflow.model.request.VideoGenerationRequest;
+import com.coding.workflow.model.response.MediaTaskHandle;
+import com.coding.workflow.model.response.VideoGenerationResponse;
+import com.coding.workflow.service.ai.impl.LocalMediaGenerationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 多媒体任务轮询：基于本地模拟供应商验证提交后轮询到完成、轮询间隔按倍数退避到上限、
+ * 暂时失败继续重试、终止性失败立即结束，以及超过最长等待时间后超时
+ */
+class MediaTaskPollerTest {
+
+    private static final long INITIAL_POLL_INTERVAL_MS = 20;
+
+    private static final long MAX_POLL_INTERVAL_MS = 80;
+
+    private final MediaTaskProperties properties = new MediaTaskProperties();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MediaTaskPoller poller;
+
+    private LocalMediaGenerationService localService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setInitialPollIntervalMs(INITIAL_POLL_INTERVAL_MS);
+        properties.setMaxPollIntervalMs(MAX_POLL_INTERVAL_MS);
+        properties.setBackoffMultiplier(2);
+        properties.setTaskTimeoutMs(5000);
+        properties.setCallPoolSize(2);
+        properties.getLocal().setLatencyMs(300);
+        poller = new MediaTaskPoller(properties, meterRegistry);
+        localService = new LocalMediaGenerationService(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        poller.shutdown();
+    }
+
+    @Test
+    void submittedTaskIsPolledUntilReady() throws Exception {
+        VideoGenerationManager manager = new VideoGenerationManager(List.of(localService), poller);
+        VideoGenerationRequest request = new VideoGenerationRequest();
+        request.setProvider("Local");
+        request.setModel("local-video");
+        request.setPrompt("日落");
+
+        VideoGenerationResponse response = manager.generateVideoAsync(request).get(5, TimeUnit.SECONDS);
+
+        assertTrue(response.isSuccess());
+        assertTrue(response.getVideoUrl().startsWith("local://media/"));
+        assertTrue(pollCount() >= 2, "任务完成前应至少轮询一次未完成状态");
+        assertEquals(0, meterRegistry.get("coding.workflow.media.task.inflight").gauge().value());
+    }
+
+    @Test
+    void pollIntervalBacksOffUpToMaximum() throws Exception {
+        MediaTaskHandle handle = localService.submitVideo(new VideoGenerationRequest());
+        List<Long> pollTimes = new CopyOnWriteArrayList<>();
+
+        poller.await(handle, polled -> {
+            pollTimes.add(System.nanoTime());
+            return localService.pollVideo(polled);
+        }).get(5, TimeUnit.SECONDS);
+
+        // 固定 20ms 间隔需要约 15 次查询，退避到 80ms 上限后只需 5 次左右
+        assertTrue(pollTimes.size() >= 3 && pollTimes.size() <= 8, "轮询次数: " + pollTimes.size());
+        long expectedDelayMs = INITIAL_POLL_INTERVAL_MS;
+        for (int i = 1; i < pollTimes.size(); i++) {
+            expectedDelayMs = Math.min(expectedDelayMs * 2, MAX_POLL_INTERVAL_MS);
+            long gapMs = TimeUnit.NANOSECONDS.toMillis(pollTimes.get(i) - pollTimes.get(i - 1));
+            assertTrue(gapMs >= expectedDelayMs - 1, "第 " + i + " 次轮询间隔 " + gapMs + "ms，应不小于 " + expectedDelayMs + "ms");
+        }
+    }
+
+    @Test
+    void transientPollFailureIsRetried() throws Exception {
+        MediaTaskHandle handle = localService.submitVideo(new VideoGenerationRequest());
+        AtomicInteger failures = new AtomicInteger();
+
+        VideoGenerationResponse response = poller.await(handle, polled -> {
+            if (failures.getAndIncrement() == 0) {
+                throw new IllegalStateException("网络抖动");
+            }
+            return localService.pollVideo(polled);
+        }).get(5, TimeUnit.SECONDS);
+
+        assertTrue(response.isSuccess());
+        assertTrue(pollCount() >= 2);
+    }
+
+    @Test
+    void terminalPollFailureCompletesImmediately() {
+        MediaTaskHandle unknown = MediaTaskHandle.builder().provider("Local").taskId("missing").build();
+        properties.setTaskTimeoutMs(60_000);
+
+        long start = System.nanoTime();
+        CompletableFuture<VideoGenerationResponse> future = poller.await(unknown, localService::pollVideo);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertInstanceOf(MediaTaskTerminalException.class, e.getCause());
+        assertEquals(1, pollCount());
+        assertTrue(elapsedMs < 1000, "终止性失败不应重试，耗时: " + elapsedMs + "ms");
+    }
+
+    @Test
+    void taskExceedingDeadlineTimesOut() {
+        properties.setTaskTimeoutMs(150);
+        properties.getLocal().setLatencyMs(10_000);
+        MediaTaskHandle handle = localService.submitVideo(new VideoGenerationRequest());
+
+        CompletableFuture<VideoGenerationResponse> future = poller.await(handle, localService::pollVideo);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertEquals(1, meterRegistry.get("coding.workflow.media.task.timeout").counter().count());
+    }
+
+    private double pollCount() {
+        return meterRegistry.get("coding.workflow.media.task.poll").counter().count();
+    }
+}
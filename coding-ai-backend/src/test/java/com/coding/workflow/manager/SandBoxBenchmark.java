@@ -0,0 +1,100 @@
+package com.coding.workflow.manager;
+
+import com.coding.core.common.Result;
+import com.coding.core.config.SandBoxProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.Value;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 脚本节点单次执行延迟对比：每次执行新建独立 Engine 与 Context（改造前），
+ * 与 SandBoxManager 共享 Engine、缓存 Source、每次执行使用一个全新 Context（改造后）；
+ * 改造后分连续执行（备用上下文来不及补充）与间隔执行（命中后台预建的备用上下文）两种情况，
+ * 分别覆盖 JavaScript 与 Python，输出 p50 / p99 / 平均延迟
+ */
+public class SandBoxBenchmark {
+
+    private static final int WARMUP_RUNS = 20;
+
+    private static final int MEASURE_RUNS = 200;
+
+    private static final int SPACED_RUNS = 30;
+
+    private static final long SPACED_GAP_MS = 500;
+
+    private static final String JS_SCRIPT = """
+            function main(params) {
+                let total = 0;
+                for (let i = 0; i < params.n; i++) { total += i; }
+                return {total: total};
+            }
+            """;
+
+    private static final String PYTHON_SCRIPT = """
+            def main(params):
+                return {'total': sum(range(params['n']))}
+            """;
+
+    private static final Map<String, Object> PARAMS = Map.of("n", 1000);
+
+    public static void main(String[] args) {
+        SandBoxProperties properties = new SandBoxProperties();
+        properties.setPrewarmOnStartup(false);
+        SandBoxManager sandBoxManager = new SandBoxManager(properties, new SimpleMeterRegistry());
+        try {
+            Runnable js = () -> check(sandBoxManager.executeJavaScriptMain(JS_SCRIPT, PARAMS, "bench"));
+            Runnable python = () -> check(sandBoxManager.executePythonMain(PYTHON_SCRIPT, PARAMS, "bench"));
+            bench("js     new engine + context   ", () -> runWithNewContext("js", JS_SCRIPT), MEASURE_RUNS, 0);
+            bench("js     shared engine, back2back", js, MEASURE_RUNS, 0);
+            bench("js     shared engine, spaced   ", js, SPACED_RUNS, SPACED_GAP_MS);
+            bench("python new engine + context   ", () -> runWithNewContext("python", PYTHON_SCRIPT), MEASURE_RUNS, 0);
+            bench("python shared engine, back2back", python, MEASURE_RUNS, 0);
+            bench("python shared engine, spaced   ", python, SPACED_RUNS, SPACED_GAP_MS);
+        } finally {
+            sandBoxManager.shutdown();
+        }
+    }
+
+    private static void runWithNewContext(String scriptType, String script) {
+        try (Context context = Context.newBuilder(scriptType)
+                .option("engine.WarnInterpreterOnly", "false")
+                .allowHostAccess(HostAccess.newBuilder(HostAccess.NONE).allowMapAccess(true).build())
+                .build()) {
+            context.eval(scriptType, script);
+            Value main = context.getBindings(scriptType).getMember("main");
+            main.execute(PARAMS);
+        }
+    }
+
+    private static void check(Result<String> result) {
+        if (!result.isSuccess()) {
+            throw new IllegalStateException(result.getMessage());
+        }
+    }
+
+    private static void bench(String label, Runnable run, int runs, long gapMillis) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run.run();
+        }
+        long[] latencies = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            if (gapMillis > 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(gapMillis));
+            }
+            long start = System.nanoTime();
+            run.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%s  p50=%8.2f ms  p99=%8.2f ms  avg=%8.2f ms%n", label,
+                latencies[latencies.length / 2] / 1e6,
+                latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1e6,
+                Arrays.stream(latencies).average().orElse(0) / 1e6);
+    }
+}
@@ -0,0 +1,172 @@
+package com.coding.workflow.manager;
+
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.coding.core.common.Result;
+import com.coding.core.config.SandBoxProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 脚本沙箱测试，脚本形式与 ScriptExecuteProcessor 一致：声明 main(params) 函数，由沙箱调用；
+ * 每次执行使用全新上下文，脚本对全局变量、内置对象与模块的修改不会被下一次执行看到
+ */
+class SandBoxManagerTest {
+
+    private static final String JS_SCRIPT = """
+            function main(params) {
+                return {y: params.x + 1};
+            }
+            """;
+
+    private static final String PYTHON_SCRIPT = """
+            def main(params):
+                return {'y': params['x'] + 1}
+            """;
+
+    private MeterRegistry meterRegistry;
+
+    private SandBoxManager sandBoxManager;
+
+    @BeforeEach
+    void setUp() {
+        SandBoxProperties properties = new SandBoxProperties();
+        properties.setPrewarmOnStartup(false);
+        properties.setSpareContexts(1);
+        meterRegistry = new SimpleMeterRegistry();
+        sandBoxManager = new SandBoxManager(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sandBoxManager.shutdown();
+    }
+
+    @Test
+    void javaScriptMainIsExecutedInFreshContexts() {
+        for (int x = 0; x < 5; x++) {
+            Result<String> result = sandBoxManager.executeJavaScriptMain(JS_SCRIPT, Map.of("x", x), "js-" + x);
+            assertEquals(x + 1, output(result).getInt("y"));
+        }
+        assertTrue(contextsCreated("js") >= 5);
+    }
+
+    @Test
+    void pythonMainIsExecutedInFreshContexts() {
+        for (int x = 0; x < 3; x++) {
+            Result<String> result = sandBoxManager.executePythonMain(PYTHON_SCRIPT, Map.of("x", x), "py-" + x);
+            assertEquals(x + 1, output(result).getInt("y"));
+        }
+        assertTrue(contextsCreated("python") >= 3);
+    }
+
+    @Test
+    void pythonStandardLibraryImportsWork() {
+        String script = """
+                import json
+                import math
+                def main(params):
+                    return {'y': json.dumps({'root': math.sqrt(params['x'])})}
+                """;
+
+        Result<String> result = sandBoxManager.executePythonMain(script, Map.of("x", 16), "py-import");
+
+        assertEquals("{\"root\": 4.0}", output(result).getStr("y"));
+    }
+
+    @Test
+    void globalsWrittenByScriptDoNotLeakIntoNextExecution() {
+        String writer = "function main(params) { leaked = 42; return {y: leaked}; }";
+        String reader = "function main(params) { return {y: typeof leaked}; }";
+        sandBoxManager.executeJavaScriptMain(writer, Map.of(), "writer");
+
+        Result<String> result = sandBoxManager.executeJavaScriptMain(reader, Map.of(), "reader");
+
+        assertEquals("undefined", output(result).getStr("y"));
+    }
+
+    @Test
+    void javaScriptBuiltInChangesDoNotLeakIntoNextExecution() {
+        String writer = """
+                function main(params) {
+                    Array.prototype.leaked = 'yes';
+                    Object.defineProperty(JSON, 'stringify', {value: () => 'hijacked'});
+                    return {y: [].leaked};
+                }
+                """;
+        String reader = "function main(params) { return {y: typeof [].leaked, z: JSON.stringify({a: 1})}; }";
+        assertEquals("yes", output(sandBoxManager.executeJavaScriptMain(writer, Map.of(), "writer")).getStr("y"));
+
+        JSONObject output = output(sandBoxManager.executeJavaScriptMain(reader, Map.of(), "reader"));
+
+        assertEquals("undefined", output.getStr("y"));
+        assertEquals("{\"a\":1}", output.getStr("z"));
+    }
+
+    @Test
+    void pythonModuleChangesDoNotLeakIntoNextExecution() {
+        String writer = """
+                import json
+                import builtins
+                def main(params):
+                    json.dumps = lambda value: 'hijacked'
+                    builtins.len = lambda value: -1
+                    return {'y': json.dumps({})}
+                """;
+        String reader = """
+                import json
+                def main(params):
+                    return {'y': json.dumps({'a': 1}), 'z': len([1, 2])}
+                """;
+        assertEquals("hijacked", output(sandBoxManager.executePythonMain(writer, Map.of(), "writer")).getStr("y"));
+
+        JSONObject output = output(sandBoxManager.executePythonMain(reader, Map.of(), "reader"));
+
+        assertEquals("{\"a\": 1}", output.getStr("y"));
+        assertEquals(2, output.getInt("z"));
+    }
+
+    @Test
+    void hostAccessIsDenied() {
+        String script = "function main(params) { return {y: Java.type('java.lang.System').getProperty('user.home')}; }";
+
+        Result<String> result = sandBoxManager.executeJavaScriptMain(script, Map.of(), "host");
+
+        assertFalse(result.isSuccess());
+    }
+
+    @Test
+    void infiniteLoopIsCancelled() {
+        SandBoxProperties properties = new SandBoxProperties();
+        properties.setPrewarmOnStartup(false);
+        properties.setExecutionTimeoutMs(500);
+        SandBoxManager manager = new SandBoxManager(properties, new SimpleMeterRegistry());
+        try {
+            Result<String> result = manager.executeJavaScriptMain("function main(params) { while (true) {} }", Map.of(), "loop");
+            assertFalse(result.isSuccess());
+
+            Result<String> next = manager.executeJavaScriptMain(JS_SCRIPT, Map.of("x", 1), "after-loop");
+            assertEquals(2, output(next).getInt("y"));
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    private static JSONObject output(Result<String> result) {
+        assertTrue(result.isSuccess(), result.getMessage());
+        return JSONUtil.parseObj(result.getData()).getJSONObject("data").getJSONObject("output");
+    }
+
+    private double contextsCreated(String scriptType) {
+        return meterRegistry.get("coding.workflow.sandbox.context.created").tag("scriptType", scriptType).counter().count();
+    }
+}
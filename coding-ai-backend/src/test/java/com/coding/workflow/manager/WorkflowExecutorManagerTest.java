@@ -0,0 +1,99 @@
+package com.coding.workflow.manager;
+
+import com.coding.core.config.WorkflowExecutorProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 节点执行器：节点类型限流不占用执行线程，满载时拒绝而不在调度线程上执行
+ */
+class WorkflowExecutorManagerTest {
+
+    private WorkflowExecutorManager executorManager;
+
+    @BeforeEach
+    void setUp() {
+        WorkflowExecutorProperties properties = new WorkflowExecutorProperties();
+        properties.setNodePoolSize(1);
+        properties.setNodeQueueCapacity(1);
+        properties.setNodeTypeMaxConcurrency(Map.of("VideoGen", 1));
+        executorManager = new WorkflowExecutorManager(properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorManager.shutdown();
+    }
+
+    @Test
+    void nodeWaitingForTypePermitDoesNotHoldExecutorThread() throws Exception {
+        CompletableFuture<Void> firstVideo = new CompletableFuture<>();
+        CountDownLatch secondVideoStarted = new CountDownLatch(1);
+        executorManager.submitNode("VideoGen", () -> firstVideo);
+        CompletableFuture<Void> secondVideo = executorManager.submitNode("VideoGen", () -> {
+            secondVideoStarted.countDown();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // 唯一的执行线程没有被等待名额的视频节点占住
+        CompletableFuture<Void> script = executorManager.submitNode("Script",
+                () -> CompletableFuture.completedFuture(null));
+        script.get(5, TimeUnit.SECONDS);
+        assertFalse(secondVideoStarted.await(100, TimeUnit.MILLISECONDS));
+
+        firstVideo.complete(null);
+        secondVideo.get(5, TimeUnit.SECONDS);
+        assertTrue(secondVideoStarted.await(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void saturatedNodeExecutorRejectsInsteadOfRunningOnCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        executorManager.submitNode("Script", () -> {
+            running.countDown();
+            awaitQuietly(release);
+            return CompletableFuture.completedFuture(null);
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued = executorManager.submitNode("Script",
+                () -> CompletableFuture.completedFuture(null));
+
+        AtomicReference<Thread> rejectedRunner = new AtomicReference<>();
+        CompletableFuture<Void> rejected = executorManager.submitNode("Script", () -> {
+            rejectedRunner.set(Thread.currentThread());
+            return CompletableFuture.completedFuture(null);
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertNull(rejectedRunner.get());
+
+        release.countDown();
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
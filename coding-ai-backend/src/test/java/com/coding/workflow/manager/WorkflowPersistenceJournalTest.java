@@ -0,0 +1,104 @@
+package com.coding.workflow.manager;
+
+import com.coding.core.config.WorkflowJournalProperties;
+import com.coding.core.model.model.WorkflowNodeInstanceModel;
+import com.coding.core.repository.WorkflowInstanceRepository;
+import com.coding.core.repository.WorkflowNodeInstanceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 工作流执行记录异步写入：提前结束后仍在执行的节点、写库失败重试
+ */
+class WorkflowPersistenceJournalTest {
+
+    private static final Long WORKFLOW_INSTANCE_ID = 1L;
+
+    private final List<WorkflowNodeInstanceModel> inserted = new ArrayList<>();
+
+    private final List<WorkflowNodeInstanceModel> updated = new ArrayList<>();
+
+    private WorkflowNodeInstanceRepository nodeInstanceRepository;
+
+    private WorkflowPersistenceJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        nodeInstanceRepository = mock(WorkflowNodeInstanceRepository.class);
+        doAnswer(invocation -> {
+            inserted.addAll(invocation.getArgument(0));
+            return 0;
+        }).when(nodeInstanceRepository).addBatch(anyList());
+        doAnswer(invocation -> {
+            updated.addAll(invocation.getArgument(0));
+            return 0;
+        }).when(nodeInstanceRepository).updateBatchById(anyList());
+
+        WorkflowJournalProperties properties = new WorkflowJournalProperties();
+        // 关闭定时写入的干扰，只由 completeWorkflow 触发
+        properties.setFlushIntervalMs(60_000);
+        journal = new WorkflowPersistenceJournal(nodeInstanceRepository, mock(WorkflowInstanceRepository.class),
+                properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.shutdown();
+    }
+
+    @Test
+    void nodeSettlingAfterWorkflowCompletedIsWrittenAsUpdate() {
+        journal.recordNodeStart(node("a", "EXECUTING"));
+        journal.recordNodeStart(node("b", "EXECUTING"));
+        journal.recordNodeUpdate(node("a", "FAIL"));
+        // 节点 a 失败后工作流提前结束，节点 b 仍在执行
+        journal.completeWorkflow(WORKFLOW_INSTANCE_ID);
+
+        journal.recordNodeUpdate(node("b", "SUCCESS"));
+        journal.completeWorkflow(WORKFLOW_INSTANCE_ID);
+
+        assertEquals(2, inserted.size());
+        assertEquals(1, updated.size());
+        assertEquals("b", updated.get(0).getNodeId());
+        assertEquals(inserted.get(1).getId(), updated.get(0).getId());
+    }
+
+    @Test
+    void failedFlushIsRetriedWithLaterUpdatesMerged() {
+        doAnswer(invocation -> {
+            throw new IllegalStateException("db down");
+        }).doAnswer(invocation -> {
+            inserted.addAll(invocation.getArgument(0));
+            return 0;
+        }).when(nodeInstanceRepository).addBatch(anyList());
+
+        journal.recordNodeStart(node("a", "EXECUTING"));
+        assertThrows(IllegalStateException.class, () -> journal.completeWorkflow(WORKFLOW_INSTANCE_ID));
+
+        journal.recordNodeUpdate(node("a", "SUCCESS"));
+        journal.completeWorkflow(WORKFLOW_INSTANCE_ID);
+
+        assertEquals(1, inserted.size());
+        assertEquals("SUCCESS", inserted.get(0).getStatus());
+        assertEquals(0, updated.size());
+    }
+
+    private static WorkflowNodeInstanceModel node(String nodeId, String status) {
+        return WorkflowNodeInstanceModel.builder()
+                .workflowInstanceId(WORKFLOW_INSTANCE_ID)
+                .nodeId(nodeId)
+                .status(status)
+                .build();
+    }
+}
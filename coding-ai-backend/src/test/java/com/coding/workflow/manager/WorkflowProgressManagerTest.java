@@ -0,0 +1,236 @@
+package com.coding.workflow.manager;
+
+import com.coding.core.config.WorkflowProgressProperties;
+import com.coding.core.model.model.WorkflowInstanceModel;
+import com.coding.core.model.response.WorkflowRunningResult;
+import com.coding.core.model.vo.WorkflowNodeInstanceVO;
+import com.coding.core.repository.WorkflowInstanceRepository;
+import com.coding.core.repository.WorkflowNodeInstanceRepository;
+import com.coding.core.service.impl.WorkflowConfigServiceImpl;
+import com.coding.workflow.enums.NodeStatusEnum;
+import com.coding.workflow.enums.WorkflowStatusEnum;
+import com.coding.workflow.model.workflow.Node;
+import com.coding.workflow.model.workflow.NodeResult;
+import com.coding.workflow.model.workflow.WorkflowContext;
+import com.coding.workflow.model.workflow.WorkflowProgressEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 工作流执行进度：事件序号、保留窗口内外的断线续传、已结束实例的重连，以及运行结果的内存与库表查询
+ */
+class WorkflowProgressManagerTest {
+
+    private static final Long INSTANCE_ID = 100L;
+
+    private MeterRegistry meterRegistry;
+
+    private WorkflowProgressManager progressManager;
+
+    private WorkflowContext context;
+
+    @BeforeEach
+    void setUp() {
+        WorkflowProgressProperties properties = new WorkflowProgressProperties();
+        properties.setMaxEventsPerInstance(5);
+        meterRegistry = new SimpleMeterRegistry();
+        progressManager = new WorkflowProgressManager(properties, meterRegistry);
+
+        context = new WorkflowContext();
+        context.setInstanceId(INSTANCE_ID);
+        context.setConfigId(1L);
+        context.setAppId(2L);
+        context.setStartTime(LocalDateTime.now());
+        context.setTaskStatus(WorkflowStatusEnum.EXECUTING.getCode());
+    }
+
+    @AfterEach
+    void tearDown() {
+        progressManager.shutdown();
+    }
+
+    @Test
+    void eventsAreDeliveredInSeqOrderUntilFinish() throws Exception {
+        progressManager.start(context);
+        BlockingQueue<WorkflowProgressEvent> received = new LinkedBlockingQueue<>();
+        assertNotNull(progressManager.subscribe(INSTANCE_ID, 0, received::add));
+
+        recordNode("a", NodeStatusEnum.EXECUTING);
+        recordNode("a", NodeStatusEnum.SUCCESS);
+        recordNode("b", NodeStatusEnum.EXECUTING);
+        recordNode("b", NodeStatusEnum.SUCCESS);
+        finish();
+
+        List<WorkflowProgressEvent> events = takeUntilFinished(received);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), seqs(events));
+        assertTrue(events.get(events.size() - 1).isFinished());
+        waitUntil(() -> subscribers() == 0.0);
+    }
+
+    @Test
+    void resumeInsideRetainedWindowReplaysMissedEventsOnly() throws Exception {
+        progressManager.start(context);
+        recordNode("a", NodeStatusEnum.EXECUTING);
+        recordNode("a", NodeStatusEnum.SUCCESS);
+        recordNode("b", NodeStatusEnum.EXECUTING);
+
+        BlockingQueue<WorkflowProgressEvent> received = new LinkedBlockingQueue<>();
+        progressManager.subscribe(INSTANCE_ID, 2, received::add);
+        recordNode("b", NodeStatusEnum.SUCCESS);
+        finish();
+
+        assertEquals(List.of(3L, 4L, 5L, 6L), seqs(takeUntilFinished(received)));
+    }
+
+    @Test
+    void resumeOutsideRetainedWindowSendsLatestStatePerNode() throws Exception {
+        progressManager.start(context);
+        // 共 9 个事件，只保留最近 5 个（seq 5..9）
+        for (String nodeId : List.of("a", "b", "c", "d")) {
+            recordNode(nodeId, NodeStatusEnum.EXECUTING);
+            recordNode(nodeId, NodeStatusEnum.SUCCESS);
+        }
+
+        BlockingQueue<WorkflowProgressEvent> received = new LinkedBlockingQueue<>();
+        progressManager.subscribe(INSTANCE_ID, 1, received::add);
+        finish();
+
+        List<WorkflowProgressEvent> events = takeUntilFinished(received);
+        // 每个节点只补发最新状态，按 seq 排序，随后是结束事件
+        assertEquals(List.of(3L, 5L, 7L, 9L, 10L), seqs(events));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(NodeStatusEnum.SUCCESS.getCode(), events.get(i).getStatus());
+        }
+    }
+
+    @Test
+    void resubscribeAfterFinishWithNothingToReplayCompletesImmediately() throws Exception {
+        progressManager.start(context);
+        recordNode("a", NodeStatusEnum.SUCCESS);
+        finish();
+
+        // EventSource 收到结束事件、服务端关闭连接后，带 Last-Event-ID（结束事件序号）重连
+        BlockingQueue<WorkflowProgressEvent> received = new LinkedBlockingQueue<>();
+        assertNotNull(progressManager.subscribe(INSTANCE_ID, 3, received::add));
+
+        WorkflowProgressEvent event = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertTrue(event.isFinished());
+        assertEquals(3L, event.getSeq());
+        waitUntil(() -> subscribers() == 0.0);
+    }
+
+    @Test
+    void runningResultIsServedFromMemoryWithoutDatabase() {
+        WorkflowInstanceRepository instanceRepository = mock(WorkflowInstanceRepository.class);
+        WorkflowNodeInstanceRepository nodeInstanceRepository = mock(WorkflowNodeInstanceRepository.class);
+        WorkflowConfigServiceImpl service = newService(instanceRepository, nodeInstanceRepository);
+        progressManager.start(context);
+        recordNode("a", NodeStatusEnum.SUCCESS);
+        recordNode("b", NodeStatusEnum.EXECUTING);
+
+        WorkflowRunningResult result = service.getWorkflowRunningResult(String.valueOf(INSTANCE_ID));
+
+        assertEquals(WorkflowStatusEnum.EXECUTING.getCode(), result.getWorkflowInstanceVO().getStatus());
+        assertEquals(List.of("a", "b"), result.getWorkflowNodeInstanceVOList().stream()
+                .map(WorkflowNodeInstanceVO::getNodeId).toList());
+        verify(instanceRepository, never()).getById(anyString());
+        verify(nodeInstanceRepository, never()).getByWorkflowInstanceId(any());
+    }
+
+    @Test
+    void finishedOrUnknownInstanceFallsBackToDatabase() {
+        WorkflowInstanceRepository instanceRepository = mock(WorkflowInstanceRepository.class);
+        WorkflowNodeInstanceRepository nodeInstanceRepository = mock(WorkflowNodeInstanceRepository.class);
+        when(instanceRepository.getById(String.valueOf(INSTANCE_ID))).thenReturn(WorkflowInstanceModel.builder()
+                .id(INSTANCE_ID)
+                .status(WorkflowStatusEnum.SUCCESS.getCode())
+                .build());
+        when(nodeInstanceRepository.getByWorkflowInstanceId(INSTANCE_ID)).thenReturn(List.of());
+        WorkflowConfigServiceImpl service = newService(instanceRepository, nodeInstanceRepository);
+        progressManager.start(context);
+        finish();
+
+        WorkflowRunningResult result = service.getWorkflowRunningResult(String.valueOf(INSTANCE_ID));
+
+        assertNull(progressManager.getRunning(INSTANCE_ID));
+        assertEquals(WorkflowStatusEnum.SUCCESS.getCode(), result.getWorkflowInstanceVO().getStatus());
+        verify(instanceRepository).getById(String.valueOf(INSTANCE_ID));
+    }
+
+    private WorkflowConfigServiceImpl newService(WorkflowInstanceRepository instanceRepository,
+                                                 WorkflowNodeInstanceRepository nodeInstanceRepository) {
+        WorkflowConfigServiceImpl service = new WorkflowConfigServiceImpl();
+        ReflectionTestUtils.setField(service, "workflowProgressManager", progressManager);
+        ReflectionTestUtils.setField(service, "workflowInstanceRepository", instanceRepository);
+        ReflectionTestUtils.setField(service, "workflowNodeInstanceRepository", nodeInstanceRepository);
+        return service;
+    }
+
+    private void recordNode(String nodeId, NodeStatusEnum status) {
+        Node node = new Node();
+        node.setId(nodeId);
+        node.setName(nodeId);
+        node.setType("Script");
+        NodeResult nodeResult = new NodeResult();
+        nodeResult.setNodeId(nodeId);
+        nodeResult.setNodeStatus(status.getCode());
+        progressManager.recordNode(INSTANCE_ID, node, nodeResult);
+    }
+
+    private void finish() {
+        context.setTaskStatus(WorkflowStatusEnum.SUCCESS.getCode());
+        progressManager.finish(context);
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("coding.workflow.progress.subscribers").gauge().value();
+    }
+
+    private static List<WorkflowProgressEvent> takeUntilFinished(BlockingQueue<WorkflowProgressEvent> received)
+            throws InterruptedException {
+        List<WorkflowProgressEvent> events = new ArrayList<>();
+        WorkflowProgressEvent event;
+        do {
+            event = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "未收到结束事件");
+            events.add(event);
+        } while (!event.isFinished());
+        return events;
+    }
+
+    private static List<Long> seqs(List<WorkflowProgressEvent> events) {
+        return events.stream().map(WorkflowProgressEvent::getSeq).toList();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "等待超时");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.coding.workflow.model.factory;
+
+import com.coding.core.config.AiServiceConfigProperties;
+import com.coding.core.config.ModelClientProperties;
+import com.coding.core.service.AiProviderConfigService;
+import com.coding.workflow.exception.BizException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.ConnectException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 模型工厂：相同连接配置复用缓存的模型客户端，地址或密钥变化后按摘要重建；
+ * 同步调用拦截器按状态码记录耗时、错误次数与进行中的请求数
+ */
+class ModelFactoryTest {
+
+    private static final String PROVIDER = "openai";
+
+    private static final String SERVICE_TYPE = "chat";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AiServiceConfigProperties.ProviderConfig providerConfig = new AiServiceConfigProperties.ProviderConfig();
+
+    private AiProviderConfigService aiProviderConfigService;
+
+    private ModelFactory modelFactory;
+
+    @BeforeEach
+    void setUp() {
+        providerConfig.setProviderCode(PROVIDER);
+        providerConfig.setServiceType(SERVICE_TYPE);
+        providerConfig.setBaseUrl("http://127.0.0.1:1/v1");
+        providerConfig.setAuthorization("key-1");
+        providerConfig.setStatus(true);
+        aiProviderConfigService = mock(AiProviderConfigService.class);
+        when(aiProviderConfigService.getByProviderCodeAndServiceType(PROVIDER, SERVICE_TYPE)).thenReturn(providerConfig);
+        modelFactory = new ModelFactory(aiProviderConfigService, new ModelClientProperties(), meterRegistry);
+    }
+
+    @Test
+    void sameConfigReusesCachedClient() {
+        ChatModel chatModel = modelFactory.getChatModel(PROVIDER, SERVICE_TYPE);
+        ChatClient chatClient = modelFactory.getChatClient(PROVIDER, SERVICE_TYPE);
+
+        assertSame(chatModel, modelFactory.getChatModel(PROVIDER, SERVICE_TYPE));
+        assertSame(chatClient, modelFactory.getChatClient(PROVIDER, SERVICE_TYPE));
+    }
+
+    @Test
+    void changedAuthorizationOrBaseUrlRebuildsClient() {
+        ChatModel original = modelFactory.getChatModel(PROVIDER, SERVICE_TYPE);
+
+        providerConfig.setAuthorization("key-2");
+        ChatModel rotatedKey = modelFactory.getChatModel(PROVIDER, SERVICE_TYPE);
+        assertNotSame(original, rotatedKey);
+        assertSame(rotatedKey, modelFactory.getChatModel(PROVIDER, SERVICE_TYPE));
+
+        providerConfig.setBaseUrl("http://127.0.0.1:2/v1");
+        assertNotSame(rotatedKey, modelFactory.getChatModel(PROVIDER, SERVICE_TYPE));
+    }
+
+    @Test
+    void unknownProviderIsRejected() {
+        assertThrows(BizException.class, () -> modelFactory.getChatModel("unknown", SERVICE_TYPE));
+    }
+
+    @Test
+    void interceptorRecordsLatencyAndErrorsByStatus() throws IOException {
+        ClientHttpRequestInterceptor interceptor = ReflectionTestUtils.invokeMethod(modelFactory,
+                "metricsInterceptor", PROVIDER);
+
+        interceptor.intercept(mock(HttpRequest.class), new byte[0], execution(HttpStatus.OK));
+        interceptor.intercept(mock(HttpRequest.class), new byte[0], execution(HttpStatus.OK));
+        interceptor.intercept(mock(HttpRequest.class), new byte[0], execution(HttpStatus.TOO_MANY_REQUESTS));
+
+        assertEquals(2, requestTimer("200").count());
+        assertEquals(1, requestTimer("429").count());
+        assertNull(meterRegistry.find("coding.llm.request.error").tag("status", "200").counter());
+        assertEquals(1, errorCounter("429").count());
+        assertEquals(0, activeGauge().value());
+    }
+
+    @Test
+    void interceptorCountsActiveRequestsAndConnectionFailures() {
+        ClientHttpRequestInterceptor interceptor = ReflectionTestUtils.invokeMethod(modelFactory,
+                "metricsInterceptor", PROVIDER);
+        double[] activeDuringCall = new double[1];
+        ClientHttpRequestExecution failing = (request, body) -> {
+            activeDuringCall[0] = activeGauge().value();
+            throw new ConnectException("连接被拒绝");
+        };
+
+        assertThrows(ConnectException.class,
+                () -> interceptor.intercept(mock(HttpRequest.class), new byte[0], failing));
+
+        assertEquals(1, activeDuringCall[0]);
+        assertEquals(0, activeGauge().value());
+        assertEquals(1, requestTimer("IO_ERROR").count());
+        assertEquals(1, errorCounter("IO_ERROR").count());
+    }
+
+    private static ClientHttpRequestExecution execution(HttpStatus status) throws IOException {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(status);
+        ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+        when(execution.execute(any(), any())).thenReturn(response);
+        return execution;
+    }
+
+    private Timer requestTimer(String status) {
+        return meterRegistry.get("coding.llm.request")
+                .tag("provider", PROVIDER)
+                .tag("client", "rest")
+                .tag("status", status)
+                .timer();
+    }
+
+    private Counter errorCounter(String status) {
+        return meterRegistry.get("coding.llm.request.error").tag("provider", PROVIDER).tag("status", status).counter();
+    }
+
+    private Gauge activeGauge() {
+        return meterRegistry.get("coding.llm.request.active").tag("provider", PROVIDER).gauge();
+    }
+}
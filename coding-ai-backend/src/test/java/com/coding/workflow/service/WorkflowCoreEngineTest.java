@@ -0,0 +1,186 @@
+package com.coding.workflow.service;
+
+import com.coding.core.config.WorkflowExecutorProperties;
+import com.coding.workflow.enums.NodeStatusEnum;
+import com.coding.workflow.enums.NodeTypeEnum;
+import com.coding.workflow.enums.WorkflowStatusEnum;
+import com.coding.workflow.manager.WorkflowExecutorManager;
+import com.coding.workflow.manager.WorkflowPersistenceJournal;
+import com.coding.workflow.manager.WorkflowProgressManager;
+import com.coding.workflow.model.workflow.Edge;
+import com.coding.workflow.model.workflow.Node;
+import com.coding.workflow.model.workflow.NodeResult;
+import com.coding.workflow.model.workflow.WorkflowConfig;
+import com.coding.workflow.model.workflow.WorkflowContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jgrapht.graph.DirectedAcyclicGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 工作流调度：前驱未成功完成的节点显式标记跳过，多分支结果与前驱节点类型无关
+ */
+class WorkflowCoreEngineTest {
+
+    private final Set<String> executedNodeIds = ConcurrentHashMap.newKeySet();
+
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private WorkflowExecutorManager workflowExecutorManager;
+
+    private WorkflowCoreEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        workflowExecutorManager = new WorkflowExecutorManager(new WorkflowExecutorProperties(), new SimpleMeterRegistry());
+        WorkflowPersistenceJournal journal = mock(WorkflowPersistenceJournal.class);
+        doAnswer(invocation -> {
+            finished.countDown();
+            return null;
+        }).when(journal).completeWorkflow(anyLong());
+
+        engine = new WorkflowCoreEngine();
+        ReflectionTestUtils.setField(engine, "workflowExecutorManager", workflowExecutorManager);
+        ReflectionTestUtils.setField(engine, "workflowPersistenceJournal", journal);
+        ReflectionTestUtils.setField(engine, "workflowProgressManager", mock(WorkflowProgressManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        workflowExecutorManager.shutdown();
+    }
+
+    @Test
+    void successorOfFailedNodeIsSkippedAndWorkflowFails() throws Exception {
+        // 节点 a 记录失败结果但未改写工作流状态，其后继不能被静默丢弃
+        register(NodeTypeEnum.START.getCode(), Map.of());
+        register(NodeTypeEnum.SCRIPT.getCode(), Map.of("a", NodeStatusEnum.FAIL.getCode()));
+        register(NodeTypeEnum.END.getCode(), Map.of());
+        WorkflowConfig config = config(
+                List.of(node("start", NodeTypeEnum.START), node("a", NodeTypeEnum.SCRIPT),
+                        node("b", NodeTypeEnum.SCRIPT), node("end", NodeTypeEnum.END)),
+                List.of(edge("start", "a"), edge("a", "b"), edge("b", "end")));
+
+        WorkflowContext context = run(config);
+
+        assertEquals(WorkflowStatusEnum.FAIL.getCode(), context.getTaskStatus());
+        assertEquals(Set.of("start", "a"), executedNodeIds);
+        NodeResult b = context.getNodeResultMap().get("b");
+        assertEquals(NodeStatusEnum.SKIP.getCode(), b.getNodeStatus());
+        assertTrue(b.getErrorInfo().contains("a"));
+        assertEquals(NodeStatusEnum.SKIP.getCode(), context.getNodeResultMap().get("end").getNodeStatus());
+    }
+
+    @Test
+    void multiBranchResultOfAnyNodeTypeSkipsUnselectedBranch() throws Exception {
+        register(NodeTypeEnum.START.getCode(), Map.of());
+        register(NodeTypeEnum.SCRIPT.getCode(), Map.of());
+        StubProcessor router = register(NodeTypeEnum.TEXT_GEN.getCode(), Map.of());
+        router.branchTargets = List.of("b");
+        WorkflowConfig config = config(
+                List.of(node("start", NodeTypeEnum.START), node("router", NodeTypeEnum.TEXT_GEN),
+                        node("b", NodeTypeEnum.SCRIPT), node("c", NodeTypeEnum.SCRIPT)),
+                List.of(edge("start", "router"), edge("router", "b"), edge("router", "c")));
+
+        WorkflowContext context = run(config);
+
+        assertEquals(WorkflowStatusEnum.SUCCESS.getCode(), context.getTaskStatus());
+        assertTrue(executedNodeIds.contains("b"));
+        assertFalse(executedNodeIds.contains("c"));
+        assertEquals(NodeStatusEnum.SKIP.getCode(), context.getNodeResultMap().get("c").getNodeStatus());
+    }
+
+    private WorkflowContext run(WorkflowConfig config) throws InterruptedException {
+        WorkflowContext context = new WorkflowContext();
+        engine.executeWorkflow(config, context);
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        return context;
+    }
+
+    private StubProcessor register(String nodeType, Map<String, String> statusByNodeId) {
+        StubProcessor processor = new StubProcessor(nodeType, statusByNodeId);
+        engine.registerProcessor(nodeType, processor);
+        return processor;
+    }
+
+    private static WorkflowConfig config(List<Node> nodes, List<Edge> edges) {
+        return WorkflowConfig.builder().nodes(nodes).edges(edges).build();
+    }
+
+    private static Node node(String id, NodeTypeEnum type) {
+        Node node = new Node();
+        node.setId(id);
+        node.setType(type.getCode());
+        return node;
+    }
+
+    private static Edge edge(String source, String target) {
+        Edge edge = new Edge();
+        edge.setId(source + "-" + target);
+        edge.setSource(source);
+        edge.setTarget(target);
+        return edge;
+    }
+
+    /**
+     * 节点处理器替身：按节点ID写入指定状态，默认成功；设置分支目标时返回多分支结果
+     */
+    private class StubProcessor implements ExecuteProcessor {
+
+        private final String nodeType;
+
+        private final Map<String, String> statusByNodeId;
+
+        private List<String> branchTargets;
+
+        StubProcessor(String nodeType, Map<String, String> statusByNodeId) {
+            this.nodeType = nodeType;
+            this.statusByNodeId = statusByNodeId;
+        }
+
+        @Override
+        public String getNodeType() {
+            return nodeType;
+        }
+
+        @Override
+        public String getNodeDescription() {
+            return nodeType;
+        }
+
+        @Override
+        public void execute(DirectedAcyclicGraph<String, Edge> graph, Node node, WorkflowContext context) {
+            executedNodeIds.add(node.getId());
+            NodeResult result = context.getNodeResultMap().get(node.getId());
+            result.setNodeStatus(statusByNodeId.getOrDefault(node.getId(), NodeStatusEnum.SUCCESS.getCode()));
+            if (branchTargets != null) {
+                NodeResult.MultiBranchReference reference = new NodeResult.MultiBranchReference();
+                reference.setTargetIds(branchTargets);
+                result.setMultiBranch(true);
+                result.setMultiBranchResults(new ArrayList<>(List.of(reference)));
+            }
+        }
+
+        @Override
+        public CheckNodeParamResult checkNodeParam(DirectedAcyclicGraph<String, Edge> graph, Node node) {
+            return CheckNodeParamResult.success();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.coding.workflow.service;
+
+import com.coding.core.config.WorkflowExecutorProperties;
+import com.coding.workflow.enums.NodeStatusEnum;
+import com.coding.workflow.enums.NodeTypeEnum;
+import com.coding.workflow.enums.WorkflowStatusEnum;
+import com.coding.workflow.manager.WorkflowExecutorManager;
+import com.coding.workflow.manager.WorkflowPersistenceJournal;
+import com.coding.workflow.manager.WorkflowProgressManager;
+import com.coding.workflow.model.workflow.Edge;
+import com.coding.workflow.model.workflow.Node;
+import com.coding.workflow.model.workflow.WorkflowConfig;
+import com.coding.workflow.model.workflow.WorkflowContext;
+import com.coding.workflow.model.workflow.WorkflowExecutionPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jgrapht.graph.DirectedAcyclicGraph;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 工作流调度端到端开销：节点处理器为空操作，耗时即为引擎的调度开销（提交、完成事件、入度递减、结束判断）；
+ * 覆盖宽 DAG（开始节点扇出到 N 个并列节点再汇聚到结束节点）与深 DAG（N 个节点串成一条链），
+ * 节点数从 10 递增到 1000，输出每次运行的 p50 / p99 / 平均耗时、折算到每个节点的平均调度开销，
+ * 以及执行计划编译（节点索引、前驱/后继数组）的平均耗时，用于观察调度开销是否随节点数线性增长
+ */
+public class WorkflowSchedulingBenchmark {
+
+    private static final int WARMUP_RUNS = 20;
+
+    private static final int MEASURE_RUNS = 50;
+
+    private static final int COMPILE_RUNS = 200;
+
+    private static final int[] NODE_COUNTS = {10, 100, 200, 500, 1000};
+
+    private final Semaphore finished = new Semaphore(0);
+
+    private final WorkflowExecutorManager workflowExecutorManager =
+            new WorkflowExecutorManager(new WorkflowExecutorProperties(), new SimpleMeterRegistry());
+
+    private final WorkflowCoreEngine engine = new WorkflowCoreEngine();
+
+    public static void main(String[] args) throws InterruptedException {
+        WorkflowSchedulingBenchmark benchmark = new WorkflowSchedulingBenchmark();
+        try {
+            for (int nodeCount : NODE_COUNTS) {
+                benchmark.bench("wide", wide(nodeCount), nodeCount);
+                benchmark.bench("deep", deep(nodeCount), nodeCount);
+            }
+        } finally {
+            benchmark.workflowExecutorManager.shutdown();
+        }
+    }
+
+    private WorkflowSchedulingBenchmark() {
+        WorkflowPersistenceJournal journal = mock(WorkflowPersistenceJournal.class);
+        doAnswer(invocation -> {
+            finished.release();
+            return null;
+        }).when(journal).completeWorkflow(anyLong());
+        ReflectionTestUtils.setField(engine, "workflowExecutorManager", workflowExecutorManager);
+        ReflectionTestUtils.setField(engine, "workflowPersistenceJournal", journal);
+        ReflectionTestUtils.setField(engine, "workflowProgressManager", mock(WorkflowProgressManager.class));
+        for (NodeTypeEnum type : List.of(NodeTypeEnum.START, NodeTypeEnum.SCRIPT, NodeTypeEnum.END)) {
+            engine.registerProcessor(type.getCode(), new NoopProcessor(type.getCode()));
+        }
+    }
+
+    private void bench(String shape, WorkflowConfig config, int nodeCount) throws InterruptedException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run(config);
+        }
+        long[] latencies = new long[MEASURE_RUNS];
+        for (int i = 0; i < MEASURE_RUNS; i++) {
+            long start = System.nanoTime();
+            run(config);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        double avg = Arrays.stream(latencies).average().orElse(0);
+        System.out.printf("%s nodes=%5d  p50=%8.2f ms  p99=%8.2f ms  avg=%8.2f ms  per-node=%7.2f us  compile=%8.2f us%n",
+                shape, nodeCount,
+                latencies[latencies.length / 2] / 1e6,
+                latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1e6,
+                avg / 1e6, avg / 1e3 / (nodeCount + 2), compileCost(config) / 1e3);
+    }
+
+    /**
+     * 执行计划编译的平均耗时（纳秒）
+     */
+    private static double compileCost(WorkflowConfig config) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            WorkflowExecutionPlan.compile(config);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < COMPILE_RUNS; i++) {
+            WorkflowExecutionPlan.compile(config);
+        }
+        return (double) (System.nanoTime() - start) / COMPILE_RUNS;
+    }
+
+    private void run(WorkflowConfig config) throws InterruptedException {
+        WorkflowContext context = new WorkflowContext();
+        engine.executeWorkflow(config, context);
+        if (!finished.tryAcquire(60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("工作流未在超时时间内结束");
+        }
+        if (!WorkflowStatusEnum.SUCCESS.getCode().equals(context.getTaskStatus())) {
+            throw new IllegalStateException("工作流执行失败：" + context.getTaskStatus());
+        }
+    }
+
+    /**
+     * 宽 DAG：start -> n_1..n_N -> end
+     */
+    private static WorkflowConfig wide(int nodeCount) {
+        List<Node> nodes = new ArrayList<>();
+        List<Edge> edges = new ArrayList<>();
+        nodes.add(node("start", NodeTypeEnum.START));
+        nodes.add(node("end", NodeTypeEnum.END));
+        for (int i = 1; i <= nodeCount; i++) {
+            String id = "n_" + i;
+            nodes.add(node(id, NodeTypeEnum.SCRIPT));
+            edges.add(edge("start", id));
+            edges.add(edge(id, "end"));
+        }
+        return WorkflowConfig.builder().nodes(nodes).edges(edges).build();
+    }
+
+    /**
+     * 深 DAG：start -> n_1 -> n_2 -> ... -> n_N -> end
+     */
+    private static WorkflowConfig deep(int nodeCount) {
+        List<Node> nodes = new ArrayList<>();
+        List<Edge> edges = new ArrayList<>();
+        nodes.add(node("start", NodeTypeEnum.START));
+        nodes.add(node("end", NodeTypeEnum.END));
+        String previous = "start";
+        for (int i = 1; i <= nodeCount; i++) {
+            String id = "n_" + i;
+            nodes.add(node(id, NodeTypeEnum.SCRIPT));
+            edges.add(edge(previous, id));
+            previous = id;
+        }
+        edges.add(edge(previous, "end"));
+        return WorkflowConfig.builder().nodes(nodes).edges(edges).build();
+    }
+
+    private static Node node(String id, NodeTypeEnum type) {
+        Node node = new Node();
+        node.setId(id);
+        node.setType(type.getCode());
+        return node;
+    }
+
+    private static Edge edge(String source, String target) {
+        Edge edge = new Edge();
+        edge.setId(source + "-" + target);
+        edge.setSource(source);
+        edge.setTarget(target);
+        return edge;
+    }
+
+    /**
+     * 空操作节点处理器：直接标记成功
+     */
+    private record NoopProcessor(String nodeType) implements ExecuteProcessor {
+
+        @Override
+        public String getNodeType() {
+            return nodeType;
+        }
+
+        @Override
+        public String getNodeDescription() {
+            return nodeType;
+        }
+
+        @Override
+        public void execute(DirectedAcyclicGraph<String, Edge> graph, Node node, WorkflowContext context) {
+            context.getNodeResultMap().get(node.getId()).setNodeStatus(NodeStatusEnum.SUCCESS.getCode());
+        }
+
+        @Override
+        public CheckNodeParamResult checkNodeParam(DirectedAcyclicGraph<String, Edge> graph, Node node) {
+            return CheckNodeParamResult.success();
+        }
+    }
+}
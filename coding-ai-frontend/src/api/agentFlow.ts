@@ -75,9 +75,10 @@ export class AgentFlowAPI {
 
   /**
    * 获取流式执行的URL
+   * mode=delta 时节点完成事件只携带状态增量，需按 seq 顺序应用以重建状态
    */
-  static getExecuteStreamUrl(flowId: number | string, prompt: string) {
+  static getExecuteStreamUrl(flowId: number | string, prompt: string, mode: 'full' | 'delta' = 'delta') {
     // 使用配置的 API_BASE_URL
-    return `${API_BASE_URL}/agent-flow/execute/stream?flowId=${flowId}&prompt=${encodeURIComponent(prompt)}`
+    return `${API_BASE_URL}/agent-flow/execute/stream?flowId=${flowId}&prompt=${encodeURIComponent(prompt)}&mode=${mode}`
   }
 }
@@ -12,6 +12,7 @@ import type {
   KnowledgeVectorAddRequest,
   KnowledgeVectorUpdateRequest,
   KnowledgeVectorPageRequest,
+  KnowledgeIngestionJob,
   PageResult
 } from '@/types/knowledge'
 
@@ -101,7 +102,14 @@ export const KnowledgeVectorAPI = {
     const formData = new FormData()
     formData.append('knowledgeBaseId', String(knowledgeBaseId))
     formData.append('file', file)
-    return upload<boolean>('/api/knowledge-vector/upload-file', formData)
+    return upload<string>('/api/knowledge-vector/upload-file', formData)
+  },
+
+  /**
+   * 查询文件导入进度
+   */
+  getUploadJob(jobId: string) {
+    return get<KnowledgeIngestionJob>(`/api/knowledge-vector/upload-job/${jobId}`)
   },
 
   /**
@@ -93,6 +93,22 @@ export interface KnowledgeVectorPageRequest {
   fileType?: string
 }
 
+/**
+ * 知识库文件导入任务
+ */
+export interface KnowledgeIngestionJob {
+  jobId: string
+  knowledgeBaseId: number
+  fileName: string
+  status: 'PENDING' | 'RUNNING' | 'SUCCESS' | 'FAILED'
+  totalChunks: number
+  embeddedChunks: number
+  savedChunks: number
+  errorMessage?: string
+  createTime: string
+  finishTime?: string
+}
+
 /**
  * 分页结果
  */
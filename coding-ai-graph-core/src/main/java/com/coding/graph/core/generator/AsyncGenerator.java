@@ -25,6 +25,14 @@ public interface AsyncGenerator<E> extends Iterable<E>, AsyncGeneratorOperators<
     // 获取下一个迭代元素
     Data<E> next();
 
+    /**
+     * 非阻塞地获取下一个迭代元素，默认实现直接调用 next()；
+     * 基于缓冲区的流式生成器会覆盖此方法，数据未就绪时不占用线程
+     */
+    default CompletableFuture<Data<E>> nextAsync() {
+        return completedFuture(next());
+    }
+
     // 迭代方法
     default Iterator<E> iterator() {
         return new InternalIterator<E>(this);
@@ -35,6 +43,85 @@ public interface AsyncGenerator<E> extends Iterable<E>, AsyncGeneratorOperators<
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED), false);
     }
 
+    /**
+     * 非阻塞地流式处理生成器的元素：基于 nextAsync() 驱动，数据就绪时在生产数据的线程上调用 consumer，
+     * 数据未就绪时不占用任何线程。已就绪的元素在循环中连续处理，避免回调嵌套过深
+     *
+     * @param consumer 应用于每个元素的消费者函数
+     * @return 表示流式处理过程完成的 CompletableFuture
+     */
+    default CompletableFuture<Void> streamForEachAsync(Consumer<E> consumer) {
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        drive(consumer, completion);
+        return completion;
+    }
+
+    private void drive(Consumer<E> consumer, CompletableFuture<Void> completion) {
+        try {
+            while (!completion.isDone()) {
+                CompletableFuture<Data<E>> nextFuture = nextAsync();
+                if (!nextFuture.isDone()) {
+                    nextFuture.whenComplete((data, ex) -> {
+                        if (ex != null) {
+                            completion.completeExceptionally(ex);
+                        } else if (accept(data, consumer, completion)) {
+                            drive(consumer, completion);
+                        }
+                    });
+                    return;
+                }
+                if (!accept(nextFuture.join(), consumer, completion)) {
+                    return;
+                }
+            }
+        } catch (Throwable e) {
+            completion.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 处理一个元素，返回 true 表示可以立即继续获取下一个元素
+     */
+    private boolean accept(Data<E> data, Consumer<E> consumer, CompletableFuture<Void> completion) {
+        if (data.isDone()) {
+            completion.complete(null);
+            return false;
+        }
+        if (data.embed != null) {
+            data.embed.generator.streamForEachAsync(consumer).whenComplete((v, ex) -> {
+                if (ex != null) {
+                    completion.completeExceptionally(ex);
+                } else {
+                    drive(consumer, completion);
+                }
+            });
+            return false;
+        }
+        if (data.data.isDone()) {
+            try {
+                consumer.accept(data.data.join());
+            } catch (Throwable e) {
+                completion.completeExceptionally(e);
+                return false;
+            }
+            return true;
+        }
+        data.data.whenComplete((element, ex) -> {
+            if (ex != null) {
+                completion.completeExceptionally(ex);
+                return;
+            }
+            try {
+                consumer.accept(element);
+            } catch (Throwable e) {
+                completion.completeExceptionally(e);
+                return;
+            }
+            drive(consumer, completion);
+        });
+        return false;
+    }
+
     /**
      * 包装
      * 异步生成器
@@ -140,7 +227,15 @@ public interface AsyncGenerator<E> extends Iterable<E>, AsyncGeneratorOperators<
 
         @Override
         public final Data<E> next() {
-            final Data<E> result = delegate.next();
+            return onResult(delegate.next());
+        }
+
+        @Override
+        public final CompletableFuture<Data<E>> nextAsync() {
+            return delegate.nextAsync().thenApply(this::onResult);
+        }
+
+        private Data<E> onResult(Data<E> result) {
             if (result.isDone()) {
                 resultValue = result.resultValue;
             }
@@ -181,12 +276,31 @@ public interface AsyncGenerator<E> extends Iterable<E>, AsyncGeneratorOperators<
 
         @Override
         public Data<E> next() {
+            final Embed<E> embed = currentEmbed();
+            final Data<E> result = onResult(embed, embed.generator.next());
+            return result != null ? result : next();
+        }
+
+        @Override
+        public CompletableFuture<Data<E>> nextAsync() {
+            final Embed<E> embed = currentEmbed();
+            return embed.generator.nextAsync().thenCompose(data -> {
+                final Data<E> result = onResult(embed, data);
+                return result != null ? completedFuture(result) : nextAsync();
+            });
+        }
+
+        private Embed<E> currentEmbed() {
             if (generatorsStack.isEmpty()) { // GUARD
                 throw new IllegalStateException("no generator found!");
             }
-            final Embed<E> embed = generatorsStack.peek();
-            final Data<E> result = embed.generator.next();
+            return generatorsStack.peek();
+        }
 
+        /**
+         * 处理当前生成器返回的数据，返回 null 表示生成器栈已切换，需要继续获取
+         */
+        private Data<E> onResult(Embed<E> embed, Data<E> result) {
             if (result.isDone()) {
                 clearPreviousReturnsValuesIfAny();
                 returnValueStack.push(result);
@@ -202,7 +316,7 @@ public interface AsyncGenerator<E> extends Iterable<E>, AsyncGeneratorOperators<
                     return result;
                 }
                 generatorsStack.pop();
-                return next();
+                return null;
             }
             if (result.embed != null) {
                 if (generatorsStack.size() >= 2) {
@@ -210,7 +324,7 @@ public interface AsyncGenerator<E> extends Iterable<E>, AsyncGeneratorOperators<
                             "Currently recursive nested generators are not supported!"));
                 }
                 generatorsStack.push(result.embed);
-                return next();
+                return null;
             }
 
             return result;
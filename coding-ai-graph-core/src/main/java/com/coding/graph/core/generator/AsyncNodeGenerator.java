@@ -5,8 +5,11 @@ import com.coding.graph.core.graph.CompiledGraph;
 import com.coding.graph.core.graph.GraphLifecycleListener;
 import com.coding.graph.core.node.NodeOutput;
 import com.coding.graph.core.node.action.AsyncNodeActionWithConfig;
+import com.coding.graph.core.node.config.CompileConfig;
 import com.coding.graph.core.node.config.RunnableConfig;
 import com.coding.graph.core.state.OverAllState;
+import com.coding.graph.core.state.PersistentStateMap;
+import com.coding.graph.core.state.StateDelta;
 import com.coding.graph.core.utils.LifeListenerUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.messages.AssistantMessage;
@@ -15,7 +18,7 @@ import org.springframework.ai.chat.messages.Message;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import static com.coding.graph.core.common.NodeCodeConstants.*;
@@ -41,6 +44,10 @@ public class AsyncNodeGenerator<Output> implements AsyncGenerator<Output> {
     private Map<String, Object> currentState;
     // 全局状态(最外层图的数据状态)
     private final OverAllState overAllState;
+    // 上一次节点输出时的状态，用于计算状态增量
+    private Map<String, Object> lastOutputState = PersistentStateMap.empty();
+    // 异步监听器分发链的尾部，保证同一次运行内事件按顺序处理
+    private CompletableFuture<Void> listenerTail = CompletableFuture.completedFuture(null);
 
     // 构造函数
     public AsyncNodeGenerator(CompiledGraph compiledGraph, RunnableConfig config, OverAllState overAllState) {
@@ -49,7 +56,7 @@ public class AsyncNodeGenerator<Output> implements AsyncGenerator<Output> {
         this.overAllState = overAllState;
         this.context = new Context();
         Map<String, Object> inputs = overAllState.data();
-        this.currentState = OverAllState.updateState(new HashMap<>(), inputs, this.overAllState.keyStrategies());
+        this.currentState = OverAllState.updateState(PersistentStateMap.empty(), inputs, this.overAllState.keyStrategies());
     }
 
     // 迭代执行节点
@@ -236,18 +243,38 @@ public class AsyncNodeGenerator<Output> implements AsyncGenerator<Output> {
         }
     }
 
-    // 构建节点输出
+    // 构建节点输出：附带相对上一次输出的状态增量（节点更新以及条件边写入的状态）
     @SuppressWarnings("unchecked")
     protected CompletableFuture<Output> buildNodeOutput(String nodeId) {
         OverAllState state = new OverAllState(currentState);
-        return CompletableFuture.completedFuture((Output) NodeOutput.of(nodeId, state));
+        StateDelta delta = StateDelta.diff(lastOutputState, currentState, this.overAllState.keyStrategies());
+        lastOutputState = currentState;
+        return CompletableFuture.completedFuture((Output) NodeOutput.of(nodeId, state, delta));
     }
 
-    // 执行监听器
+    // 执行监听器：同步模式在当前线程调用，异步模式按事件顺序串行提交到监听器执行器
     private void doListeners(String scene, Exception e) {
-        Deque<GraphLifecycleListener> listeners = new LinkedBlockingDeque<>(this.compiledGraph.getCompileConfig().lifecycleListeners());
-        LifeListenerUtil.processListenersLIFO(this.context.currentNodeId(), listeners, this.currentState,
-                this.config, scene, e);
+        CompileConfig compileConfig = this.compiledGraph.getCompileConfig();
+        GraphLifecycleListener[] listeners = compileConfig.lifecycleListenerChain();
+        if (listeners.length == 0) {
+            return;
+        }
+        String nodeId = this.context.currentNodeId();
+        Map<String, Object> state = this.currentState;
+        long curTime = System.currentTimeMillis();
+        Executor listenerExecutor = compileConfig.listenerExecutor();
+        if (listenerExecutor == null) {
+            LifeListenerUtil.processListeners(nodeId, listeners, state, this.config, scene, e, curTime);
+            return;
+        }
+        // 状态为持久化 Map，直接作为快照交给异步监听器
+        this.listenerTail = this.listenerTail
+                .exceptionally(ex -> {
+                    log.error("监听器异步分发失败", ex);
+                    return null;
+                })
+                .thenRunAsync(() -> LifeListenerUtil.processListeners(nodeId, listeners, state, this.config,
+                        scene, e, curTime), listenerExecutor);
     }
 
     // 节点执行上下文
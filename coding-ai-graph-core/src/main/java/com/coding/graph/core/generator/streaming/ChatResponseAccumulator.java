@@ -0,0 +1,63 @@
+package com.coding.graph.core.generator.streaming;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+
+import java.util.List;
+
+/**
+ * 流式响应累加器：逐块追加文本到同一个缓冲区，只在完成时构建一次最终的 ChatResponse。
+ * 合并规则与逐块合并一致：最终消息的文本为累计文本，其余属性取最后一个响应块；
+ * 遇到工具调用响应时丢弃之前的累计内容，从该响应重新开始累计。
+ * 上游信号串行到达，无需额外同步。
+ */
+final class ChatResponseAccumulator {
+
+	private final StringBuilder text = new StringBuilder();
+
+	/** 最后一个响应块 */
+	private ChatResponse lastResponse;
+
+	/** 自上次重置后是否追加过后续响应块 */
+	private boolean merged;
+
+	void accept(ChatResponse response) {
+		var currentMessage = response.getResult().getOutput();
+		String currentText = currentMessage.getText();
+		if (lastResponse == null || currentMessage.hasToolCalls()) {
+			// 首个响应块或工具调用响应：从该响应重新开始累计
+			text.setLength(0);
+			if (currentText != null) {
+				text.append(currentText);
+			}
+			merged = false;
+		}
+		else {
+			if (currentText != null) {
+				text.append(currentText);
+			}
+			merged = true;
+		}
+		lastResponse = response;
+	}
+
+	/**
+	 * 构建累计后的响应，未收到任何响应块时返回 null
+	 */
+	ChatResponse build() {
+		if (lastResponse == null || !merged) {
+			return lastResponse;
+		}
+		var currentMessage = lastResponse.getResult().getOutput();
+		var newMessage = AssistantMessage.builder()
+				.content(text.toString())
+				.media(currentMessage.getMedia())
+				.toolCalls(currentMessage.getToolCalls())
+				.properties(currentMessage.getMetadata())
+				.build();
+		var newGeneration = new Generation(newMessage, lastResponse.getResult().getMetadata());
+		return new ChatResponse(List.of(newGeneration), lastResponse.getMetadata());
+	}
+
+}
@@ -3,7 +3,6 @@ package com.coding.graph.core.generator.streaming;
 import com.coding.graph.core.generator.AsyncGenerator;
 
 import java.util.concurrent.Flow;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Supplier;
 
 /**
@@ -21,10 +20,25 @@ public interface FlowGenerator {
 	 * @param mapResult 用于设置生成器结果的函数
 	 * @return 从发布者发出项目的 {@code AsyncGenerator}
 	 */
-	@SuppressWarnings("unchecked")
 	static <T, P extends Flow.Publisher<T>, R> AsyncGenerator<T> fromPublisher(P publisher, Supplier<R> mapResult) {
-		var queue = new LinkedBlockingQueue<AsyncGenerator.Data<T>>();
-		return new GeneratorSubscriber<>(publisher, (Supplier<Object>) mapResult, queue);
+		return fromPublisher(publisher, mapResult, GeneratorSubscriber.DEFAULT_BUFFER_SIZE,
+				GeneratorSubscriber.DEFAULT_REQUEST_BATCH);
+	}
+
+	/**
+	 * 从 {@code Flow.Publisher} 创建有界的 {@code AsyncGenerator}。
+	 * @param <T> 发布者发出的项目类型
+	 * @param <P> 发布者的类型
+	 * @param publisher 要订阅以异步检索项目的发布者
+	 * @param mapResult 用于设置生成器结果的函数
+	 * @param bufferSize 缓冲区容量，即未消费数据的上限
+	 * @param requestBatch 每批向上游补充请求的数量
+	 * @return 从发布者发出项目的 {@code AsyncGenerator}
+	 */
+	@SuppressWarnings("unchecked")
+	static <T, P extends Flow.Publisher<T>, R> AsyncGenerator<T> fromPublisher(P publisher, Supplier<R> mapResult,
+			int bufferSize, int requestBatch) {
+		return new GeneratorSubscriber<>(publisher, (Supplier<Object>) mapResult, bufferSize, requestBatch);
 	}
 
 	/**
@@ -3,8 +3,10 @@ package com.coding.graph.core.generator.streaming;
 import com.coding.graph.core.generator.AsyncGenerator;
 
 import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
@@ -16,14 +18,42 @@ import java.util.function.Supplier;
  * 处理传入的项目，并管理错误和完成信号。
  * </p>
  *
+ * <p>
+ * 数据暂存在固定容量的单生产者单消费者环形缓冲区中：订阅时只请求缓冲区容量大小的数据，
+ * 消费者每取走一批再向上游补充请求，上游未消费的数据量始终不超过缓冲区容量。
+ * 消费者可通过 {@link #nextAsync()} 非阻塞地获取下一个元素，数据未就绪时不占用线程。
+ * </p>
+ *
  * @param <T> 此生成器产生的元素类型。
  */
 public class GeneratorSubscriber<T> implements Flow.Subscriber<T>, AsyncGenerator<T> {
 
-	private final AsyncGeneratorQueue.Generator<T> delegate;
+	/** 默认缓冲区容量 */
+	public static final int DEFAULT_BUFFER_SIZE = 256;
+
+	/** 默认每批补充请求的数量 */
+	public static final int DEFAULT_REQUEST_BATCH = 64;
+
+	private final SpscRingBuffer<T> buffer;
+
+	private final int requestBatch;
 
 	private final Supplier<Object> mapResult;
 
+	private volatile Flow.Subscription subscription;
+
+	/** 终止信号（完成或错误），在全部元素写入缓冲区之后设置 */
+	private volatile Data<T> terminal;
+
+	/** 已返回终止信号后，后续调用固定返回该值 */
+	private volatile Data<T> end;
+
+	/** 已消费但尚未向上游补充请求的数量 */
+	private final AtomicInteger consumedSinceRequest = new AtomicInteger();
+
+	/** 等待数据的消费者，同一时刻最多一个 */
+	private final AtomicReference<CompletableFuture<Data<T>>> waiter = new AtomicReference<>();
+
 	public Optional<Supplier<Object>> mapResult() {
 		return Optional.ofNullable(mapResult);
 	}
@@ -31,74 +61,185 @@ public class GeneratorSubscriber<T> implements Flow.Subscriber<T>, AsyncGenerato
 	/**
 	 * 构造一个新的 {@code GeneratorSubscriber} 实例。
 	 * @param <P> 发布者的类型，必须扩展 {@link Flow.Publisher}
-	 * @param mapResult 用于设置生成器结果的函数
 	 * @param publisher 将向此订阅者推送数据的源发布者
-	 * @param queue 用于存储异步生成器数据的阻塞队列
+	 * @param mapResult 用于设置生成器结果的函数
+	 * @param bufferSize 缓冲区容量，即未消费数据的上限
+	 * @param requestBatch 每批补充请求的数量，不超过缓冲区容量
 	 */
 	public <P extends Flow.Publisher<T>> GeneratorSubscriber(P publisher, Supplier<Object> mapResult,
-			BlockingQueue<Data<T>> queue) {
-		this.delegate = new AsyncGeneratorQueue.Generator<>(queue);
+			int bufferSize, int requestBatch) {
+		this.buffer = new SpscRingBuffer<>(bufferSize);
+		this.requestBatch = Math.max(1, Math.min(requestBatch, buffer.capacity()));
 		this.mapResult = mapResult;
 		publisher.subscribe(this);
 	}
 
+	/**
+	 * 构造一个新的 {@code GeneratorSubscriber} 实例，使用默认缓冲区容量和请求批次。
+	 * @param <P> 发布者的类型，必须扩展 {@link Flow.Publisher}
+	 * @param publisher 将向此订阅者推送数据的源发布者
+	 * @param mapResult 用于设置生成器结果的函数
+	 */
+	public <P extends Flow.Publisher<T>> GeneratorSubscriber(P publisher, Supplier<Object> mapResult) {
+		this(publisher, mapResult, DEFAULT_BUFFER_SIZE, DEFAULT_REQUEST_BATCH);
+	}
+
 	/**
 	 * 构造一个新的 {@code GeneratorSubscriber} 实例。
 	 * @param <P> 发布者的类型，必须扩展 {@link Flow.Publisher}
 	 * @param publisher 将向此订阅者推送数据的源发布者
-	 * @param queue 用于存储异步生成器数据的阻塞队列
 	 */
-	public <P extends Flow.Publisher<T>> GeneratorSubscriber(P publisher, BlockingQueue<Data<T>> queue) {
-		this(publisher, null, queue);
+	public <P extends Flow.Publisher<T>> GeneratorSubscriber(P publisher) {
+		this(publisher, null);
 	}
 
 	/**
 	 * 处理来自 Flux 的订阅事件。
 	 * <p>
 	 * 当与源 {@link Flow} 的订阅已建立时，将调用此方法。
-	 * 提供的 {@code Flow.Subscription} 可用于管理和控制数据发射流。
-	 * @param subscription 表示此资源所有者生命周期的订阅对象。用于发出信号，
-	 * 表示在释放此订阅之前不应释放被订阅的资源。
+	 * 首次只请求缓冲区容量大小的数据，后续随消费进度分批补充。
+	 * @param subscription 表示此资源所有者生命周期的订阅对象。
 	 */
 	@Override
 	public void onSubscribe(Flow.Subscription subscription) {
-		subscription.request(Long.MAX_VALUE);
+		this.subscription = subscription;
+		subscription.request(buffer.capacity());
 	}
 
 	/**
-	 * 将接收到的项目作为 {@link Data} 对象传递给委托队列。
-	 * @param item 要处理并加入队列的项目。
+	 * 将接收到的项目写入缓冲区，并唤醒等待中的消费者。
+	 * @param item 要处理并加入缓冲区的项目。
 	 */
 	@Override
 	public void onNext(T item) {
-		delegate.queue().add(Data.of(item));
+		if (!buffer.offer(item)) {
+			// 上游发送的数据超过了请求量
+			subscription.cancel();
+			terminal = Data.error(new IllegalStateException("上游发送的数据超过请求量，缓冲区容量: " + buffer.capacity()));
+		}
+		signal();
 	}
 
 	/**
-	 * 通过在委托队列中添加错误数据来处理错误。
+	 * 记录错误信号，缓冲区中已有的数据仍会先被消费。
 	 * @param error 表示要处理的错误的 Throwable。
 	 */
 	@Override
 	public void onError(Throwable error) {
-		delegate.queue().add(Data.error(error));
+		terminal = Data.error(error);
+		signal();
 	}
 
 	/**
-	 * 当异步操作成功完成时调用此方法。它通过向队列添加完成标记来
-	 * 通知委托不再提供更多数据。
+	 * 当异步操作成功完成时调用此方法，记录完成标记。
 	 */
 	@Override
 	public void onComplete() {
-		delegate.queue().add(Data.done(mapResult().map(Supplier::get).orElse(null)));
+		terminal = Data.done(mapResult().map(Supplier::get).orElse(null));
+		signal();
 	}
 
 	/**
-	 * 从此迭代中返回下一个 {@code Data<T>} 对象。
-	 * @return 迭代中的下一个元素，如果没有这样的元素则返回 null
+	 * 从此迭代中返回下一个 {@code Data<T>} 对象，数据未就绪时阻塞等待。
+	 * @return 迭代中的下一个元素
 	 */
 	@Override
 	public Data<T> next() {
-		return delegate.next();
+		return nextAsync().join();
+	}
+
+	/**
+	 * 非阻塞地获取下一个元素：数据已就绪时返回已完成的 future，否则在数据到达时完成。
+	 * 同一时刻只允许一个未完成的调用。
+	 * @return 下一个元素
+	 */
+	@Override
+	public CompletableFuture<Data<T>> nextAsync() {
+		while (true) {
+			Data<T> data = tryTake();
+			if (data != null) {
+				return CompletableFuture.completedFuture(data);
+			}
+			CompletableFuture<Data<T>> future = new CompletableFuture<>();
+			waiter.set(future);
+			// 注册后再检查一次：若数据已到达且生产者尚未接手，则收回等待并重新获取
+			if ((buffer.isEmpty() && terminal == null) || !waiter.compareAndSet(future, null)) {
+				return future;
+			}
+		}
+	}
+
+	/**
+	 * 取消订阅，不再接收上游数据
+	 */
+	public void cancel() {
+		Flow.Subscription current = this.subscription;
+		if (current != null) {
+			current.cancel();
+		}
+		if (terminal == null) {
+			terminal = Data.done(null);
+		}
+		signal();
+	}
+
+	/**
+	 * 当前缓冲的元素数量
+	 */
+	public int buffered() {
+		return buffer.size();
+	}
+
+	/**
+	 * 生产者写入数据或终止信号后，由生产者代为完成等待中的消费者
+	 */
+	private void signal() {
+		CompletableFuture<Data<T>> future = waiter.getAndSet(null);
+		if (future == null) {
+			return;
+		}
+		Data<T> data = tryTake();
+		if (data != null) {
+			future.complete(data);
+		}
+		else {
+			waiter.compareAndSet(null, future);
+		}
+	}
+
+	/**
+	 * 消费者取出下一个元素，无数据且未终止时返回 null
+	 */
+	private Data<T> tryTake() {
+		Data<T> ended = end;
+		if (ended != null) {
+			return ended;
+		}
+		T item = buffer.poll();
+		if (item == null) {
+			Data<T> terminalData = terminal;
+			if (terminalData == null) {
+				return null;
+			}
+			// 终止信号之前写入的数据需先消费完
+			item = buffer.poll();
+			if (item == null) {
+				end = terminalData.isDone() ? terminalData : Data.done(null);
+				return terminalData;
+			}
+		}
+		onConsumed();
+		return Data.of(item);
+	}
+
+	private void onConsumed() {
+		if (consumedSinceRequest.incrementAndGet() >= requestBatch) {
+			int count = consumedSinceRequest.getAndSet(0);
+			Flow.Subscription current = this.subscription;
+			if (count > 0 && current != null) {
+				current.request(count);
+			}
+		}
 	}
 
 }
@@ -0,0 +1,70 @@
+package com.coding.graph.core.generator.streaming;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单生产者单消费者的无锁环形缓冲区，容量固定（向上取整为 2 的幂）。
+ * 生产者只写 tail，消费者只写 head，二者通过原子变量发布。
+ *
+ * @param <E> 元素类型
+ */
+final class SpscRingBuffer<E> {
+
+	private final Object[] buffer;
+
+	private final int mask;
+
+	/** 消费者读取位置 */
+	private final AtomicLong head = new AtomicLong();
+
+	/** 生产者写入位置 */
+	private final AtomicLong tail = new AtomicLong();
+
+	SpscRingBuffer(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		this.buffer = new Object[size];
+		this.mask = size - 1;
+	}
+
+	/**
+	 * 生产者写入元素，缓冲区已满时返回 false
+	 */
+	boolean offer(E item) {
+		long currentTail = tail.get();
+		if (currentTail - head.get() >= buffer.length) {
+			return false;
+		}
+		buffer[(int) currentTail & mask] = item;
+		tail.set(currentTail + 1);
+		return true;
+	}
+
+	/**
+	 * 消费者取出元素，缓冲区为空时返回 null
+	 */
+	@SuppressWarnings("unchecked")
+	E poll() {
+		long currentHead = head.get();
+		if (currentHead >= tail.get()) {
+			return null;
+		}
+		int index = (int) currentHead & mask;
+		E item = (E) buffer[index];
+		buffer[index] = null;
+		head.lazySet(currentHead + 1);
+		return item;
+	}
+
+	boolean isEmpty() {
+		return head.get() >= tail.get();
+	}
+
+	int size() {
+		return (int) (tail.get() - head.get());
+	}
+
+	int capacity() {
+		return buffer.length;
+	}
+
+}
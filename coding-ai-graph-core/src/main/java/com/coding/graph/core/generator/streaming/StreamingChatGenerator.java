@@ -7,20 +7,13 @@ import com.coding.graph.core.state.OverAllState;
 import org.reactivestreams.FlowAdapters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.model.ChatResponse;
-import org.springframework.ai.chat.model.Generation;
 import reactor.core.publisher.Flux;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Consumer;
 import java.util.function.Function;
 
-import static java.util.Objects.requireNonNull;
-
 /**
  * 流式聊天生成器接口。
  */
@@ -36,6 +29,8 @@ public interface StreamingChatGenerator {
         private Function<ChatResponse, Map<String, Object>> mapResult;
         private String startingNode;
         private OverAllState startingState;
+        private int bufferSize = GeneratorSubscriber.DEFAULT_BUFFER_SIZE;
+        private int requestBatch = GeneratorSubscriber.DEFAULT_REQUEST_BATCH;
 
         public Builder mapResult(Function<ChatResponse, Map<String, Object>> mapResult) {
             this.mapResult = mapResult;
@@ -52,6 +47,22 @@ public interface StreamingChatGenerator {
             return this;
         }
 
+        /**
+         * 流式缓冲区容量，慢消费者最多积压该数量的响应块
+         */
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * 每批向上游补充请求的数量
+         */
+        public Builder requestBatch(int requestBatch) {
+            this.requestBatch = requestBatch;
+            return this;
+        }
+
         public AsyncGenerator<? extends NodeOutput> build(Flux<ChatResponse> flux) {
             return buildInternal(flux,
                     chatResponse -> new StreamingOutput(startingNode, startingState, chatResponse));
@@ -71,46 +82,16 @@ public interface StreamingChatGenerator {
             Objects.requireNonNull(flux, "flux 不能为空");
             Objects.requireNonNull(mapResult, "mapResult 不能为空");
 
-            var result = new AtomicReference<ChatResponse>(null);
-
-            Consumer<ChatResponse> mergeMessage = (response) -> {
-                result.updateAndGet(lastResponse -> {
-
-                    if (lastResponse == null) {
-                        return response;
-                    }
-
-                    final var currentMessage = response.getResult().getOutput();
-
-                    if (currentMessage.hasToolCalls()) {
-                        return response;
-                    }
-
-                    final var lastMessageText = requireNonNull(lastResponse.getResult().getOutput().getText(),
-                            "lastResponse text cannot be null");
-
-                    final var currentMessageText = currentMessage.getText();
-
-                    var newMessage = AssistantMessage.builder()
-                            .content(currentMessageText != null ? lastMessageText.concat(currentMessageText) : lastMessageText)
-                            .media(currentMessage.getMedia())
-                            .toolCalls(currentMessage.getToolCalls())
-                            .properties(currentMessage.getMetadata())
-                            .build();
-
-                    var newGeneration = new Generation(newMessage, response.getResult().getMetadata());
-                    return new ChatResponse(List.of(newGeneration), response.getMetadata());
-
-                });
-            };
+            // 逐块累加文本，完成时才构建最终响应
+            var accumulator = new ChatResponseAccumulator();
 
             var processedFlux = flux
                     .filter(response -> response.getResult() != null && response.getResult().getOutput() != null)
-                    .doOnNext(mergeMessage)
+                    .doOnNext(accumulator::accept)
                     .map(outputMapper);
 
             return FlowGenerator.fromPublisher(FlowAdapters.toFlowPublisher(processedFlux),
-                    () -> mapResult.apply(result.get()));
+                    () -> mapResult.apply(accumulator.build()), bufferSize, requestBatch);
         }
     }
 
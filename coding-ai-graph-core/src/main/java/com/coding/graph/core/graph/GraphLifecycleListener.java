@@ -9,12 +9,33 @@ public interface GraphLifecycleListener {
     default void onStart(String nodeId, Map<String, Object> state, RunnableConfig config) {
     }
 
+    /**
+     * 携带事件发生时间的 onStart，监听器异步分发时应使用 curTime 而不是处理时间；默认委托给不带时间的版本
+     */
+    default void onStart(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
+        onStart(nodeId, state, config);
+    }
+
     default void onComplete(String nodeId, Map<String, Object> state, RunnableConfig config) {
     }
 
+    /**
+     * 携带事件发生时间的 onComplete，默认委托给不带时间的版本
+     */
+    default void onComplete(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
+        onComplete(nodeId, state, config);
+    }
+
     default void onError(String nodeId, Map<String, Object> state, Throwable ex, RunnableConfig config) {
     }
 
+    /**
+     * 携带事件发生时间的 onError，默认委托给不带时间的版本
+     */
+    default void onError(String nodeId, Map<String, Object> state, Throwable ex, RunnableConfig config, Long curTime) {
+        onError(nodeId, state, ex, config);
+    }
+
     default void before(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
     }
 
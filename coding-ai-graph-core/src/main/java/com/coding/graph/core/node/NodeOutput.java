@@ -1,7 +1,7 @@
 package com.coding.graph.core.node;
 
 import com.coding.graph.core.state.OverAllState;
-import lombok.AllArgsConstructor;
+import com.coding.graph.core.state.StateDelta;
 import lombok.Getter;
 
 import java.util.Objects;
@@ -10,10 +10,21 @@ import static com.coding.graph.core.common.NodeCodeConstants.END;
 import static com.coding.graph.core.common.NodeCodeConstants.START;
 
 @Getter
-@AllArgsConstructor
 public class NodeOutput {
     private final String node;
     private final OverAllState state;
+    // 相对上一次节点输出的状态增量
+    private final StateDelta delta;
+
+    public NodeOutput(String node, OverAllState state) {
+        this(node, state, StateDelta.empty());
+    }
+
+    public NodeOutput(String node, OverAllState state, StateDelta delta) {
+        this.node = node;
+        this.state = state;
+        this.delta = delta != null ? delta : StateDelta.empty();
+    }
 
     public boolean isSTART() {
         return Objects.equals(getNode(), START);
@@ -25,4 +36,8 @@ public class NodeOutput {
     public static NodeOutput of(String node, OverAllState state) {
         return new NodeOutput(node, state);
     }
+
+    public static NodeOutput of(String node, OverAllState state, StateDelta delta) {
+        return new NodeOutput(node, state, delta);
+    }
 }
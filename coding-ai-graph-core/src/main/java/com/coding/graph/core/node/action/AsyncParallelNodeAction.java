@@ -4,58 +4,173 @@ import com.coding.graph.core.node.config.CompileConfig;
 import com.coding.graph.core.node.config.RunnableConfig;
 import com.coding.graph.core.state.OverAllState;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
-import java.util.function.Function;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 并行节点动作：并行执行多个子节点动作，并合并结果。
+ * 执行器优先取 RunnableConfig.metadata 中以节点ID配置的 Executor，其次取 CompileConfig 的默认并行执行器；
+ * 支持最大并行度、单分支超时，任一分支失败或超时后取消其余分支。
  */
 public record AsyncParallelNodeAction(String nodeId, List<AsyncNodeActionWithConfig> actions, CompileConfig compileConfig)
         implements AsyncNodeActionWithConfig {
 
     @Override
     public CompletableFuture<Map<String, Object>> apply(OverAllState state, RunnableConfig config) {
-        Function<AsyncNodeActionWithConfig, CompletableFuture<Map<String, Object>>> evalNodeAction = config.metadata(nodeId)
+        CompileConfig parallelConfig = compileConfig != null ? compileConfig : new CompileConfig();
+        Executor executor = config.metadata(nodeId)
                 .filter(value -> value instanceof Executor)
                 .map(Executor.class::cast)
-                .map(executor -> (Function<AsyncNodeActionWithConfig, CompletableFuture<Map<String, Object>>>) action -> evalNodeActionAsync(
-                        action, state, config, executor))
-                .orElseGet(() -> action -> evalNodeActionSync(action, state, config));
-
-        // 并行执行所有 action
-        List<CompletableFuture<Map<String, Object>>> futures = actions.stream().map(evalNodeAction).toList();
-
-        // 等待所有 action 完成并收集结果
-        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(v -> {
-            // 收集所有结果
-            List<Map<String, Object>> results = futures.stream()
-                    .map(CompletableFuture::join)
-                    .toList();
-
-            // 合并结果
-            return results.stream()
-                    .reduce(state.data(), (acc, partial) -> OverAllState.updateState(acc, partial, state.keyStrategies()));
+                .orElseGet(parallelConfig::parallelExecutor);
+
+        int size = actions.size();
+        if (size == 0) {
+            return CompletableFuture.completedFuture(state.data());
+        }
+
+        List<BranchTask> tasks = new ArrayList<>(size);
+        for (AsyncNodeActionWithConfig action : actions) {
+            tasks.add(new BranchTask(action, state, config));
+        }
+
+        CompletableFuture<Map<String, Object>> aggregate = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(size);
+        int maxParallelism = parallelConfig.maxParallelism();
+        int initial = maxParallelism > 0 ? Math.min(maxParallelism, size) : size;
+        AtomicInteger nextIndex = new AtomicInteger(initial);
+        Duration timeout = parallelConfig.parallelBranchTimeout();
+
+        for (BranchTask task : tasks) {
+            task.result.whenComplete((result, ex) -> {
+                if (ex != null) {
+                    // 任一分支失败：先结束整体结果，再取消其余分支
+                    aggregate.completeExceptionally(unwrap(ex, timeout));
+                    tasks.forEach(BranchTask::cancel);
+                    return;
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    aggregate.complete(merge(tasks, state));
+                    return;
+                }
+                // 释放一个并行名额，启动下一个等待中的分支
+                int next = nextIndex.getAndIncrement();
+                if (next < size) {
+                    launch(tasks.get(next), executor, timeout);
+                }
+            });
+        }
+
+        // 取消整体结果时同步取消全部分支
+        aggregate.whenComplete((result, ex) -> {
+            if (ex instanceof CancellationException) {
+                tasks.forEach(BranchTask::cancel);
+            }
         });
+
+        for (int i = 0; i < initial; i++) {
+            launch(tasks.get(i), executor, timeout);
+        }
+        return aggregate;
     }
 
-    private CompletableFuture<Map<String, Object>> evalNodeActionAsync(AsyncNodeActionWithConfig action,
-                                                                       OverAllState state, RunnableConfig config, Executor executor) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return evalNodeActionSync(action, state, config).join();
+    private void launch(BranchTask task, Executor executor, Duration timeout) {
+        if (task.result.isDone()) {
+            return;
+        }
+        if (timeout != null && !timeout.isZero() && !timeout.isNegative()) {
+            task.result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        try {
+            executor.execute(task::runWorker);
+        } catch (RejectedExecutionException e) {
+            task.result.completeExceptionally(e);
+        }
+    }
+
+    private static Map<String, Object> merge(List<BranchTask> tasks, OverAllState state) {
+        // 按分支声明顺序合并结果
+        Map<String, Object> acc = state.data();
+        for (BranchTask task : tasks) {
+            acc = OverAllState.updateState(acc, task.result.join(), state.keyStrategies());
+        }
+        return acc;
+    }
+
+    private Throwable unwrap(Throwable ex, Duration timeout) {
+        Throwable cause = ex;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof TimeoutException) {
+            return new CompletionException(new TimeoutException("并行节点 " + nodeId + " 的分支执行超时: " + timeout));
+        }
+        return cause instanceof CompletionException ? cause : new CompletionException(cause);
+    }
+
+    /**
+     * 单个并行分支：分支体包装为 FutureTask 提交，取消或超时时通过该任务中断仍在执行的线程，
+     * 不依赖 result 是否已经结束（超时后 result 已异常完成，取消 result 不会生效）
+     */
+    private static final class BranchTask implements Callable<Void> {
+
+        private final AsyncNodeActionWithConfig action;
+
+        private final OverAllState state;
+
+        private final RunnableConfig config;
+
+        private final CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+
+        private final FutureTask<Void> worker = new FutureTask<>(this);
+
+        /** 分支动作返回的 Future，异步动作不在 worker 线程上执行时一并取消 */
+        private volatile CompletableFuture<Map<String, Object>> actionFuture;
+
+        private BranchTask(AsyncNodeActionWithConfig action, OverAllState state, RunnableConfig config) {
+            this.action = action;
+            this.state = state;
+            this.config = config;
+        }
+
+        private void runWorker() {
+            worker.run();
+            // 清除取消时设置的中断标记，避免影响执行器中的后续任务
+            Thread.interrupted();
+        }
+
+        @Override
+        public Void call() {
+            if (result.isDone()) {
+                return null;
             }
-            catch (Exception e) {
-                throw new RuntimeException(e);
+            try {
+                CompletableFuture<Map<String, Object>> future = action.apply(state, config);
+                actionFuture = future;
+                if (result.isDone()) {
+                    future.cancel(true);
+                    return null;
+                }
+                result.complete(future.get());
+            } catch (ExecutionException e) {
+                result.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
             }
-        }, executor);
-    }
+            return null;
+        }
 
-    private CompletableFuture<Map<String, Object>> evalNodeActionSync(AsyncNodeActionWithConfig action,
-                                                                      OverAllState state, RunnableConfig config) {
-        return action.apply(state, config);
+        private void cancel() {
+            result.cancel(true);
+            worker.cancel(true);
+            CompletableFuture<Map<String, Object>> future = actionFuture;
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
     }
 
 }
@@ -2,30 +2,148 @@ package com.coding.graph.core.node.config;
 
 import com.coding.graph.core.graph.GraphLifecycleListener;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
-import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class CompileConfig {
 
+    private static final GraphLifecycleListener[] EMPTY_LISTENERS = new GraphLifecycleListener[0];
+
+    // 默认的单节点最大并行分支数：分支多为模型或工具调用等 I/O 等待，取 CPU 核数的两倍且不少于 8
+    public static final int DEFAULT_MAX_PARALLELISM = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
     // 生命周期监听器
     private Deque<GraphLifecycleListener> lifecycleListeners = new LinkedBlockingDeque<>(25);
 
+    // 编译时冻结的监听器链，按后注册先执行的顺序排列
+    private GraphLifecycleListener[] lifecycleListenerChain = EMPTY_LISTENERS;
+
+    // 监听器异步分发执行器，为 null 时在图执行线程上同步调用
+    private Executor listenerExecutor;
+
+    // 并行分支执行器，为 null 时使用默认执行器
+    private Executor parallelExecutor;
+
+    // 单个并行节点同时执行的最大分支数，显式配置为小于等于 0 时表示不限制
+    private int maxParallelism = DEFAULT_MAX_PARALLELISM;
+
+    // 单个并行分支的超时时间，为 null 表示不限制
+    private Duration parallelBranchTimeout;
+
     // 构造函数
     public CompileConfig() {
     }
 
     private CompileConfig(CompileConfig config) {
         this.lifecycleListeners = config.lifecycleListeners;
+        this.lifecycleListenerChain = config.lifecycleListenerChain;
+        this.listenerExecutor = config.listenerExecutor;
+        this.parallelExecutor = config.parallelExecutor;
+        this.maxParallelism = config.maxParallelism;
+        this.parallelBranchTimeout = config.parallelBranchTimeout;
     }
 
     public static Builder builder() {
         return new Builder(new CompileConfig());
     }
 
-    // 获取生命周期监听器队列
-    public Queue<GraphLifecycleListener> lifecycleListeners() {
-        return this.lifecycleListeners;
+    // 获取生命周期监听器（只读视图），注册请使用 Builder.withLifecycleListener
+    public Collection<GraphLifecycleListener> lifecycleListeners() {
+        return Collections.unmodifiableCollection(this.lifecycleListeners);
+    }
+
+    // 获取冻结后的监听器链，调用方不得修改
+    public GraphLifecycleListener[] lifecycleListenerChain() {
+        return this.lifecycleListenerChain;
+    }
+
+    // 获取监听器异步分发执行器，为 null 表示同步分发
+    public Executor listenerExecutor() {
+        return this.listenerExecutor;
+    }
+
+    // 获取并行分支执行器，未配置时返回默认执行器（JDK 21+ 为虚拟线程）
+    public Executor parallelExecutor() {
+        return this.parallelExecutor != null ? this.parallelExecutor : DefaultParallelExecutorHolder.INSTANCE;
+    }
+
+    // 获取单个并行节点同时执行的最大分支数
+    public int maxParallelism() {
+        return this.maxParallelism;
+    }
+
+    // 获取单个并行分支的超时时间
+    public Duration parallelBranchTimeout() {
+        return this.parallelBranchTimeout;
+    }
+
+    /**
+     * 默认并行执行器：延迟创建，JDK 21+ 使用虚拟线程；否则回退为固定线程数、有界队列的守护线程池，
+     * 队列满时拒绝提交，由并行节点将该分支记为失败，高并发下不会无限创建平台线程。
+     * 分支内若再嵌套并行节点，请通过 Builder.withParallelExecutor 配置独立执行器，避免外层分支占满线程
+     */
+    private static final class DefaultParallelExecutorHolder {
+
+        private static final int THREADS = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+        private static final int QUEUE_CAPACITY = 1024;
+
+        private static final ExecutorService INSTANCE = create();
+
+        private static ExecutorService create() {
+            try {
+                Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                AtomicInteger index = new AtomicInteger(1);
+                ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 60L, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "graph-parallel-" + index.getAndIncrement());
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        new ThreadPoolExecutor.AbortPolicy());
+                executor.allowCoreThreadTimeOut(true);
+                return executor;
+            }
+        }
+    }
+
+    /**
+     * 默认监听器执行器：固定线程数、有界队列，队列满时由图执行线程自行调用监听器（反压），
+     * 监听器持续慢于图执行时不会无限创建线程或堆积事件
+     */
+    private static final class DefaultListenerExecutorHolder {
+
+        private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        private static final int QUEUE_CAPACITY = 1024;
+
+        private static final ExecutorService INSTANCE = create();
+
+        private static ExecutorService create() {
+            AtomicInteger index = new AtomicInteger(1);
+            return new ThreadPoolExecutor(THREADS, THREADS, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "graph-listener-" + index.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
     }
 
     /**
@@ -43,7 +161,45 @@ public class CompileConfig {
             return this;
         }
 
+        /**
+         * 监听器异步分发：同一次运行内的事件按顺序在执行器上处理，慢监听器不阻塞图执行
+         */
+        public Builder withAsyncListenerDispatch(Executor executor) {
+            this.config.listenerExecutor = executor;
+            return this;
+        }
+
+        /**
+         * 监听器异步分发，使用默认的有界监听器执行器
+         */
+        public Builder withAsyncListenerDispatch() {
+            return withAsyncListenerDispatch(DefaultListenerExecutorHolder.INSTANCE);
+        }
+
+        public Builder withParallelExecutor(Executor executor) {
+            this.config.parallelExecutor = executor;
+            return this;
+        }
+
+        public Builder withMaxParallelism(int maxParallelism) {
+            this.config.maxParallelism = maxParallelism;
+            return this;
+        }
+
+        public Builder withParallelBranchTimeout(Duration timeout) {
+            this.config.parallelBranchTimeout = timeout;
+            return this;
+        }
+
         public CompileConfig build() {
+            // 冻结监听器：后注册的先执行
+            GraphLifecycleListener[] chain = config.lifecycleListeners.toArray(EMPTY_LISTENERS);
+            for (int i = 0, j = chain.length - 1; i < j; i++, j--) {
+                GraphLifecycleListener temp = chain[i];
+                chain[i] = chain[j];
+                chain[j] = temp;
+            }
+            config.lifecycleListenerChain = chain;
             return config;
         }
     }
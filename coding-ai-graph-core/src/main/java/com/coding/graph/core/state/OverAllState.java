@@ -5,22 +5,18 @@ import lombok.Builder;
 
 import java.io.Serializable;
 import java.util.*;
-import java.util.function.BinaryOperator;
-import java.util.function.Function;
-import java.util.stream.Collector;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import static java.util.Collections.unmodifiableMap;
 import static java.util.Optional.ofNullable;
 
 
-@Builder
+/**
+ * 全局状态：数据保存在持久化 Map 中，更新时只复制变化路径，快照 O(1)
+ */
 public final class OverAllState implements Serializable {
     /**
-     * 存储状态数据
+     * 存储状态数据（不可变版本，更新时整体替换引用）
      */
-    private final Map<String, Object> data;
+    private volatile PersistentStateMap data;
 
     /**
      * 存储各个key的更新策略：覆盖or追加
@@ -34,17 +30,18 @@ public final class OverAllState implements Serializable {
 
     // 构造函数
     public OverAllState() {
-        this.data = new HashMap<>();
+        this.data = PersistentStateMap.empty();
         this.keyStrategies = new HashMap<>();
     }
 
     public OverAllState(Map<String, Object> data) {
-        this.data = data;
+        this.data = PersistentStateMap.from(data);
         this.keyStrategies = new HashMap<>();
     }
 
+    @Builder
     public OverAllState(Map<String, Object> data, Map<String, KeyStrategy> keyStrategies) {
-        this.data = data != null ? data : new HashMap<>();
+        this.data = PersistentStateMap.from(data);
         this.keyStrategies = keyStrategies != null ? keyStrategies : new HashMap<>();
     }
 
@@ -52,7 +49,14 @@ public final class OverAllState implements Serializable {
      * 清空状态数据
      */
     public void clear() {
-        this.data.clear();
+        this.data = PersistentStateMap.empty();
+    }
+
+    /**
+     * 当前状态的快照，与当前状态共享数据，O(1)
+     */
+    public OverAllState snapshot() {
+        return new OverAllState(this.data, this.keyStrategies);
     }
 
     /**
@@ -61,7 +65,7 @@ public final class OverAllState implements Serializable {
      * @return 状态数据
      */
     public final Map<String, Object> data() {
-        return data != null ? unmodifiableMap(data) : unmodifiableMap(new HashMap<>());
+        return data;
     }
 
     public Map<String, KeyStrategy> keyStrategies() {
@@ -134,16 +138,13 @@ public final class OverAllState implements Serializable {
             return data();
         }
 
-        Map<String, KeyStrategy> keyStrategies = keyStrategies();
-        partialState.keySet().forEach(key -> {
-            KeyStrategy strategy = keyStrategies.getOrDefault(key, KeyStrategy.REPLACE);
-            this.data.put(key, strategy.apply(value(key, null), partialState.get(key)));
-        });
+        this.data = (PersistentStateMap) updateState(this.data, partialState, keyStrategies());
         return data();
     }
 
     /**
      * 更新状态数据：根据Key Strategy决定是覆盖还是追加
+     * 返回新的持久化 Map，仅复制变化的路径，入参 state 保持不变
      *
      * @param state 当前状态数据
      * @param partialState  新状态数据
@@ -155,54 +156,15 @@ public final class OverAllState implements Serializable {
             return state;
         }
 
-        // 合并两个状态
-        Map<String, Object> updatedPartialState = updatePartialStateFromSchema(state, partialState, keyStrategies);
-
-
-        return Stream.concat(state.entrySet().stream(), updatedPartialState.entrySet().stream())
-                .collect(toMapRemovingNulls(Map.Entry::getKey, Map.Entry::getValue, (currentValue, newValue) -> newValue));
-    }
-
-    /**
-     * 根据Key Strategy合并两个状态
-     */
-    private static Map<String, Object> updatePartialStateFromSchema(Map<String, Object> state,
-                                                                    Map<String, Object> partialState,
-                                                                    Map<String, KeyStrategy> keyStrategies) {
-        if (partialState == null || partialState.isEmpty()) {
-            return partialState;
+        // 按 Key Strategy 合并，值为 null 时删除该 key
+        PersistentStateMap result = PersistentStateMap.from(state);
+        for (Map.Entry<String, Object> entry : partialState.entrySet()) {
+            KeyStrategy strategy = keyStrategies != null
+                    ? keyStrategies.getOrDefault(entry.getKey(), KeyStrategy.REPLACE)
+                    : KeyStrategy.REPLACE;
+            result = result.plus(entry.getKey(), strategy.apply(state.get(entry.getKey()), entry.getValue()));
         }
-
-        return partialState.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> {
-                            KeyStrategy strategy = keyStrategies.getOrDefault(entry.getKey(), KeyStrategy.REPLACE);
-                            return strategy.apply(state.get(entry.getKey()), entry.getValue());
-                        }
-                ));
-    }
-
-    // 去除null值的toMap收集器
-    private static <T, K, U> Collector<T, ?, Map<K, U>> toMapRemovingNulls(Function<? super T, ? extends K> keyMapper,
-                                                                           Function<? super T, ? extends U> valueMapper, BinaryOperator<U> mergeFunction) {
-        return Collector.of(HashMap::new, (map, element) -> {
-            K key = keyMapper.apply(element);
-            U value = valueMapper.apply(element);
-            if (value == null) {
-                map.remove(key);
-            }
-            else {
-                map.merge(key, value, mergeFunction);
-            }
-        }, (map1, map2) -> {
-            map2.forEach((key, value) -> {
-                if (value != null) {
-                    map1.merge(key, value, mergeFunction);
-                }
-            });
-            return map1;
-        }, Collector.Characteristics.UNORDERED);
+        return result;
     }
 
 }
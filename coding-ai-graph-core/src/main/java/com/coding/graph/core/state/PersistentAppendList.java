@@ -0,0 +1,101 @@
+package com.coding.graph.core.state;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 持久化（不可变）追加列表：多个版本共享同一个底层数组，每个版本只记录自己的长度
+ * 在最新版本末尾追加时直接写入共享数组的空闲槽位（均摊 O(1)），旧版本不受影响；
+ * 从旧版本追加（分叉）或容量不足时才复制数组
+ */
+public final class PersistentAppendList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private static final PersistentAppendList<?> EMPTY = new PersistentAppendList<>(new Buffer(new Object[0], 0), 0);
+
+    private final Buffer buffer;
+
+    private final int size;
+
+    private PersistentAppendList(Buffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentAppendList<E> empty() {
+        return (PersistentAppendList<E>) EMPTY;
+    }
+
+    /**
+     * 由普通集合构建，已是持久化列表时直接返回
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentAppendList<E> from(Collection<? extends E> items) {
+        if (items instanceof PersistentAppendList<?> list) {
+            return (PersistentAppendList<E>) list;
+        }
+        return PersistentAppendList.<E>empty().appendAll(items);
+    }
+
+    /**
+     * 追加一个元素，返回新版本
+     */
+    public PersistentAppendList<E> append(E item) {
+        return appendArray(new Object[]{item});
+    }
+
+    /**
+     * 追加多个元素，返回新版本
+     */
+    public PersistentAppendList<E> appendAll(Collection<? extends E> items) {
+        if (items == null || items.isEmpty()) {
+            return this;
+        }
+        return appendArray(items.toArray());
+    }
+
+    private PersistentAppendList<E> appendArray(Object[] items) {
+        int count = items.length;
+        Object[] elements = buffer.elements;
+        // 当前版本是共享数组的最新版本且容量足够：抢占空闲槽位后原地写入
+        if (size + count <= elements.length && buffer.used.compareAndSet(size, size + count)) {
+            System.arraycopy(items, 0, elements, size, count);
+            return new PersistentAppendList<>(buffer, size + count);
+        }
+        int capacity = Math.max(Math.max(size + count, size * 2), DEFAULT_CAPACITY);
+        Object[] newElements = new Object[capacity];
+        System.arraycopy(elements, 0, newElements, 0, size);
+        System.arraycopy(items, 0, newElements, size, count);
+        return new PersistentAppendList<>(new Buffer(newElements, size + count), size + count);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) buffer.elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 共享底层数组，used 为已被某个版本占用的槽位数
+     */
+    private static final class Buffer implements Serializable {
+
+        private final Object[] elements;
+
+        private final AtomicInteger used;
+
+        private Buffer(Object[] elements, int used) {
+            this.elements = elements;
+            this.used = new AtomicInteger(used);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.coding.graph.core.state;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * 持久化（不可变）状态Map：基于 HAMT（哈希数组映射前缀树）实现
+ * 每次更新只复制根到目标叶子的路径，更新 O(log32 n)，旧版本保持不变，快照为 O(1)；
+ * 值为 null 视为删除该 key
+ */
+public final class PersistentStateMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentStateMap EMPTY = new PersistentStateMap(null, 0);
+
+    /** 根节点，空Map时为 null */
+    private final Node root;
+
+    private final int size;
+
+    private PersistentStateMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static PersistentStateMap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 由普通Map构建，已是持久化Map时直接返回
+     */
+    public static PersistentStateMap from(Map<String, ?> map) {
+        if (map instanceof PersistentStateMap persistentMap) {
+            return persistentMap;
+        }
+        return EMPTY.plusAll(map);
+    }
+
+    /**
+     * 新增或覆盖一个 key，返回新版本，当前版本不变
+     */
+    public PersistentStateMap plus(String key, Object value) {
+        Objects.requireNonNull(key, "key 不能为 null");
+        if (value == null) {
+            return minus(key);
+        }
+        boolean[] added = new boolean[1];
+        Node current = root != null ? root : BitmapNode.EMPTY;
+        Node newRoot = current.assoc(0, hash(key), key, value, added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentStateMap(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * 批量新增或覆盖，返回新版本
+     */
+    public PersistentStateMap plusAll(Map<String, ?> map) {
+        if (map == null || map.isEmpty()) {
+            return this;
+        }
+        PersistentStateMap result = this;
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            if (entry.getKey() != null) {
+                result = result.plus(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 删除一个 key，返回新版本
+     */
+    public PersistentStateMap minus(String key) {
+        if (root == null || key == null) {
+            return this;
+        }
+        Node newRoot = root.without(0, hash(key), key);
+        if (newRoot == root) {
+            return this;
+        }
+        return newRoot == null ? EMPTY : new PersistentStateMap(newRoot, size - 1);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (root == null || !(key instanceof String stringKey)) {
+            return null;
+        }
+        return root.find(0, hash(stringKey), stringKey);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        if (root != null) {
+            root.forEach(action);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                List<Entry<String, Object>> entries = new ArrayList<>(size);
+                PersistentStateMap.this.forEach((key, value) -> entries.add(new SimpleImmutableEntry<>(key, value)));
+                return Collections.unmodifiableList(entries).iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    // ==================== 树节点 ====================
+
+    private interface Node extends Serializable {
+
+        Object find(int shift, int hash, String key);
+
+        Node assoc(int shift, int hash, String key, Object value, boolean[] added);
+
+        /** 删除后为空时返回 null，未找到时返回自身 */
+        Node without(int shift, int hash, String key);
+
+        void forEach(BiConsumer<? super String, ? super Object> action);
+    }
+
+    /**
+     * 位图索引节点：array 按 [key, value] 成对存放，key 为 null 时 value 为子节点
+     */
+    private static final class BitmapNode implements Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+
+        private final Object[] array;
+
+        private BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Object find(int shift, int hash, String key) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int idx = index(bit);
+            Object keyOrNull = array[2 * idx];
+            Object valueOrNode = array[2 * idx + 1];
+            if (keyOrNull == null) {
+                return ((Node) valueOrNode).find(shift + BITS, hash, key);
+            }
+            return key.equals(keyOrNull) ? valueOrNode : null;
+        }
+
+        @Override
+        public Node assoc(int shift, int hash, String key, Object value, boolean[] added) {
+            int bit = bitpos(hash, shift);
+            int idx = index(bit);
+            if ((bitmap & bit) != 0) {
+                Object keyOrNull = array[2 * idx];
+                Object valueOrNode = array[2 * idx + 1];
+                if (keyOrNull == null) {
+                    Node child = ((Node) valueOrNode).assoc(shift + BITS, hash, key, value, added);
+                    return child == valueOrNode ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * idx + 1, child));
+                }
+                if (key.equals(keyOrNull)) {
+                    return valueOrNode == value ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * idx + 1, value));
+                }
+                // 同一槽位的不同 key：下沉为子节点
+                added[0] = true;
+                Node child = createNode(shift + BITS, (String) keyOrNull, valueOrNode, hash, key, value);
+                Object[] newArray = cloneAndSet(array, 2 * idx + 1, child);
+                newArray[2 * idx] = null;
+                return new BitmapNode(bitmap, newArray);
+            }
+            int count = Integer.bitCount(bitmap);
+            Object[] newArray = new Object[2 * (count + 1)];
+            System.arraycopy(array, 0, newArray, 0, 2 * idx);
+            newArray[2 * idx] = key;
+            newArray[2 * idx + 1] = value;
+            System.arraycopy(array, 2 * idx, newArray, 2 * (idx + 1), 2 * (count - idx));
+            added[0] = true;
+            return new BitmapNode(bitmap | bit, newArray);
+        }
+
+        @Override
+        public Node without(int shift, int hash, String key) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int idx = index(bit);
+            Object keyOrNull = array[2 * idx];
+            Object valueOrNode = array[2 * idx + 1];
+            if (keyOrNull == null) {
+                Node child = ((Node) valueOrNode).without(shift + BITS, hash, key);
+                if (child == valueOrNode) {
+                    return this;
+                }
+                if (child != null) {
+                    return new BitmapNode(bitmap, cloneAndSet(array, 2 * idx + 1, child));
+                }
+            } else if (!key.equals(keyOrNull)) {
+                return this;
+            }
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, 2 * idx);
+            System.arraycopy(array, 2 * (idx + 1), newArray, 2 * idx, newArray.length - 2 * idx);
+            return new BitmapNode(bitmap ^ bit, newArray);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept((String) array[i], array[i + 1]);
+                }
+            }
+        }
+
+        private static Node createNode(int shift, String key1, Object value1, int hash2, String key2, Object value2) {
+            int hash1 = hash(key1);
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+            }
+            boolean[] added = new boolean[1];
+            return EMPTY.assoc(shift, hash1, key1, value1, added)
+                    .assoc(shift, hash2, key2, value2, added);
+        }
+    }
+
+    /**
+     * 哈希完全冲突节点：线性存放 [key, value] 对
+     */
+    private static final class CollisionNode implements Node {
+
+        private final int hash;
+
+        private final Object[] array;
+
+        private CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(String key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Object find(int shift, int hash, String key) {
+            int idx = indexOf(key);
+            return idx < 0 ? null : array[idx + 1];
+        }
+
+        @Override
+        public Node assoc(int shift, int hash, String key, Object value, boolean[] added) {
+            if (hash == this.hash) {
+                int idx = indexOf(key);
+                if (idx >= 0) {
+                    return array[idx + 1] == value ? this : new CollisionNode(hash, cloneAndSet(array, idx + 1, value));
+                }
+                Object[] newArray = Arrays.copyOf(array, array.length + 2);
+                newArray[array.length] = key;
+                newArray[array.length + 1] = value;
+                added[0] = true;
+                return new CollisionNode(hash, newArray);
+            }
+            // 哈希不同：包一层位图节点后继续插入
+            return new BitmapNode(bitpos(this.hash, shift), new Object[]{null, this})
+                    .assoc(shift, hash, key, value, added);
+        }
+
+        @Override
+        public Node without(int shift, int hash, String key) {
+            int idx = indexOf(key);
+            if (idx < 0) {
+                return this;
+            }
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 2, newArray, idx, newArray.length - idx);
+            return new CollisionNode(this.hash, newArray);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept((String) array[i], array[i + 1]);
+            }
+        }
+    }
+
+    private static Object[] cloneAndSet(Object[] array, int index, Object value) {
+        Object[] clone = array.clone();
+        clone[index] = value;
+        return clone;
+    }
+}
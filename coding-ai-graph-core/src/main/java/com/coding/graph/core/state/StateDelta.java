@@ -0,0 +1,109 @@
+package com.coding.graph.core.state;
+
+import com.coding.graph.core.state.strategy.AppendStrategy;
+import com.coding.graph.core.state.strategy.KeyStrategy;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * 状态增量：相邻两次节点输出之间发生变化的 key
+ * 基于持久化状态Map按引用比较，未变化的 value 不会被遍历或序列化；
+ * 客户端按顺序应用增量即可重建完整状态：
+ * set 中的 key 直接覆盖，append 中的 key 追加到已有列表末尾，remove 中的 key 删除
+ */
+@Getter
+public final class StateDelta {
+
+    private static final StateDelta EMPTY = new StateDelta(Map.of(), Map.of(), List.of());
+
+    /** 覆盖写入的 key */
+    private final Map<String, Object> set;
+
+    /** 追加策略的 key：仅包含新追加的元素 */
+    private final Map<String, List<?>> append;
+
+    /** 被删除的 key */
+    private final List<String> remove;
+
+    private StateDelta(Map<String, Object> set, Map<String, List<?>> append, List<String> remove) {
+        this.set = set;
+        this.append = append;
+        this.remove = remove;
+    }
+
+    public static StateDelta empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 计算两个状态之间的增量
+     *
+     * @param before        上一次输出时的状态
+     * @param after         当前状态
+     * @param keyStrategies key 的合并策略，用于识别追加型 key
+     * @return 状态增量
+     */
+    public static StateDelta diff(Map<String, Object> before, Map<String, Object> after,
+                                  Map<String, KeyStrategy> keyStrategies) {
+        if (before == after) {
+            return EMPTY;
+        }
+        Map<String, Object> set = new LinkedHashMap<>();
+        Map<String, List<?>> append = new LinkedHashMap<>();
+        List<String> remove = new ArrayList<>();
+
+        after.forEach((key, value) -> {
+            Object oldValue = before.get(key);
+            // 持久化状态中未更新的 key 保持同一引用
+            if (oldValue == value) {
+                return;
+            }
+            KeyStrategy strategy = keyStrategies != null ? keyStrategies.get(key) : null;
+            if (strategy instanceof AppendStrategy
+                    && oldValue instanceof List<?> oldList
+                    && value instanceof List<?> newList
+                    && isPrefix(oldList, newList)) {
+                // 追加策略保留旧列表作为前缀，只发送新增部分；前缀被改写时退回整体覆盖
+                if (newList.size() > oldList.size()) {
+                    append.put(key, newList.subList(oldList.size(), newList.size()));
+                }
+                return;
+            }
+            set.put(key, value);
+        });
+        for (String key : before.keySet()) {
+            if (!after.containsKey(key)) {
+                remove.add(key);
+            }
+        }
+
+        if (set.isEmpty() && append.isEmpty() && remove.isEmpty()) {
+            return EMPTY;
+        }
+        return new StateDelta(set, append, remove);
+    }
+
+    /**
+     * 旧列表是否为新列表的前缀，元素先按引用比较再按 equals 比较
+     */
+    private static boolean isPrefix(List<?> oldList, List<?> newList) {
+        if (newList.size() < oldList.size()) {
+            return false;
+        }
+        Iterator<?> oldIterator = oldList.iterator();
+        Iterator<?> newIterator = newList.iterator();
+        while (oldIterator.hasNext()) {
+            Object oldElement = oldIterator.next();
+            Object newElement = newIterator.next();
+            if (oldElement != newElement && !Objects.equals(oldElement, newElement)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return set.isEmpty() && append.isEmpty() && remove.isEmpty();
+    }
+}
@@ -1,9 +1,13 @@
 package com.coding.graph.core.state.strategy;
 
-import java.util.ArrayList;
+import com.coding.graph.core.state.PersistentAppendList;
+
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * 追加策略：基于持久化追加列表，追加时不再复制整个旧列表
+ */
 public class AppendStrategy implements KeyStrategy{
     @Override
     public Object apply(Object oldValue, Object newValue) {
@@ -15,29 +19,19 @@ public class AppendStrategy implements KeyStrategy{
             oldValue = oldValueOptional.orElse(null);
         }
 
-        // 如果旧值是Optional，则解包
-        if (oldValue instanceof Optional<?> oldValueOptional) {
-            oldValue = oldValueOptional.orElse(null);
-        }
-
         if (oldValue instanceof List<?> oldListRaw) {
-            List<Object> mergedList = new ArrayList<>(oldListRaw);
-
+            PersistentAppendList<Object> oldList = PersistentAppendList.from(oldListRaw);
             if (newValue instanceof List<?> newListRaw) {
-                mergedList.addAll(newListRaw);
-            } else {
-                mergedList.add(newValue);
+                return oldList.appendAll(newListRaw);
             }
-
-            return mergedList;
+            return oldList.append(newValue);
         }
         else {
-            ArrayList<Object> newList = new ArrayList<>();
+            PersistentAppendList<Object> newList = PersistentAppendList.empty();
             if (oldValue != null) {
-                newList.add(oldValue);
+                newList = newList.append(oldValue);
             }
-            newList.add(newValue);
-            return newList;
+            return newList.append(newValue);
         }
     }
 }
@@ -4,7 +4,6 @@ import com.coding.graph.core.graph.GraphLifecycleListener;
 import com.coding.graph.core.node.config.RunnableConfig;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Deque;
 import java.util.Map;
 
 import static com.coding.graph.core.common.NodeCodeConstants.*;
@@ -12,27 +11,29 @@ import static com.coding.graph.core.common.NodeCodeConstants.*;
 @Slf4j
 public class LifeListenerUtil {
 
-    public static void processListenersLIFO(String currentNodeId, Deque<GraphLifecycleListener> listeners,
-                                            Map<String, Object> currentState, RunnableConfig runnableConfig, String scene, Throwable e) {
-        if (listeners.isEmpty()) {
-            return;
-        }
-
-        GraphLifecycleListener listener = listeners.pollLast();
-
-        try {
-            // 调用适当的监听器方法
-            switch (scene) {
-                case START -> listener.onStart(START, currentState, runnableConfig);
-                case END -> listener.onComplete(END, currentState, runnableConfig);
-                case ERROR -> listener.onError(ERROR, currentState, e, runnableConfig);
-                case NODE_BEFORE -> listener.before(currentNodeId, currentState, runnableConfig, System.currentTimeMillis());
-                case NODE_AFTER -> listener.after(currentNodeId, currentState, runnableConfig, System.currentTimeMillis());
+    /**
+     * 依次调用监听器链，单个监听器异常只记录日志，不影响后续监听器
+     *
+     * @param listeners 冻结后的监听器链
+     * @param curTime 事件发生时间
+     */
+    public static void processListeners(String currentNodeId, GraphLifecycleListener[] listeners,
+                                        Map<String, Object> currentState, RunnableConfig runnableConfig,
+                                        String scene, Throwable e, long curTime) {
+        for (GraphLifecycleListener listener : listeners) {
+            try {
+                // 调用适当的监听器方法
+                switch (scene) {
+                    case START -> listener.onStart(START, currentState, runnableConfig, curTime);
+                    case END -> listener.onComplete(END, currentState, runnableConfig, curTime);
+                    case ERROR -> listener.onError(ERROR, currentState, e, runnableConfig, curTime);
+                    case NODE_BEFORE -> listener.before(currentNodeId, currentState, runnableConfig, curTime);
+                    case NODE_AFTER -> listener.after(currentNodeId, currentState, runnableConfig, curTime);
+                }
+            } catch (Exception ex) {
+                log.error("监听器处理过程出现异常，scene: {}，nodeId: {}，listener: {}",
+                        scene, currentNodeId, listener.getClass().getName(), ex);
             }
-            // 递归处理下一个监听器
-            processListenersLIFO(currentNodeId, listeners, currentState, runnableConfig, scene, e);
-        } catch (Exception ex) {
-            log.debug("监听器处理过程出现异常：{}", ex.getMessage(), ex);
         }
     }
 
@@ -14,10 +14,16 @@ import com.coding.graph.core.state.strategy.KeyStrategyFactoryBuilder;
 import com.coding.graph.core.utils.EdgeMappings;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.coding.graph.core.common.NodeCodeConstants.END;
@@ -31,7 +37,10 @@ public class GraphFuncTest {
 //        testBaseWorkflow();
 //        testConditionalWorkflow();
 //        testParallelWorkflow();
+//        testParallelWallClock();
+//        testParallelBranchTimeout();
 //        testSubGraphWorkflow();
+//        testAsyncListenerEventTime();
 
         // 带节点配置、上下文传参的工作流测试
         testNodeParamWorkflow();
@@ -185,6 +194,157 @@ public class GraphFuncTest {
         });
     }
 
+    private static void testParallelWallClock() throws GraphStateException {
+        // 并行分支耗时测试：N 个各休眠 t 的分支，总耗时应约为 t 而不是 N×t
+        int branchCount = 5;
+        long sleepMillis = 500;
+
+        StateGraph workflow = new StateGraph("并行耗时测试", KeyStrategyFactoryBuilder.builder().build());
+        workflow.addNode("parallel", node_async((state -> Map.of("parallel", "parallel"))));
+        workflow.addNode("aggregate", node_async((state -> Map.of("aggregate", "aggregate"))));
+        workflow.addEdge(START, "parallel");
+        for (int index = 1; index <= branchCount; index++) {
+            String branchId = "branch_" + index;
+            workflow.addNode(branchId, node_async((state -> {
+                Thread.sleep(sleepMillis);
+                return Map.of(branchId, branchId);
+            })));
+            workflow.addEdge("parallel", branchId);
+            workflow.addEdge(branchId, "aggregate");
+        }
+        workflow.addEdge("aggregate", END);
+
+        CompiledGraph compiledGraph = workflow.compile(CompileConfig.builder()
+                .withParallelBranchTimeout(Duration.ofSeconds(5))
+                .build());
+        long start = System.currentTimeMillis();
+        Optional<OverAllState> result = compiledGraph.invoke(Map.of("input", "input"));
+        long cost = System.currentTimeMillis() - start;
+
+        result.ifPresent(state -> System.out.println(state.data()));
+        System.out.println("分支数: " + branchCount + "，单分支耗时: " + sleepMillis + "ms，串行预期: "
+                + branchCount * sleepMillis + "ms，实际耗时: " + cost + "ms");
+        if (cost >= branchCount * sleepMillis) {
+            throw new IllegalStateException("并行分支未并发执行，耗时: " + cost + "ms");
+        }
+    }
+
+    private static void testParallelBranchTimeout() throws GraphStateException {
+        // 分支超时测试：超时分支所在线程应被中断，而不是继续休眠到结束
+        long timeoutMillis = 300;
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        StateGraph workflow = new StateGraph("并行超时测试", KeyStrategyFactoryBuilder.builder().build());
+        workflow.addNode("parallel", node_async((state -> Map.of("parallel", "parallel"))));
+        workflow.addNode("fast", node_async((state -> Map.of("fast", "fast"))));
+        workflow.addNode("slow", node_async((state -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return Map.of("slow", "slow");
+        })));
+        workflow.addNode("aggregate", node_async((state -> Map.of("aggregate", "aggregate"))));
+        workflow.addEdge(START, "parallel");
+        workflow.addEdge("parallel", "fast");
+        workflow.addEdge("parallel", "slow");
+        workflow.addEdge("fast", "aggregate");
+        workflow.addEdge("slow", "aggregate");
+        workflow.addEdge("aggregate", END);
+
+        CompiledGraph compiledGraph = workflow.compile(CompileConfig.builder()
+                .withParallelBranchTimeout(Duration.ofMillis(timeoutMillis))
+                .build());
+        long start = System.currentTimeMillis();
+        boolean failed = false;
+        try {
+            compiledGraph.invoke(Map.of("input", "input"));
+        } catch (RuntimeException e) {
+            failed = true;
+            System.out.println("并行节点失败: " + e.getMessage());
+        }
+        if (!failed) {
+            throw new IllegalStateException("分支超时未使并行节点失败");
+        }
+        boolean branchInterrupted;
+        try {
+            branchInterrupted = interrupted.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        System.out.println("分支超时: " + timeoutMillis + "ms，超时分支被中断: " + branchInterrupted
+                + "，耗时: " + (System.currentTimeMillis() - start) + "ms");
+        if (!branchInterrupted) {
+            throw new IllegalStateException("超时分支未被中断");
+        }
+    }
+
+    private static void testAsyncListenerEventTime() throws GraphStateException {
+        // 异步监听器事件时间测试：监听器执行被延迟时，图开始、结束回调收到的仍是事件发生时间
+        long dispatchDelayMillis = 200;
+        Map<String, Long> eventTimes = new ConcurrentHashMap<>();
+        Map<String, Long> handleTimes = new ConcurrentHashMap<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        ExecutorService delayed = Executors.newSingleThreadExecutor();
+
+        StateGraph workflow = new StateGraph("异步监听器测试", KeyStrategyFactoryBuilder.builder().build());
+        workflow.addNode("agent", node_async((state -> Map.of("agent", "agent"))));
+        workflow.addEdge(START, "agent");
+        workflow.addEdge("agent", END);
+
+        CompiledGraph compiledGraph = workflow.compile(CompileConfig.builder()
+                .withLifecycleListener(new GraphLifecycleListener() {
+                    @Override
+                    public void onStart(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
+                        eventTimes.put(START, curTime);
+                        handleTimes.put(START, System.currentTimeMillis());
+                    }
+
+                    @Override
+                    public void onComplete(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
+                        eventTimes.put(END, curTime);
+                        handleTimes.put(END, System.currentTimeMillis());
+                        completed.countDown();
+                    }
+                })
+                .withAsyncListenerDispatch(command -> delayed.execute(() -> {
+                    try {
+                        Thread.sleep(dispatchDelayMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    command.run();
+                }))
+                .build());
+        long start = System.currentTimeMillis();
+        compiledGraph.invoke(Map.of("input", "input"));
+        long end = System.currentTimeMillis();
+        try {
+            if (!completed.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("异步监听器未收到结束事件");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            delayed.shutdown();
+        }
+
+        System.out.println("事件时间: " + eventTimes + "，处理时间: " + handleTimes + "，执行区间: [" + start + ", " + end + "]");
+        for (String scene : List.of(START, END)) {
+            long eventTime = eventTimes.get(scene);
+            if (eventTime < start || eventTime > end) {
+                throw new IllegalStateException(scene + " 事件时间不在图执行区间内: " + eventTime);
+            }
+            if (handleTimes.get(scene) - eventTime < dispatchDelayMillis) {
+                throw new IllegalStateException(scene + " 回调收到的是处理时间而不是事件时间");
+            }
+        }
+    }
+
     private static void testConditionalWorkflow() throws GraphStateException {
         // TODO 测试条件分支工作流
         AtomicInteger i = new AtomicInteger();
@@ -0,0 +1,98 @@
+package com.coding.graph;
+
+import com.coding.graph.core.state.OverAllState;
+import com.coding.graph.core.state.strategy.KeyStrategy;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * OverAllState 更新性能对比：旧实现（每步复制整个 Map 和消息列表）与持久化实现
+ * 在 10、100、1000 条消息下的单步耗时和内存分配，每轮从初始状态连续执行若干步
+ */
+public class OverAllStateBenchmark {
+
+    private static final int WARMUP_ROUNDS = 2_000;
+
+    private static final int MEASURE_ROUNDS = 5_000;
+
+    private static final int STATE_KEYS = 20;
+
+    /** 每轮从初始状态开始连续执行的步数，模拟一次运行中状态逐步增长 */
+    private static final int STEPS_PER_RUN = 30;
+
+    public static void main(String[] args) {
+        Map<String, KeyStrategy> keyStrategies = Map.of("messages", KeyStrategy.APPEND);
+        for (int messageCount : new int[]{10, 100, 1000}) {
+            Map<String, Object> state = initState(messageCount);
+            Map<String, Object> legacyState = new HashMap<>(state);
+            legacyState.put("messages", new ArrayList<>((List<?>) state.get("messages")));
+
+            Map<String, Object> persistentState = OverAllState.updateState(new HashMap<>(), state, keyStrategies);
+
+            run("copy", messageCount, legacyState,
+                    current -> legacyUpdate(current, partial(), keyStrategies));
+            run("persistent", messageCount, persistentState,
+                    current -> OverAllState.updateState(current, partial(), keyStrategies));
+        }
+    }
+
+    private static void run(String name, int messageCount, Map<String, Object> initState,
+                            UnaryOperator<Map<String, Object>> step) {
+        Map<String, Object> current = initState;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            current = i % STEPS_PER_RUN == 0 ? step.apply(initState) : step.apply(current);
+        }
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            current = i % STEPS_PER_RUN == 0 ? step.apply(initState) : step.apply(current);
+        }
+        long costNanos = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("%-10s messages=%-5d avg=%8.2f us/op  alloc=%10.1f B/op%n",
+                name, messageCount, costNanos / 1000.0 / MEASURE_ROUNDS, (double) allocated / MEASURE_ROUNDS);
+    }
+
+    private static Map<String, Object> initState(int messageCount) {
+        Map<String, Object> state = new HashMap<>();
+        for (int i = 0; i < STATE_KEYS; i++) {
+            state.put("key_" + i, "value_" + i);
+        }
+        List<String> messages = new ArrayList<>(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            messages.add("message_" + i);
+        }
+        state.put("messages", messages);
+        return state;
+    }
+
+    private static Map<String, Object> partial() {
+        return Map.of("messages", List.of("new_message"), "key_0", "updated");
+    }
+
+    /**
+     * 旧实现：复制整个状态 Map，追加时复制整个消息列表
+     */
+    private static Map<String, Object> legacyUpdate(Map<String, Object> state, Map<String, Object> partialState,
+                                                    Map<String, KeyStrategy> keyStrategies) {
+        Map<String, Object> result = new HashMap<>(state);
+        partialState.forEach((key, value) -> {
+            Object oldValue = state.get(key);
+            if (keyStrategies.get(key) == KeyStrategy.APPEND && oldValue instanceof List<?> oldList) {
+                List<Object> merged = new ArrayList<>(oldList);
+                merged.addAll((List<?>) value);
+                result.put(key, merged);
+            } else {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package com.coding.graph;
+
+import com.coding.graph.core.state.StateDelta;
+import com.coding.graph.core.state.strategy.KeyStrategy;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 状态增量：追加型 key 只有在旧列表仍是新列表前缀时才按追加发送，否则整体覆盖
+ */
+public class StateDeltaTest {
+
+    private static final Map<String, KeyStrategy> KEY_STRATEGIES = Map.of("messages", KeyStrategy.APPEND);
+
+    public static void main(String[] args) {
+        testAppendSendsOnlyNewElements();
+        testRewrittenPrefixFallsBackToSet();
+        testShrunkListFallsBackToSet();
+        System.out.println("StateDeltaTest passed");
+    }
+
+    private static void testAppendSendsOnlyNewElements() {
+        StateDelta delta = StateDelta.diff(
+                Map.of("messages", List.of("a", "b")),
+                Map.of("messages", List.of("a", "b", "c")),
+                KEY_STRATEGIES);
+        check(delta.getAppend().equals(Map.of("messages", List.of("c"))), "追加应只包含新元素: " + delta.getAppend());
+        check(delta.getSet().isEmpty(), "追加不应覆盖: " + delta.getSet());
+    }
+
+    private static void testRewrittenPrefixFallsBackToSet() {
+        // 列表长度增长但前缀被改写，客户端按追加重建会得到错误状态
+        StateDelta delta = StateDelta.diff(
+                Map.of("messages", List.of("a", "b")),
+                Map.of("messages", List.of("a", "x", "c")),
+                KEY_STRATEGIES);
+        check(delta.getAppend().isEmpty(), "前缀改写不应按追加发送: " + delta.getAppend());
+        check(delta.getSet().equals(Map.of("messages", List.of("a", "x", "c"))), "前缀改写应整体覆盖: " + delta.getSet());
+    }
+
+    private static void testShrunkListFallsBackToSet() {
+        StateDelta delta = StateDelta.diff(
+                Map.of("messages", List.of("a", "b")),
+                Map.of("messages", List.of("a")),
+                KEY_STRATEGIES);
+        check(delta.getSet().equals(Map.of("messages", List.of("a"))), "列表缩短应整体覆盖: " + delta.getSet());
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
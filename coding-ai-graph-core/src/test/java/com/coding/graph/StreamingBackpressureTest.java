@@ -0,0 +1,112 @@
+package com.coding.graph;
+
+import com.coding.graph.core.generator.streaming.GeneratorSubscriber;
+import org.reactivestreams.FlowAdapters;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 流式桥接背压压测：1000 个并发流，上游生产速度远快于消费者，
+ * 验证每个流积压的数据不超过缓冲区容量，堆内存保持有界，且消费过程不阻塞线程
+ */
+public class StreamingBackpressureTest {
+
+    private static final int STREAM_COUNT = 1_000;
+
+    private static final int ITEMS_PER_STREAM = 2_000;
+
+    private static final int ITEM_BYTES = 1_024;
+
+    private static final int BUFFER_SIZE = 32;
+
+    private static final int REQUEST_BATCH = 8;
+
+    /** 慢消费者：每消费一批后暂停 */
+    private static final int CONSUME_BATCH = 50;
+
+    private static final long CONSUME_PAUSE_MILLIS = 5;
+
+    public static void main(String[] args) throws Exception {
+        ScheduledExecutorService consumerScheduler = Executors.newScheduledThreadPool(4);
+        AtomicLong maxBuffered = new AtomicLong();
+        AtomicLong maxUsedHeap = new AtomicLong();
+        AtomicInteger completedStreams = new AtomicInteger();
+        List<GeneratorSubscriber<byte[]>> generators = new ArrayList<>(STREAM_COUNT);
+        List<CompletableFuture<Void>> completions = new ArrayList<>(STREAM_COUNT);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < STREAM_COUNT; i++) {
+            Flux<byte[]> flux = Flux.range(0, ITEMS_PER_STREAM)
+                    .map(index -> new byte[ITEM_BYTES])
+                    .subscribeOn(Schedulers.parallel());
+            GeneratorSubscriber<byte[]> generator = new GeneratorSubscriber<>(FlowAdapters.toFlowPublisher(flux),
+                    null, BUFFER_SIZE, REQUEST_BATCH);
+            generators.add(generator);
+            CompletableFuture<Void> completion = new CompletableFuture<>();
+            completions.add(completion);
+            consumeSlowly(generator, consumerScheduler, new AtomicInteger(), completion);
+        }
+
+        // 采样缓冲区积压和堆内存
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            long buffered = generators.stream().mapToLong(GeneratorSubscriber::buffered).sum();
+            maxBuffered.accumulateAndGet(buffered, Math::max);
+            Runtime runtime = Runtime.getRuntime();
+            maxUsedHeap.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+        }, 0, 100, TimeUnit.MILLISECONDS);
+
+        for (CompletableFuture<Void> completion : completions) {
+            completion.whenComplete((v, ex) -> completedStreams.incrementAndGet());
+        }
+        CompletableFuture.allOf(completions.toArray(CompletableFuture[]::new)).get(10, TimeUnit.MINUTES);
+        sampler.shutdownNow();
+        consumerScheduler.shutdownNow();
+
+        long bufferBound = (long) STREAM_COUNT * BUFFER_SIZE;
+        System.out.println("并发流: " + STREAM_COUNT + "，每流数据: " + ITEMS_PER_STREAM + " x " + ITEM_BYTES + "B，完成: "
+                + completedStreams.get() + "，耗时: " + (System.currentTimeMillis() - start) + "ms");
+        System.out.println("最大积压元素: " + maxBuffered.get() + "（上限 " + bufferBound + "，无背压时可达 "
+                + (long) STREAM_COUNT * ITEMS_PER_STREAM + "）");
+        System.out.println("最大堆占用: " + maxUsedHeap.get() / 1024 / 1024 + "MB（积压数据上限约 "
+                + bufferBound * ITEM_BYTES / 1024 / 1024 + "MB，无背压时约 "
+                + (long) STREAM_COUNT * ITEMS_PER_STREAM * ITEM_BYTES / 1024 / 1024 + "MB）");
+        if (maxBuffered.get() > bufferBound) {
+            throw new IllegalStateException("积压超过缓冲区上限: " + maxBuffered.get());
+        }
+        System.exit(0);
+    }
+
+    /**
+     * 基于 nextAsync 的慢消费者：数据未就绪时不占用线程，每消费一批后延迟调度下一批
+     */
+    private static void consumeSlowly(GeneratorSubscriber<byte[]> generator, ScheduledExecutorService scheduler,
+                                      AtomicInteger consumed, CompletableFuture<Void> completion) {
+        generator.nextAsync().whenComplete((data, ex) -> {
+            if (ex != null) {
+                completion.completeExceptionally(ex);
+                return;
+            }
+            if (data.isDone()) {
+                completion.complete(null);
+                return;
+            }
+            if (data.isError()) {
+                completion.completeExceptionally(new IllegalStateException("流式数据异常"));
+                return;
+            }
+            if (consumed.incrementAndGet() % CONSUME_BATCH == 0) {
+                scheduler.schedule(() -> consumeSlowly(generator, scheduler, consumed, completion),
+                        CONSUME_PAUSE_MILLIS, TimeUnit.MILLISECONDS);
+            } else {
+                consumeSlowly(generator, scheduler, consumed, completion);
+            }
+        });
+    }
+}
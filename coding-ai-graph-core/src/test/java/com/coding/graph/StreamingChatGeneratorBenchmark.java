@@ -0,0 +1,101 @@
+package com.coding.graph;
+
+import com.coding.graph.core.generator.AsyncGenerator;
+import com.coding.graph.core.generator.streaming.StreamingChatGenerator;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.Flux;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * 流式响应累加性能对比：旧实现（每块拼接字符串并重建 ChatResponse）与累加缓冲区实现，
+ * 合成 100 ~ 10000 个响应块的 Flux，输出单次完整流的耗时和内存分配
+ */
+public class StreamingChatGeneratorBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+
+    private static final int MEASURE_ROUNDS = 10;
+
+    public static void main(String[] args) {
+        for (int chunkCount : new int[]{100, 1_000, 10_000}) {
+            List<ChatResponse> chunks = chunks(chunkCount);
+
+            run("concat", chunkCount, () -> legacyMerge(chunks));
+            run("buffer", chunkCount, () -> {
+                AtomicReference<ChatResponse> result = new AtomicReference<>();
+                AsyncGenerator<?> generator = StreamingChatGenerator.builder()
+                        .mapResult(response -> {
+                            result.set(response);
+                            return Map.of();
+                        })
+                        .build(Flux.fromIterable(chunks));
+                generator.stream().forEach(output -> { });
+                return result.get();
+            });
+        }
+        System.exit(0);
+    }
+
+    private static void run(String name, int chunkCount, Supplier<ChatResponse> task) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            task.get();
+        }
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        int length = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            length = task.get().getResult().getOutput().getText().length();
+        }
+        long costNanos = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("%-7s chunks=%-6d avg=%9.3f ms/stream  alloc=%12.1f KB/stream  text=%d%n",
+                name, chunkCount, costNanos / 1_000_000.0 / MEASURE_ROUNDS,
+                allocated / 1024.0 / MEASURE_ROUNDS, length);
+    }
+
+    private static List<ChatResponse> chunks(int chunkCount) {
+        return java.util.stream.IntStream.range(0, chunkCount)
+                .mapToObj(i -> new ChatResponse(List.of(new Generation(new AssistantMessage("token" + i + " ")))))
+                .toList();
+    }
+
+    /**
+     * 旧实现：每个响应块拼接全部文本并重建消息、Generation 和 ChatResponse
+     */
+    private static ChatResponse legacyMerge(List<ChatResponse> chunks) {
+        AtomicReference<ChatResponse> result = new AtomicReference<>();
+        for (ChatResponse response : chunks) {
+            result.updateAndGet(lastResponse -> {
+                if (lastResponse == null) {
+                    return response;
+                }
+                final var currentMessage = response.getResult().getOutput();
+                if (currentMessage.hasToolCalls()) {
+                    return response;
+                }
+                final var lastMessageText = requireNonNull(lastResponse.getResult().getOutput().getText());
+                final var currentMessageText = currentMessage.getText();
+                var newMessage = AssistantMessage.builder()
+                        .content(currentMessageText != null ? lastMessageText.concat(currentMessageText) : lastMessageText)
+                        .media(currentMessage.getMedia())
+                        .toolCalls(currentMessage.getToolCalls())
+                        .properties(currentMessage.getMetadata())
+                        .build();
+                var newGeneration = new Generation(newMessage, response.getResult().getMetadata());
+                return new ChatResponse(List.of(newGeneration), response.getMetadata());
+            });
+        }
+        return result.get();
+    }
+}
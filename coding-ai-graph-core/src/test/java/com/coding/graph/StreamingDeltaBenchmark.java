@@ -0,0 +1,153 @@
+package com.coding.graph;
+
+import com.coding.graph.core.graph.CompiledGraph;
+import com.coding.graph.core.graph.StateGraph;
+import com.coding.graph.core.node.config.RunnableConfig;
+import com.coding.graph.core.state.StateDelta;
+import com.coding.graph.core.state.strategy.KeyStrategy;
+import com.coding.graph.core.state.strategy.KeyStrategyFactoryBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.*;
+
+import static com.coding.graph.core.common.NodeCodeConstants.END;
+import static com.coding.graph.core.common.NodeCodeConstants.START;
+import static com.coding.graph.core.node.action.AsyncNodeAction.node_async;
+
+/**
+ * 流式节点事件对比：每个节点发送完整状态与只发送状态增量
+ * 20 个节点的线性工作流，每个节点追加消息、覆盖检索文档并写入自身输出，
+ * 统计单次运行的序列化字节数和序列化耗时，并校验按增量重建的状态与最终状态一致
+ */
+public class StreamingDeltaBenchmark {
+
+    private static final int NODE_COUNT = 20;
+
+    private static final int MESSAGES_PER_NODE = 5;
+
+    private static final int DOCUMENTS_PER_NODE = 4;
+
+    private static final int WARMUP_RUNS = 50;
+
+    private static final int MEASURE_RUNS = 200;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        CompiledGraph compiledGraph = buildGraph();
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            measure(compiledGraph, false);
+            measure(compiledGraph, true);
+        }
+        long[] full = new long[2];
+        long[] delta = new long[2];
+        for (int i = 0; i < MEASURE_RUNS; i++) {
+            accumulate(full, measure(compiledGraph, false));
+            accumulate(delta, measure(compiledGraph, true));
+        }
+        System.out.printf("full   bytes/flow=%10d  serialize=%8.1f us/flow%n",
+                full[0] / MEASURE_RUNS, full[1] / 1000.0 / MEASURE_RUNS);
+        System.out.printf("delta  bytes/flow=%10d  serialize=%8.1f us/flow%n",
+                delta[0] / MEASURE_RUNS, delta[1] / 1000.0 / MEASURE_RUNS);
+
+        verifyRebuild(compiledGraph);
+    }
+
+    private static CompiledGraph buildGraph() throws Exception {
+        StateGraph workflow = new StateGraph("增量事件测试", KeyStrategyFactoryBuilder.builder()
+                .addStrategy("messages", KeyStrategy.APPEND)
+                .build());
+        String previous = START;
+        for (int i = 0; i < NODE_COUNT; i++) {
+            String nodeId = "node_" + i;
+            workflow.addNode(nodeId, node_async(state -> {
+                List<String> messages = new ArrayList<>();
+                for (int m = 0; m < MESSAGES_PER_NODE; m++) {
+                    messages.add(nodeId + " message " + m + " " + "x".repeat(200));
+                }
+                List<Map<String, Object>> documents = new ArrayList<>();
+                for (int d = 0; d < DOCUMENTS_PER_NODE; d++) {
+                    documents.add(Map.of("id", nodeId + "-" + d, "score", 0.9, "content", "y".repeat(500)));
+                }
+                return Map.of("messages", messages,
+                        "documents", documents,
+                        nodeId + ".output", "z".repeat(300));
+            }));
+            workflow.addEdge(previous, nodeId);
+            previous = nodeId;
+        }
+        workflow.addEdge(previous, END);
+        return workflow.compile();
+    }
+
+    /**
+     * 执行一次工作流，返回 [序列化字节数, 序列化耗时纳秒]
+     */
+    private static long[] measure(CompiledGraph compiledGraph, boolean deltaMode) throws Exception {
+        long[] result = new long[2];
+        compiledGraph.stream(Map.of("messages", "hello"), RunnableConfig.builder().build())
+                .streamForEach(output -> {
+                    if (output == null || output.isEND()) {
+                        return;
+                    }
+                    Map<String, Object> message = new HashMap<>();
+                    message.put("type", "node_complete");
+                    message.put("nodeId", output.getNode());
+                    long start = System.nanoTime();
+                    if (deltaMode) {
+                        message.put("delta", toDeltaMessage(output.getDelta()));
+                    } else {
+                        message.put("state", output.getState().data());
+                    }
+                    try {
+                        result[0] += OBJECT_MAPPER.writeValueAsBytes(message).length;
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    result[1] += System.nanoTime() - start;
+                }).get();
+        return result;
+    }
+
+    private static void verifyRebuild(CompiledGraph compiledGraph) throws Exception {
+        Map<String, Object> rebuilt = new HashMap<>();
+        List<Map<String, Object>> finalState = new ArrayList<>();
+        compiledGraph.stream(Map.of("messages", "hello"), RunnableConfig.builder().build())
+                .streamForEach(output -> {
+                    if (output == null) {
+                        return;
+                    }
+                    applyDelta(rebuilt, output.getDelta());
+                    finalState.add(output.getState().data());
+                }).get();
+        Map<String, Object> expected = finalState.get(finalState.size() - 1);
+        boolean same = OBJECT_MAPPER.writeValueAsString(new TreeMap<>(expected))
+                .equals(OBJECT_MAPPER.writeValueAsString(new TreeMap<>(rebuilt)));
+        System.out.println("rebuild from delta matches final state: " + same);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void applyDelta(Map<String, Object> state, StateDelta delta) {
+        state.putAll(delta.getSet());
+        delta.getAppend().forEach((key, items) -> {
+            List<Object> merged = new ArrayList<>((List<Object>) state.getOrDefault(key, List.of()));
+            merged.addAll(items);
+            state.put(key, merged);
+        });
+        delta.getRemove().forEach(state::remove);
+    }
+
+    private static Map<String, Object> toDeltaMessage(StateDelta delta) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("set", delta.getSet());
+        message.put("append", delta.getAppend());
+        message.put("remove", delta.getRemove());
+        return message;
+    }
+
+    private static void accumulate(long[] total, long[] sample) {
+        total[0] += sample[0];
+        total[1] += sample[1];
+    }
+}